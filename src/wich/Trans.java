@@ -24,12 +24,19 @@ SOFTWARE.
 
 package wich;
 
+import org.antlr.v4.runtime.ParserRuleContext;
 import wich.codegen.CompilerUtils;
+import wich.codegen.InjectRefCounting;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.codegen.jvm.JVMWriter;
 import wich.errors.WichErrorHandler;
+import wich.link.Module;
 import wich.parser.WichParser;
 import wich.semantics.SymbolTable;
 
 import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /*
 ~/github/wich-c/test/samples $ for f in *.w; do echo $f;
@@ -40,40 +47,172 @@ done
 public class Trans {
 	public static void main(String[] args) throws Exception {
 		Trans translator = new Trans();
-		if ( args.length!=1 && args.length!=3 && args.length!=5 ) {
-			System.out.println("Try: java wich.Trans <input_file> [-target targetname] [-o <output_path>]");
+		if ( args.length<1 ) {
+			System.out.println(USAGE);
 			return;
 		}
 
 		String inputFile = args[0];
 		String outputFilename = null;
 		String target = "PLAIN";
+		boolean disasm = false;
 		int i = 1;
 		while ( i<args.length ) {
 			switch ( args[i] ) {
 				case "-o":
-					outputFilename = args[i+1];
+					if ( i+1==args.length ) { System.out.println(USAGE); return; }
+					outputFilename = args[++i];
 					break;
 				case "-target":
-					target = args[i+1];
+					if ( i+1==args.length ) { System.out.println(USAGE); return; }
+					target = args[++i];
+					break;
+				case "-disasm":
+					disasm = true;
+					break;
+				case "-extensions":
+					translator.extensions = true;
+					break;
+				case "-peephole-stats":
+					translator.peepholeStats = true;
+					break;
+				case "-refcount-stats":
+					translator.refCountStats = true;
+					break;
+				case "-profile-alloc":
+					translator.profileAlloc = true;
+					break;
+				case "-module":
+					translator.module = true;
+					break;
+				case "-import":
+					if ( i+1==args.length ) { System.out.println(USAGE); return; }
+					translator.imports.add(args[++i]);
 					break;
 				default:
-					System.out.println("Try: java wich.Trans <input_file> [-target targetname] [-o <output_path>]");
+					System.out.println(USAGE);
 					return;
 			}
-			i += 2;
+			i++;
 		}
-		translator.translate(inputFile, target, outputFilename);
+		translator.translate(inputFile, target, outputFilename, disasm);
 	}
 
+	public static final String USAGE =
+		"Try: java wich.Trans <input_file> [-target targetname] [-o <output_path>] [-disasm] [-extensions]\n"+
+		"                     [-peephole-stats] [-refcount-stats] [-profile-alloc] [-module] [-import <module_file>]...";
+
+	/** For BYTECODE, list the code the in-tree VMs run rather than what
+	 *  wrun reads; see BytecodeWriter.extensions. Binary object files and
+	 *  modules always have it.
+	 */
+	public boolean extensions = false;
+
+	/** Print the bytecode peephole optimizer report to stderr */
+	public boolean peepholeStats = false;
+
+	/** Print how many REF/DEREF sites the REFCOUNTING target left out to stderr */
+	public boolean refCountStats = false;
+
+	/** For REFCOUNTING, REGION and the C collector targets, print each allocation
+	 *  site's calls and bytes, largest first, to stderr when the program exits.
+	 */
+	public boolean profileAlloc = false;
+
+	/** For BYTECODE and BYTECODE_REG, write a relocatable module for
+	 *  wich.link.Linker instead of an object file.
+	 */
+	public boolean module = false;
+
+	/** Modules whose functions the input may call; implies module */
+	public List<String> imports = new ArrayList<>();
+
 	public void translate(String filename, String targetS, String outputFilename)
 		throws Exception
+	{
+		translate(filename, targetS, outputFilename, false);
+	}
+
+	/** For BYTECODE and BYTECODE_REG, write the binary object file unless disasm is set or
+	 *  there is no output file, in which case emit the text listing. JVM is the same
+	 *  but writes a class file, or an executable jar if the output file ends in .jar;
+	 *  the class is named for the output file.
+	 */
+	public void translate(String filename, String targetS, String outputFilename, boolean disasm)
+		throws Exception
 	{
 		SymbolTable symtab = new SymbolTable();
 		WichErrorHandler err = new WichErrorHandler();
 		String wichInput = CompilerUtils.readFile(filename, CompilerUtils.FILE_ENCODING);
 		CompilerUtils.CodeGenTarget target = CompilerUtils.CodeGenTarget.valueOf(targetS);
-		String code = CompilerUtils.genCode(wichInput, symtab, err, target);
+		boolean bytecode = target==CompilerUtils.CodeGenTarget.BYTECODE || target==CompilerUtils.CodeGenTarget.BYTECODE_REG;
+		for (String m : imports) {
+			Module.load(m).declare(symtab);
+		}
+		if ( bytecode && (module || !imports.isEmpty()) ) {
+			ParserRuleContext tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+			if ( tree==null || err.getErrorNum()>0 ) {
+				System.err.println(err);
+				return;
+			}
+			BytecodeWriter writer = new BytecodeWriter(symtab, (WichParser.ScriptContext)tree);
+			writer.registers = target==CompilerUtils.CodeGenTarget.BYTECODE_REG;
+			writer.extensions = true; // modules and the binary form are for the in-tree VMs
+			writer.err = err;
+			Module m = writer.genModule(filename);
+			if ( m==null ) {
+				System.err.println(err);
+				return;
+			}
+			if ( outputFilename!=null ) m.write(outputFilename);
+			else System.out.print(m.disassemble());
+			return;
+		}
+		if ( bytecode && !disasm && outputFilename!=null ) {
+			ParserRuleContext tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+			if ( tree==null || err.getErrorNum()>0 ) {
+				System.err.println(err);
+				return;
+			}
+			BytecodeWriter writer = new BytecodeWriter(symtab, (WichParser.ScriptContext)tree);
+			writer.registers = target==CompilerUtils.CodeGenTarget.BYTECODE_REG;
+			writer.extensions = true;
+			writer.err = err;
+			writer.write(outputFilename);
+			if ( err.getErrorNum()>0 ) {
+				System.err.println(err);
+				return;
+			}
+			if ( peepholeStats ) System.err.print(writer.peephole.getReport());
+			return;
+		}
+		if ( target==CompilerUtils.CodeGenTarget.JVM && !disasm && outputFilename!=null ) {
+			ParserRuleContext tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+			if ( tree==null || err.getErrorNum()>0 ) {
+				System.err.println(err);
+				return;
+			}
+			JVMWriter writer = new JVMWriter(symtab, (WichParser.ScriptContext)tree, JVMWriter.classNameFor(outputFilename));
+			writer.err = err;
+			if ( writer.genClass()==null ) {
+				System.err.println(err);
+				return;
+			}
+			if ( outputFilename.endsWith(".jar") ) writer.writeJar(outputFilename);
+			else writer.writeClass(outputFilename);
+			return;
+		}
+		InjectRefCounting refCounting = new InjectRefCounting();
+		String code = bytecode ?
+			CompilerUtils.genBytecode(wichInput, symtab, err, target, extensions) :
+			CompilerUtils.genCode(wichInput, symtab, err, target, refCounting, profileAlloc);
+		if ( err.getErrorNum()>0 ) {
+			System.err.println(err);
+			return;
+		}
+		if ( refCountStats && target==CompilerUtils.CodeGenTarget.REFCOUNTING ) {
+			System.err.print(refCounting.getReport());
+		}
 		// print out result to console.
 		if (outputFilename!=null) {
 			FileOutputStream fos = new FileOutputStream(outputFilename);
@@ -5,6 +5,7 @@ import org.antlr.symtab.Type;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.misc.NotNull;
+import org.antlr.v4.runtime.tree.ParseTree;
 import wich.codegen.model.ArgDef;
 import wich.codegen.model.AssignStat;
 import wich.codegen.model.Block;
@@ -27,6 +28,7 @@ import wich.codegen.model.PrintBooleanStat;
 import wich.codegen.model.PrintFloatStat;
 import wich.codegen.model.PrintIntStat;
 import wich.codegen.model.PrintNewLine;
+import wich.codegen.model.PrintSequence;
 import wich.codegen.model.PrintStringStat;
 import wich.codegen.model.PrintVectorStat;
 import wich.codegen.model.RefCountDEREF;
@@ -38,10 +40,13 @@ import wich.codegen.model.ReturnStat;
 import wich.codegen.model.ReturnVectorHeapVarStat;
 import wich.codegen.model.Stat;
 import wich.codegen.model.StringDecl;
+import wich.codegen.model.StringPoolInit;
 import wich.codegen.model.StringType;
 import wich.codegen.model.StringVarDefStat;
 import wich.codegen.model.VarDefStat;
 import wich.codegen.model.VarInitStat;
+import wich.codegen.model.VectorDecl;
+import wich.codegen.model.VectorInPlaceStat;
 import wich.codegen.model.VectorType;
 import wich.codegen.model.VectorVarDefStat;
 import wich.codegen.model.VoidType;
@@ -52,11 +57,10 @@ import wich.codegen.model.expr.promotion.FloatFromInt;
 import wich.codegen.model.expr.promotion.StringFromFloat;
 import wich.codegen.model.expr.promotion.StringFromInt;
 import wich.codegen.model.expr.promotion.StringFromVector;
-import wich.codegen.model.expr.promotion.VectorFromFloat;
-import wich.codegen.model.expr.promotion.VectorFromInt;
 import wich.parser.WichBaseVisitor;
 import wich.parser.WichParser;
 import wich.semantics.SymbolTable;
+import wich.semantics.TypeHelper;
 import wich.semantics.symbols.WBuiltInTypeSymbol;
 import wich.semantics.symbols.WFunctionSymbol;
 import wich.semantics.symbols.WString;
@@ -64,9 +68,12 @@ import wich.semantics.symbols.WVariableSymbol;
 import wich.semantics.symbols.WVector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static wich.parser.WichParser.FunctionContext;
 
@@ -79,7 +86,15 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 	protected WFunctionSymbol currentFunction;
 
 	protected List<StringDecl> strDecls = new ArrayList<>();
+	protected List<VectorDecl> vecDecls = new ArrayList<>();
+	protected Map<String, Integer> vecDeclIndexes = new HashMap<>(); // shares a decl among identical literals
 	protected Map<String, Integer> nameOccurrenceMap = new HashMap<>(); // tracks name occurrence across scopes
+	protected VectorCopies copies;
+	protected Set<String> inPlaceOps = new TreeSet<>();
+	protected Set<String> scalarOps = new TreeSet<>();
+	protected Set<String> scalarFirstOps = new TreeSet<>();
+	protected Set<String> concatKinds = new TreeSet<>();
+	protected Set<String> printKinds = new TreeSet<>();
 
 	protected static final String PROMO = "promo";
 
@@ -93,11 +108,22 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 
 	// TODO: try to add aggregate value thing
 
+	/** Tag each expression with the tree it came from, for -profile-alloc's site table */
+	@Override
+	public OutputModelObject visit(ParseTree tree) {
+		OutputModelObject o = super.visit(tree);
+		if ( o instanceof Expr && ((Expr)o).source==null && tree instanceof ParserRuleContext ) {
+			((Expr)o).source = (ParserRuleContext)tree;
+		}
+		return o;
+	}
+
 	// V I S I T O R  M E T H O D S
 
 	@Override
 	public OutputModelObject visitScript(@NotNull WichParser.ScriptContext ctx) {
 		pushScope(symtab.getGlobalScope());
+		copies = new VectorCopies(ctx);
 
 		List<Func> funcs = new ArrayList<>();
 		for (WichParser.FunctionContext f : ctx.function()) {
@@ -115,9 +141,20 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 			body.add((Stat) visit(s));
 		}
 		exitFunction();
+		List<String> strings = symtab.getStringLiterals();
+		for (int i = 0; i<strings.size(); i++) {
+			String declStr = getDeclString(strings.get(i));
+			strDecls.add(new StringDecl(strings.get(i), declStr, declStr.length()-2, i));
+		}
+		if ( !strDecls.isEmpty() ) body.stats.add(0, new StringPoolInit(strDecls));
 		MainFunc main = new MainFunc(mainSym, body);
 
-		currentFile = new File(funcs,main, strDecls);
+		currentFile = new File(funcs,main, strDecls, vecDecls);
+		currentFile.inPlaceOps = inPlaceOps;
+		currentFile.scalarOps = scalarOps;
+		currentFile.scalarFirstOps = scalarFirstOps;
+		currentFile.concatKinds = concatKinds;
+		currentFile.printKinds = printKinds;
 
 		popScope();
 		return currentFile;
@@ -225,6 +262,7 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 	@Override
 	public OutputModelObject visitWhile(@NotNull WichParser.WhileContext ctx) {
 		WhileStat whileStat = new WhileStat(getWhileLabel());
+		whileStat.source = ctx;
 		whileStat.condition = (Expr)visit(ctx.expr());
 		whileStat.stat      = (Stat)visit(ctx.statement());
 		return whileStat;
@@ -255,6 +293,14 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 	@Override
 	public OutputModelObject visitAssign(@NotNull WichParser.AssignContext ctx) {
 		String varName = ctx.ID().getText();
+		if ( copies.isInPlace(ctx) ) { // only the right operand is evaluated; v itself is updated
+			WichParser.ExprContext e = ctx.expr();
+			while ( e instanceof WichParser.ParensContext ) e = ((WichParser.ParensContext)e).expr();
+			WichParser.OpContext op = (WichParser.OpContext)e;
+			String wichOp = op.operator().getText();
+			inPlaceOps.add(wichOp);
+			return new VectorInPlaceStat(getVarRef(varName, true), wichOp, (Expr)visit(op.expr(1)));
+		}
 		Expr expr      = (Expr)visit(ctx.expr());
 		if (isVectorCopyNeeded(ctx.expr())) expr = new VectorCopy(expr, getTempVar());
 		return new AssignStat(getVarRef(varName, true), expr, getTypeModel(expr.getType()));
@@ -281,26 +327,68 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		if ( ctx.expr()==null ) {
 			return new PrintNewLine(getPrintLabel());
 		}
+		if ( StringChains.isConcat(ctx.expr()) ) {
+			return visitPrintSequence(ctx);
+		}
 		Expr expr = (Expr)visit(ctx.expr());
 		return getPrintModel(ctx.expr().exprType, expr, getPrintLabel());
 	}
 
+	/** print(a + b + ...) writes each part itself rather than joining them first */
+	protected PrintSequence visitPrintSequence(WichParser.PrintContext ctx) {
+		PrintSequence print = new PrintSequence(getPrintLabel());
+		for (WichParser.ExprContext e : StringChains.parts(ctx.expr())) {
+			print.parts.add((Expr)visit(e));
+		}
+		printKinds.add(print.getKinds());
+		return print;
+	}
+
 	// E X P R E S S I O N S
 
 	@Override
 	public OutputModelObject visitOp(@NotNull WichParser.OpContext ctx) {
+		if ( StringChains.isConcat(ctx) && StringChains.isChain(ctx) ) {
+			return visitConcat(ctx);
+		}
 		Expr left  = (Expr)visit(ctx.expr(0));
 		Expr right = (Expr)visit(ctx.expr(1));
 		if (ctx.promoteToType != null) {
-			left = getPromotionObject(ctx, left, right);
-			right = getPromotionObject(ctx, right, left);
+			left = getPromotionObject(ctx, left);
+			right = getPromotionObject(ctx, right);
 		}
 		final Type operandType = ctx.promoteToType!=null ? ctx.promoteToType : left.getType();
-		return getBinaryOperationModel(ctx.operator(), operandType, ctx.exprType, left, right, getTempVar());
+		BinaryOpExpr op = getBinaryOperationModel(ctx.operator(), operandType, ctx.exprType, left, right, getTempVar());
+		if ( op instanceof BinaryVectorScalarOp ) {
+			BinaryVectorScalarOp vs = (BinaryVectorScalarOp)op;
+			(vs.isScalarFirstKernel() ? scalarFirstOps : scalarOps).add(vs.wichOp);
+		}
+		return op;
+	}
+
+	/** a + b + ... of strings, ints, floats and vectors, made in one step */
+	protected StringConcat visitConcat(WichParser.OpContext ctx) {
+		List<Expr> parts = new ArrayList<>();
+		for (WichParser.ExprContext e : StringChains.parts(ctx)) {
+			parts.add((Expr)visit(e));
+		}
+		StringConcat concat = new StringConcat(getTempVar());
+		concat.parts.addAll(parts);
+		concatKinds.add(concat.getKinds());
+		return concat;
 	}
 
 	@Override
 	public OutputModelObject visitNegate(@NotNull WichParser.NegateContext ctx) {
+		if ( ctx.exprType == SymbolTable._vector ) { // -v is v * -1.0, a vector-scalar op
+			Expr v = (Expr)visit(ctx.expr());
+			FloatLiteral minusOne = new FloatLiteral("-1.0", getTempVar());
+			WichType vector = getTypeModel(SymbolTable._vector);
+			scalarOps.add("*");
+			BinaryVectorScalarOp neg = new BinaryVectorScalarOp(v, "*", minusOne, vector, vector, getTempVar());
+			neg.resultType = SymbolTable._vector;
+			return neg;
+		}
 		return new NegateExpr((Expr)visit(ctx.expr()), getTypeModel(ctx.exprType), getTempVar());
 	}
 
@@ -374,15 +462,19 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 
 	@Override
 	public OutputModelObject visitString(@NotNull WichParser.StringContext ctx) {
-		StringLiteral sl = new StringLiteral(ctx.getText(), getTempVar(), ctx.getText().length()-1, strDecls.size());
-		String declStr = getDeclString(sl.literal);
-		strDecls.add(new StringDecl(declStr, declStr.length()-2, strDecls.size()));
-		return sl;
+		String literal = ctx.getText();
+		return new StringLiteral(literal, getTempVar(), literal.length()-1, symtab.defineStringLiteral(literal));
 	}
 
 	@Override
 	public OutputModelObject visitVector(@NotNull WichParser.VectorContext ctx) {
 		int length = ctx.expr_list().expr().size();
+		double[] elems = TypeHelper.constantVector(ctx, false);
+		if ( elems!=null ) {
+			ConstVectorLiteral v = new ConstVectorLiteral(length, defineVectorDecl(elems));
+			v.varRef = getTempVar();
+			return v;
+		}
 		String vecRef = getTempVar();
 		VectorLiteral v = new VectorLiteral(length, vecRef);
 		for (int i = 0; i < ctx.expr_list().expr().size(); ++i) {
@@ -392,6 +484,17 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		return v;
 	}
 
+	protected int defineVectorDecl(double[] elems) {
+		String key = Arrays.toString(elems);
+		Integer num = vecDeclIndexes.get(key);
+		if ( num==null ) {
+			num = vecDecls.size();
+			vecDecls.add(new VectorDecl(elems, num));
+			vecDeclIndexes.put(key, num);
+		}
+		return num;
+	}
+
 	@Override
 	public OutputModelObject visitInteger(@NotNull WichParser.IntegerContext ctx) {
 		return new IntLiteral(ctx.getText(), getTempVar());
@@ -494,7 +597,10 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		WichType opTypeModel = getTypeModel(operandType);
 		WichType resTypeModel = getTypeModel(resultType);
 		// split into granularity sufficient for most potential target languages
-		if ( operandType == SymbolTable._vector ) {
+		if ( operandType == SymbolTable._vector && left.getType() != right.getType() ) {
+			opExpr = new BinaryVectorScalarOp(left, wichOp, right, opTypeModel, resTypeModel, tempVarRef);
+		}
+		else if ( operandType == SymbolTable._vector ) {
 			opExpr = new BinaryVectorOp(left, wichOp, right, opTypeModel, resTypeModel, tempVarRef);
 		}
 		else if ( operandType == SymbolTable._string ) {
@@ -516,10 +622,10 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		return promoteExp;
 	}
 
-	public Expr getPromotionObject(WichParser.OpContext ctx, Expr promoteExp, Expr targetExp) {
+	public Expr getPromotionObject(WichParser.OpContext ctx, Expr promoteExp) {
 		if (promoteExp.getType() != ctx.promoteToType) {
-			if (ctx.promoteToType == SymbolTable._vector) {
-				promoteExp = promoteToVector(promoteExp, targetExp, getPromoteVarRef());
+			if (ctx.promoteToType == SymbolTable._vector) { // the scalar is broadcast by the op itself
+				promoteExp = promoteToFloat(promoteExp, getPromoteVarRef());
 			}
 			else if (ctx.promoteToType == SymbolTable._string) {
 				promoteExp = promoteToString(promoteExp, getPromoteVarRef());
@@ -527,6 +633,7 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 			else if (ctx.promoteToType == SymbolTable._float) {
 				promoteExp = promoteToFloat(promoteExp, getPromoteVarRef());
 			}
+			if ( promoteExp.source==null ) promoteExp.source = ctx; // made here, not visited
 		}
 		return promoteExp;
 	}
@@ -558,17 +665,6 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		return promoteExp;
 	}
 
-	private static Expr promoteToVector(Expr promoteExp, Expr targetExp, String tempVar) {
-		if (promoteExp.getType() == SymbolTable._int) {
-			promoteExp = new VectorFromInt(promoteExp, targetExp);
-		}
-		else if (promoteExp.getType() == SymbolTable._float) {
-			promoteExp = new VectorFromFloat(promoteExp, targetExp);
-		}
-		promoteExp.varRef = tempVar;
-		return promoteExp;
-	}
-
 
 	public static Stat getPrintModel(Type type, Expr expr, String num) {
 		// split into granularity sufficient for most potential target languages
@@ -629,12 +725,8 @@ public class CodeGenerator extends WichBaseVisitor<OutputModelObject> {
 		v.setInsertionOrderNumber(num);
 	}
 
-	private static boolean isVectorCopyNeeded(WichParser.ExprContext expr) {
-		if (expr.exprType != SymbolTable._vector ) return false;
-		if (expr instanceof WichParser.CallContext || (expr instanceof WichParser.AtomContext && (!expr.getText().startsWith("[")))) {
-			return true;
-		}
-		return false;
+	protected boolean isVectorCopyNeeded(WichParser.ExprContext expr) {
+		return copies.isCopyNeeded(expr);
 	}
 
 	protected void pushScope(Scope s) {currentScope = s;}
@@ -38,6 +38,7 @@ import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STGroupFile;
 import org.stringtemplate.v4.misc.STMessage;
 import wich.codegen.bytecode.BytecodeWriter;
+import wich.codegen.jvm.JVMWriter;
 import wich.codegen.model.File;
 import wich.errors.ErrorType;
 import wich.errors.WichErrorHandler;
@@ -92,7 +93,10 @@ public class CompilerUtils {
 		MARK_AND_COMPACT(new String[]{"wlib_mark_and_compact", "mark_and_compact", "gc_mark_and_compact", "malloc_common"}, ".c"),
 		MARK_AND_SWEEP(new String[]{"wlib_mark_and_sweep", "mark_and_sweep", "gc_mark_and_sweep", "malloc_common"}, ".c"),
 		SCAVENGER(new String[]{"wlib_scavenger", "scavenger", "gc_scavenger", "malloc_common"}, ".c"),
-		BYTECODE(new String[]{}, ".wasm");
+		REGION(new String[]{"wlib"}, ".c"), // the generated code makes its own heap values
+		BYTECODE(new String[]{}, ".wasm"),
+		BYTECODE_REG(new String[]{}, ".wasm"),
+		JVM(new String[]{}, ".class");
 
 		public String[] libs;
 		public String flag;
@@ -187,17 +191,63 @@ public class CompilerUtils {
 
 	public static String genCode(String input, SymbolTable symtab, WichErrorHandler err,
 	                      CompilerUtils.CodeGenTarget target)
+	{
+		return genCode(input, symtab, err, target, new InjectRefCounting());
+	}
+
+	public static String genCode(String input, SymbolTable symtab, WichErrorHandler err,
+	                      CompilerUtils.CodeGenTarget target, InjectRefCounting refCounting)
+	{
+		return genCode(input, symtab, err, target, refCounting, false);
+	}
+
+	/** The text listing for BYTECODE or BYTECODE_REG; extensions picks the
+	 *  instructions only the in-tree VMs run, see BytecodeWriter.extensions.
+	 */
+	public static String genBytecode(String input, SymbolTable symtab, WichErrorHandler err,
+	                                 CompilerUtils.CodeGenTarget target, boolean extensions)
+	{
+		ParserRuleContext tree = checkCorrectness(input, symtab, err);
+		if ( tree==null || err.getErrorNum()>0) return "<invalid>";
+		return genBytecode((WichParser.ScriptContext)tree, symtab, err, target, extensions);
+	}
+
+	protected static String genBytecode(WichParser.ScriptContext tree, SymbolTable symtab, WichErrorHandler err,
+	                                    CompilerUtils.CodeGenTarget target, boolean extensions)
+	{
+		BytecodeWriter gen = new BytecodeWriter(symtab, tree);
+		gen.registers = target==CodeGenTarget.BYTECODE_REG;
+		gen.extensions = extensions;
+		gen.err = err;
+		return gen.genObjectFile();
+	}
+
+	/** Generate code; for REFCOUNTING, refCounting injects the REF/DEREFs and keeps the elision report.
+	 *  With profileAlloc, the C heap targets count each allocation site's calls and bytes.
+	 */
+	public static String genCode(String input, SymbolTable symtab, WichErrorHandler err,
+	                      CompilerUtils.CodeGenTarget target, InjectRefCounting refCounting,
+	                      boolean profileAlloc)
 	{
 		ParserRuleContext tree = checkCorrectness(input, symtab, err);
 		if ( tree==null || err.getErrorNum()>0) return "<invalid>";
 
-		if ( target==CodeGenTarget.BYTECODE ) {
-			BytecodeWriter gen = new BytecodeWriter(symtab, (WichParser.ScriptContext)tree);
-			return gen.genObjectFile();
+		if ( target==CodeGenTarget.BYTECODE || target==CodeGenTarget.BYTECODE_REG ) {
+			return genBytecode((WichParser.ScriptContext)tree, symtab, err, target, false);
+		}
+		if ( target==CodeGenTarget.JVM ) {
+			JVMWriter writer = new JVMWriter(symtab, (WichParser.ScriptContext)tree, "script");
+			writer.err = err;
+			return writer.genListing();
 		}
 
 		CodeGenerator codeGenerator = new CodeGenerator(symtab);
 		File modelRoot = codeGenerator.generate(tree);
+		boolean llvm = target==CodeGenTarget.LLVM || target==CodeGenTarget.LLVM_MARK_AND_COMPACT ||
+					   target==CodeGenTarget.LLVM_MARK_AND_SWEEP || target==CodeGenTarget.LLVM_SCAVENGER;
+		// REFCOUNTING's DEREF would free a frame's object; LLVM pools strings its own way
+		boolean refCounted = target==CodeGenTarget.REFCOUNTING;
+		EscapeAnalysis.optimize(modelRoot, !refCounted, !llvm && !refCounted);
 		STGroup templates;
 		switch ( target ) {
 			case PLAIN :
@@ -209,34 +259,46 @@ public class CompilerUtils {
 				templates = new STGroupFile("wich-llvm.stg");
 				break;
 			case LLVM_MARK_AND_COMPACT:
+				injectGCRoots(tree, modelRoot, true);
 				modelWalker = new ModelWalker(new InjectLLVMTraits());
 				modelWalker.walk(modelRoot);
 				templates = new STGroupFile("wich-llvm-mc.stg");
 				break;
 			case LLVM_MARK_AND_SWEEP:
+				injectGCRoots(tree, modelRoot, true);
 				modelWalker = new ModelWalker(new InjectLLVMTraits());
 				modelWalker.walk(modelRoot);
 				templates = new STGroupFile("wich-llvm-ms.stg");
 				break;
 			case LLVM_SCAVENGER:
+				injectGCRoots(tree, modelRoot, true);
 				modelWalker = new ModelWalker(new InjectLLVMTraits());
 				modelWalker.walk(modelRoot);
 				templates = new STGroupFile("wich-llvm-svgr.stg");
 				break;
 			case REFCOUNTING :
-				modelWalker = new ModelWalker(new InjectRefCounting());
+				modelWalker = new ModelWalker(refCounting);
 				modelWalker.walk(modelRoot);
 				templates = new STGroupFile("wich-refcounting.stg");
 				break;
 			case MARK_AND_COMPACT:
 			case MARK_AND_SWEEP:
 			case SCAVENGER:
+				injectGCRoots(tree, modelRoot, false);
 				templates = new STGroupFile("wich-gc.stg");
 				break;
+			case REGION:
+				modelWalker = new ModelWalker(new InjectRegions(new GCRoots((WichParser.ScriptContext)tree)));
+				modelWalker.walk(modelRoot);
+				templates = new STGroupFile("wich-region.stg");
+				break;
 			default :
 				err.error(null, ErrorType.UNKNOWN_TARGET, target.toString());
 				return "";
 		}
+		if ( profileAlloc && target!=CodeGenTarget.PLAIN && !llvm ) {
+			new ModelWalker(new InjectAllocProfiling()).walk(modelRoot);
+		}
 
 		// model is complete, convert to template hierarchy then string
 		ModelConverter converter = new ModelConverter(templates);
@@ -270,6 +332,12 @@ public class CompilerUtils {
 		return wichST.render();
 	}
 
+	/** Root only what the collecting targets need; see GCRoots */
+	protected static void injectGCRoots(ParserRuleContext tree, File modelRoot, boolean hoist) {
+		GCRoots roots = new GCRoots((WichParser.ScriptContext)tree);
+		new ModelWalker(new InjectGCRoots(roots, hoist)).walk(modelRoot);
+	}
+
 	public static String readFile(String path, Charset encoding) throws IOException {
 		byte[] encoded = Files.readAllBytes(Paths.get(path));
 		return new String(encoded, encoding);
@@ -0,0 +1,450 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import wich.codegen.model.AssignStat;
+import wich.codegen.model.ElementAssignStat;
+import wich.codegen.model.File;
+import wich.codegen.model.Func;
+import wich.codegen.model.MainFunc;
+import wich.codegen.model.OutputModelObject;
+import wich.codegen.model.PrintSequence;
+import wich.codegen.model.PrintStringStat;
+import wich.codegen.model.PrintVectorStat;
+import wich.codegen.model.ReturnStat;
+import wich.codegen.model.StackStringAlloc;
+import wich.codegen.model.StackVectorAlloc;
+import wich.codegen.model.StringDecl;
+import wich.codegen.model.StringVarDefStat;
+import wich.codegen.model.VarDefStat;
+import wich.codegen.model.VectorDecl;
+import wich.codegen.model.VectorInPlaceStat;
+import wich.codegen.model.VectorVarDefStat;
+import wich.codegen.model.expr.BinaryOpExpr;
+import wich.codegen.model.expr.BinaryStringOp;
+import wich.codegen.model.expr.BinaryVectorOp;
+import wich.codegen.model.expr.BinaryVectorScalarOp;
+import wich.codegen.model.expr.ConstVectorLiteral;
+import wich.codegen.model.expr.Expr;
+import wich.codegen.model.expr.FuncCall;
+import wich.codegen.model.expr.IntLiteral;
+import wich.codegen.model.expr.StackStringConcat;
+import wich.codegen.model.expr.StackVectorLiteral;
+import wich.codegen.model.expr.StackVectorOp;
+import wich.codegen.model.expr.StrLen;
+import wich.codegen.model.expr.StringConcat;
+import wich.codegen.model.expr.StringLiteral;
+import wich.codegen.model.expr.VarRef;
+import wich.codegen.model.expr.VectorCopy;
+import wich.codegen.model.expr.VectorLen;
+import wich.codegen.model.expr.VectorLiteral;
+import wich.codegen.model.expr.promotion.StringFromVector;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** Find the vectors that never leave the function that creates them and
+ *  take them off the heap.
+ *
+ *  A vector escapes when it is stored in another variable, passed to a
+ *  function or returned; element assignment makes a new version, which
+ *  the runtime keeps in the heap, so written vectors count as escaping
+ *  too. A constant literal that is only printed, measured, converted to
+ *  a string or used as an operand of a vector op, either directly or
+ *  through a local that is initialized with it and never escapes, gets
+ *  a frame slot instead of a PVector_new call (stackAllocate). An in-place
+ *  update v = v op w writes v's vector, so v counts as written.
+ *
+ *  With stackAllocate, the result of a vector op or of a string + gets a
+ *  frame slot too when it is only read in the same way, or is the one
+ *  value of a local that never escapes, and its size is known: an op
+ *  has the length of its vector operands, which must be known and agree,
+ *  and a join is at most the sum of its parts' longest forms. The slot
+ *  is filled in each time the op or join is evaluated; nothing can still
+ *  refer to the last value by then, as only the local bound to it could.
+ *
+ *  Strings come from the literal pool, which main fills in once. With
+ *  stackStrings (C), a pooled literal is laid out in main's frame, which
+ *  outlives every other, when every use of it only reads it: printed,
+ *  measured, compared or joined, either directly or through a local that
+ *  is assigned it once and never escapes.
+ *
+ *  len() of a constant literal, or of a local assigned once from a
+ *  literal and never written, folds to the literal's length on every
+ *  target.
+ */
+public class EscapeAnalysis {
+	protected final File file;
+	protected final boolean stackAllocate;
+	protected final boolean stackStrings;
+
+	// symbols are equal by name, and this pass sees every function at once,
+	// so anything keyed by a variable goes by identity
+	protected final Map<WVariableSymbol, List<AssignStat>> assigns = new IdentityHashMap<>();
+	protected final Set<WVariableSymbol> escapes = Collections.newSetFromMap(new IdentityHashMap<>());
+	protected final Set<WVariableSymbol> written = Collections.newSetFromMap(new IdentityHashMap<>());
+	protected final Set<Expr> readOnly = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/** Locals that only refer to frame storage; they need no heap var or gc root */
+	public final Set<WVariableSymbol> stackVars = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** Locals whose length never changes */
+	public final Map<WVariableSymbol, Integer> fixedLengths = new IdentityHashMap<>();
+	/** Locals whose string can't be longer than this many chars */
+	public final Map<WVariableSymbol, Integer> stringSizes = new IdentityHashMap<>();
+	/** Literals to put in a frame slot */
+	public final Set<Expr> stackLiterals = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** Pool indexes of the string literals to put in main's frame */
+	public final Set<Integer> stackStringNums = new HashSet<>();
+	/** Vector ops and string joins to put in a frame slot, with a vector's length or a string's most chars */
+	public final Map<Expr, Integer> stackTemps = new IdentityHashMap<>();
+
+	/** Don't put a vector of more elements, or a string of more chars, in a frame */
+	public static final int MAX_STACK_LENGTH = 256;
+	public static final int MAX_STACK_CHARS = 4096;
+
+	// the most chars %d of an int and %1.2f of a double make; -DBL_MAX has 309 digits
+	protected static final int INT_CHARS = 11;
+	protected static final int FLOAT_CHARS = 313;
+
+	protected final List<StringLiteral> stringLiterals = new ArrayList<>();
+	protected final List<AssignStat> assignOrder = new ArrayList<>();
+	protected final List<Expr> temps = new ArrayList<>(); // every vector op and string join
+
+	// the kernels of the ops and joins that stay on the heap
+	protected final Set<String> heapScalarOps = new TreeSet<>();
+	protected final Set<String> heapScalarFirstOps = new TreeSet<>();
+	protected final Set<String> heapConcatKinds = new TreeSet<>();
+
+	protected final Map<Integer, VectorDecl> vecDecls = new HashMap<>();
+	protected final Map<Expr, StackVectorLiteral> replaced = new IdentityHashMap<>();
+	protected Func currentFunc;
+
+	public EscapeAnalysis(File file, boolean stackAllocate, boolean stackStrings) {
+		this.file = file;
+		this.stackAllocate = stackAllocate;
+		this.stackStrings = stackStrings;
+		for (VectorDecl d : file.vecDecls) vecDecls.put(d.num, d);
+		ModelWalker.applyToAll(file, this::record);
+		for (Map.Entry<WVariableSymbol, List<AssignStat>> e : assigns.entrySet()) {
+			WVariableSymbol v = e.getKey();
+			List<AssignStat> a = e.getValue();
+			if ( a.size()!=1 || written.contains(v) ) continue;
+			Expr init = a.get(0).expr;
+			if ( init instanceof ConstVectorLiteral ) {
+				fixedLengths.put(v, ((ConstVectorLiteral)init).vectorLength);
+				if ( !escapes.contains(v) && fitsFrame(init) ) {
+					stackVars.add(v);
+					stackLiterals.add(init);
+				}
+			}
+			else if ( init instanceof VectorLiteral ) {
+				fixedLengths.put(v, ((VectorLiteral)init).vectorLength);
+			}
+		}
+		for (Expr e : readOnly) {
+			if ( e instanceof ConstVectorLiteral && fitsFrame(e) ) stackLiterals.add(e);
+		}
+		if ( stackAllocate ) findStackTemps();
+		if ( stackStrings ) findStackStrings();
+	}
+
+	/** Fold lengths and, if stackAllocate, move the non-escaping vectors to
+	 *  the stack; if stackStrings, do the same for the pooled strings.
+	 */
+	public static void optimize(File file, boolean stackAllocate, boolean stackStrings) {
+		EscapeAnalysis escapeAnalysis = new EscapeAnalysis(file, stackAllocate, stackStrings);
+		new ModelWalker(escapeAnalysis).walk(file);
+		file.scalarOps.retainAll(escapeAnalysis.heapScalarOps);
+		file.scalarFirstOps.retainAll(escapeAnalysis.heapScalarFirstOps);
+		file.concatKinds.retainAll(escapeAnalysis.heapConcatKinds);
+	}
+
+	/** Size the locals that are bound once to an op or join, in the order
+	 *  they are bound, so one can use the size of another bound before it.
+	 *  Then pick the ops and joins whose size is known and that are only
+	 *  read or are the one value of a local that never escapes.
+	 */
+	protected void findStackTemps() {
+		Map<Expr, WVariableSymbol> inits = new IdentityHashMap<>();
+		for (AssignStat a : assignOrder) {
+			WVariableSymbol v = a.varRef.symbol;
+			if ( assigns.get(v).size()!=1 || written.contains(v) ) continue;
+			if ( !escapes.contains(v) ) inits.put(a.expr, v);
+			if ( a.expr.getType()==SymbolTable._string ) {
+				int n = sizeOf(a.expr);
+				if ( n>=0 ) stringSizes.put(v, n);
+			}
+			else if ( !fixedLengths.containsKey(v) ) {
+				int n = lengthOf(a.expr);
+				if ( n>=0 ) fixedLengths.put(v, n);
+			}
+		}
+		for (Expr e : temps) {
+			WVariableSymbol v = inits.get(e);
+			if ( v==null && !readOnly.contains(e) ) continue;
+			boolean vector = e.getType()==SymbolTable._vector;
+			int n = vector ? lengthOf(e) : sizeOf(e);
+			if ( n<0 || n>(vector ? MAX_STACK_LENGTH : MAX_STACK_CHARS) ) continue;
+			stackTemps.put(e, n);
+			if ( v!=null ) stackVars.add(v);
+		}
+	}
+
+	protected void findStackStrings() {
+		Map<WVariableSymbol, StringLiteral> locals = new IdentityHashMap<>();
+		for (Map.Entry<WVariableSymbol, List<AssignStat>> e : assigns.entrySet()) {
+			WVariableSymbol v = e.getKey();
+			List<AssignStat> a = e.getValue();
+			if ( a.size()!=1 || written.contains(v) || escapes.contains(v) ) continue;
+			if ( a.get(0).expr instanceof StringLiteral ) locals.put(v, (StringLiteral)a.get(0).expr);
+		}
+		Set<Expr> inits = Collections.newSetFromMap(new IdentityHashMap<>());
+		inits.addAll(locals.values());
+		// a literal is pooled, so one use that may keep it rules out all of them
+		Set<Integer> kept = new HashSet<>();
+		for (StringLiteral s : stringLiterals) {
+			if ( !readOnly.contains(s) && !inits.contains(s) ) kept.add(s.num);
+		}
+		for (StringLiteral s : stringLiterals) {
+			if ( !kept.contains(s.num) ) stackStringNums.add(s.num);
+		}
+		for (Map.Entry<WVariableSymbol, StringLiteral> e : locals.entrySet()) {
+			if ( stackStringNums.contains(e.getValue().num) ) stackVars.add(e.getKey());
+		}
+		for (StringDecl d : file.decls) {
+			d.stack = stackStringNums.contains(d.num);
+		}
+		file.stackStrings = !stackStringNums.isEmpty();
+	}
+
+	protected void record(OutputModelObject o) {
+		if ( o instanceof AssignStat ) {
+			AssignStat a = (AssignStat)o;
+			assigns.computeIfAbsent(a.varRef.symbol, k -> new ArrayList<>()).add(a);
+			assignOrder.add(a);
+			escape(a.expr);
+		}
+		else if ( o instanceof ElementAssignStat ) {
+			written.add(((ElementAssignStat)o).varRef.symbol);
+		}
+		else if ( o instanceof ReturnStat ) {
+			escape(((ReturnStat)o).expr);
+		}
+		else if ( o instanceof FuncCall ) {
+			for (Expr arg : ((FuncCall)o).args) escape(arg);
+		}
+		else if ( o instanceof PrintVectorStat ) {
+			readOnly.add(((PrintVectorStat)o).expr);
+		}
+		else if ( o instanceof PrintStringStat ) {
+			readOnly.add(((PrintStringStat)o).expr);
+		}
+		else if ( o instanceof BinaryStringOp ) {
+			readOnly.add(((BinaryStringOp)o).left);
+			readOnly.add(((BinaryStringOp)o).right);
+			if ( ((BinaryStringOp)o).wichOp.equals("+") ) temps.add((Expr)o);
+		}
+		else if ( o instanceof StrLen ) {
+			readOnly.add(((StrLen)o).expr);
+		}
+		else if ( o instanceof StringLiteral ) {
+			stringLiterals.add((StringLiteral)o);
+		}
+		else if ( o instanceof BinaryVectorOp ) {
+			readOnly.add(((BinaryVectorOp)o).left);
+			readOnly.add(((BinaryVectorOp)o).right);
+			if ( isVectorResult((BinaryVectorOp)o) ) temps.add((Expr)o);
+		}
+		else if ( o instanceof BinaryVectorScalarOp ) {
+			readOnly.add(((BinaryVectorScalarOp)o).getVector());
+			if ( isVectorResult((BinaryVectorScalarOp)o) ) temps.add((Expr)o);
+		}
+		else if ( o instanceof VectorLen ) {
+			readOnly.add(((VectorLen)o).expr);
+		}
+		else if ( o instanceof VectorInPlaceStat ) {
+			written.add(((VectorInPlaceStat)o).varRef.symbol);
+			readOnly.add(((VectorInPlaceStat)o).expr);
+		}
+		else if ( o instanceof StringFromVector ) {
+			readOnly.add(((StringFromVector)o).vector);
+		}
+		else if ( o instanceof StringConcat ) {
+			readOnly.addAll(((StringConcat)o).parts);
+			temps.add((Expr)o);
+		}
+		else if ( o instanceof PrintSequence ) {
+			readOnly.addAll(((PrintSequence)o).parts);
+		}
+	}
+
+	protected void escape(Expr e) {
+		if ( e instanceof VectorCopy ) e = ((VectorCopy)e).expr;
+		if ( e instanceof VarRef ) escapes.add(((VarRef)e).symbol);
+	}
+
+	protected static boolean isVectorResult(BinaryOpExpr op) {
+		return op.resultType==SymbolTable._vector;
+	}
+
+	protected static boolean fitsFrame(Expr literal) {
+		return ((ConstVectorLiteral)literal).vectorLength<=MAX_STACK_LENGTH;
+	}
+
+	/** The length of e's vector if it is known before it runs, else -1 */
+	protected int lengthOf(Expr e) {
+		if ( e instanceof ConstVectorLiteral ) return ((ConstVectorLiteral)e).vectorLength;
+		if ( e instanceof StackVectorLiteral ) return ((StackVectorLiteral)e).vectorLength;
+		if ( e instanceof VarRef ) return fixedLengths.getOrDefault(((VarRef)e).symbol, -1);
+		if ( e instanceof BinaryVectorScalarOp && isVectorResult((BinaryOpExpr)e) ) {
+			return lengthOf(((BinaryVectorScalarOp)e).getVector());
+		}
+		if ( e instanceof BinaryVectorOp && isVectorResult((BinaryOpExpr)e) ) {
+			int n = lengthOf(((BinaryVectorOp)e).left);
+			return n==lengthOf(((BinaryVectorOp)e).right) ? n : -1; // else the runtime reports it
+		}
+		return -1;
+	}
+
+	/** The most chars e's string can have if that is known before it runs, else -1 */
+	protected int sizeOf(Expr e) {
+		if ( e instanceof StringLiteral ) { // less the quotes; escapes only make it shorter
+			return ((StringLiteral)e).literal.getBytes(StandardCharsets.UTF_8).length - 2;
+		}
+		if ( e instanceof VarRef ) return stringSizes.getOrDefault(((VarRef)e).symbol, -1);
+		if ( e instanceof BinaryStringOp && ((BinaryStringOp)e).wichOp.equals("+") ) {
+			return sum(Arrays.asList(((BinaryStringOp)e).left, ((BinaryStringOp)e).right));
+		}
+		if ( e instanceof StringConcat ) return sum(((StringConcat)e).parts);
+		return -1;
+	}
+
+	protected int sum(List<Expr> parts) {
+		int n = 0;
+		for (Expr part : parts) {
+			int size;
+			if ( part.getType()==SymbolTable._int ) size = INT_CHARS;
+			else if ( part.getType()==SymbolTable._float ) size = FLOAT_CHARS;
+			else if ( part.getType()==SymbolTable._vector ) {
+				int len = lengthOf(part); // its elements as ints
+				size = len>=0 ? len*INT_CHARS : -1;
+			}
+			else size = sizeOf(part);
+			if ( size<0 ) return -1;
+			n += size;
+		}
+		return n;
+	}
+
+	public OutputModelObject enterModel(Func func) {
+		currentFunc = func;
+		return func;
+	}
+
+	public OutputModelObject enterModel(MainFunc func) {
+		currentFunc = func;
+		return func;
+	}
+
+	public OutputModelObject exitModel(VectorLen len) {
+		// an op still runs, for the calls its operands may make
+		if ( len.expr instanceof BinaryOpExpr || len.expr instanceof StackVectorOp ) return len;
+		int n = lengthOf(len.expr);
+		return n>=0 ? new IntLiteral(String.valueOf(n), len.varRef) : len;
+	}
+
+	public OutputModelObject exitModel(ConstVectorLiteral literal) {
+		if ( !stackAllocate || !stackLiterals.contains(literal) ) return literal;
+		StackVectorLiteral s = replaced.get(literal);
+		if ( s==null ) { // promotions can share a literal; make one slot for it
+			s = new StackVectorLiteral(literal, vecDecls.get(literal.num).bits);
+			currentFunc.body.initialize.add(new StackVectorAlloc(s));
+			replaced.put(literal, s);
+			file.stackVectors = true;
+		}
+		return s;
+	}
+
+	public OutputModelObject exitModel(BinaryVectorOp op) {
+		return stackVectorOp(op);
+	}
+
+	public OutputModelObject exitModel(BinaryVectorScalarOp op) {
+		if ( !stackTemps.containsKey(op) ) {
+			(op.isScalarFirstKernel() ? heapScalarFirstOps : heapScalarOps).add(op.wichOp);
+		}
+		return stackVectorOp(op);
+	}
+
+	protected Expr stackVectorOp(BinaryOpExpr op) {
+		if ( !stackTemps.containsKey(op) ) return op;
+		StackVectorOp s = new StackVectorOp(op, stackTemps.get(op));
+		currentFunc.body.initialize.add(new StackVectorAlloc(s));
+		if ( !s.scalarOp ) file.stackOps.add(s.wichOp);
+		else if ( s.scalarFirstKernel ) file.stackScalarFirstOps.add(s.wichOp);
+		else file.stackScalarOps.add(s.wichOp);
+		return s;
+	}
+
+	public OutputModelObject exitModel(StringConcat concat) {
+		if ( !stackTemps.containsKey(concat) ) {
+			heapConcatKinds.add(concat.getKinds());
+			return concat;
+		}
+		return stackConcat(concat, concat.parts, concat.getKinds());
+	}
+
+	public OutputModelObject exitModel(BinaryStringOp op) {
+		if ( !stackTemps.containsKey(op) ) return op;
+		return stackConcat(op, new ArrayList<>(Arrays.asList(op.left, op.right)), "ss");
+	}
+
+	protected Expr stackConcat(Expr join, List<Expr> parts, String kinds) {
+		StackStringConcat s = new StackStringConcat(parts, kinds, stackTemps.get(join) + 1, join.varRef);
+		currentFunc.body.initialize.add(new StackStringAlloc(s));
+		file.stackConcatKinds.add(kinds);
+		return s;
+	}
+
+	public OutputModelObject exitModel(VectorVarDefStat varDef) {
+		if ( !stackAllocate || !stackVars.contains(varDef.symbol) ) return varDef;
+		return new VarDefStat(varDef.symbol, varDef.type);
+	}
+
+	public OutputModelObject exitModel(StringVarDefStat varDef) {
+		if ( !stackVars.contains(varDef.symbol) ) return varDef;
+		return new VarDefStat(varDef.symbol, varDef.type);
+	}
+}
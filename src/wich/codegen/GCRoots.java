@@ -0,0 +1,315 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import org.antlr.symtab.Scope;
+import org.antlr.symtab.Symbol;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WArgSymbol;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/** Decide which heap variables the collecting targets must register as
+ *  gc roots, computed once over the parse tree for bytecode, C and LLVM.
+ *
+ *  A collection can only happen while something allocates: a string or
+ *  vector op, literal, promotion or copy, an element assignment, printing
+ *  a vector, or a call to a function that may do any of those. collecting
+ *  holds those functions, found by iterating over the call graph until
+ *  nothing changes, so recursion without heap work never collects.
+ *
+ *  A variable needs a root only if it is live across such a point: read
+ *  by the statement that allocates or live after it. Liveness of the
+ *  string and vector variables is computed backwards over the statements
+ *  of each function, iterating while loops to a fixed point. A function none of whose variables are rooted can
+ *  skip saving and restoring the root stack.
+ *
+ *  Rooted variables whose scopes don't overlap share a root slot, numbered
+ *  per function and per type the way FrameLayout numbers frame slots.
+ */
+public class GCRoots {
+	/** Functions that may allocate, directly or through a call */
+	public final Set<String> collecting = new HashSet<>();
+	/** Variables live across a point that may collect */
+	public final Set<WVariableSymbol> rooted = symbols();
+	/** Functions with at least one rooted variable */
+	public final Set<WFunctionSymbol> framed = new HashSet<>();
+	/** Root slot of each rooted variable */
+	public final Map<WVariableSymbol, Integer> rootSlots = new IdentityHashMap<>();
+	/** Where vectors are copied, which allocates */
+	public final VectorCopies copies;
+
+	protected final Map<String, WichParser.FunctionContext> functions = new HashMap<>();
+	protected WFunctionSymbol func;     // null for the script's statements
+	protected Scope scope;
+	protected final Set<WVariableSymbol> reads = symbols(); // scratch for point()
+
+	public GCRoots(WichParser.ScriptContext tree) {
+		copies = new VectorCopies(tree);
+		for (WichParser.FunctionContext f : tree.function()) {
+			functions.put(f.ID().getText(), f);
+		}
+		boolean changed = true;
+		while ( changed ) {
+			changed = false;
+			for (Map.Entry<String, WichParser.FunctionContext> f : functions.entrySet()) {
+				if ( !collecting.contains(f.getKey()) && mayCollect(f.getValue().block()) ) {
+					collecting.add(f.getKey());
+					changed = true;
+				}
+			}
+		}
+		for (WichParser.FunctionContext f : tree.function()) {
+			func = f.scope;
+			scope = f.scope;
+			live(f.block(), symbols());
+			slots(f.block(), new int[2]);
+		}
+		func = null;
+		scope = tree.scope;
+		statements(tree, symbols());
+		int[] next = new int[2];
+		for (WichParser.StatementContext s : tree.statement()) {
+			slots(s, next);
+		}
+	}
+
+	/** A set of variables by identity; symbols are equal by name, which
+	 *  would merge a shadowing variable with the one it hides
+	 */
+	protected static Set<WVariableSymbol> symbols(Collection<WVariableSymbol> vars) {
+		Set<WVariableSymbol> s = Collections.newSetFromMap(new IdentityHashMap<>(Math.max(vars.size(), 4)));
+		s.addAll(vars);
+		return s;
+	}
+
+	protected static Set<WVariableSymbol> symbols() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	public boolean isRooted(WVariableSymbol v) {
+		return rooted.contains(v);
+	}
+
+	public boolean needsFrame(WFunctionSymbol f) {
+		return framed.contains(f);
+	}
+
+	/** Turn the variables live on exit from s into those live on entry,
+	 *  in place, rooting any that are live across a point where s may
+	 *  collect. Only branches and loops need a set of their own.
+	 */
+	protected void live(WichParser.StatementContext s, Set<WVariableSymbol> live) {
+		if ( s instanceof WichParser.IfContext ) {
+			WichParser.IfContext ifs = (WichParser.IfContext)s;
+			Set<WVariableSymbol> then = symbols(live);
+			live(ifs.statement(0), then);
+			if ( ifs.statement().size()>1 ) live(ifs.statement(1), live);
+			live.addAll(then);
+			point(ifs.expr(), ifs.expr(), live);
+			uses(ifs.expr(), live);
+		}
+		else if ( s instanceof WichParser.WhileContext ) {
+			WichParser.WhileContext w = (WichParser.WhileContext)s;
+			Set<WVariableSymbol> top = symbols(live);
+			uses(w.expr(), top);
+			Set<WVariableSymbol> body;
+			while ( true ) {
+				body = symbols(top);
+				live(w.statement(), body);
+				if ( top.containsAll(body) ) break;
+				top.addAll(body);
+			}
+			live.addAll(body); // the loop exits with these live
+			point(w.expr(), w.expr(), live);
+			live.clear();
+			live.addAll(top);
+		}
+		else if ( s instanceof WichParser.BlockStatementContext ) {
+			live(((WichParser.BlockStatementContext)s).block(), live);
+		}
+		else if ( s instanceof WichParser.VarDefStatementContext ) {
+			WichParser.VardefContext v = ((WichParser.VarDefStatementContext)s).vardef();
+			if ( !live.isEmpty() ) live.remove(resolve(v.ID().getText()));
+			point(s, v.expr(), live);
+			uses(v.expr(), live);
+		}
+		else if ( s instanceof WichParser.AssignContext ) {
+			WichParser.AssignContext a = (WichParser.AssignContext)s;
+			if ( !live.isEmpty() ) live.remove(resolve(a.ID().getText()));
+			point(s, a.expr(), live);
+			uses(a.expr(), live);
+		}
+		else if ( s instanceof WichParser.ReturnContext ) {
+			live.clear();
+			uses(s, live);
+			point(s, s, live);
+		}
+		else { // element assign, call, print
+			uses(s, live);
+			point(s, s, live);
+		}
+	}
+
+	protected void live(WichParser.BlockContext b, Set<WVariableSymbol> live) {
+		Scope saved = scope;
+		scope = b.scope;
+		statements(b, live);
+		scope = saved;
+	}
+
+	/** The statements among t's children, last first; statement() would build a list */
+	protected void statements(ParserRuleContext t, Set<WVariableSymbol> live) {
+		for (int i = t.getChildCount()-1; i>=0; i--) {
+			if ( t.getChild(i) instanceof WichParser.StatementContext ) {
+				live((WichParser.StatementContext)t.getChild(i), live);
+			}
+		}
+	}
+
+	/** If t may collect, root the variables read by reads and those in after */
+	protected void point(ParseTree t, ParseTree reads, Set<WVariableSymbol> after) {
+		if ( !mayCollect(t) ) return;
+		this.reads.clear();
+		uses(reads, this.reads);
+		for (WVariableSymbol v : this.reads) root(v);
+		for (WVariableSymbol v : after) root(v);
+	}
+
+	protected void root(WVariableSymbol v) {
+		if ( v instanceof WArgSymbol ) return; // the caller holds args
+		if ( v.getType()==SymbolTable._string || v.getType()==SymbolTable._vector ) {
+			rooted.add(v);
+			if ( func!=null ) framed.add(func);
+		}
+	}
+
+	protected boolean mayCollect(ParseTree t) {
+		if ( t instanceof WichParser.ElementAssignContext ) return true;
+		if ( t instanceof WichParser.PrintContext ) {
+			WichParser.ExprContext e = ((WichParser.PrintContext)t).expr();
+			if ( e!=null && e.exprType==SymbolTable._vector ) return true;
+		}
+		if ( t instanceof WichParser.VardefContext && isVectorCopy(((WichParser.VardefContext)t).expr()) ) return true;
+		if ( t instanceof WichParser.AssignContext && isVectorCopy(((WichParser.AssignContext)t).expr()) ) return true;
+		if ( t instanceof WichParser.Call_exprContext ) {
+			WichParser.Call_exprContext c = (WichParser.Call_exprContext)t;
+			if ( collecting.contains(c.ID().getText()) ) return true;
+			if ( c.expr_list()!=null ) {
+				for (WichParser.ExprContext arg : c.expr_list().expr()) {
+					if ( isVectorCopy(arg) ) return true;
+				}
+			}
+		}
+		if ( t instanceof WichParser.ExprContext ) {
+			WichParser.ExprContext e = (WichParser.ExprContext)t;
+			if ( isHeap(e.promoteToType) && e.promoteToType!=e.exprType ) return true;
+			if ( isHeap(e.exprType) && !(e instanceof WichParser.ParensContext) &&
+				 !(e instanceof WichParser.CallContext) && !isIdentifier(e) )
+			{
+				return true;
+			}
+		}
+		for (int i = 0; i<t.getChildCount(); i++) {
+			if ( mayCollect(t.getChild(i)) ) return true;
+		}
+		return false;
+	}
+
+	protected boolean isVectorCopy(WichParser.ExprContext e) {
+		return copies.isCopyNeeded(e);
+	}
+
+	protected static boolean isIdentifier(WichParser.ExprContext e) {
+		return e instanceof WichParser.AtomContext &&
+			   ((WichParser.AtomContext)e).primary() instanceof WichParser.IdentifierContext;
+	}
+
+	protected static boolean isHeap(Object type) {
+		return type==SymbolTable._string || type==SymbolTable._vector;
+	}
+
+	/** Add the string and vector variables t reads to uses */
+	protected void uses(ParseTree t, Set<WVariableSymbol> uses) {
+		WVariableSymbol v = null;
+		if ( t instanceof WichParser.IdentifierContext ) {
+			WichParser.IdentifierContext id = (WichParser.IdentifierContext)t;
+			if ( isHeap(id.exprType) ) v = resolve(id.ID().getText());
+		}
+		else if ( t instanceof WichParser.IndexContext ) v = resolve(((WichParser.IndexContext)t).ID().getText());
+		else if ( t instanceof WichParser.ElementAssignContext ) v = resolve(((WichParser.ElementAssignContext)t).ID().getText());
+		if ( v!=null ) uses.add(v);
+		for (int i = 0; i<t.getChildCount(); i++) {
+			uses(t.getChild(i), uses);
+		}
+	}
+
+	/** Resolve from the current scope; a function body sees its args but not the script's variables */
+	protected WVariableSymbol resolve(String name) {
+		for (Scope s = scope; s!=null; s = s.getEnclosingScope()) {
+			Symbol sym = s.getSymbol(name);
+			if ( sym instanceof WVariableSymbol ) return (WVariableSymbol)sym;
+			if ( func!=null && (s==func || s.getEnclosingScope()==func.getEnclosingScope()) ) {
+				sym = func.getSymbol(name);
+				return sym instanceof WVariableSymbol ? (WVariableSymbol)sym : null;
+			}
+		}
+		return null;
+	}
+
+	/** Number the rooted variables of t; next[0] counts string slots, next[1] vector slots */
+	protected void slots(ParseTree t, int[] next) {
+		if ( t instanceof WichParser.BlockContext ) {
+			Scope saved = scope;
+			int[] savedNext = next.clone();
+			scope = ((WichParser.BlockContext)t).scope;
+			for (int i = 0; i<t.getChildCount(); i++) {
+				slots(t.getChild(i), next);
+			}
+			scope = saved;
+			System.arraycopy(savedNext, 0, next, 0, next.length);
+			return;
+		}
+		if ( t instanceof WichParser.VardefContext && isHeap(((WichParser.VardefContext)t).expr().exprType) ) {
+			WVariableSymbol v = resolve(((WichParser.VardefContext)t).ID().getText());
+			if ( v!=null && rooted.contains(v) ) {
+				rootSlots.put(v, next[v.getType()==SymbolTable._string ? 0 : 1]++);
+			}
+		}
+		for (int i = 0; i<t.getChildCount(); i++) {
+			slots(t.getChild(i), next);
+		}
+	}
+}
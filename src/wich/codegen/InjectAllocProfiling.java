@@ -0,0 +1,102 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.misc.Interval;
+import wich.codegen.model.AllocProfile;
+import wich.codegen.model.AllocProfileInit;
+import wich.codegen.model.File;
+import wich.codegen.model.OutputModelObject;
+import wich.codegen.model.expr.BinaryStringOp;
+import wich.codegen.model.expr.BinaryVectorOp;
+import wich.codegen.model.expr.BinaryVectorScalarOp;
+import wich.codegen.model.expr.ConstVectorLiteral;
+import wich.codegen.model.expr.Expr;
+import wich.codegen.model.expr.ProfiledAlloc;
+import wich.codegen.model.expr.StringConcat;
+import wich.codegen.model.expr.StringIndexExpr;
+import wich.codegen.model.expr.VectorCopy;
+import wich.codegen.model.expr.VectorLiteral;
+import wich.codegen.model.expr.promotion.StringFromFloat;
+import wich.codegen.model.expr.promotion.StringFromInt;
+import wich.codegen.model.expr.promotion.StringFromVector;
+import wich.semantics.SymbolTable;
+
+/** For -profile-alloc, give every expression that allocates a string or
+ *  vector a site number and wrap it in a ProfiledAlloc, which counts the
+ *  calls and bytes of that site. main prints the sites sorted by bytes
+ *  at exit. Runs last, once the target's own passes have placed their
+ *  REF/DEREFs or roots, so it only changes how the values are made.
+ *
+ *  Pooled string literals are made once by main and aren't counted.
+ */
+public class InjectAllocProfiling {
+	protected final AllocProfile profile = new AllocProfile();
+
+	public OutputModelObject exitModel(File file) {
+		if ( profile.sites.isEmpty() ) return file;
+		file.allocProfile = profile;
+		file.main.body.stats.add(0, new AllocProfileInit());
+		return file;
+	}
+
+	public OutputModelObject exitModel(VectorLiteral e)      { return site(e, e); }
+	public OutputModelObject exitModel(ConstVectorLiteral e) { return site(e, e); }
+	public OutputModelObject exitModel(VectorCopy e)         { return site(e, e, e.expr); }
+	public OutputModelObject exitModel(StringIndexExpr e)    { return site(e, e); }
+
+	// a promotion shares its operator's tree, so label it by the operand promoted
+	public OutputModelObject exitModel(StringFromInt e)      { return site(e, e.intExpr, e); }
+	public OutputModelObject exitModel(StringFromFloat e)    { return site(e, e.floatExpr, e); }
+	public OutputModelObject exitModel(StringFromVector e)   { return site(e, e.vector, e); }
+
+	public OutputModelObject exitModel(BinaryVectorOp e) {
+		return e.getType()==SymbolTable._vector ? site(e, e, e.left) : e; // comparisons make no vector
+	}
+
+	public OutputModelObject exitModel(BinaryVectorScalarOp e) {
+		return site(e, e, e.left);
+	}
+
+	public OutputModelObject exitModel(BinaryStringOp e) {
+		return e.getType()==SymbolTable._string ? site(e, e, e.left) : e;
+	}
+
+	public OutputModelObject exitModel(StringConcat e)       { return site(e, e); }
+
+	/** Number e's site after the first of from that has a source; a node
+	 *  made by CodeGenerator without a tree of its own, like a VectorCopy,
+	 *  lists the operand it was made from.
+	 */
+	protected OutputModelObject site(Expr e, Expr... from) {
+		for (Expr x : from) {
+			ParserRuleContext src = x.source;
+			if ( src==null ) continue;
+			String text = src.start.getInputStream().getText(Interval.of(src.start.getStartIndex(), src.stop.getStopIndex()));
+			return new ProfiledAlloc(e, profile.define(src.start.getLine(), text));
+		}
+		return e;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import wich.codegen.model.Func;
+import wich.codegen.model.MainFunc;
+import wich.codegen.model.OutputModelObject;
+import wich.codegen.model.ReturnStat;
+import wich.codegen.model.StringVarDefStat;
+import wich.codegen.model.VarDefStat;
+import wich.codegen.model.VectorVarDefStat;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Register as gc roots only the variables GCRoots finds live across a
+ *  point that may collect; the others become plain var definitions. A
+ *  function that roots nothing gets gcFrame false so the templates skip
+ *  saving and restoring the root stack; main always keeps its frame
+ *  because the string pool is rooted there.
+ *
+ *  With hoist (LLVM), each root slot is defined and registered once at
+ *  function entry by the first var in it, and the other vars in the slot
+ *  go by its name. Registering at the definition adds a root each time
+ *  round a loop.
+ */
+public class InjectGCRoots {
+	protected final GCRoots roots;
+	protected final boolean hoist;
+
+	protected Func currentFunc;
+	protected List<VarDefStat> slotDefs;
+	protected Set<String> definedSlots;
+
+	public InjectGCRoots(GCRoots roots, boolean hoist) {
+		this.roots = roots;
+		this.hoist = hoist;
+	}
+
+	public OutputModelObject enterModel(Func func) {
+		func.gcFrame = roots.needsFrame(func.scope);
+		return enterFunc(func);
+	}
+
+	public OutputModelObject enterModel(MainFunc func) {
+		return enterFunc(func);
+	}
+
+	protected OutputModelObject enterFunc(Func func) {
+		currentFunc = func;
+		slotDefs = new ArrayList<>();
+		definedSlots = new HashSet<>();
+		return func;
+	}
+
+	public OutputModelObject exitModel(Func func) {
+		func.body.varDefs.addAll(0, slotDefs);
+		return func;
+	}
+
+	public OutputModelObject exitModel(MainFunc func) {
+		func.body.varDefs.addAll(0, slotDefs);
+		return func;
+	}
+
+	public OutputModelObject exitModel(ReturnStat ret) {
+		ret.gcFrame = currentFunc.gcFrame;
+		return ret;
+	}
+
+	public OutputModelObject exitModel(StringVarDefStat varDef) {
+		return root(varDef);
+	}
+
+	public OutputModelObject exitModel(VectorVarDefStat varDef) {
+		return root(varDef);
+	}
+
+	protected OutputModelObject root(VarDefStat varDef) {
+		WVariableSymbol v = varDef.symbol;
+		if ( !roots.isRooted(v) ) return new VarDefStat(v, varDef.type);
+		Integer slot = roots.rootSlots.get(v);
+		if ( !hoist || slot==null ) return varDef;
+		v.rootSlot = slot;
+		if ( definedSlots.add(v.getType().getName()+v.rootSlot) ) {
+			slotDefs.add(varDef);
+		}
+		return null; // defined at entry
+	}
+}
@@ -67,8 +67,11 @@ public class InjectLLVMTraits {
 			func.body.terminate.add(new BlockTerminationVoid());
 		}
 		else {
-			func.body.terminate.add(new BlockTermination(func.returnType));
-			func.body.initialize.add(new BlockInitialization(func.returnType));
+			BlockTermination term = new BlockTermination(func.returnType);
+			BlockInitialization init = new BlockInitialization(func.returnType);
+			term.gcFrame = init.gcFrame = func.gcFrame;
+			func.body.terminate.add(term);
+			func.body.initialize.add(init);
 		}
 		return func;
 	}
@@ -31,16 +31,29 @@ import wich.codegen.model.CompositeModelObject;
 import wich.codegen.model.Func;
 import wich.codegen.model.FuncBlock;
 import wich.codegen.model.MainBlock;
+import wich.codegen.model.MainFunc;
 import wich.codegen.model.OutputModelObject;
 import wich.codegen.model.RefCountREF;
 import wich.codegen.model.ReturnStat;
+import wich.codegen.model.StringVarDefStat;
+import wich.codegen.model.VarDefStat;
 import wich.codegen.model.VarInitStat;
+import wich.codegen.model.VectorVarDefStat;
 import wich.codegen.model.expr.VarRef;
 import wich.semantics.symbols.WVariableSymbol;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class InjectRefCounting {
 	protected Func currentFunc;
 	protected Scope currentScope;
+	protected RefCountElision elision;
+
+	/** REF, DEREF and DEC sites left out, per function and in total */
+	protected final List<String> report = new ArrayList<>();
+	protected int elidedInFunc;
+	public int elided;
 
 	public OutputModelObject visitEveryModelObject(OutputModelObject o) {
 //		System.out.println("visit every node: "+o.getClass().getSimpleName());
@@ -56,6 +69,10 @@ public class InjectRefCounting {
 		if ( CodeGenerator.isHeapType(assign.expr.getType()) ) {
 			final String varName = assign.varRef.getName();
 			final WVariableSymbol varSym = (WVariableSymbol)currentScope.resolve(varName);
+			if ( elision.isElided(varSym) ) {
+				elidedInFunc++;
+				return assign;
+			}
 			final RefCountREF REF = CodeGenerator.getREF(varSym);
 			return new CompositeModelObject(assign, REF);
 		}
@@ -65,6 +82,10 @@ public class InjectRefCounting {
 	public OutputModelObject exitModel(ReturnStat retStat) {
 		if ( CodeGenerator.isHeapType(retStat.expr.getType()) ) {
 			if ( retStat.expr instanceof VarRef ) {
+				if ( elision.temps.contains(((VarRef)retStat.expr).symbol) ) {
+					elidedInFunc += 2; // the REF and DEC around EXIT()
+					return retStat;
+				}
 				// only doing the complicated return if it's a sole var ref
 				// because expressions already have a zero-reference object
 				// E.g., this is fine w/o REF/DEC:
@@ -77,25 +98,74 @@ public class InjectRefCounting {
 
 	public OutputModelObject enterModel(Func func) {
 		currentFunc = func;
+		elision = new RefCountElision(func);
+		elidedInFunc = 0;
+		return func;
+	}
+
+	public OutputModelObject enterModel(MainFunc func) {
+		return enterModel((Func)func);
+	}
+
+	public OutputModelObject exitModel(MainFunc func) {
+		endFunc(func);
 		return func;
 	}
 
+	/** A heap var slot means a DEREF when its scope ends */
+	public OutputModelObject exitModel(StringVarDefStat def) {
+		return exitModel((VarDefStat)def);
+	}
+
+	public OutputModelObject exitModel(VectorVarDefStat def) {
+		return exitModel((VarDefStat)def);
+	}
+
+	protected OutputModelObject exitModel(VarDefStat def) {
+		if ( elision.isElided(def.symbol) ) {
+			elidedInFunc++;
+			return new VarDefStat(def.symbol, def.type);
+		}
+		return def;
+	}
+
 	public OutputModelObject exitModel(Func func) {
 //		System.out.println("exitModel func");
 		// Inject REF(x) for all heap args x at start of function, DEREF at end
 		for (ArgDef arg : func.args) {
 			if ( CodeGenerator.isHeapType(arg.type.type) ) {
 				final WVariableSymbol argSym = (WVariableSymbol)func.scope.resolve(arg.getName());
+				if ( elision.readOnlyArgs.contains(argSym) ) {
+					elidedInFunc++;
+					continue;
+				}
 				func.body.stats.add(0, CodeGenerator.getREF(argSym));
 			}
 		}
 
 //		func.body.terminate.add(new RefCountDEREF());
 
-		currentFunc = null;
+		endFunc(func);
 		return func;
 	}
 
+	protected void endFunc(Func func) {
+		if ( elidedInFunc>0 ) {
+			report.add(String.format("%s: %d REF/DEREF sites elided", func.getName(), elidedInFunc));
+		}
+		elided += elidedInFunc;
+		currentFunc = null;
+	}
+
+	public String getReport() {
+		StringBuilder buf = new StringBuilder();
+		for (String line : report) {
+			buf.append(line).append('\n');
+		}
+		buf.append(String.format("total: %d REF/DEREF sites elided\n", elided));
+		return buf.toString();
+	}
+
 	public OutputModelObject enterModel(MainBlock script) {
 		enterModel((Block)script);
 		return script;
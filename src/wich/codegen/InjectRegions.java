@@ -0,0 +1,134 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import wich.codegen.model.AssignStat;
+import wich.codegen.model.Func;
+import wich.codegen.model.OutputModelObject;
+import wich.codegen.model.RegionReturnStat;
+import wich.codegen.model.RegionWhileStat;
+import wich.codegen.model.ReturnStat;
+import wich.codegen.model.VarInitStat;
+import wich.codegen.model.VectorInPlaceStat;
+import wich.codegen.model.WhileStat;
+import wich.codegen.model.expr.VarRef;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/** For REGION, give each call of a function that may allocate a region of
+ *  its own, freed wholesale when the call returns. A heap value can only
+ *  leave a call by being returned, so returns copy it into the caller's
+ *  region first. Arguments need no help: they were made by the caller and
+ *  outlive the call. Main allocates in the global region, which is never
+ *  freed.
+ *
+ *  A loop that may allocate gives each iteration a region too, or main's
+ *  loops would grow the global region for as long as they run. What an
+ *  iteration leaves behind is the heap variables it assigned; those are
+ *  copied out before its region goes, so a loop holds on to the values it
+ *  carries and no more.
+ *
+ *  Whether a function or loop may allocate comes from GCRoots.mayCollect,
+ *  the same test the collectors use to find where a collection can happen.
+ */
+public class InjectRegions {
+	protected final GCRoots roots;
+	protected Func currentFunc;
+	protected final Deque<Loop> loops = new ArrayDeque<>(); // innermost first
+
+	/** The heap variables a loop's body assigns and those it defines */
+	protected static class Loop {
+		final boolean region;
+		final List<VarRef> assigned = new ArrayList<>();
+		final Set<WVariableSymbol> seen = GCRoots.symbols();
+		final Set<WVariableSymbol> defined = GCRoots.symbols();
+
+		Loop(boolean region) { this.region = region; }
+	}
+
+	public InjectRegions(GCRoots roots) {
+		this.roots = roots;
+	}
+
+	public OutputModelObject enterModel(Func func) {
+		func.region = roots.collecting.contains(func.getName());
+		currentFunc = func;
+		return func;
+	}
+
+	public OutputModelObject exitModel(Func func) {
+		currentFunc = null;
+		return func;
+	}
+
+	public OutputModelObject exitModel(ReturnStat ret) {
+		if ( currentFunc==null || !currentFunc.region ) return ret;
+		return new RegionReturnStat(ret, loops.stream().anyMatch(l -> l.region));
+	}
+
+	public OutputModelObject enterModel(WhileStat w) {
+		loops.push(new Loop(roots.mayCollect(w.source)));
+		return w;
+	}
+
+	public OutputModelObject exitModel(WhileStat w) {
+		Loop loop = loops.pop();
+		if ( !loop.region ) return w;
+		RegionWhileStat r = new RegionWhileStat(w, loops.size()+1);
+		for (VarRef v : loop.assigned) {
+			if ( loop.defined.contains(v.symbol) ) continue;
+			if ( v.getType()==SymbolTable._vector ) r.vectors.add(v);
+			else r.strings.add(v);
+		}
+		return r;
+	}
+
+	public OutputModelObject exitModel(AssignStat a) {
+		assigned(a.varRef);
+		return a;
+	}
+
+	public OutputModelObject exitModel(VectorInPlaceStat s) {
+		assigned(s.varRef); // lengths that differ get a new vector
+		return s;
+	}
+
+	public OutputModelObject exitModel(VarInitStat v) {
+		for (Loop loop : loops) loop.defined.add(v.varRef.symbol);
+		return v;
+	}
+
+	protected void assigned(VarRef v) {
+		if ( !CodeGenerator.isHeapType(v.getType()) ) return;
+		for (Loop loop : loops) {
+			if ( loop.seen.add(v.symbol) ) loop.assigned.add(v);
+		}
+	}
+}
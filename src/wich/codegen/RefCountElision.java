@@ -0,0 +1,191 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import org.antlr.symtab.Scope;
+import wich.codegen.model.ArgDef;
+import wich.codegen.model.AssignStat;
+import wich.codegen.model.Block;
+import wich.codegen.model.ElementAssignStat;
+import wich.codegen.model.Func;
+import wich.codegen.model.OutputModelObject;
+import wich.codegen.model.ReturnStat;
+import wich.codegen.model.Stat;
+import wich.codegen.model.VarDefStat;
+import wich.codegen.model.VarInitStat;
+import wich.codegen.model.expr.BinaryOpExpr;
+import wich.codegen.model.expr.ConstVectorLiteral;
+import wich.codegen.model.expr.Expr;
+import wich.codegen.model.expr.FuncCall;
+import wich.codegen.model.expr.ProfiledAlloc;
+import wich.codegen.model.expr.StringConcat;
+import wich.codegen.model.expr.StringIndexExpr;
+import wich.codegen.model.expr.StringLiteral;
+import wich.codegen.model.expr.VarRef;
+import wich.codegen.model.expr.VectorCopy;
+import wich.codegen.model.expr.VectorLiteral;
+import wich.codegen.model.expr.promotion.StringFromFloat;
+import wich.codegen.model.expr.promotion.StringFromInt;
+import wich.codegen.model.expr.promotion.StringFromVector;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Find the heap variables of one function whose REF/DEREF pairs
+ *  InjectRefCounting can leave out because something else keeps the
+ *  object alive for as long as the variable can see it.
+ *
+ *  readOnlyArgs: args that are never assigned, element-assigned, stored
+ *  in another variable, passed to a function or returned. The caller
+ *  holds them for the whole call and nothing here can drop them.
+ *
+ *  borrowed: string locals whose every assignment is a pooled literal,
+ *  which is immortal, or an owner that outlives the local: an arg that
+ *  is never reassigned, or a local of an enclosing scope assigned once.
+ *  They are not returned, so they need neither REF nor a heap var slot.
+ *
+ *  temps: locals defined by a fresh value and used only by the return
+ *  right after the definition. The value goes back with its own count
+ *  as if the expression were returned directly. Only an op, a literal or
+ *  a promotion makes a fresh value; a call may return an object a local
+ *  here still holds, such as its own arg.
+ */
+public class RefCountElision {
+	public final Set<WVariableSymbol> readOnlyArgs = new HashSet<>();
+	public final Set<WVariableSymbol> borrowed = new HashSet<>();
+	public final Set<WVariableSymbol> temps = new HashSet<>();
+
+	protected final Map<WVariableSymbol, List<AssignStat>> assigns = new HashMap<>();
+	protected final Map<WVariableSymbol, Integer> reads = new HashMap<>();
+	protected final Set<WVariableSymbol> locals = new HashSet<>();
+	protected final Set<WVariableSymbol> escapes = new HashSet<>(); // stored, passed or returned
+	protected final Set<WVariableSymbol> written = new HashSet<>();  // element-assigned
+	protected final Set<WVariableSymbol> returned = new HashSet<>();
+	protected final Set<WVariableSymbol> returnedNext = new HashSet<>(); // init then return
+
+	public RefCountElision(Func func) {
+		new ModelWalker(this).walk(func.body);
+		for (ArgDef arg : func.args) {
+			WVariableSymbol a = arg.symbol;
+			if ( CodeGenerator.isHeapType(a.getType()) && !assigns.containsKey(a) &&
+				 !written.contains(a) && !escapes.contains(a) )
+			{
+				readOnlyArgs.add(a);
+			}
+		}
+		for (WVariableSymbol v : locals) {
+			if ( !CodeGenerator.isHeapType(v.getType()) ) continue;
+			if ( isBorrowed(v) ) borrowed.add(v);
+			else if ( isTemp(v) ) temps.add(v);
+		}
+	}
+
+	public boolean isElided(WVariableSymbol v) {
+		return borrowed.contains(v) || temps.contains(v);
+	}
+
+	protected boolean isBorrowed(WVariableSymbol v) {
+		if ( v.getType()!=SymbolTable._string || returned.contains(v) ) return false;
+		for (AssignStat a : assigns.get(v)) {
+			if ( a.expr instanceof StringLiteral ) continue;
+			if ( !(a.expr instanceof VarRef) ) return false;
+			WVariableSymbol owner = ((VarRef)a.expr).symbol;
+			if ( locals.contains(owner) ) {
+				List<AssignStat> ownerAssigns = assigns.get(owner);
+				if ( ownerAssigns.size()!=1 || ownerAssigns.get(0).expr instanceof VarRef ) return false;
+				if ( !encloses(owner.getScope(), v.getScope()) ) return false;
+			}
+			else if ( assigns.containsKey(owner) ) return false; // reassigned arg
+		}
+		return true;
+	}
+
+	protected boolean isTemp(WVariableSymbol v) {
+		List<AssignStat> a = assigns.get(v);
+		return a.size()==1 && returnedNext.contains(v) && reads.getOrDefault(v, 0)==1 &&
+			   isFresh(a.get(0).expr);
+	}
+
+	protected static boolean isFresh(Expr e) {
+		if ( e instanceof ProfiledAlloc ) e = ((ProfiledAlloc)e).expr;
+		return e instanceof BinaryOpExpr || e instanceof StringConcat || e instanceof StringIndexExpr ||
+			   e instanceof StringLiteral || e instanceof VectorLiteral || e instanceof ConstVectorLiteral ||
+			   e instanceof StringFromInt || e instanceof StringFromFloat || e instanceof StringFromVector;
+	}
+
+	protected static boolean encloses(Scope outer, Scope inner) {
+		for (Scope s = inner; s!=null; s = s.getEnclosingScope()) {
+			if ( s==outer ) return true;
+		}
+		return false;
+	}
+
+	public OutputModelObject visitEveryModelObject(OutputModelObject o) {
+		if ( o instanceof AssignStat ) {
+			AssignStat a = (AssignStat)o;
+			assigns.computeIfAbsent(a.varRef.symbol, k -> new ArrayList<>()).add(a);
+			reads.merge(a.varRef.symbol, -1, Integer::sum); // the target isn't a read
+			escape(a.expr);
+		}
+		else if ( o instanceof ElementAssignStat ) {
+			written.add(((ElementAssignStat)o).varRef.symbol);
+		}
+		else if ( o instanceof ReturnStat ) {
+			Expr e = ((ReturnStat)o).expr;
+			if ( e instanceof VarRef ) returned.add(((VarRef)e).symbol);
+			escape(e);
+		}
+		else if ( o instanceof FuncCall ) {
+			for (Expr arg : ((FuncCall)o).args) escape(arg);
+		}
+		else if ( o instanceof VarDefStat ) {
+			locals.add(((VarDefStat)o).symbol);
+		}
+		else if ( o instanceof VarRef ) {
+			reads.merge(((VarRef)o).symbol, 1, Integer::sum);
+		}
+		else if ( o instanceof Block ) {
+			List<Stat> stats = ((Block)o).stats;
+			for (int i = 0; i+1<stats.size(); i++) {
+				if ( stats.get(i) instanceof VarInitStat && stats.get(i+1) instanceof ReturnStat ) {
+					Expr e = ((ReturnStat)stats.get(i+1)).expr;
+					WVariableSymbol v = ((VarInitStat)stats.get(i)).varRef.symbol;
+					if ( e instanceof VarRef && ((VarRef)e).symbol==v ) returnedNext.add(v);
+				}
+			}
+		}
+		return o;
+	}
+
+	protected void escape(Expr e) {
+		if ( e instanceof VectorCopy ) e = ((VectorCopy)e).expr;
+		if ( e instanceof VarRef ) escapes.add(((VarRef)e).symbol);
+	}
+}
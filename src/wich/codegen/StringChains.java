@@ -0,0 +1,86 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The operands of a chain of string +, found on the parse tree so every
+ *  target can build the string in one step rather than one + at a time.
+ *
+ *  a + b + c parses as (a + b) + c and its parts are a, b and c. Any
+ *  operand of a string + that is itself a string +, in parentheses or
+ *  not, is taken apart too, since concatenation is associative. A part
+ *  that isn't a string is left as it is; the target formats it into the
+ *  result just as its promotion to string would have.
+ */
+public class StringChains {
+	/** Is e a string +? */
+	public static boolean isConcat(WichParser.ExprContext e) {
+		e = stripParens(e);
+		return e instanceof WichParser.OpContext &&
+			   ((WichParser.OpContext)e).operator().ADD()!=null &&
+			   e.exprType==SymbolTable._string;
+	}
+
+	/** The parts of string + op, left to right */
+	public static List<WichParser.ExprContext> parts(WichParser.ExprContext op) {
+		List<WichParser.ExprContext> parts = new ArrayList<>();
+		collect(op, parts);
+		return parts;
+	}
+
+	/** Does joining op's parts at once save a string over doing its + alone?
+	 *  It does unless op is a single + of two strings.
+	 */
+	public static boolean isChain(WichParser.OpContext op) {
+		List<WichParser.ExprContext> parts = parts(op);
+		if ( parts.size()>2 ) return true;
+		for (WichParser.ExprContext e : parts) {
+			if ( e.exprType!=SymbolTable._string ) return true;
+		}
+		return false;
+	}
+
+	protected static void collect(WichParser.ExprContext e, List<WichParser.ExprContext> parts) {
+		if ( isConcat(e) ) {
+			WichParser.OpContext op = (WichParser.OpContext)stripParens(e);
+			collect(op.expr(0), parts);
+			collect(op.expr(1), parts);
+		}
+		else {
+			parts.add(e);
+		}
+	}
+
+	protected static WichParser.ExprContext stripParens(WichParser.ExprContext e) {
+		while ( e instanceof WichParser.ParensContext ) {
+			e = ((WichParser.ParensContext)e).expr();
+		}
+		return e;
+	}
+}
@@ -0,0 +1,300 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen;
+
+import org.antlr.symtab.Scope;
+import org.antlr.symtab.Symbol;
+import org.antlr.v4.runtime.tree.ParseTree;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Decide which vector identifiers and call results must be copied when
+ *  they are stored in a variable or passed as an argument, computed once
+ *  over the parse tree so every target copies in the same places.
+ *
+ *  Vectors have value semantics, but the only way to see that two names
+ *  share a vector is to element-assign through one and read the other.
+ *  A function can't see the script's variables and no vector holds
+ *  another, so sharing can only start at an assignment, an argument or a
+ *  return.
+ *
+ *  An argument is copied only if the callee element-assigns that
+ *  parameter, and then not if it is the result of a fresh call.
+ *  Arguments a callee doesn't write reach it uncopied, but its locals
+ *  share them only under the next rule, so its writes never reach the
+ *  caller's vector.
+ *
+ *  v = w is copied only if v or w is element-assigned in the function.
+ *  v = f() is copied only if f isn't fresh.
+ *
+ *  A function is fresh if every vector it returns is new: the result of
+ *  a vector op, literal or promotion, of a fresh call, or a variable that
+ *  never takes another variable's vector uncopied. A parameter counts
+ *  only if the function writes it, since then every caller passes a copy
+ *  or a fresh result. This is the largest set closed under those rules;
+ *  recursion assumes the callee is fresh until a return proves otherwise.
+ *
+ *  Functions without a parse tree here, such as a linked module's, are
+ *  taken to write every argument and to return nothing fresh.
+ *
+ *  v = v op w, for a vector op + - * / with a vector w, updates v's
+ *  vector in place if v owns it: v is a local, not a parameter, never
+ *  element-assigned, every definition of v is an op or literal (never
+ *  another variable's vector or a call result), and v is never stored
+ *  in another variable or passed to a function. Then nothing else can
+ *  reach the vector, so nobody sees it change.
+ */
+public class VectorCopies {
+	/** Functions whose vector result nobody else holds */
+	public final Set<String> fresh = new HashSet<>();
+	/** Indexes of the parameters each function element-assigns */
+	public final Map<String, Set<Integer>> writtenArgs = new HashMap<>();
+
+	protected final Set<WichParser.ExprContext> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+	protected final Set<WichParser.AssignContext> inPlace = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	protected final Map<String, WichParser.FunctionContext> functions = new HashMap<>();
+	// symbols are equal by name, so these go by identity to keep each function's apart
+	protected final Set<WVariableSymbol> written = Collections.newSetFromMap(new IdentityHashMap<>()); // element-assigned
+	protected final Set<WVariableSymbol> args = Collections.newSetFromMap(new IdentityHashMap<>());
+	protected final Map<WVariableSymbol, List<WichParser.ExprContext>> defs = new IdentityHashMap<>();
+	protected final Map<WichParser.ExprContext, WVariableSymbol> targets = new IdentityHashMap<>(); // stored in
+	protected final Map<WichParser.ExprContext, WichParser.Call_exprContext> calls = new IdentityHashMap<>(); // passed to
+	protected final Map<WichParser.ExprContext, WVariableSymbol> idents = new IdentityHashMap<>();
+	protected final Map<String, List<WichParser.ExprContext>> returns = new HashMap<>();
+	protected final Map<WichParser.AssignContext, WVariableSymbol> assigns = new IdentityHashMap<>();
+	protected WFunctionSymbol func;     // null for the script's statements
+	protected Scope scope;
+
+	public VectorCopies(WichParser.ScriptContext tree) {
+		for (WichParser.FunctionContext f : tree.function()) {
+			functions.put(f.ID().getText(), f);
+			func = f.scope;
+			scope = f.scope;
+			returns.put(f.ID().getText(), new ArrayList<>());
+			if ( f.formal_args()!=null ) {
+				for (WichParser.Formal_argContext a : f.formal_args().formal_arg()) {
+					args.add(resolve(a.ID().getText()));
+				}
+			}
+			record(f.block());
+		}
+		func = null;
+		scope = tree.scope;
+		for (WichParser.StatementContext s : tree.statement()) {
+			record(s);
+		}
+
+		for (WichParser.FunctionContext f : tree.function()) {
+			Set<Integer> w = new HashSet<>();
+			if ( f.formal_args()!=null ) {
+				List<WichParser.Formal_argContext> formals = f.formal_args().formal_arg();
+				for (int i = 0; i<formals.size(); i++) {
+					if ( written.contains((WVariableSymbol)f.scope.getSymbol(formals.get(i).ID().getText())) ) w.add(i);
+				}
+			}
+			writtenArgs.put(f.ID().getText(), w);
+			if ( f.scope.getType()==SymbolTable._vector ) fresh.add(f.ID().getText());
+		}
+		boolean changed = true;
+		while ( changed ) {
+			changed = false;
+			for (String f : new ArrayList<>(fresh)) {
+				for (WichParser.ExprContext e : returns.get(f)) {
+					if ( !isFresh(e) ) {
+						fresh.remove(f);
+						changed = true;
+						break;
+					}
+				}
+			}
+		}
+
+		for (Map.Entry<WichParser.ExprContext, WVariableSymbol> t : targets.entrySet()) {
+			WichParser.ExprContext e = t.getKey();
+			if ( e instanceof WichParser.CallContext ) {
+				if ( !isFreshCall(e) ) copies.add(e);
+			}
+			else if ( written.contains(t.getValue()) || written.contains(idents.get(e)) ) {
+				copies.add(e);
+			}
+		}
+		for (Map.Entry<WichParser.ExprContext, WichParser.Call_exprContext> c : calls.entrySet()) {
+			WichParser.ExprContext e = c.getKey();
+			Set<Integer> w = writtenArgs.get(c.getValue().ID().getText());
+			boolean writes = w==null || w.contains(c.getValue().expr_list().expr().indexOf(e));
+			if ( writes && !(e instanceof WichParser.CallContext && isFreshCall(e)) ) copies.add(e);
+		}
+
+		Set<WVariableSymbol> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Map.Entry<WichParser.ExprContext, WVariableSymbol> id : idents.entrySet()) {
+			if ( isStoredOrPassed(id.getKey()) ) shared.add(id.getValue());
+		}
+		for (Map.Entry<WichParser.AssignContext, WVariableSymbol> a : assigns.entrySet()) {
+			WVariableSymbol v = a.getValue();
+			if ( v==null || args.contains(v) || written.contains(v) || shared.contains(v) ) continue;
+			WichParser.ExprContext e = stripParens(a.getKey().expr());
+			if ( !(e instanceof WichParser.OpContext) || !isInPlaceOp((WichParser.OpContext)e) ) continue;
+			WichParser.OpContext op = (WichParser.OpContext)e;
+			if ( idents.get(stripParens(op.expr(0)))!=v ) continue;
+			boolean owns = true;
+			for (WichParser.ExprContext d : defs.get(v)) {
+				d = stripParens(d);
+				if ( idents.containsKey(d) || d instanceof WichParser.CallContext ) owns = false;
+			}
+			if ( owns ) inPlace.add(a.getKey());
+		}
+	}
+
+	/** Must e, stored in a variable or passed as an argument, be copied first? */
+	public boolean isCopyNeeded(WichParser.ExprContext e) {
+		return copies.contains(e);
+	}
+
+	/** Can v = v op w write the result into v's vector? */
+	public boolean isInPlace(WichParser.AssignContext a) {
+		return inPlace.contains(a);
+	}
+
+	protected boolean isFresh(WichParser.ExprContext e) {
+		if ( e instanceof WichParser.ParensContext ) return isFresh(((WichParser.ParensContext)e).expr());
+		if ( e instanceof WichParser.CallContext ) return isFreshCall(e);
+		WVariableSymbol v = idents.get(e);
+		if ( v==null ) return true; // an op, literal or promotion makes a new vector
+		if ( args.contains(v) && !written.contains(v) ) return false; // the caller's vector, uncopied
+		for (WichParser.ExprContext d : defs.getOrDefault(v, Collections.emptyList())) {
+			if ( idents.containsKey(d) && !written.contains(v) && !written.contains(idents.get(d)) ) {
+				return false; // takes another variable's vector uncopied
+			}
+		}
+		return true;
+	}
+
+	protected boolean isFreshCall(WichParser.ExprContext e) {
+		return fresh.contains(((WichParser.CallContext)e).call_expr().ID().getText());
+	}
+
+	protected void record(ParseTree t) {
+		if ( t instanceof WichParser.BlockContext ) {
+			Scope saved = scope;
+			scope = ((WichParser.BlockContext)t).scope;
+			for (int i = 0; i<t.getChildCount(); i++) {
+				record(t.getChild(i));
+			}
+			scope = saved;
+			return;
+		}
+		if ( t instanceof WichParser.ElementAssignContext ) {
+			written.add(resolve(((WichParser.ElementAssignContext)t).ID().getText()));
+		}
+		else if ( t instanceof WichParser.VardefContext ) {
+			WichParser.VardefContext d = (WichParser.VardefContext)t;
+			if ( d.expr().exprType==SymbolTable._vector ) define(resolve(d.ID().getText()), d.expr());
+		}
+		else if ( t instanceof WichParser.AssignContext ) {
+			WichParser.AssignContext a = (WichParser.AssignContext)t;
+			if ( a.expr().exprType==SymbolTable._vector ) { // only vectors are copied
+				WVariableSymbol v = resolve(a.ID().getText());
+				define(v, a.expr());
+				assigns.put(a, v);
+			}
+		}
+		else if ( t instanceof WichParser.ReturnContext && func!=null ) {
+			returns.get(func.getName()).add(((WichParser.ReturnContext)t).expr());
+		}
+		else if ( t instanceof WichParser.Call_exprContext ) {
+			WichParser.Call_exprContext c = (WichParser.Call_exprContext)t;
+			if ( c.expr_list()!=null ) {
+				for (WichParser.ExprContext e : c.expr_list().expr()) {
+					if ( isCandidate(e) ) calls.put(e, c);
+				}
+			}
+		}
+		else if ( t instanceof WichParser.AtomContext && ((WichParser.AtomContext)t).exprType==SymbolTable._vector &&
+				  ((WichParser.AtomContext)t).primary() instanceof WichParser.IdentifierContext )
+		{
+			WVariableSymbol v = resolve(((WichParser.IdentifierContext)((WichParser.AtomContext)t).primary()).ID().getText());
+			if ( v!=null ) idents.put((WichParser.ExprContext)t, v);
+		}
+		for (int i = 0; i<t.getChildCount(); i++) {
+			record(t.getChild(i));
+		}
+	}
+
+	protected void define(WVariableSymbol v, WichParser.ExprContext e) {
+		if ( v==null || v.getType()!=SymbolTable._vector ) return;
+		defs.computeIfAbsent(v, k -> new ArrayList<>()).add(e);
+		if ( isCandidate(e) ) targets.put(e, v);
+	}
+
+	/** Is identifier e, maybe parenthesized, the value of a definition or an argument? */
+	protected static boolean isStoredOrPassed(WichParser.ExprContext e) {
+		ParseTree p = e.getParent();
+		while ( p instanceof WichParser.ParensContext ) p = p.getParent();
+		return p instanceof WichParser.VardefContext || p instanceof WichParser.AssignContext ||
+			   (p instanceof WichParser.Expr_listContext && p.getParent() instanceof WichParser.Call_exprContext);
+	}
+
+	protected static boolean isInPlaceOp(WichParser.OpContext op) {
+		WichParser.OperatorContext o = op.operator();
+		return op.expr(0).exprType==SymbolTable._vector && op.expr(1).exprType==SymbolTable._vector &&
+			   (o.ADD()!=null || o.SUB()!=null || o.MUL()!=null || o.DIV()!=null);
+	}
+
+	protected static WichParser.ExprContext stripParens(WichParser.ExprContext e) {
+		while ( e instanceof WichParser.ParensContext ) e = ((WichParser.ParensContext)e).expr();
+		return e;
+	}
+
+	/** Only an identifier or a call can share its vector */
+	protected static boolean isCandidate(WichParser.ExprContext e) {
+		if ( e.exprType!=SymbolTable._vector ) return false;
+		return e instanceof WichParser.CallContext ||
+			   (e instanceof WichParser.AtomContext && ((WichParser.AtomContext)e).primary() instanceof WichParser.IdentifierContext);
+	}
+
+	/** Resolve from the current scope; a function body sees its args but not the script's variables */
+	protected WVariableSymbol resolve(String name) {
+		for (Scope s = scope; s!=null; s = s.getEnclosingScope()) {
+			Symbol sym = s.getSymbol(name);
+			if ( sym instanceof WVariableSymbol ) return (WVariableSymbol)sym;
+			if ( func!=null && (s==func || s.getEnclosingScope()==func.getEnclosingScope()) ) {
+				sym = func.getSymbol(name);
+				return sym instanceof WVariableSymbol ? (WVariableSymbol)sym : null;
+			}
+		}
+		return null;
+	}
+}
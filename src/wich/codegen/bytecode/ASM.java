@@ -2,20 +2,22 @@ package wich.codegen.bytecode;
 
 import wich.semantics.SymbolTable;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import static wich.codegen.bytecode.Opcode.*;
 
 /** Routines to generate Wich bytecode.
  *
- *  This collects code for all functions as it needs to compute
- *  addresses for function starts.  All code for all functions gets
- *  packed together into code segment.
+ *  Code for the function being generated is appended to one growable
+ *  buffer. Branches name a label rather than an offset; mark() places the
+ *  label and BytecodeWriter.computeCodeAddresses() patches every branch in
+ *  one pass once all functions are laid out, so nothing here needs to
+ *  know the size of code it hasn't generated yet.
+ *
+ *  The buffer is a packed {@link CodeBlock}, not a list of objects, so
+ *  an instruction costs 16 bytes while the compiler works on it.
  */
 public class ASM {
-	public List<String> instructions = new ArrayList<String>(); // final list of instructions
-	public List<String> buffer = new ArrayList<String>(); // build up code until we "commit"/save to a node
+	/** The function being generated; see begin() */
+	public CodeBlock code = new CodeBlock();
 
 	/** assume little-endian (yuck) used by x86 and ARM on BeagleBone Black. */
 	public boolean littleEndian = true;
@@ -26,117 +28,168 @@ public class ASM {
 		this.symtab = symtab;
 	}
 
-	// These functions add instructions and return the instruction index not ip
-
-	public Instr halt()				{ return new Instr("HALT"); }
-	public Instr iadd()				{ return new Instr("IADD"); }
-	public Instr isub()				{ return new Instr("ISUB"); }
-	public Instr imul()				{ return new Instr("IMUL"); }
-	public Instr idiv()				{ return new Instr("IDIV"); }
-	public Instr fadd()				{ return new Instr("FADD"); }
-	public Instr fsub()				{ return new Instr("FSUB"); }
-	public Instr fmul()				{ return new Instr("FMUL"); }
-	public Instr fdiv()				{ return new Instr("FDIV"); }
-	public Instr vadd()				{ return new Instr("VADD");	}
-	public Instr vsub()				{ return new Instr("VSUB");	}
-	public Instr vmul()				{ return new Instr("VMUL");	}
-	public Instr vdiv()				{ return new Instr("VDIV");	}
-	public Instr sadd()				{ return new Instr("SADD");	}
-	public Instr vaddi()            { return new Instr("VADDI"); }
-	public Instr vaddf()            { return new Instr("VADDF"); }
-	public Instr vsubi()            { return new Instr("VSUBI"); }
-	public Instr vsubf()            { return new Instr("VSUBF"); }
-	public Instr vmuli()            { return new Instr("VMULI"); }
-	public Instr vmulf()            { return new Instr("VMULF"); }
-	public Instr vdivi()            { return new Instr("VDIVI"); }
-	public Instr vdivf()            { return new Instr("VDIVF"); }
-
-
-	public Instr or()				{ return new Instr("OR"); }
-	public Instr and()				{ return new Instr("AND"); }
-
-	public Instr ineg()				{ return new Instr("INEG"); }
-	public Instr fneg()				{ return new Instr("FNEG"); }
-	public Instr not()				{ return new Instr("NOT"); }
-
-	public Instr i2f()				{ return new Instr("I2F"); }
-	public Instr i2s()				{ return new Instr("I2S"); }
-
-	public Instr f2s()				{ return new Instr("F2S"); }
-	public Instr v2s()              { return new Instr("V2S"); }
-
-	public Instr ieq()				{ return new Instr("IEQ"); }
-	public Instr ineq()				{ return new Instr("INEQ"); }
-	public Instr ilt()				{ return new Instr("ILT"); }
-	public Instr ile()				{ return new Instr("ILE"); }
-	public Instr igt()				{ return new Instr("IGT"); }
-	public Instr ige()				{ return new Instr("IGE"); }
-	public Instr feq()				{ return new Instr("FEQ"); }
-	public Instr fneq()				{ return new Instr("FNEQ"); }
-	public Instr flt()				{ return new Instr("FLT"); }
-	public Instr fle()				{ return new Instr("FLE"); }
-	public Instr fgt()				{ return new Instr("FGT"); }
-	public Instr fge()				{ return new Instr("FGE"); }
-	public Instr veq()              { return new Instr("VEQ"); }
-	public Instr vneq()             { return new Instr("VNEQ"); }
-	public Instr seq()              { return new Instr("SEQ"); }
-	public Instr sneq()             { return new Instr("SNEQ"); }
-	public Instr slt()				{ return new Instr("SLT"); }
-	public Instr sle()				{ return new Instr("SLE"); }
-	public Instr sgt()				{ return new Instr("SGT"); }
-	public Instr sge()				{ return new Instr("SGE"); }
-
-
-	public Instr br()				{ return new Instr("BR", 0); }
-	public Instr br(int a)			{ return new Instr("BR", a); }  // opnd is relative to start of BR instruction, which is offset 0
-	public Instr brf()				{ return new Instr("BRF", 0); }
-	public Instr brf(int a)			{ return new Instr("BRF", a); } // opnd arg is relative to next instruction being 0
-
-	public Instr iconst(int v)		{ return new Instr("ICONST", v, 5); }
-	public Instr fconst(float v)	{ return new Instr("FCONST", v, 9); }
-	public Instr sconst(int i)		{ return new Instr("SCONST",i); }
-
-	public Instr iload(int i)		{ return new Instr("ILOAD", i); }
-	public Instr fload(int i)		{ return new Instr("FLOAD", i); }
-	public Instr vload(int i)		{ return new Instr("VLOAD", i); }
-	public Instr sload(int i)		{ return new Instr("SLOAD", i); }
-	public Instr store(int i)		{ return new Instr("STORE", i); }
-
-	public Instr vector()           { return new Instr("VECTOR"); }
-	public Instr sload_index()		{ return new Instr("SLOAD_INDEX"); }
-	public Instr vload_index()      { return new Instr("VLOAD_INDEX"); }
-	public Instr store_index()		{ return new Instr("STORE_INDEX"); }
-	public Instr push_dflt_value()	{ return new Instr("PUSH_DFLT_RETV"); }
-	public Instr pop()              { return new Instr("POP");  }
-	public Instr call(int i)		{ return new Instr("CALL", i); }
-	public Instr ret()				{ return new Instr("RET"); }
-
-	public Instr iprint()			{ return new Instr("IPRINT"); }
-	public Instr fprint()			{ return new Instr("FPRINT"); }
-	public Instr bprint()			{ return new Instr("BPRINT"); }
-	public Instr sprint()			{ return new Instr("SPRINT"); }
-	public Instr vprint()			{ return new Instr("VPRINT"); }
-	public Instr nop()				{ return new Instr("NOP"); }
-	public Instr vlen()				{ return new Instr("VLEN"); }
-	public Instr slen()				{ return new Instr("SLEN"); }
-	public Instr gc_start()			{ return new Instr("GC_START"); }
-	public Instr gc_end()			{ return new Instr("GC_END"); }
-	public Instr sroot()			{ return new Instr("SROOT"); }
-	public Instr vroot()			{ return new Instr("VROOT"); }
-	public Instr vec_copy()			{ return new Instr("COPY_VECTOR");}
-
-	public void gen(String format, Object... args) {
-		buffer.add(String.format(format + "\n", args));
+	/** Start a new function; return its buffer */
+	public CodeBlock begin() {
+		code = new CodeBlock();
+		return code;
 	}
 
-	public void emit(List<String> code) {
-		instructions.addAll(code);
+	public void emit(Opcode op) {
+		code.add(op, 0, 0, 0);
 	}
 
-	public List<String> commit() {
-		ArrayList<String> code = new ArrayList<String>();
-		code.addAll(instructions);
-		instructions.clear();
-		return code;
+	public void emit(Opcode op, int a) {
+		code.add(op, a, 0, 0);
+	}
+
+	public void emit(Opcode op, int a, int b) {
+		code.add(op, a, b, 0);
+	}
+
+	public void emit(Opcode op, int a, int b, int c) {
+		code.add(op, a, b, c);
 	}
+
+	public void emit(Opcode op, float v) {
+		code.add(op, Float.floatToRawIntBits(v), 0, 0);
+	}
+
+	/** A new label for the current function */
+	public int label() {
+		return code.newLabel();
+	}
+
+	/** Place label L before the next instruction emitted */
+	public void mark(int L) {
+		code.add(LABEL, L, 0, 0);
+	}
+
+	// These functions append one instruction to the buffer
+
+	public void halt()				{ emit(HALT); }
+	public void iadd()				{ emit(IADD); }
+	public void isub()				{ emit(ISUB); }
+	public void imul()				{ emit(IMUL); }
+	public void idiv()				{ emit(IDIV); }
+	public void fadd()				{ emit(FADD); }
+	public void fsub()				{ emit(FSUB); }
+	public void fmul()				{ emit(FMUL); }
+	public void fdiv()				{ emit(FDIV); }
+	public void vadd()				{ emit(VADD); }
+	public void vsub()				{ emit(VSUB); }
+	public void vmul()				{ emit(VMUL); }
+	public void vdiv()				{ emit(VDIV); }
+	public void sadd()				{ emit(SADD); }
+	public void sconcat(int n)		{ emit(SCONCAT, n); }
+	public void printn(int n, int kinds) { emit(PRINTN, n, kinds); }
+	public void vaddi()            { emit(VADDI); }
+	public void vaddf()            { emit(VADDF); }
+	public void vsubi()            { emit(VSUBI); }
+	public void vsubf()            { emit(VSUBF); }
+	public void vmuli()            { emit(VMULI); }
+	public void vmulf()            { emit(VMULF); }
+	public void vdivi()            { emit(VDIVI); }
+	public void vdivf()            { emit(VDIVF); }
+	public void vrsubf()           { emit(VRSUBF); }
+	public void vrdivf()           { emit(VRDIVF); }
+
+
+	public void or()				{ emit(OR); }
+	public void and()				{ emit(AND); }
+
+	public void ineg()				{ emit(INEG); }
+	public void fneg()				{ emit(FNEG); }
+	public void not()				{ emit(NOT); }
+
+	public void i2f()				{ emit(I2F); }
+	public void i2s()				{ emit(I2S); }
+
+	public void f2s()				{ emit(F2S); }
+	public void v2s()              { emit(V2S); }
+
+	public void ieq()				{ emit(IEQ); }
+	public void ineq()				{ emit(INEQ); }
+	public void ilt()				{ emit(ILT); }
+	public void ile()				{ emit(ILE); }
+	public void igt()				{ emit(IGT); }
+	public void ige()				{ emit(IGE); }
+	public void feq()				{ emit(FEQ); }
+	public void fneq()				{ emit(FNEQ); }
+	public void flt()				{ emit(FLT); }
+	public void fle()				{ emit(FLE); }
+	public void fgt()				{ emit(FGT); }
+	public void fge()				{ emit(FGE); }
+	public void veq()              { emit(VEQ); }
+	public void vneq()             { emit(VNEQ); }
+	public void seq()              { emit(SEQ); }
+	public void sneq()             { emit(SNEQ); }
+	public void slt()				{ emit(SLT); }
+	public void sle()				{ emit(SLE); }
+	public void sgt()				{ emit(SGT); }
+	public void sge()				{ emit(SGE); }
+
+
+	public void br(int L)			{ emit(BR, L); }  // offset is relative to start of BR instruction, which is offset 0
+	public void brf(int L)			{ emit(BRF, L); }
+	public void brt(int L)			{ emit(BRT, L); }
+
+	// superinstructions; see SuperinstructionSelector
+	public void br_cmp(Opcode br, int L) { emit(br, L); } // pop b, a; branch if a cmp b
+	public void vload_local_index(int v, int i) { emit(VLOAD_LOCAL_INDEX, v, i); }
+	public void iinc(int i, int k)	{ emit(IINC, i, k); }
+
+	public void iconst(int v)		{ emit(ICONST, v); }
+	public void fconst(float v)		{ emit(FCONST, v); }
+	public void sconst(int i)		{ emit(SCONST, i); }
+	public void vconst(int i)		{ emit(VCONST, i); }
+
+	public void iload(int i)		{ emit(ILOAD, i); }
+	public void fload(int i)		{ emit(FLOAD, i); }
+	public void vload(int i)		{ emit(VLOAD, i); }
+	public void sload(int i)		{ emit(SLOAD, i); }
+	public void store(int i)		{ emit(STORE, i); }
+
+	public void vector()           { emit(VECTOR); }
+	public void sload_index()		{ emit(SLOAD_INDEX); }
+	public void vload_index()      { emit(VLOAD_INDEX); }
+	public void store_index()		{ emit(STORE_INDEX); }
+	public void push_dflt_value()	{ emit(PUSH_DFLT_RETV); }
+	public void pop()              { emit(POP); }
+	public void dup()              { emit(DUP); }
+	public void call(int i)		{ emit(CALL, i); }
+	public void ret()				{ emit(RET); }
+
+	public void iprint()			{ emit(IPRINT); }
+	public void fprint()			{ emit(FPRINT); }
+	public void bprint()			{ emit(BPRINT); }
+	public void sprint()			{ emit(SPRINT); }
+	public void vprint()			{ emit(VPRINT); }
+	public void nop()				{ emit(NOP); }
+	public void vlen()				{ emit(VLEN); }
+	public void slen()				{ emit(SLEN); }
+	// register form; operands are frame slots except constants, offsets and function indexes
+	public void op_r(Opcode op, int a)		{ emit(op, a); }
+	public void op_r(Opcode op, int a, int b) { emit(op, a, b); }
+	public void op_r(Opcode op, int a, int b, int c) { emit(op, a, b, c); }
+	public void move_r(int d, int s)		{ emit(MOVE_R, d, s); }
+	public void iconst_r(int d, int v)		{ emit(ICONST_R, d, v); }
+	public void fconst_r(int d, float v)	{ emit(FCONST_R, d, Float.floatToRawIntBits(v)); }
+	public void sconst_r(int d, int i)		{ emit(SCONST_R, d, i); }
+	public void vconst_r(int d, int i)		{ emit(VCONST_R, d, i); }
+	public void iaddi_r(int d, int s, int k) { emit(IADDI_R, d, s, k); }
+	public void brf_r(int c, int L)			{ emit(BRF_R, c, L); }
+	public void brt_r(int c, int L)			{ emit(BRT_R, c, L); }
+	public void br_cmp_r(Opcode br, int a, int b, int L) { emit(br, a, b, L); } // branch if a cmp b
+	public void call_r(int first, int d, int f) { emit(CALL_R, first, d, f); }
+	public void vector_r(int d, int first, int n) { emit(VECTOR_R, d, first, n); }
+	public void sconcat_r(int d, int first, int n) { emit(SCONCAT_R, d, first, n); }
+	public void printn_r(int first, int n, int kinds) { emit(PRINTN_R, first, n, kinds); }
+	public void ret_r(int s)				{ emit(RET_R, s); }
+	public void dflt_r(int d)				{ emit(DFLT_R, d); }
+
+	public void gc_start()			{ emit(GC_START); }
+	public void gc_end()			{ emit(GC_END); }
+	public void sroot()			{ emit(SROOT); }
+	public void vroot()			{ emit(VROOT); }
+	public void vec_copy()			{ emit(COPY_VECTOR); }
 }
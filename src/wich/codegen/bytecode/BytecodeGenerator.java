@@ -6,10 +6,15 @@ import org.antlr.symtab.Symbol;
 import org.antlr.symtab.Type;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.misc.NotNull;
+import org.antlr.v4.runtime.tree.ParseTree;
 import wich.parser.WichBaseVisitor;
 import wich.parser.WichParser;
+import wich.codegen.GCRoots;
+import wich.codegen.StringChains;
 import wich.semantics.SymbolTable;
+import wich.semantics.TypeHelper;
 import wich.semantics.symbols.*;
+import wich.vm.Bytecodes;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,14 +38,24 @@ import wich.semantics.CommonWichListener;
  *  If I am going to compute and store code for each node, the negative of
  *  visitors, having to manually visit children, is overcome.  Oh, the basevisitor
  *  gen'd class actually does that for me. It makes sure we visit everything.
+ *
+ *  Visiting emits straight into asm's buffer for the current function
+ *  rather than returning code blocks to be joined and measured on the way
+ *  up, which copied each instruction once per level of nesting. Branches
+ *  go to labels that BytecodeWriter resolves after layout.
  */
-public class BytecodeGenerator extends WichBaseVisitor<Code> {
+public class BytecodeGenerator extends WichBaseVisitor<Void> {
 	public SymbolTable symtab;
 	public Scope currentScope;
 
 	public ASM asm;
-	Map<String, Code> functionBodies = new LinkedHashMap<String, Code>();
-	Code globalInitCode = Code.None; // stick at start of main
+	Map<String, CodeBlock> functionBodies = new LinkedHashMap<String, CodeBlock>();
+	protected WFunctionSymbol main; // globals move here as code for their definitions is generated
+	protected GCRoots roots;
+	protected boolean gcFrame; // does the current function save and restore the root stack?
+
+	/** Use the instructions past the baseline set; see BytecodeWriter.extensions */
+	public boolean extensions;
 
 	public BytecodeGenerator(SymbolTable symtab) {
 		this.symtab = symtab;
@@ -48,426 +63,594 @@ public class BytecodeGenerator extends WichBaseVisitor<Code> {
 		currentScope = symtab.GLOBALS;
 	}
 
-	/** This and defaultResult() critical to getting code to bubble up the
-	 *  visitor call stack when we don't implement every method.
-	 */
-	@Override
-	protected Code aggregateResult(Code aggregate, Code nextResult) {
-		if ( aggregate!=Code.None ) {
-			if ( nextResult!=Code.None ) {
-				return aggregate.join(nextResult);
-			}
-			return aggregate;
-		}
-		else {
-			return nextResult;
+	public Void visit(@NotNull WichParser.ScriptContext ctx) {
+		roots = new GCRoots(ctx);
+		for (WichParser.FunctionContext f: ctx.function()) {
+			FrameLayout.layout(f);
+			visit(f);
 		}
-	}
 
-	@Override
-	protected Code defaultResult() {
-		return Code.None;
+		main = new WFunctionSymbol("main");
+		main.setType(SymbolTable._void);
+		FrameLayout.layout(main, ctx);
+		symtab.defineFunction(main);
+		pushScope(main);
+		functionBodies.put("main", genMain(ctx));
+		popScope();
+		return null;
 	}
 
-	public Code visit(@NotNull WichParser.ScriptContext ctx) {
-		Code funcs = Code.None;
-		for (WichParser.FunctionContext f: ctx.function()) {
-			funcs = funcs.join(visit(f));
-		}
-
-		WFunctionSymbol m = new WFunctionSymbol("main");
-		m.setType(SymbolTable._void);
-		currentScope.define(m);
-		pushScope(m);
-		Code main = asm.gc_start();
+	protected CodeBlock genMain(WichParser.ScriptContext ctx) {
+		CodeBlock main = asm.begin();
+		gcFrame = true;
+		asm.gc_start();
 		for (WichParser.StatementContext s : ctx.statement()){
-			main = main.join(visit(s));
+			visit(s);
 		}
-		main = main.join(asm.gc_end());
-		main = main.join(asm.halt());
-		main = globalInitCode.join(main);
-		functionBodies.put("main",main);
-		funcs.join(main);
-		popScope();
-		return funcs;
+		asm.gc_end();
+		asm.halt();
+		return main;
 	}
 
 	@Override
-	public Code visitFunction(@NotNull WichParser.FunctionContext ctx) {
+	public Void visitFunction(@NotNull WichParser.FunctionContext ctx) {
 		pushScope(ctx.scope);
-		Code func = asm.gc_start().join(visit(ctx.block()));
+		CodeBlock func = asm.begin();
+		gcFrame = roots.needsFrame(ctx.scope); // nothing to unroot if it roots nothing
+		if ( gcFrame ) asm.gc_start();
+		visit(ctx.block());
 		if (ctx.type() != null){
-			func = func.join(asm.push_dflt_value());
+			asm.push_dflt_value();
 		}
-		func = func.join(asm.ret());
-		func = func.join(asm.gc_end());
+		asm.ret();
+		if ( gcFrame ) asm.gc_end();
 		String funcName = ctx.ID().getText();
 		functionBodies.put(funcName, func);
 		popScope();
-		return Code.None;
+		return null;
 	}
 
 	@Override
-	public Code visitBlock(@NotNull WichParser.BlockContext ctx) {
+	public Void visitBlock(@NotNull WichParser.BlockContext ctx) {
 		if (ctx.scope.getEnclosingScope() == symtab.GLOBALS) {
 			ctx.scope.setEnclosingScope(currentScope);
 			((WFunctionSymbol)currentScope).block = (WBlock)ctx.scope;
 		}
 		pushScope(ctx.scope);
-		Code blk = Code.None;
+		int start = asm.code.size();
 		for (WichParser.StatementContext s : ctx.statement()) {
-			blk = blk.join(visit(s));
+			visit(s);
 		}
-		if (blk == Code.None){
-			blk = blk.join(asm.nop());
+		if (asm.code.size() == start){
+			asm.nop();
 		}
 		popScope();
-		return blk;
+		return null;
 	}
 
 	@Override
-	public Code visitVarDefStatement(@NotNull WichParser.VarDefStatementContext ctx) {
+	public Void visitVarDefStatement(@NotNull WichParser.VarDefStatementContext ctx) {
 		return visit(ctx.vardef());
 	}
 
 	@Override
-	public Code visitVardef(@NotNull WichParser.VardefContext ctx) {
+	public Void visitVardef(@NotNull WichParser.VardefContext ctx) {
 		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
 		if (v.getScope() == symtab.GLOBALS) {//move var in wich global to main
-			symtab.getfunctions().get("main").define(v);
+			main.define(v);
 		}
-		Code code = visit(ctx.expr());
+		visit(ctx.expr());
 		if (isVectorCopyNeeded(ctx.expr())) {
-			code = code.join(asm.vec_copy());
+			asm.vec_copy();
 		}
-		code = code.join(asm.store(getSymbolIndex(v)));
+		asm.store(getSymbolIndex(v));
+		if ( !roots.isRooted(v) ) return null; // not live across anything that may collect
 		if (ctx.expr().exprType == SymbolTable._vector) {
-			code = code.join(asm.vroot());
+			asm.vroot();
 		}
 		else if (ctx.expr().exprType == SymbolTable._string) {
-			code = code.join(asm.sroot());
+			asm.sroot();
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitAssign(@NotNull WichParser.AssignContext ctx) {
-		Code code = visit(ctx.expr());
-		if (isVectorCopyNeeded(ctx.expr())) code = code.join(asm.vec_copy());
+	public Void visitAssign(@NotNull WichParser.AssignContext ctx) {
+		if ( extensions && roots.copies.isInPlace(ctx) ) { // v = v op w writes into v itself
+			WichParser.OpContext op = (WichParser.OpContext)stripParens(ctx.expr());
+			visit(op.expr(0));
+			visit(op.expr(1));
+			asm.emit(operator(op.operator()).inPlace());
+			return null;
+		}
+		visit(ctx.expr());
+		if (isVectorCopyNeeded(ctx.expr())) asm.vec_copy();
 		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
-		code = code.join(asm.store(getSymbolIndex(v)));
-		return code;
+		asm.store(getSymbolIndex(v));
+		return null;
 	}
 
 	@Override
-	public Code visitElementAssign(@NotNull WichParser.ElementAssignContext ctx) {
+	public Void visitElementAssign(@NotNull WichParser.ElementAssignContext ctx) {
 		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
-		Code code = CodeBlock.join(asm.vload(getSymbolIndex(v)),visit(ctx.expr(0)), visit(ctx.expr(1)));
+		asm.vload(getSymbolIndex(v));
+		visit(ctx.expr(0));
+		visit(ctx.expr(1));
 		if (ctx.expr(1).exprType == SymbolTable._int) {
-			code = code.join(asm.i2f());
+			asm.i2f();
 		}
-		code = code.join(asm.store_index());
-		return code;
+		asm.store_index();
+		return null;
 	}
 
 	@Override
-	public Code visitCallStatement(@NotNull WichParser.CallStatementContext ctx) {
-		Code code = visit(ctx.call_expr());
+	public Void visitCallStatement(@NotNull WichParser.CallStatementContext ctx) {
+		visit(ctx.call_expr());
 		if(ctx.call_expr().exprType != SymbolTable._void) {
-			code = code.join(asm.pop());
+			asm.pop();
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitCall_expr(@NotNull WichParser.Call_exprContext ctx) {
-		Code code = Code.None;
+	public Void visitCall_expr(@NotNull WichParser.Call_exprContext ctx) {
 		if(ctx.expr_list() != null) {
-			code = code.join(visit(ctx.expr_list()));
+			visit(ctx.expr_list());
 		}
-		int i =  currentScope.resolve(ctx.ID().getText()).getInsertionOrderNumber();
-		return code.join(asm.call(i));
+		int i = ((WFunctionSymbol)currentScope.resolve(ctx.ID().getText())).index;
+		asm.call(i);
+		return null;
 	}
 
 	@Override
-	public Code visitReturn(@NotNull WichParser.ReturnContext ctx) {
-		Scope scope = currentScope;
-		while (!(scope instanceof WFunctionSymbol)) {
-			scope = scope.getEnclosingScope();
-		}
-		return visit(ctx.expr()).join(asm.gc_end()).join(asm.ret());
+	public Void visitReturn(@NotNull WichParser.ReturnContext ctx) {
+		visit(ctx.expr());
+		if ( gcFrame ) asm.gc_end();
+		asm.ret();
+		return null;
 	}
 
 	@Override
-	public Code visitWhile(@NotNull WichParser.WhileContext ctx) {
-		Code cond = visit(ctx.expr());
-		Code stat = visit(ctx.statement());
-		Code all = CodeBlock.join(cond, asm.brf(stat.sizeBytes() + asm.br().size + asm.br().size), stat);
-		return all.join(asm.br(-all.sizeBytes()));
+	public Void visitWhile(@NotNull WichParser.WhileContext ctx) {
+		int top = asm.label();
+		int end = asm.label();
+		asm.mark(top);
+		condition(ctx.expr(), false, end);
+		visit(ctx.statement());
+		asm.br(top);
+		asm.mark(end);
+		return null;
 	}
 
 	@Override
-	public Code visitPrint(@NotNull WichParser.PrintContext ctx) {
-		Code code = Code.None;
+	public Void visitPrint(@NotNull WichParser.PrintContext ctx) {
+		if ( ctx.expr()!=null && printsInParts(ctx.expr()) ) { // PRINTN prints a + b + c ... unjoined
+			List<WichParser.ExprContext> parts = StringChains.parts(ctx.expr());
+			for (WichParser.ExprContext e : parts) visit(e);
+			asm.printn(parts.size(), printKinds(parts));
+			return null;
+		}
 		if(ctx.expr() != null) {
-			code = code.join(visit(ctx.expr()));
+			visit(ctx.expr());
 			Type type = getExprType(ctx.expr());
 			if (type instanceof WInt) {
-				code = code.join(asm.iprint());
+				asm.iprint();
 			}
 			else if(type instanceof WFloat) {
-				code = code.join(asm.fprint());
+				asm.fprint();
 			}
 			else if(type instanceof WString) {
-				code = code.join(asm.sprint());
+				asm.sprint();
 			}
 			else if(type instanceof WVector) {
-				code = code.join(asm.vprint());
+				asm.vprint();
 			}
 			else {
-				code = code.join(asm.bprint());
+				asm.bprint();
 			}
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitBlockStatement(@NotNull WichParser.BlockStatementContext ctx) {
+	public Void visitBlockStatement(@NotNull WichParser.BlockStatementContext ctx) {
 		return visit(ctx.block());
 	}
 
+	/** Can print(e) print e's parts one after the other with PRINTN? */
+	protected boolean printsInParts(WichParser.ExprContext e) {
+		return extensions && StringChains.isConcat(e) &&
+			   StringChains.parts(e).size()<=Bytecodes.MAX_PRINT_PARTS;
+	}
+
+	/** The PRINTN kinds operand for parts */
+	protected static int printKinds(List<WichParser.ExprContext> parts) {
+		int kinds = 0;
+		for (int k = 0; k<parts.size(); k++) {
+			Type t = parts.get(k).exprType;
+			int kind = t==SymbolTable._int ? Bytecodes.PART_INT :
+					   t==SymbolTable._float ? Bytecodes.PART_FLOAT :
+					   t==SymbolTable._vector ? Bytecodes.PART_VECTOR :
+					   Bytecodes.PART_STRING;
+			kinds |= kind<<(2*k);
+		}
+		return kinds;
+	}
+
 	private Type getExprType(@NotNull WichParser.ExprContext ctx) {
 		return ctx.exprType;
 	}
 
 	@Override
-	public Code visitAtom(@NotNull WichParser.AtomContext ctx) {
+	public Void visitAtom(@NotNull WichParser.AtomContext ctx) {
 		return visitChildren(ctx);
 	}
 
 	@Override
-	public Code visitLen(WichParser.LenContext ctx) {
+	public Void visitLen(WichParser.LenContext ctx) {
 		if (ctx.expr().exprType == SymbolTable._vector) {
-			return CodeBlock.join(visit(ctx.expr()),asm.vlen());
+			visit(ctx.expr());
+			asm.vlen();
 		}
 		else if (ctx.expr().exprType == SymbolTable._string) {
-			return CodeBlock.join(visit(ctx.expr()),asm.slen());
-		}
-		else {
-			return Code.None;
+			visit(ctx.expr());
+			asm.slen();
 		}
+		return null;
 	}
 
 	@Override
-	public Code visitInteger(@NotNull WichParser.IntegerContext ctx) {
-		Code code = Code.None;
-		code = code.join(asm.iconst(Integer.valueOf(ctx.INT().getText())));
-		return code;
+	public Void visitInteger(@NotNull WichParser.IntegerContext ctx) {
+		asm.iconst(Integer.parseInt(ctx.INT().getText()));
+		return null;
 	}
 
 	@Override
-	public Code visitFloat(@NotNull WichParser.FloatContext ctx) {
-		Code code = Code.None;
-		code = code.join(asm.fconst(Float.valueOf(ctx.FLOAT().getText())));
-		return code;
+	public Void visitFloat(@NotNull WichParser.FloatContext ctx) {
+		asm.fconst(Float.parseFloat(ctx.FLOAT().getText()));
+		return null;
 	}
 
 	@Override
-	public Code visitIdentifier(@NotNull WichParser.IdentifierContext ctx) {
+	public Void visitIdentifier(@NotNull WichParser.IdentifierContext ctx) {
 		Symbol symbol = currentScope.resolve(ctx.ID().getText());
-		return load(symbol);
+		load(symbol);
+		return null;
 	}
 
-	public Code load(Symbol symbol) {
+	public void load(Symbol symbol) {
 		if ( symbol!=null && symbol instanceof WVariableSymbol) {
 			WVariableSymbol s = (WVariableSymbol)symbol;
 			int index = getSymbolIndex(s);
 			if ( s.getType() == SymbolTable._int ) {
-				return asm.iload(index);
+				asm.iload(index);
 			}
 			else if ( s.getType() == SymbolTable._float ) {
-				return asm.fload(index);
+				asm.fload(index);
 			}
 			else if ( s.getType() == SymbolTable._boolean ) {
-				return asm.iload(index);
+				asm.iload(index);
 			}
 			else if ( s.getType() == SymbolTable._string ) {
-				return asm.sload(index);
+				asm.sload(index);
 			}
 			else {
-				return asm.vload(index);
+				asm.vload(index);
 			}
 		}
-		return Code.None;
 	}
-	
-		@Override
-	public Code visitString(@NotNull WichParser.StringContext ctx) {
-		Code code = Code.None;
+
+	@Override
+	public Void visitString(@NotNull WichParser.StringContext ctx) {
 		int index = symtab.defineStringLiteral(ctx.STRING().getText());
-		code = code.join(asm.sconst(index));
-		return code;
+		asm.sconst(index);
+		return null;
 	}
 
 	@Override
-	public Code visitTrueLiteral(@NotNull WichParser.TrueLiteralContext ctx) {
-		Code code = Code.None;
-		code = code.join(asm.iconst(1));
-		return code;
+	public Void visitTrueLiteral(@NotNull WichParser.TrueLiteralContext ctx) {
+		asm.iconst(1);
+		return null;
 	}
 
 	@Override
-	public Code visitFalseLiteral(@NotNull WichParser.FalseLiteralContext ctx) {
-		Code code = Code.None;
-		code = code.join(asm.iconst(0));
-		return code;
+	public Void visitFalseLiteral(@NotNull WichParser.FalseLiteralContext ctx) {
+		asm.iconst(0);
+		return null;
 	}
 
 	@Override
-	public Code visitVector(@NotNull WichParser.VectorContext ctx) {
-		Code code = Code.None;
-		code = code.join(visit(ctx.expr_list()));
-		code = code.join(asm.iconst(ctx.expr_list().expr().size()));
-		code = code.join(asm.vector());
+	public Void visitVector(@NotNull WichParser.VectorContext ctx) {
+		double[] elems = extensions ? TypeHelper.constantVector(ctx, true) : null;
+		if ( elems!=null ) {
+			asm.vconst(symtab.defineVectorLiteral(elems));
+		}
+		else {
+			visit(ctx.expr_list());
+			asm.iconst(ctx.expr_list().expr().size());
+			asm.vector();
+		}
 		if (ctx.getParent() instanceof WichParser.OpContext &&
 				((WichParser.OpContext) ctx.getParent()).exprType == SymbolTable._string) {
-			code = code.join(asm.v2s());
+			asm.v2s();
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitExpr_list(@NotNull WichParser.Expr_listContext ctx) {
-		Code code = Code.None;
+	public Void visitExpr_list(@NotNull WichParser.Expr_listContext ctx) {
 		List<WichParser.ExprContext> list = ctx.expr();
 		if(ctx.getParent() instanceof WichParser.VectorContext) {
 			for(int i = 0; i < list.size(); i++) {  // push onto stack in reverse order
-				code = code.join(visit(list.get(i)));
+				visit(list.get(i));
 				if(list.get(i).exprType == SymbolTable._int) {
-					code = code.join(asm.i2f());
+					asm.i2f();
 				}
 			}
 		}
 		else {
 			for(int i = 0; i < list.size(); i++) {
-				code = code.join(visit(list.get(i)));
-				if (isVectorCopyNeeded(list.get(i))) code = code.join(asm.vec_copy());
+				visit(list.get(i));
+				if (isVectorCopyNeeded(list.get(i))) asm.vec_copy();
 			}
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitIf(@NotNull WichParser.IfContext ctx) {
-		Code cond = visit(ctx.expr());
-		Code stat = visit(ctx.statement(0));
+	public Void visitIf(@NotNull WichParser.IfContext ctx) {
+		int end = asm.label();
 		if (ctx.getChildCount() == 5) {
-			return CodeBlock.join(cond, asm.brf(stat.sizeBytes()+asm.br().size),stat);
+			condition(ctx.expr(), false, end);
+			visit(ctx.statement(0));
 		}
 		else {
-			Code stat2 = visit(ctx.statement(1));
-			return CodeBlock.join(cond, asm.brf(stat.sizeBytes()+asm.brf().size+asm.br().size),
-				stat,asm.br(stat2.sizeBytes() + asm.br().size), stat2);
+			int elseClause = asm.label();
+			condition(ctx.expr(), false, elseClause);
+			visit(ctx.statement(0));
+			asm.br(end);
+			asm.mark(elseClause);
+			visit(ctx.statement(1));
 		}
+		asm.mark(end);
+		return null;
+	}
+
+	/** Evaluate cond and branch to L if it comes out equal to when. && and
+	 *  || jump as soon as one side decides the result, so the right side
+	 *  isn't evaluated when the left one settles it.
+	 */
+	protected void condition(WichParser.ExprContext cond, boolean when, int L) {
+		WichParser.ExprContext c = stripParens(cond);
+		if ( c instanceof WichParser.NotContext ) {
+			condition(((WichParser.NotContext)c).expr(), !when, L);
+			return;
+		}
+		if ( isLogical(c) ) {
+			WichParser.OpContext op = (WichParser.OpContext)c;
+			boolean and = op.operator().AND()!=null;
+			if ( when!=and ) { // a || b jumps if either is true; !(a && b) if either is false
+				condition(op.expr(0), when, L);
+				condition(op.expr(1), when, L);
+			}
+			else { // a && b jumps only if both are true, so a false a skips b
+				int skip = asm.label();
+				condition(op.expr(0), !when, skip);
+				condition(op.expr(1), when, L);
+				asm.mark(skip);
+			}
+			return;
+		}
+		branchOn(cond, when, L);
+	}
+
+	/** The leaf of condition(): a value that isn't && or || */
+	protected void branchOn(WichParser.ExprContext cond, boolean when, int L) {
+		visit(cond);
+		if ( !when ) asm.brf(L);
+		else if ( extensions ) asm.brt(L);
+		else { // no BRT in the baseline set
+			asm.not();
+			asm.brf(L);
+		}
+	}
+
+	protected static boolean isLogical(WichParser.ExprContext e) {
+		if ( !(e instanceof WichParser.OpContext) ) return false;
+		int op = ((WichParser.OpContext)e).operator().getStart().getType(); // the accessors search the children
+		return op==WichParser.AND || op==WichParser.OR;
+	}
+
+	protected static WichParser.ExprContext stripParens(WichParser.ExprContext e) {
+		while ( e instanceof WichParser.ParensContext ) {
+			e = ((WichParser.ParensContext)e).expr();
+		}
+		return e;
 	}
 
 	@Override
-	public Code visitOp(@NotNull WichParser.OpContext ctx) {
-		Code left = visit(ctx.expr(0));
-		Code right = visit(ctx.expr(1));
-		Code op = visit(ctx.operator());
+	public Void visitOp(@NotNull WichParser.OpContext ctx) {
+		if ( isLogical(ctx) && !extensions ) { // same without DUP and BRT
+			int decided = asm.label();
+			int end = asm.label();
+			boolean and = ctx.operator().AND()!=null;
+			visit(ctx.expr(0));
+			asm.brf(decided);
+			if ( and ) visit(ctx.expr(1));
+			else asm.iconst(1);
+			asm.br(end);
+			asm.mark(decided);
+			if ( and ) asm.iconst(0);
+			else visit(ctx.expr(1));
+			asm.mark(end);
+			return null;
+		}
+		if ( isLogical(ctx) ) { // left's value is the result if it decides it
+			int end = asm.label();
+			visit(ctx.expr(0));
+			asm.dup();
+			if ( ctx.operator().AND()!=null ) asm.brf(end);
+			else asm.brt(end);
+			asm.pop();
+			visit(ctx.expr(1));
+			asm.mark(end);
+			return null;
+		}
+		if ( extensions && StringChains.isConcat(ctx) && StringChains.parts(ctx).size()>2 ) { // one SCONCAT for a + b + c ...
+			List<WichParser.ExprContext> parts = StringChains.parts(ctx);
+			for (WichParser.ExprContext e : parts) {
+				visit(e);
+				if ( e.exprType != SymbolTable._string ) promote2S(e.exprType);
+			}
+			asm.sconcat(parts.size());
+			return null;
+		}
+		if ( ctx.exprType == SymbolTable._vector && ctx.expr(0).exprType != SymbolTable._vector ) {
+			scalarFirst(ctx);
+			return null;
+		}
+		operand(ctx, ctx.expr(0), ctx.expr(1));
+		operand(ctx, ctx.expr(1), ctx.expr(0));
+		return visit(ctx.operator());
+	}
+
+	/** s op v. + and * commute, so the vector goes first as VADDI and the
+	 *  like want it. s - v and s / v evaluate s then v and use VRSUBF or
+	 *  VRDIVF; the baseline set has neither, so there s - v is -v + s and
+	 *  s / v is (v * 0 + s) / v, which loads v twice and so needs it to
+	 *  have no call in it.
+	 */
+	protected void scalarFirst(WichParser.OpContext ctx) {
+		WichParser.OperatorContext operator = ctx.operator();
+		WichParser.ExprContext s = ctx.expr(0);
+		WichParser.ExprContext v = ctx.expr(1);
+		if ( operator.SUB()==null && operator.DIV()==null ) {
+			visit(v);
+			visit(s);
+			visit(operator);
+		}
+		else if ( extensions ) {
+			visit(s);
+			if ( s.exprType == SymbolTable._int ) promoteI2F();
+			visit(v);
+			asm.emit(operator.SUB()!=null ? Opcode.VRSUBF : Opcode.VRDIVF);
+		}
+		else if ( operator.SUB()!=null ) {
+			visit(v);
+			asm.iconst(-1);
+			asm.vmuli();
+			visit(s);
+			asm.emit(s.exprType == SymbolTable._int ? Opcode.VADDI : Opcode.VADDF);
+		}
+		else {
+			if ( hasCall(v) ) {
+				throw new IllegalStateException("no baseline instructions for a scalar divided by a call's vector at line "+
+												ctx.getStart().getLine());
+			}
+			visit(v);
+			asm.iconst(0);
+			asm.vmuli();
+			visit(s);
+			asm.emit(s.exprType == SymbolTable._int ? Opcode.VADDI : Opcode.VADDF);
+			visit(v);
+			asm.vdiv();
+		}
+	}
+
+	protected static boolean hasCall(ParseTree t) {
+		if ( t instanceof WichParser.CallContext ) return true;
+		for (int i = 0; i<t.getChildCount(); i++) {
+			if ( hasCall(t.getChild(i)) ) return true;
+		}
+		return false;
+	}
 
+	/** Push one side of an op, promoted to match the other if need be */
+	protected void operand(WichParser.OpContext ctx, WichParser.ExprContext e, WichParser.ExprContext other) {
+		visit(e);
 		//type promotion
-		if (ctx.expr(0).exprType != ctx.expr(1).exprType) {
+		if (e.exprType != other.exprType) {
 			//promote to string: string op(add) with int, float, vector
-			if (ctx.exprType == SymbolTable._string) {
-				if (ctx.expr(0).exprType != SymbolTable._string) {
-					left = promote2S(left, ctx.expr(0).exprType);
-				}
-				else if (ctx.expr(1).exprType != SymbolTable._string) {
-					right = promote2S(right, ctx.expr(1).exprType);
-				}
+			if (ctx.exprType == SymbolTable._string && e.exprType != SymbolTable._string) {
+				promote2S(e.exprType);
 			}
 			//promote int to float: with vector or with float
-			else if(ctx.exprType == SymbolTable._float) {
-				if (ctx.expr(0).exprType == SymbolTable._int) {
-					left = promoteI2F(left);
-				}
-				else if (ctx.expr(1).exprType == SymbolTable._int) {
-					right = promoteI2F(right);
-				}
+			else if (ctx.exprType == SymbolTable._float && e.exprType == SymbolTable._int) {
+				promoteI2F();
 			}
-			else if(ctx.exprType == SymbolTable._boolean) {
-				if (ctx.expr(0).exprType == SymbolTable._float && ctx.expr(1).exprType == SymbolTable._int) {
-					right = promoteI2F(right);
-				}
-				else if (ctx.expr(0).exprType == SymbolTable._int && ctx.expr(1).exprType == SymbolTable._float){
-					left = promoteI2F(left);
-				}
+			else if (ctx.exprType == SymbolTable._boolean &&
+					 e.exprType == SymbolTable._int && other.exprType == SymbolTable._float) {
+				promoteI2F();
 			}
 		}
-		//order of operands in vector operations, vector first
-		if(ctx.exprType == SymbolTable._vector && ctx.expr(0).exprType != SymbolTable._vector) {
-			return CodeBlock.join(right, left, op);
-		}
-		else {
-			return CodeBlock.join(left, right,op);
-		}
 	}
 
-	public Code promote2S(Code code, Type type){
+	public void promote2S(Type type){
 		if (type == SymbolTable._int) {
-			code = code.join(asm.i2s());
+			asm.i2s();
 		}
 		else if (type == SymbolTable._float) {
-			code = code.join(asm.f2s());
+			asm.f2s();
 		}
 		else if (type == SymbolTable._vector) {
-			code = code.join(asm.v2s());
+			asm.v2s();
 		}
-		return code;
 	}
-	public Code promoteI2F(Code code){
-		code = code.join(asm.i2f());
-		return code;
+
+	public void promoteI2F(){
+		asm.i2f();
 	}
 
 	@Override
-	public Code visitNegate(@NotNull WichParser.NegateContext ctx) {
-		Code code = visit(ctx.expr());
+	public Void visitNegate(@NotNull WichParser.NegateContext ctx) {
+		visit(ctx.expr());
 		Type type = ctx.exprType != null ? ctx.exprType : ctx.promoteToType;
-		if (type instanceof WInt) {
-			code = code.join(asm.ineg());
+		if (type == SymbolTable._vector) { // -v is v * -1, element by element
+			asm.iconst(-1);
+			asm.vmuli();
+		}
+		else if (type instanceof WInt) {
+			asm.ineg();
 		}
 		else {
-			code = code.join(asm.fneg());
+			asm.fneg();
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitNot(@NotNull WichParser.NotContext ctx) {
-		Code code = visit(ctx.expr());
-		code = code.join(asm.not());
-		return code;
+	public Void visitNot(@NotNull WichParser.NotContext ctx) {
+		visit(ctx.expr());
+		asm.not();
+		return null;
 	}
 
 	@Override
-	public Code visitIndex(@NotNull WichParser.IndexContext ctx) {
-		Code code;
+	public Void visitIndex(@NotNull WichParser.IndexContext ctx) {
 		WVariableSymbol var = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
 		if (var.getType() == symtab._vector) {
-			code = CodeBlock.join(asm.vload(getSymbolIndex(var)),visit(ctx.expr()),asm.vload_index());
+			asm.vload(getSymbolIndex(var));
+			visit(ctx.expr());
+			asm.vload_index();
 		}
 		else {
-			code = CodeBlock.join(asm.sload(getSymbolIndex(var)),visit(ctx.expr()),asm.sload_index());
+			asm.sload(getSymbolIndex(var));
+			visit(ctx.expr());
+			asm.sload_index();
 		}
-		return code;
+		return null;
 	}
 
 	@Override
-	public Code visitOperator(@NotNull WichParser.OperatorContext ctx) {
-		Code op = Code.None;
+	public Void visitOperator(@NotNull WichParser.OperatorContext ctx) {
+		Opcode op = operator(ctx);
+		if ( op!=null ) asm.emit(op);
+		return null;
+	}
+
+	/** The instruction for an op given its operand types, or null */
+	protected Opcode operator(@NotNull WichParser.OperatorContext ctx) {
+		Opcode op = null;
 		Type type = getExprType(((WichParser.OpContext) ctx.getParent()));
 		WichParser.OpContext expr = (WichParser.OpContext) ctx.getParent();
 		WichParser.ExprContext left = expr.expr(0);
@@ -501,132 +684,132 @@ public class BytecodeGenerator extends WichBaseVisitor<Code> {
 		return op;
 	}
 
-	private Code arithmeticOp(WichParser.OperatorContext ctx, Code op, Type type) {
+	private Opcode arithmeticOp(WichParser.OperatorContext ctx, Opcode op, Type type) {
 		if(ctx.ADD() != null) {
 			if (type == SymbolTable._string) {
-				op = op.join(asm.sadd());
+				op = Opcode.SADD;
 			} else {
-				op = type == SymbolTable._int ? op.join(asm.iadd()) : op.join(asm.fadd());
+				op = type == SymbolTable._int ? Opcode.IADD : Opcode.FADD;
 			}
 		}
 		else if(ctx.SUB() != null) {
-			op = type == SymbolTable._int ? op.join(asm.isub()) : op.join(asm.fsub());
+			op = type == SymbolTable._int ? Opcode.ISUB : Opcode.FSUB;
 		}
 		else if(ctx.MUL() != null) {
-			op = type == SymbolTable._int ? op.join(asm.imul()) : op.join(asm.fmul());
+			op = type == SymbolTable._int ? Opcode.IMUL : Opcode.FMUL;
 		}
 		else if(ctx.DIV() != null) {
-			op = type == SymbolTable._int ? op.join(asm.idiv()) : op.join(asm.fdiv());
+			op = type == SymbolTable._int ? Opcode.IDIV : Opcode.FDIV;
 		}
 		return op;
 	}
 
-	private Code compareOp(WichParser.OperatorContext ctx, Code op, WichParser.ExprContext left, WichParser.ExprContext right) {
+	private Opcode compareOp(WichParser.OperatorContext ctx, Opcode op, WichParser.ExprContext left, WichParser.ExprContext right) {
+		if (left.exprType == SymbolTable._vector && right.exprType == SymbolTable._vector) {
+			return vOpV(ctx, op); // == and != compare the elements
+		}
 		if(ctx.GE() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.sge());
+				op = Opcode.SGE;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.fge()) : op.join(asm.ige());
+						Opcode.FGE : Opcode.IGE;
 			}
 		}
 		else if(ctx.GT() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.sgt());
+				op = Opcode.SGT;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.fgt()) : op.join(asm.igt());
+						Opcode.FGT : Opcode.IGT;
 			}
 		}
 		else if(ctx.LE() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.sle());
+				op = Opcode.SLE;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.fle()) : op.join(asm.ile());
+						Opcode.FLE : Opcode.ILE;
 			}
 		}
 		else if(ctx.LT() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.slt());
+				op = Opcode.SLT;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.flt()) : op.join(asm.ilt());
+						Opcode.FLT : Opcode.ILT;
 			}
 		}
 		else if(ctx.EQUAL_EQUAL() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.seq());
+				op = Opcode.SEQ;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.feq()) : op.join(asm.ieq());
+						Opcode.FEQ : Opcode.IEQ;
 			}
 		}
 		else if(ctx.NOT_EQUAL() != null) {
 			if (left.exprType == SymbolTable._string && right.exprType == SymbolTable._string) {
-				op = op.join(asm.sneq());
+				op = Opcode.SNEQ;
 			} else {
 				op = (left.exprType == SymbolTable._float || right.exprType == SymbolTable._float )?
-						op.join(asm.fneq()) : op.join(asm.ineq());
+						Opcode.FNEQ : Opcode.INEQ;
 			}
 		}
-		else if(ctx.OR() != null) {
-			op = op.join(asm.or());
-		}
 		return op;
 	}
 
-	private Code vOpF(WichParser.OperatorContext ctx, Code op) {
+	private Opcode vOpF(WichParser.OperatorContext ctx, Opcode op) {
 		if(ctx.ADD() != null) {
-			op = op.join(asm.vaddf());
+			op = Opcode.VADDF;
 		}
 		else if(ctx.SUB() != null) {
-			op = op.join(asm.vsubf());
+			op = Opcode.VSUBF;
 		}
 		else if(ctx.MUL() != null) {
-			op = op.join(asm.vmulf());
+			op = Opcode.VMULF;
 		}
 		else if(ctx.DIV() != null) {
-			op = op.join(asm.vdivf());
+			op = Opcode.VDIVF;
 		}
 		return op;
 	}
 
-	private Code vOpI(WichParser.OperatorContext ctx, Code op) {
+	private Opcode vOpI(WichParser.OperatorContext ctx, Opcode op) {
 		if(ctx.ADD() != null) {
-			op = op.join(asm.vaddi());
+			op = Opcode.VADDI;
 		}
 		else if(ctx.SUB() != null) {
-			op = op.join(asm.vsubi());
+			op = Opcode.VSUBI;
 		}
 		else if(ctx.MUL() != null) {
-			op = op.join(asm.vmuli());
+			op = Opcode.VMULI;
 		}
 		else if(ctx.DIV() != null) {
-			op = op.join(asm.vdivi());
+			op = Opcode.VDIVI;
 		}
 		return op;
 	}
 
 	// vector op vector
-	private Code vOpV(WichParser.OperatorContext ctx, Code op) {
+	private Opcode vOpV(WichParser.OperatorContext ctx, Opcode op) {
 		if(ctx.ADD() != null) {
-			op = op.join(asm.vadd());
+			op = Opcode.VADD;
 		}
 		else if(ctx.SUB() != null) {
-			op = op.join(asm.vsub());
+			op = Opcode.VSUB;
 		}
 		else if(ctx.MUL() != null) {
-			op = op.join(asm.vmul());
+			op = Opcode.VMUL;
 		}
 		else if(ctx.DIV() != null) {
-			op = op.join(asm.vdiv());
+			op = Opcode.VDIV;
 		}
 		else if(ctx.EQUAL_EQUAL() != null) {
-			op = op.join(asm.veq());
+			op = Opcode.VEQ;
 		}
 		else if (ctx.NOT_EQUAL() != null) {
-			op =  op.join(asm.vneq());
+			op =  Opcode.VNEQ;
 		}
 		return op;
 	}
@@ -635,25 +818,12 @@ public class BytecodeGenerator extends WichBaseVisitor<Code> {
 
 	public void popScope() {currentScope = currentScope.getEnclosingScope();}
 
+	/** The frame slot FrameLayout gave s */
 	public int getSymbolIndex(Symbol s) {
-		int index = s.getInsertionOrderNumber();
-		if (s.getScope() instanceof WFunctionSymbol || s.getScope() == symtab.GLOBALS) {
-			return index;
-		}
-		Scope enScope = s.getScope().getEnclosingScope();
-		while (!(enScope instanceof WFunctionSymbol || enScope == symtab.GLOBALS)){
-			index += enScope.getAllSymbols().size();
-			enScope = enScope.getEnclosingScope();
-		}
-		index += enScope.getAllSymbols().size();
-		return index;
+		return ((WVariableSymbol)s).slot;
 	}
 
 	public boolean isVectorCopyNeeded(WichParser.ExprContext expr) {
-		if (expr.exprType != SymbolTable._vector ) return false;
-		if (expr instanceof WichParser.CallContext || (expr instanceof WichParser.AtomContext && (!expr.getText().startsWith("[")))) {
-			return true;
-		}
-		return false;
+		return roots.copies.isCopyNeeded(expr);
 	}
 }
@@ -0,0 +1,321 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import wich.codegen.CompilerUtils;
+import wich.semantics.symbols.WBuiltInTypeSymbol;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.vm.Bytecodes;
+
+import java.util.Arrays;
+
+import static wich.codegen.bytecode.Opcode.*;
+
+/** Abstract interpretation of one function's stack code before layout:
+ *  track the type of every operand stack slot (int, float, string or
+ *  vector; booleans are ints) through each instruction, check that every
+ *  instruction finds the types it expects, and that every path reaching
+ *  a label arrives with the same stack. The deepest stack seen is the
+ *  function's max stack, which BytecodeWriter puts in the function table
+ *  so the VM can check a whole frame once per CALL.
+ *
+ *  Stack contents are only stored at labels. Code runs straight from a
+ *  label until a branch, which queues its target the first time it is
+ *  reached, or an unconditional transfer, so each instruction is
+ *  interpreted once.
+ */
+public class BytecodeVerifier {
+	protected static final int ANY = -1;
+
+	protected static final String[] typeNames = {"void", "int", "float", "boolean", "string", "vector"};
+
+	/** Types popped, deepest first, and pushed per opcode; null for the
+	 *  ones whose effect depends on the function or the code.
+	 */
+	protected static final int[][] pops = new int[Opcode.values().length][];
+	protected static final int[][] pushes = new int[Opcode.values().length][];
+
+	static {
+		for (Opcode op : Opcode.values()) {
+			String sig = signature(op);
+			if ( sig==null ) continue;
+			int arrow = sig.indexOf('>');
+			pops[op.ordinal()] = types(sig.substring(0, arrow));
+			pushes[op.ordinal()] = types(sig.substring(arrow+1));
+		}
+	}
+
+	/** Function table by index, for CALL */
+	protected final WFunctionSymbol[] functions;
+
+	protected WFunctionSymbol f;
+	protected CodeBlock code;
+	protected int[] stack = new int[16];
+	protected int sp;			// number of values on stack
+	protected int max;
+	protected int[][] atLabel;	// stack on entry to each label; null until reached
+	protected int[] labelIndex;	// instruction holding each label
+	protected int[] work = new int[16];
+	protected int nwork;
+
+	public BytecodeVerifier(WFunctionSymbol[] functions) {
+		this.functions = functions;
+	}
+
+	/** Check f's code and return its max operand stack depth */
+	public int verify(WFunctionSymbol f, CodeBlock code) {
+		this.f = f;
+		this.code = code;
+		max = 0;
+		atLabel = new int[code.labels()][];
+		labelIndex = new int[code.labels()];
+		for (int i = 0; i<code.size(); i++) {
+			if ( code.op(i)==LABEL ) labelIndex[code.operand(i, 0)] = i;
+		}
+		nwork = 0;
+		sp = 0;
+		run(0);
+		while ( nwork>0 ) {
+			int L = work[--nwork];
+			sp = atLabel[L].length;
+			System.arraycopy(atLabel[L], 0, stack, 0, sp);
+			run(labelIndex[L]+1);
+		}
+		return max;
+	}
+
+	/** Interpret from i until control can't fall through or reaches a
+	 *  label that has been seen before.
+	 */
+	protected void run(int i) {
+		for (; i<code.size(); i++) {
+			Opcode op = code.op(i);
+			if ( op==LABEL ) {
+				if ( !reach(i, code.operand(i, 0)) ) return;
+				continue;
+			}
+			execute(i, op);
+			if ( op.branch ) reach(i, code.target(i));
+			if ( op.isUnconditional() ) return;
+		}
+		throw error(code.size()-1, "control falls off the end of the code");
+	}
+
+	protected void execute(int i, Opcode op) {
+		switch ( op ) {
+			case DUP : {
+				pop(i, ANY);
+				int t = stack[sp];
+				push(t);
+				push(t);
+				return;
+			}
+			case VECTOR :
+				if ( i==0 || code.op(i-1)!=ICONST ) {
+					throw error(i, "element count is not a constant");
+				}
+				pop(i, CompilerUtils.INT_TYPE);
+				for (int k = 0; k<code.operand(i-1, 0); k++) pop(i, CompilerUtils.FLOAT_TYPE);
+				push(CompilerUtils.VECTOR_TYPE);
+				return;
+			case SCONCAT :
+				for (int k = 0; k<code.operand(i, 0); k++) pop(i, CompilerUtils.STRING_TYPE);
+				push(CompilerUtils.STRING_TYPE);
+				return;
+			case PRINTN :
+				for (int k = code.operand(i, 0)-1; k>=0; k--) {
+					pop(i, partType(Bytecodes.partKind(code.operand(i, 1), k)));
+				}
+				return;
+			case CALL : {
+				int target = code.operand(i, 0);
+				if ( target<0 || target>=functions.length || functions[target]==null ) {
+					throw error(i, "no function "+target);
+				}
+				WFunctionSymbol callee = functions[target];
+				for (int k = callee.argTypes.size()-1; k>=0; k--) {
+					pop(i, type(callee.argTypes.get(k)));
+				}
+				if ( type(callee.getType())!=CompilerUtils.VOID_TYPE ) push(type(callee.getType()));
+				return;
+			}
+			case RET :
+				if ( type(f.getType())!=CompilerUtils.VOID_TYPE ) pop(i, type(f.getType()));
+				return;
+			case PUSH_DFLT_RETV :
+				push(type(f.getType()));
+				return;
+		}
+		int[] in = pops[op.ordinal()];
+		if ( in==null ) throw error(i, "not a stack instruction");
+		for (int k = in.length-1; k>=0; k--) pop(i, in[k]);
+		for (int t : pushes[op.ordinal()]) push(t);
+	}
+
+	/** Merge the current stack into label L's; return true if this is the
+	 *  first path to reach L.
+	 */
+	protected boolean reach(int i, int L) {
+		if ( L<0 || L>=atLabel.length ) throw error(i, "no label "+L);
+		if ( atLabel[L]==null ) {
+			atLabel[L] = Arrays.copyOf(stack, sp);
+			if ( code.op(i)!=LABEL ) { // a branch; fall-through runs it now
+				if ( nwork==work.length ) work = Arrays.copyOf(work, nwork*2);
+				work[nwork++] = L;
+			}
+			return true;
+		}
+		if ( !sameStack(atLabel[L]) ) {
+			throw error(i, "stack "+toString(Arrays.copyOf(stack, sp))+" reaching label "+L+" differs from "+toString(atLabel[L]));
+		}
+		return false;
+	}
+
+	protected boolean sameStack(int[] s) {
+		if ( s.length!=sp ) return false;
+		for (int k = 0; k<sp; k++) {
+			if ( s[k]!=stack[k] ) return false;
+		}
+		return true;
+	}
+
+	protected void pop(int i, int type) {
+		if ( sp==0 ) throw error(i, "stack underflow");
+		int t = stack[--sp];
+		if ( type!=ANY && t!=type ) {
+			throw error(i, "expects "+typeNames[type]+" but found "+typeNames[t]);
+		}
+	}
+
+	protected void push(int type) {
+		if ( sp==stack.length ) stack = Arrays.copyOf(stack, sp*2);
+		stack[sp++] = type;
+		max = Math.max(max, sp);
+	}
+
+	protected IllegalStateException error(int i, String msg) {
+		return new IllegalStateException(f.getName()+": "+code.toString(i)+" at "+i+" "+msg);
+	}
+
+	protected static int partType(int kind) {
+		switch ( kind ) {
+			case Bytecodes.PART_INT : return CompilerUtils.INT_TYPE;
+			case Bytecodes.PART_FLOAT : return CompilerUtils.FLOAT_TYPE;
+			case Bytecodes.PART_STRING : return CompilerUtils.STRING_TYPE;
+			default : return CompilerUtils.VECTOR_TYPE;
+		}
+	}
+
+	/** Stack type of a value of type t; booleans are ints */
+	protected static int type(WBuiltInTypeSymbol t) {
+		int vmType = t==null ? CompilerUtils.VOID_TYPE : t.getVMTypeIndex();
+		return vmType==CompilerUtils.BOOLEAN_TYPE ? CompilerUtils.INT_TYPE : vmType;
+	}
+
+	protected static String toString(int[] s) {
+		StringBuilder buf = new StringBuilder("[");
+		for (int k = 0; k<s.length; k++) {
+			if ( k>0 ) buf.append(' ');
+			buf.append(typeNames[s[k]]);
+		}
+		return buf.append(']').toString();
+	}
+
+	protected static int[] types(String sig) {
+		int[] types = new int[sig.length()];
+		for (int k = 0; k<sig.length(); k++) {
+			switch ( sig.charAt(k) ) {
+				case 'i' : types[k] = CompilerUtils.INT_TYPE; break;
+				case 'f' : types[k] = CompilerUtils.FLOAT_TYPE; break;
+				case 's' : types[k] = CompilerUtils.STRING_TYPE; break;
+				case 'v' : types[k] = CompilerUtils.VECTOR_TYPE; break;
+				default : types[k] = ANY;
+			}
+		}
+		return types;
+	}
+
+	/** popped>pushed, deepest first; * is any type */
+	protected static String signature(Opcode op) {
+		switch ( op ) {
+			case IADD : case ISUB : case IMUL : case IDIV :
+			case OR : case AND :
+			case IEQ : case INEQ : case ILT : case ILE : case IGT : case IGE :
+				return "ii>i";
+			case FADD : case FSUB : case FMUL : case FDIV :
+				return "ff>f";
+			case FEQ : case FNEQ : case FLT : case FLE : case FGT : case FGE :
+				return "ff>i";
+			case VADD : case VSUB : case VMUL : case VDIV :
+				return "vv>v";
+			case VADD_INPLACE : case VSUB_INPLACE : case VMUL_INPLACE : case VDIV_INPLACE :
+				return "vv>";
+			case VADDI : case VSUBI : case VMULI : case VDIVI :
+				return "vi>v";
+			case VADDF : case VSUBF : case VMULF : case VDIVF :
+				return "vf>v";
+			case VRSUBF : case VRDIVF :
+				return "fv>v";
+			case VEQ : case VNEQ :
+				return "vv>i";
+			case SADD :
+				return "ss>s";
+			case SEQ : case SNEQ : case SLT : case SLE : case SGT : case SGE :
+				return "ss>i";
+			case INEG : case NOT :
+				return "i>i";
+			case FNEG :
+				return "f>f";
+			case I2F : return "i>f";
+			case I2S : return "i>s";
+			case F2S : return "f>s";
+			case V2S : return "v>s";
+			case VLEN : return "v>i";
+			case SLEN : return "s>i";
+			case COPY_VECTOR : return "v>v";
+			case BRF : case BRT : return "i>";
+			case BR_IEQ : case BR_INEQ : case BR_ILT : case BR_ILE : case BR_IGT : case BR_IGE :
+				return "ii>";
+			case BR_FEQ : case BR_FNEQ : case BR_FLT : case BR_FLE : case BR_FGT : case BR_FGE :
+				return "ff>";
+			case ICONST : case ILOAD : return ">i";
+			case FCONST : case FLOAD : case VLOAD_LOCAL_INDEX : return ">f";
+			case SCONST : case SLOAD : return ">s";
+			case VLOAD : case VCONST : return ">v";
+			case STORE : case POP : return "*>";
+			case SLOAD_INDEX : return "si>s";
+			case VLOAD_INDEX : return "vi>f";
+			case STORE_INDEX : return "vif>";
+			case IPRINT : case BPRINT : return "i>";
+			case FPRINT : return "f>";
+			case SPRINT : return "s>";
+			case VPRINT : return "v>";
+			case HALT : case BR : case NOP : case IINC :
+			case GC_START : case GC_END : case SROOT : case VROOT :
+				return ">";
+			default :
+				return null;
+		}
+	}
+}
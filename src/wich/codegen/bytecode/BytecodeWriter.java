@@ -1,108 +1,364 @@
 package wich.codegen.bytecode;
 
 import wich.codegen.CompilerUtils;
+import wich.errors.ErrorType;
 import wich.errors.WichErrorHandler;
+import wich.link.Module;
 import wich.parser.WichParser;
 import wich.semantics.SymbolTable;
 import wich.semantics.symbols.WFunctionSymbol;
 
+import wich.vm.FuncInfo;
+import wich.vm.ObjectFile;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /** Generate a file containing bytecode and symbol table information
- *  so that an interpreter/VM can execute the code.  For ease
- *  interoperability and debugging ease, generate text not binary file.
+ *  so that an interpreter/VM can execute the code.
  *
- *  foo.w source text file generates foo.wasm object text file.
+ *  foo.w source text file generates foo.wasm, a binary object file laid
+ *  out as described in {@link wich.vm.ObjectFile} so a VM can map it and
+ *  run the code segment in place. genObjectFile() gives the equivalent
+ *  text listing for debugging and for -disasm.
  */
 public class BytecodeWriter {
 	public SymbolTable symtab;
 	public WichParser.ScriptContext tree;
+	public Map<String, CodeBlock> functionBodies; // set by genBytecode()
+
+	/** Applied to each function body before layout; null to turn it off */
+	public PeepholeOptimizer peephole = new PeepholeOptimizer();
+
+	/** Fuses hot sequences after the peephole pass when extensions is
+	 *  set; null to leave them alone.
+	 */
+	public SuperinstructionSelector superinstructions = new SuperinstructionSelector();
+
+	/** Generate the register form (BYTECODE_REG) instead of stack code;
+	 *  the stack-code passes above don't apply to it.
+	 */
+	public boolean registers;
+
+	/** Use the instructions past COPY_VECTOR: DUP, the superinstructions,
+	 *  BRT, VCONST, the _INPLACE ops and SCONCAT. Only the in-tree VMs know
+	 *  them; leave it off for wrun. The register form is in-tree only and
+	 *  always uses them. genObjectFile() lists the vector pool and each
+	 *  function's max stack only when they're in use, so the listing stays
+	 *  in the format wrun reads otherwise.
+	 */
+	public boolean extensions;
+
+	/** Where genBytecode() reports code that fails to generate or verify;
+	 *  that is a compiler bug, and nothing is written.
+	 */
+	public WichErrorHandler err = new WichErrorHandler();
 
 	public BytecodeWriter(SymbolTable symtab, WichParser.ScriptContext tree) {
 		this.symtab = symtab;
 		this.tree = tree;
 	}
 
+	/** Write the binary object file */
 	public void write(String outputFile) throws IOException {
-		CompilerUtils.writeFile(outputFile, genObjectFile(), StandardCharsets.UTF_8);
+		ByteBuffer obj = genBinaryObjectFile();
+		if ( obj==null ) return;
+		Files.write(Paths.get(outputFile), obj.array());
 	}
 
-	/** Return a string representation of the object file. */
+	/** Write the text listing of the object file */
+	public void writeDisasm(String outputFile) throws IOException {
+		CodeBlock code = genBytecode();
+		if ( code==null ) return;
+		CompilerUtils.writeFile(outputFile, listing(code), StandardCharsets.UTF_8);
+	}
+
+	/** Return a string representation of the object file; with extensions
+	 *  it's what {@link ObjectFile#disassemble} gives for the binary form.
+	 *  "<invalid>" if genBytecode() failed.
+	 */
 	public String genObjectFile() {
-		Code code = genBytecode();
+		CodeBlock code = genBytecode();
+		return code!=null ? listing(code) : "<invalid>";
+	}
 
+	protected String listing(CodeBlock code) {
 		StringBuilder buf = new StringBuilder();
-		buf.append(String.format("%d strings\n", symtab.strings.size()));
-		LinkedHashMap sortedMap = (LinkedHashMap<String, Integer>)symtab.sortHashMapByValues(symtab.strings);
-		for (Object s : sortedMap.keySet()) {
-			Integer i = (Integer) sortedMap.get(s);
-			String literal = CompilerUtils.stripFirstLast((String)s);
+		List<String> strings = symtab.getStringLiterals();
+		buf.append(String.format("%d strings\n", strings.size()));
+		for (int i = 0; i<strings.size(); i++) {
+			String literal = CompilerUtils.stripFirstLast(strings.get(i));
 			buf.append(String.format("\t%d: %d/%s\n", i, literal.length(), literal));
 		}
+		boolean extended = extensions || registers; // wrun reads the rest
+		if ( extended ) ObjectFile.appendVectors(buf, vectors());
 		buf.append(String.format("%d functions\n", symtab.getfunctions().size()));
-		List<Integer> insertOrder = new ArrayList<>();
-		HashMap<Integer, String> indexMapName = new HashMap<>();
-		for (String s : symtab.getfunctions().keySet()) {
-			int index = symtab.computerFuncIndex(s);
-			insertOrder.add(index);
-			indexMapName.put(index, s);
-		}
-		Collections.sort(insertOrder);
-		for (Integer i :insertOrder) {
-			String s = indexMapName.get(i);
-			WFunctionSymbol f = symtab.getfunctions().get(s);
-			int numLocalsAndArgs = f.nlocals();
-			int numArgs = f.nargs();
-			buf.append(String.format("\t%d: addr=%d args=%d locals=%d type=%d %d/%s\n",
-					symtab.computerFuncIndex(f.getName()), f.address, numArgs, numLocalsAndArgs,
-					f.getType().getVMTypeIndex(), s.length(), s));
+		for (WFunctionSymbol f : symtab.getfunctions().values()) {
+			String s = f.getName();
+			if ( extended ) {
+				buf.append(String.format("\t%d: addr=%d args=%d locals=%d stack=%d type=%d %d/%s\n",
+						f.index, f.address, f.nargs(), nlocals(f),
+						f.maxStack, f.getType().getVMTypeIndex(), s.length(), s));
+			}
+			else {
+				buf.append(String.format("\t%d: addr=%d args=%d locals=%d type=%d %d/%s\n",
+						f.index, f.address, f.nargs(), nlocals(f),
+						f.getType().getVMTypeIndex(), s.length(), s));
+			}
 		}
 
 		StringBuilder codeS = serializedCode(code);
-		buf.append(String.format("%d instr, %d bytes\n", code.instructions().size(), code.sizeBytes()));
+		buf.append(String.format("%d instr, %d bytes\n", code.size(), code.sizeBytes()));
 		buf.append(codeS);
 		return buf.toString();
 	}
 
-	public Code genBytecode() {
-		BytecodeGenerator bgen = new BytecodeGenerator(symtab);
-		bgen.visit(tree);
+	/** Return the binary object file; see {@link ObjectFile} for the layout.
+	 *  null if genBytecode() failed.
+	 */
+	public ByteBuffer genBinaryObjectFile() {
+		CodeBlock code = genBytecode();
+		if ( code==null ) return null;
+		ObjectFile obj = toObjectFile(code);
+		for (FuncInfo f : obj.functions) {
+			if ( f.address<0 ) {
+				throw new IllegalStateException("function "+f.name+" is imported; write a module and link it");
+			}
+		}
+		return obj.encode();
+	}
+
+	/** Return a relocatable module for {@link wich.link.Linker}: functions imported
+	 *  from other modules stay in its table without an address, and CALL
+	 *  and SCONST operands index its own tables. A script with nothing
+	 *  outside its functions is a library and leaves out main. null if
+	 *  genBytecode() failed.
+	 */
+	public Module genModule(String name) {
+		CodeBlock code = genBytecode();
+		if ( code==null ) return null;
+		ObjectFile obj = toObjectFile(code);
+		FuncInfo[] functions = obj.functions;
+		int ninstr = obj.numInstr;
+		if ( tree.statement().isEmpty() ) { // main is defined and laid out last
+			CodeBlock main = functionBodies.get("main");
+			functions = Arrays.copyOf(functions, functions.length-1);
+			obj.code.limit(main.address);
+			ninstr -= main.size();
+		}
+		int[][] argTypes = new int[functions.length][];
+		for (WFunctionSymbol f : functions()) {
+			int i = f.index;
+			if ( i>=functions.length ) continue;
+			argTypes[i] = new int[f.argTypes.size()];
+			for (int k = 0; k<argTypes[i].length; k++) {
+				argTypes[i][k] = f.argTypes.get(k).getVMTypeIndex();
+			}
+		}
+		Module m = new Module(name, obj.strings, functions, argTypes, obj.code, ninstr);
+		m.registers = registers;
+		m.vectors = obj.vectors;
+		return m;
+	}
+
+	/** The object file for laid out code; functions in table order */
+	protected ObjectFile toObjectFile(CodeBlock code) {
+		String[] strings = new String[symtab.strings.size()];
+		int n = 0;
+		for (String s : symtab.strings.keySet()) {
+			strings[n++] = ObjectFile.unescape(CompilerUtils.stripFirstLast(s));
+		}
+		List<WFunctionSymbol> funcs = functions();
+		FuncInfo[] functions = new FuncInfo[funcs.size()];
+		for (int i = 0; i<funcs.size(); i++) {
+			WFunctionSymbol f = funcs.get(i);
+			functions[i] = new FuncInfo(f.getName(), f.address, f.nargs(), nlocals(f), f.maxStack,
+										f.getType().getVMTypeIndex());
+		}
+		ByteBuffer buf = ByteBuffer.allocate(code.sizeBytes()).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i<code.size(); i++) {
+			encode(buf, code, i);
+		}
+		buf.flip();
+		ObjectFile obj = new ObjectFile(strings, functions, buf, code.size());
+		obj.registers = registers;
+		obj.vectors = vectors();
+		return obj;
+	}
+
+	protected double[][] vectors() {
+		return symtab.vectors.toArray(new double[symtab.vectors.size()][]);
+	}
+
+	protected List<WFunctionSymbol> functions() {
+		return new ArrayList<>(symtab.getfunctions().values());
+	}
+
+	protected void encode(ByteBuffer buf, CodeBlock code, int i) {
+		Opcode op = code.op(i);
+		if ( op.code<0 ) {
+			throw new IllegalArgumentException("no encoding for instruction "+op);
+		}
+		buf.put((byte)op.code);
+		for (int k = 0; k<op.operands(); k++) {
+			switch ( op.layout.charAt(k) ) {
+				case 'i' :
+				case 'f' : // raw bits already
+					buf.putInt(code.operand(i, k));
+					break;
+				case 'd' : // kept as float bits until now
+					buf.putDouble(code.floatOperand(i, k));
+					break;
+				default :
+					buf.putShort((short)code.operand(i, k));
+			}
+		}
+	}
+
+	/** FrameLayout sizes the frame for variables; register code keeps its
+	 *  temps past them, so size the frame by the highest slot the code
+	 *  touches too. Functions imported from another module have no code here.
+	 */
+	protected int nlocals(WFunctionSymbol f) {
+		CodeBlock body = functionBodies.get(f.getName());
+		if ( body==null ) return f.nlocals();
+		return Math.max(f.nlocals(), maxSlot(body)+1-f.nargs());
+	}
+
+	protected static int maxSlot(CodeBlock body) {
+		int max = -1;
+		for (int i = 0; i<body.size(); i++) {
+			Opcode op = body.op(i);
+			switch ( op ) {
+				case ILOAD :
+				case FLOAD :
+				case VLOAD :
+				case SLOAD :
+				case STORE :
+				case IINC :
+					max = Math.max(max, body.operand(i, 0));
+					break;
+				case VLOAD_LOCAL_INDEX :
+					max = Math.max(max, Math.max(body.operand(i, 0), body.operand(i, 1)));
+					break;
+			}
+			for (int k = 0; k<op.operands(); k++) {
+				if ( op.isRegister(k) ) max = Math.max(max, body.operand(i, k));
+			}
+		}
+		return max;
+	}
+
+	/** All function bodies laid out, or null after reporting to err if
+	 *  the generator or the verifier failed.
+	 */
+	public CodeBlock genBytecode() {
+		BytecodeGenerator bgen = registers ? new RegisterBytecodeGenerator(symtab) : new BytecodeGenerator(symtab);
+		bgen.extensions |= extensions;
+		try {
+			bgen.visit(tree);
+			if ( peephole!=null && !registers ) {
+				peephole.extensions = extensions;
+				for (Map.Entry<String, CodeBlock> e : bgen.functionBodies.entrySet()) {
+					e.setValue(peephole.optimize(e.getKey(), e.getValue()));
+				}
+			}
+			if ( superinstructions!=null && extensions && !registers ) {
+				for (Map.Entry<String, CodeBlock> e : bgen.functionBodies.entrySet()) {
+					e.setValue(superinstructions.optimize(e.getKey(), e.getValue()));
+				}
+			}
+			functionBodies = bgen.functionBodies;
+			if ( !registers ) verify(bgen.functionBodies);
+		}
+		catch (IllegalStateException e) { // a generator bug, not an error in the script
+			err.error(null, ErrorType.INTERNAL_CODEGEN_ERROR, e.getMessage());
+			return null;
+		}
 		computeCodeAddresses(bgen.functionBodies);
-		Code all = Code.None;
-		for (Code code : bgen.functionBodies.values()) {
-			all = all.join(code);
+		int n = 0;
+		for (CodeBlock body : bgen.functionBodies.values()) {
+			n += body.size();
+		}
+		CodeBlock all = new CodeBlock(n); // keep bodies intact
+		for (CodeBlock body : bgen.functionBodies.values()) {
+			for (int i = 0; i<body.size(); i++) {
+				all.add(body, i);
+			}
 		}
 		return all;
 	}
 
-	public StringBuilder serializedCode(Code code) {
+	/** Check each body with {@link BytecodeVerifier} and record its max
+	 *  stack depth; register code has no operand stack and keeps 0.
+	 */
+	protected void verify(Map<String, CodeBlock> functionBodies) {
+		Map<String, WFunctionSymbol> functions = symtab.getfunctions();
+		WFunctionSymbol[] byIndex = functions.values().toArray(new WFunctionSymbol[functions.size()]);
+		BytecodeVerifier verifier = new BytecodeVerifier(byIndex);
+		for (Map.Entry<String, CodeBlock> e : functionBodies.entrySet()) {
+			WFunctionSymbol f = functions.get(e.getKey());
+			f.maxStack = verifier.verify(f, e.getValue());
+		}
+	}
+
+	public StringBuilder serializedCode(CodeBlock code) {
 		StringBuilder codeS = new StringBuilder();
-		for (Instr I : code.instructions()) {
+		for (int i = 0; i<code.size(); i++) {
 			codeS.append("\t");
-			codeS.append(I);
+			codeS.append(code.toString(i));
 			codeS.append('\n');
 		}
 		return codeS;
 	}
 
-	public void computeCodeAddresses(Map<String, Code> functionBodies) {
+	/** Lay out the bodies in order, then drop each body's labels and patch
+	 *  its branches, whose offset operand holds a label number until now,
+	 *  in one pass.
+	 */
+	public void computeCodeAddresses(Map<String, CodeBlock> functionBodies) {
+		Map<String, WFunctionSymbol> functions = symtab.getfunctions();
 		int ip = 0; // compute addresses for each instruction across functions in order
-		for (String fname : functionBodies.keySet()) {
-			WFunctionSymbol fsym = symtab.getfunctions().get(fname);
-			Code body = functionBodies.get(fname);
-			for (Instr I : body.instructions()) {
-				I.address = ip;
-				ip += I.size;
+		for (Map.Entry<String, CodeBlock> e : functionBodies.entrySet()) {
+			CodeBlock body = e.getValue();
+			int[] labelAddress = new int[body.labels()];
+			Arrays.fill(labelAddress, -1);
+			body.address = ip;
+			for (int i = 0; i<body.size(); i++) {
+				Opcode op = body.op(i);
+				if ( op==Opcode.LABEL ) labelAddress[body.operand(i, 0)] = ip;
+				ip += op.size;
+			}
+			int addr = body.address;
+			int n = 0;
+			for (int i = 0; i<body.size(); i++) { // compact in place
+				Opcode op = body.op(i);
+				if ( op==Opcode.LABEL ) continue;
+				if ( op.branch ) {
+					int target = labelAddress[body.target(i)];
+					if ( target<0 ) {
+						throw new IllegalStateException(op+" at "+addr+" to a label that was never placed");
+					}
+					int offset = target - addr;
+					if ( offset<Short.MIN_VALUE || offset>Short.MAX_VALUE ) {
+						throw new IllegalStateException(op+" at "+addr+" can't reach "+target);
+					}
+					body.setTarget(i, offset);
+				}
+				if ( n!=i ) body.move(i, n);
+				addr += op.size;
+				n++;
 			}
-			Instr firstInstr = body.instructions().get(0);
-			fsym.address = firstInstr.address;
+			body.truncate(n);
+			functions.get(e.getKey()).address = body.address;
 		}
 	}
 }
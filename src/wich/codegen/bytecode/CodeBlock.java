@@ -1,50 +1,144 @@
 package wich.codegen.bytecode;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
-public class CodeBlock extends ArrayList<Instr> implements Code { // an alias really
-	@Override
-	public List<Instr> instructions() {
-		return this;
+/** The code for one function, packed four ints to an instruction: the
+ *  opcode's ordinal then up to three operands, floats as their raw bits.
+ *  Instructions are numbered from 0 in order; LABEL pseudo-instructions
+ *  take a number like any other until BytecodeWriter lays the code out
+ *  and drops them. A branch's offset operand holds its label's number
+ *  until then.
+ */
+public class CodeBlock {
+	protected static final int STRIDE = 4;
+	protected static final Opcode[] opcodes = Opcode.values();
+
+	protected int[] code;
+	protected int n;		// instructions
+	protected int labels;	// label numbers handed out by newLabel()
+
+	/** Address of the first instruction once laid out */
+	public int address = -1;
+
+	public CodeBlock() {
+		this(64);
 	}
 
-	@Override
-	public int sizeBytes() {
-		int bytes = 0;
-		for (Instr I : instructions()) {
-			bytes += I.size;
-		}
-		return bytes;
+	public CodeBlock(int capacity) {
+		code = new int[Math.max(capacity, 1)*STRIDE];
 	}
 
-	@Override
-	public boolean add(Code code) {
-		if (code != Code.None) {
-			return super.addAll(code.instructions());
+	public int size() {
+		return n;
+	}
+
+	public boolean isEmpty() {
+		return n==0;
+	}
+
+	public int newLabel() {
+		return labels++;
+	}
+
+	public int labels() {
+		return labels;
+	}
+
+	public Opcode op(int i) {
+		return opcodes[code[i*STRIDE]];
+	}
+
+	public int operand(int i, int k) {
+		return code[i*STRIDE+1+k];
+	}
+
+	public float floatOperand(int i, int k) {
+		return Float.intBitsToFloat(operand(i, k));
+	}
+
+	public void setOperand(int i, int k, int v) {
+		code[i*STRIDE+1+k] = v;
+	}
+
+	/** A branch's label until layout, its offset after */
+	public int target(int i) {
+		return operand(i, op(i).operands()-1);
+	}
+
+	public void setTarget(int i, int v) {
+		setOperand(i, op(i).operands()-1, v);
+	}
+
+	public void add(Opcode op, int a, int b, int c) {
+		if ( (n+1)*STRIDE>code.length ) {
+			code = Arrays.copyOf(code, code.length*2);
 		}
-		return false;
+		int p = n*STRIDE;
+		code[p] = op.ordinal();
+		code[p+1] = a;
+		code[p+2] = b;
+		code[p+3] = c;
+		n++;
 	}
 
-	@Override
-	public Code join(Code next) {
-		if (next != Code.None) {
-			add(next);
+	/** Append instruction i of from */
+	public void add(CodeBlock from, int i) {
+		int p = i*STRIDE;
+		add(from.op(i), from.code[p+1], from.code[p+2], from.code[p+3]);
+	}
+
+	/** Copy instruction from over instruction to */
+	public void move(int from, int to) {
+		System.arraycopy(code, from*STRIDE, code, to*STRIDE, STRIDE);
+	}
+
+	/** Drop every instruction from i on */
+	public void truncate(int i) {
+		n = i;
+	}
+
+	/** Empty this block, keeping room for at least capacity instructions */
+	public void clear(int capacity) {
+		if ( capacity*STRIDE>code.length ) code = new int[capacity*STRIDE];
+		n = 0;
+	}
+
+	/** Trade instructions with other; each keeps its own label numbering */
+	public void swap(CodeBlock other) {
+		int[] c = code;
+		code = other.code;
+		other.code = c;
+		int m = n;
+		n = other.n;
+		other.n = m;
+	}
+
+	/** Size in bytes of the encoded instructions; labels take none */
+	public int sizeBytes() {
+		int bytes = 0;
+		for (int i = 0; i<n; i++) {
+			bytes += op(i).size;
 		}
-		return this;
+		return bytes;
 	}
 
-	public static Code join(Code... next) {
-		CodeBlock blk = new CodeBlock();
-		for (Code c : next) {
-			if ( c!=Code.None ) {
-				blk.add(c);
-			}
+	public String toString(int i) {
+		Opcode op = op(i);
+		StringBuilder buf = new StringBuilder(op.name());
+		for (int k = 0; k<op.operands(); k++) {
+			buf.append(' ');
+			if ( op.isFloat(k) ) buf.append(floatOperand(i, k));
+			else buf.append(operand(i, k));
 		}
-		return blk;
+		return buf.toString();
 	}
 
-	public static CodeBlock of(final Instr I) {
-		return new CodeBlock() {{add(I);}};
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i<n; i++) {
+			buf.append(toString(i)).append('\n');
+		}
+		return buf.toString();
 	}
 }
@@ -0,0 +1,100 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import org.antlr.symtab.Scope;
+import org.antlr.symtab.Symbol;
+import org.antlr.v4.runtime.tree.ParseTree;
+import wich.parser.WichParser;
+import wich.semantics.symbols.WArgSymbol;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.semantics.symbols.WVariableSymbol;
+
+/** Assign every argument and variable of a function its frame slot once,
+ *  before BytecodeGenerator runs, so a load or store just reads
+ *  WVariableSymbol.slot.
+ *
+ *  Args take slots 0..nargs-1 and variables follow in the order they
+ *  are defined. A variable lives from its definition to the end of its
+ *  block, so on leaving a block the next free slot drops back to where it
+ *  was on entry: sibling blocks, and anything defined after a block, reuse
+ *  its slots. WFunctionSymbol.nslots ends up as the frame size.
+ */
+public class FrameLayout {
+	protected Scope scope;
+	protected int next;
+	protected int max;
+
+	/** Lay out a function: its args, then the variables of its body */
+	public static void layout(WichParser.FunctionContext ctx) {
+		WFunctionSymbol f = ctx.scope;
+		FrameLayout layout = new FrameLayout(f);
+		for (Symbol s : f.getSymbols()) {
+			if ( s instanceof WArgSymbol ) ((WArgSymbol)s).slot = layout.next++;
+		}
+		layout.max = layout.next;
+		layout.walk(ctx.block());
+		f.nslots = layout.max;
+	}
+
+	/** Lay out main, whose variables are the script's top-level ones */
+	public static void layout(WFunctionSymbol main, WichParser.ScriptContext ctx) {
+		FrameLayout layout = new FrameLayout(ctx.scope);
+		for (WichParser.StatementContext s : ctx.statement()) {
+			layout.walk(s);
+		}
+		main.nslots = layout.max;
+	}
+
+	protected FrameLayout(Scope scope) {
+		this.scope = scope;
+	}
+
+	protected void walk(ParseTree t) {
+		if ( t instanceof WichParser.FunctionContext ) return; // has its own frame
+		if ( t instanceof WichParser.BlockContext ) {
+			Scope saved = scope;
+			int savedNext = next;
+			scope = ((WichParser.BlockContext)t).scope;
+			walkChildren(t);
+			scope = saved;
+			next = savedNext;
+			return;
+		}
+		if ( t instanceof WichParser.VardefContext ) {
+			Symbol v = scope.getSymbol(((WichParser.VardefContext)t).ID().getText());
+			if ( v instanceof WVariableSymbol ) {
+				((WVariableSymbol)v).slot = next++;
+				max = Math.max(max, next);
+			}
+		}
+		walkChildren(t);
+	}
+
+	protected void walkChildren(ParseTree t) {
+		for (int i = 0; i<t.getChildCount(); i++) {
+			walk(t.getChild(i));
+		}
+	}
+}
@@ -0,0 +1,313 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import wich.vm.Bytecodes;
+
+/** The instruction set as the compiler sees it: one constant per
+ *  {@link Bytecodes} opcode, in the same order so ordinal() is the
+ *  encoding, plus the LABEL pseudo-instruction ASM.mark() places and
+ *  BytecodeWriter removes. Each knows its operand layout, its encoded
+ *  size and how it changes the operand stack; pops and pushes are VARIES
+ *  for VECTOR, CALL and RET, whose effect depends on the count on the
+ *  stack or the function, pops is VARIES for SCONCAT and PRINTN, which pop
+ *  as many values as their operand says, and both are 0 for register
+ *  instructions.
+ */
+public enum Opcode {
+	HALT(Bytecodes.HALT, 0, 0),
+	IADD(Bytecodes.IADD, 2, 1),
+	ISUB(Bytecodes.ISUB, 2, 1),
+	IMUL(Bytecodes.IMUL, 2, 1),
+	IDIV(Bytecodes.IDIV, 2, 1),
+	FADD(Bytecodes.FADD, 2, 1),
+	FSUB(Bytecodes.FSUB, 2, 1),
+	FMUL(Bytecodes.FMUL, 2, 1),
+	FDIV(Bytecodes.FDIV, 2, 1),
+	VADD(Bytecodes.VADD, 2, 1),
+	VSUB(Bytecodes.VSUB, 2, 1),
+	VMUL(Bytecodes.VMUL, 2, 1),
+	VDIV(Bytecodes.VDIV, 2, 1),
+	SADD(Bytecodes.SADD, 2, 1),
+	VADDI(Bytecodes.VADDI, 2, 1),
+	VADDF(Bytecodes.VADDF, 2, 1),
+	VSUBI(Bytecodes.VSUBI, 2, 1),
+	VSUBF(Bytecodes.VSUBF, 2, 1),
+	VMULI(Bytecodes.VMULI, 2, 1),
+	VMULF(Bytecodes.VMULF, 2, 1),
+	VDIVI(Bytecodes.VDIVI, 2, 1),
+	VDIVF(Bytecodes.VDIVF, 2, 1),
+	OR(Bytecodes.OR, 2, 1),
+	AND(Bytecodes.AND, 2, 1),
+	INEG(Bytecodes.INEG, 1, 1),
+	FNEG(Bytecodes.FNEG, 1, 1),
+	NOT(Bytecodes.NOT, 1, 1),
+	I2F(Bytecodes.I2F, 1, 1),
+	I2S(Bytecodes.I2S, 1, 1),
+	F2S(Bytecodes.F2S, 1, 1),
+	V2S(Bytecodes.V2S, 1, 1),
+	IEQ(Bytecodes.IEQ, 2, 1),
+	INEQ(Bytecodes.INEQ, 2, 1),
+	ILT(Bytecodes.ILT, 2, 1),
+	ILE(Bytecodes.ILE, 2, 1),
+	IGT(Bytecodes.IGT, 2, 1),
+	IGE(Bytecodes.IGE, 2, 1),
+	FEQ(Bytecodes.FEQ, 2, 1),
+	FNEQ(Bytecodes.FNEQ, 2, 1),
+	FLT(Bytecodes.FLT, 2, 1),
+	FLE(Bytecodes.FLE, 2, 1),
+	FGT(Bytecodes.FGT, 2, 1),
+	FGE(Bytecodes.FGE, 2, 1),
+	VEQ(Bytecodes.VEQ, 2, 1),
+	VNEQ(Bytecodes.VNEQ, 2, 1),
+	SEQ(Bytecodes.SEQ, 2, 1),
+	SNEQ(Bytecodes.SNEQ, 2, 1),
+	SLT(Bytecodes.SLT, 2, 1),
+	SLE(Bytecodes.SLE, 2, 1),
+	SGT(Bytecodes.SGT, 2, 1),
+	SGE(Bytecodes.SGE, 2, 1),
+	BR(Bytecodes.BR, 0, 0),
+	BRF(Bytecodes.BRF, 1, 0),
+	ICONST(Bytecodes.ICONST, 0, 1),
+	FCONST(Bytecodes.FCONST, 0, 1),
+	SCONST(Bytecodes.SCONST, 0, 1),
+	ILOAD(Bytecodes.ILOAD, 0, 1),
+	FLOAD(Bytecodes.FLOAD, 0, 1),
+	VLOAD(Bytecodes.VLOAD, 0, 1),
+	SLOAD(Bytecodes.SLOAD, 0, 1),
+	STORE(Bytecodes.STORE, 1, 0),
+	VECTOR(Bytecodes.VECTOR, -1, -1),
+	SLOAD_INDEX(Bytecodes.SLOAD_INDEX, 2, 1),
+	VLOAD_INDEX(Bytecodes.VLOAD_INDEX, 2, 1),
+	STORE_INDEX(Bytecodes.STORE_INDEX, 3, 0),
+	PUSH_DFLT_RETV(Bytecodes.PUSH_DFLT_RETV, 0, 1),
+	POP(Bytecodes.POP, 1, 0),
+	CALL(Bytecodes.CALL, -1, -1),
+	RET(Bytecodes.RET, -1, -1),
+	IPRINT(Bytecodes.IPRINT, 1, 0),
+	FPRINT(Bytecodes.FPRINT, 1, 0),
+	BPRINT(Bytecodes.BPRINT, 1, 0),
+	SPRINT(Bytecodes.SPRINT, 1, 0),
+	VPRINT(Bytecodes.VPRINT, 1, 0),
+	NOP(Bytecodes.NOP, 0, 0),
+	VLEN(Bytecodes.VLEN, 1, 1),
+	SLEN(Bytecodes.SLEN, 1, 1),
+	GC_START(Bytecodes.GC_START, 0, 0),
+	GC_END(Bytecodes.GC_END, 0, 0),
+	SROOT(Bytecodes.SROOT, 0, 0),
+	VROOT(Bytecodes.VROOT, 0, 0),
+	COPY_VECTOR(Bytecodes.COPY_VECTOR, 1, 1),
+	DUP(Bytecodes.DUP, 1, 2),
+	BR_IEQ(Bytecodes.BR_IEQ, 2, 0),
+	BR_INEQ(Bytecodes.BR_INEQ, 2, 0),
+	BR_ILT(Bytecodes.BR_ILT, 2, 0),
+	BR_ILE(Bytecodes.BR_ILE, 2, 0),
+	BR_IGT(Bytecodes.BR_IGT, 2, 0),
+	BR_IGE(Bytecodes.BR_IGE, 2, 0),
+	BR_FEQ(Bytecodes.BR_FEQ, 2, 0),
+	BR_FNEQ(Bytecodes.BR_FNEQ, 2, 0),
+	BR_FLT(Bytecodes.BR_FLT, 2, 0),
+	BR_FLE(Bytecodes.BR_FLE, 2, 0),
+	BR_FGT(Bytecodes.BR_FGT, 2, 0),
+	BR_FGE(Bytecodes.BR_FGE, 2, 0),
+	VLOAD_LOCAL_INDEX(Bytecodes.VLOAD_LOCAL_INDEX, 0, 1),
+	IINC(Bytecodes.IINC, 0, 0),
+	BRT(Bytecodes.BRT, 1, 0),
+	VCONST(Bytecodes.VCONST, 0, 1),
+	VADD_INPLACE(Bytecodes.VADD_INPLACE, 2, 0),
+	VSUB_INPLACE(Bytecodes.VSUB_INPLACE, 2, 0),
+	VMUL_INPLACE(Bytecodes.VMUL_INPLACE, 2, 0),
+	VDIV_INPLACE(Bytecodes.VDIV_INPLACE, 2, 0),
+	SCONCAT(Bytecodes.SCONCAT, -1, 1),
+	PRINTN(Bytecodes.PRINTN, -1, 0),
+	VRSUBF(Bytecodes.VRSUBF, 2, 1),
+	VRDIVF(Bytecodes.VRDIVF, 2, 1),
+	IADD_R(Bytecodes.IADD_R),
+	ISUB_R(Bytecodes.ISUB_R),
+	IMUL_R(Bytecodes.IMUL_R),
+	IDIV_R(Bytecodes.IDIV_R),
+	FADD_R(Bytecodes.FADD_R),
+	FSUB_R(Bytecodes.FSUB_R),
+	FMUL_R(Bytecodes.FMUL_R),
+	FDIV_R(Bytecodes.FDIV_R),
+	VADD_R(Bytecodes.VADD_R),
+	VSUB_R(Bytecodes.VSUB_R),
+	VMUL_R(Bytecodes.VMUL_R),
+	VDIV_R(Bytecodes.VDIV_R),
+	SADD_R(Bytecodes.SADD_R),
+	VADDI_R(Bytecodes.VADDI_R),
+	VADDF_R(Bytecodes.VADDF_R),
+	VSUBI_R(Bytecodes.VSUBI_R),
+	VSUBF_R(Bytecodes.VSUBF_R),
+	VMULI_R(Bytecodes.VMULI_R),
+	VMULF_R(Bytecodes.VMULF_R),
+	VDIVI_R(Bytecodes.VDIVI_R),
+	VDIVF_R(Bytecodes.VDIVF_R),
+	OR_R(Bytecodes.OR_R),
+	AND_R(Bytecodes.AND_R),
+	IEQ_R(Bytecodes.IEQ_R),
+	INEQ_R(Bytecodes.INEQ_R),
+	ILT_R(Bytecodes.ILT_R),
+	ILE_R(Bytecodes.ILE_R),
+	IGT_R(Bytecodes.IGT_R),
+	IGE_R(Bytecodes.IGE_R),
+	FEQ_R(Bytecodes.FEQ_R),
+	FNEQ_R(Bytecodes.FNEQ_R),
+	FLT_R(Bytecodes.FLT_R),
+	FLE_R(Bytecodes.FLE_R),
+	FGT_R(Bytecodes.FGT_R),
+	FGE_R(Bytecodes.FGE_R),
+	VEQ_R(Bytecodes.VEQ_R),
+	VNEQ_R(Bytecodes.VNEQ_R),
+	SEQ_R(Bytecodes.SEQ_R),
+	SNEQ_R(Bytecodes.SNEQ_R),
+	SLT_R(Bytecodes.SLT_R),
+	SLE_R(Bytecodes.SLE_R),
+	SGT_R(Bytecodes.SGT_R),
+	SGE_R(Bytecodes.SGE_R),
+	VLOAD_INDEX_R(Bytecodes.VLOAD_INDEX_R),
+	SLOAD_INDEX_R(Bytecodes.SLOAD_INDEX_R),
+	STORE_INDEX_R(Bytecodes.STORE_INDEX_R),
+	MOVE_R(Bytecodes.MOVE_R),
+	INEG_R(Bytecodes.INEG_R),
+	FNEG_R(Bytecodes.FNEG_R),
+	NOT_R(Bytecodes.NOT_R),
+	I2F_R(Bytecodes.I2F_R),
+	I2S_R(Bytecodes.I2S_R),
+	F2S_R(Bytecodes.F2S_R),
+	V2S_R(Bytecodes.V2S_R),
+	VLEN_R(Bytecodes.VLEN_R),
+	SLEN_R(Bytecodes.SLEN_R),
+	COPY_VECTOR_R(Bytecodes.COPY_VECTOR_R),
+	IPRINT_R(Bytecodes.IPRINT_R),
+	FPRINT_R(Bytecodes.FPRINT_R),
+	BPRINT_R(Bytecodes.BPRINT_R),
+	SPRINT_R(Bytecodes.SPRINT_R),
+	VPRINT_R(Bytecodes.VPRINT_R),
+	RET_R(Bytecodes.RET_R),
+	DFLT_R(Bytecodes.DFLT_R),
+	ICONST_R(Bytecodes.ICONST_R),
+	FCONST_R(Bytecodes.FCONST_R),
+	SCONST_R(Bytecodes.SCONST_R),
+	BRF_R(Bytecodes.BRF_R),
+	BRT_R(Bytecodes.BRT_R),
+	IADDI_R(Bytecodes.IADDI_R),
+	CALL_R(Bytecodes.CALL_R),
+	VECTOR_R(Bytecodes.VECTOR_R),
+	BR_IEQ_R(Bytecodes.BR_IEQ_R),
+	BR_INEQ_R(Bytecodes.BR_INEQ_R),
+	BR_ILT_R(Bytecodes.BR_ILT_R),
+	BR_ILE_R(Bytecodes.BR_ILE_R),
+	BR_IGT_R(Bytecodes.BR_IGT_R),
+	BR_IGE_R(Bytecodes.BR_IGE_R),
+	BR_FEQ_R(Bytecodes.BR_FEQ_R),
+	BR_FNEQ_R(Bytecodes.BR_FNEQ_R),
+	BR_FLT_R(Bytecodes.BR_FLT_R),
+	BR_FLE_R(Bytecodes.BR_FLE_R),
+	BR_FGT_R(Bytecodes.BR_FGT_R),
+	BR_FGE_R(Bytecodes.BR_FGE_R),
+	BR_FNLT_R(Bytecodes.BR_FNLT_R),
+	BR_FNLE_R(Bytecodes.BR_FNLE_R),
+	BR_FNGT_R(Bytecodes.BR_FNGT_R),
+	BR_FNGE_R(Bytecodes.BR_FNGE_R),
+	VCONST_R(Bytecodes.VCONST_R),
+	VADD_INPLACE_R(Bytecodes.VADD_INPLACE_R),
+	VSUB_INPLACE_R(Bytecodes.VSUB_INPLACE_R),
+	VMUL_INPLACE_R(Bytecodes.VMUL_INPLACE_R),
+	VDIV_INPLACE_R(Bytecodes.VDIV_INPLACE_R),
+	SCONCAT_R(Bytecodes.SCONCAT_R),
+	PRINTN_R(Bytecodes.PRINTN_R),
+	VRSUBF_R(Bytecodes.VRSUBF_R),
+	VRDIVF_R(Bytecodes.VRDIVF_R),
+	LABEL(-1, 0, 0);
+
+	public static final int VARIES = -1;
+
+	public final int code;
+	/** Operand kinds as in {@link Bytecodes#layouts} */
+	public final String layout;
+	public final int size;
+	public final int pops;
+	public final int pushes;
+	/** The last operand is an offset, or a label number until layout */
+	public final boolean branch;
+
+	Opcode(int code) {
+		this(code, 0, 0);
+	}
+
+	Opcode(int code, int pops, int pushes) {
+		this.code = code;
+		this.layout = code>=0 ? Bytecodes.layout(code) : "s"; // a label's operand is its number
+		this.size = code>=0 ? Bytecodes.size(code) : 0;
+		this.pops = pops;
+		this.pushes = pushes;
+		this.branch = code>=0 && Bytecodes.names[code].startsWith("BR");
+	}
+
+	public int operands() {
+		return layout.length();
+	}
+
+	public boolean isFloat(int operand) {
+		char kind = layout.charAt(operand);
+		return kind=='f' || kind=='d';
+	}
+
+	public boolean isRegister(int operand) {
+		return layout.charAt(operand)=='r';
+	}
+
+	/** Control never falls through to the next instruction */
+	public boolean isUnconditional() {
+		return this==BR || this==RET || this==HALT || this==RET_R;
+	}
+
+	/** The _R form of a stack instruction, or null if there isn't one */
+	public Opcode register() {
+		return registerForm[ordinal()];
+	}
+
+	/** The _INPLACE form of a vector instruction, or null if there isn't one */
+	public Opcode inPlace() {
+		return inPlaceForm[ordinal()];
+	}
+
+	protected static final Opcode[] registerForm = new Opcode[values().length];
+	protected static final Opcode[] inPlaceForm = new Opcode[values().length];
+	static {
+		for (Opcode op : values()) {
+			try {
+				registerForm[op.ordinal()] = valueOf(op.name()+"_R");
+			}
+			catch (IllegalArgumentException noRegisterForm) {
+			}
+			try {
+				inPlaceForm[op.ordinal()] = valueOf(op.name()+"_INPLACE");
+			}
+			catch (IllegalArgumentException noInPlaceForm) {
+			}
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import wich.codegen.CompilerUtils;
+import wich.errors.WichErrorHandler;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.vm.ObjectFile;
+import wich.vm.VM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Count opcode sequences over a corpus of Wich programs, statically and
+ *  as executed by {@link VM}, to pick which ones are worth fusing into
+ *  superinstructions.
+ *
+ *  Each program is compiled with the peephole optimizer but without
+ *  superinstructions and run with the VM's per-address profile on. A
+ *  sequence counts only within straight-line code: no branch target after
+ *  its first instruction and no transfer of control before its last, so
+ *  it runs exactly as often as its first instruction.
+ *
+ *  java wich.codegen.bytecode.OpcodeFrequency [-n maxlen] [-top k] file.w|dir ...
+ */
+public class OpcodeFrequency {
+	public static class Stat {
+		public final String sequence;
+		public int occurrences;	// static
+		public long executed;	// dynamic
+
+		public Stat(String sequence) { this.sequence = sequence; }
+	}
+
+	public int maxLength = 4;
+	public int top = 15;
+	public long totalExecuted;
+	public long totalExecutedFused; // same programs with superinstructions
+	public int totalInstructions;
+	public int programs;
+
+	/** sequence length -> sequence -> counts */
+	public final List<Map<String, Stat>> stats = new ArrayList<>();
+
+	public OpcodeFrequency() {
+		stats.add(null); // no zero-length sequences
+	}
+
+	public static void main(String[] args) throws IOException {
+		OpcodeFrequency freq = new OpcodeFrequency();
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i<args.length; i++) {
+			switch ( args[i] ) {
+				case "-n" :
+					freq.maxLength = Integer.parseInt(args[++i]);
+					break;
+				case "-top" :
+					freq.top = Integer.parseInt(args[++i]);
+					break;
+				default :
+					File f = new File(args[i]);
+					if ( f.isDirectory() ) {
+						File[] ws = f.listFiles((dir, name) -> name.endsWith(".w"));
+						if ( ws!=null ) for (File w : ws) files.add(w);
+					}
+					else {
+						files.add(f);
+					}
+			}
+		}
+		if ( files.isEmpty() ) {
+			System.out.println("Try: java wich.codegen.bytecode.OpcodeFrequency [-n maxlen] [-top k] file.w|dir ...");
+			return;
+		}
+		for (File f : files) {
+			freq.add(f.getPath());
+		}
+		System.out.print(freq.getReport());
+	}
+
+	/** Compile, run and count one program; skip it if it doesn't compile */
+	public void add(String fileName) throws IOException {
+		String wichInput = CompilerUtils.readFile(fileName, CompilerUtils.FILE_ENCODING);
+		BytecodeWriter writer = compile(wichInput);
+		if ( writer==null ) return;
+		writer.superinstructions = null;
+		VM vm = run(writer, true);
+		programs++;
+		totalExecuted += vm.instrCount;
+		for (CodeBlock body : writer.functionBodies.values()) {
+			add(body, vm.profile);
+		}
+		totalExecutedFused += run(compile(wichInput), false).instrCount;
+	}
+
+	protected static BytecodeWriter compile(String wichInput) {
+		SymbolTable symtab = new SymbolTable();
+		WichErrorHandler err = new WichErrorHandler();
+		ParserRuleContext tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+		if ( tree==null || err.getErrorNum()>0 ) return null;
+		BytecodeWriter writer = new BytecodeWriter(symtab, (WichParser.ScriptContext)tree);
+		writer.extensions = true;
+		return writer;
+	}
+
+	protected static VM run(BytecodeWriter writer, boolean profile) {
+		ObjectFile obj = ObjectFile.decode(writer.genBinaryObjectFile().rewind());
+		VM vm = new VM(obj);
+		vm.out = vm.err = new PrintStream(new ByteArrayOutputStream());
+		if ( profile ) vm.profile = new long[obj.code.limit()];
+		vm.exec(); // runtime errors still leave a useful profile
+		return vm;
+	}
+
+	protected void add(CodeBlock code, long[] profile) {
+		int[] address = new int[code.size()];
+		Set<Integer> targets = new HashSet<>();
+		int ip = code.address;
+		for (int i = 0; i<code.size(); i++) {
+			address[i] = ip;
+			if ( code.op(i).branch ) targets.add(ip + code.target(i));
+			ip += code.op(i).size;
+		}
+		totalInstructions += code.size();
+		for (int i = 0; i<code.size(); i++) {
+			StringBuilder seq = new StringBuilder();
+			for (int n = 1; n<=maxLength && i+n<=code.size(); n++) {
+				Opcode op = code.op(i+n-1);
+				if ( n>1 && targets.contains(address[i+n-1]) ) break;
+				if ( n>1 ) seq.append("; ");
+				seq.append(op);
+				while ( stats.size()<=n ) stats.add(new HashMap<>());
+				Stat s = stats.get(n).computeIfAbsent(seq.toString(), Stat::new);
+				s.occurrences++;
+				s.executed += profile[address[i]];
+				if ( endsBlock(op) ) break;
+			}
+		}
+	}
+
+	public String getReport() {
+		StringBuilder buf = new StringBuilder();
+		buf.append(String.format("%d programs, %d instructions, %d executed (%d with superinstructions)\n",
+								 programs, totalInstructions, totalExecuted, totalExecutedFused));
+		for (int n = 1; n<stats.size(); n++) {
+			List<Stat> byExecuted = new ArrayList<>(stats.get(n).values());
+			byExecuted.sort((a, b) -> Long.compare(b.executed, a.executed));
+			buf.append(String.format("\nlength %d: executed   %%disp  static  sequence\n", n));
+			for (int i = 0; i<Math.min(top, byExecuted.size()); i++) {
+				Stat s = byExecuted.get(i);
+				buf.append(String.format("%20d %6.2f %7d  %s\n", s.executed,
+										 totalExecuted>0 ? 100.0*s.executed/totalExecuted : 0.0,
+										 s.occurrences, s.sequence));
+			}
+		}
+		return buf.toString();
+	}
+
+	protected static boolean endsBlock(Opcode op) {
+		return op.branch || op==Opcode.CALL || op==Opcode.RET || op==Opcode.HALT;
+	}
+}
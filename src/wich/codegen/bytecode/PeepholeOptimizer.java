@@ -0,0 +1,306 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static wich.codegen.bytecode.Opcode.*;
+
+/** Clean up the code for a single function after BytecodeGenerator
+ *  and before BytecodeWriter.computeCodeAddresses() fixes the layout.
+ *
+ *  Branches name labels, which stay in the instruction stream, and no
+ *  rule pattern includes LABEL, so a rewrite can never swallow a branch
+ *  target other than the first instruction of its window; branches to
+ *  that one land on the replacement since the label stays put. We keep a
+ *  count of the branches naming each label and drop labels nobody uses.
+ *
+ *  Rules are matched against the end of the output as instructions are
+ *  copied across, and a replacement is fed back in ahead of the rest of
+ *  the input so it can take part in further matches. That keeps each pass
+ *  linear in the size of the function.
+ *
+ *  Beyond the rule table we drop code that follows an unconditional
+ *  BR/RET/HALT until the next branch target, thread branches to
+ *  unconditional branches, and delete branches to the next instruction.
+ */
+public class PeepholeOptimizer {
+	public interface Rewrite {
+		/** Emit the replacement for the window starting at instruction i
+		 *  of code into asm and return true, or return false to decline.
+		 */
+		boolean apply(CodeBlock code, int i);
+	}
+
+	public static class Rule {
+		public final String name;
+		public final Opcode[] pattern;
+		public final Rewrite rewrite;
+
+		public Rule(String name, Opcode[] pattern, Rewrite rewrite) {
+			this.name = name;
+			this.pattern = pattern;
+			this.rewrite = rewrite;
+		}
+
+		public boolean matches(CodeBlock code, int i) {
+			if ( i<0 || i+pattern.length>code.size() ) return false;
+			for (int j = 0; j<pattern.length; j++) {
+				if ( pattern[j]!=code.op(i+j) ) return false;
+			}
+			return true;
+		}
+	}
+
+	/** Rules may emit instructions past the baseline set (DUP); see
+	 *  BytecodeWriter.extensions
+	 */
+	public boolean extensions = true;
+
+	/** Rules emit their replacements through this */
+	protected ASM asm = new ASM(null);
+	public List<Rule> rules = new ArrayList<>();
+
+	/** One line per function optimized: instructions and bytes saved */
+	public List<String> report = new ArrayList<>();
+	public int instrSaved, bytesSaved;
+
+	// label -> number of branches to it
+	protected int[] refs;
+	// label -> first instruction after it; see threadBranches()
+	protected int[] landsOn;
+	// opcode -> rules whose pattern ends with it
+	protected Rule[][] rulesEndingIn;
+	// each pass copies the code it keeps into out then swaps
+	protected CodeBlock out = new CodeBlock();
+	protected CodeBlock pending = new CodeBlock(8); // replacements yet to be copied out, last first
+	protected CodeBlock replacement = new CodeBlock(8);
+
+	public PeepholeOptimizer() {
+		addDefaultRules();
+	}
+	protected void addDefaultRules() {
+		rules.add(new Rule("nop", new Opcode[] {NOP}, (w, i) -> true));
+		// int constants promoted to float, as in vector literals
+		rules.add(new Rule("iconst-i2f", new Opcode[] {ICONST, I2F}, (w, i) -> {
+			int v = w.operand(i, 0);
+			if ( (int)(float)v!=v ) return false;
+			asm.fconst((float)v);
+			return true;
+		}));
+		rules.add(new Rule("iconst-ineg", new Opcode[] {ICONST, INEG}, (w, i) -> {
+			asm.iconst(-w.operand(i, 0));
+			return true;
+		}));
+		rules.add(new Rule("fconst-fneg", new Opcode[] {FCONST, FNEG}, (w, i) -> {
+			asm.fconst(-w.floatOperand(i, 0));
+			return true;
+		}));
+		for (Opcode op : new Opcode[] {IADD, ISUB, IMUL}) {
+			rules.add(new Rule("fold-"+op.name().toLowerCase(), new Opcode[] {ICONST, ICONST, op}, (w, i) -> {
+				int a = w.operand(i, 0);
+				int b = w.operand(i+1, 0);
+				asm.iconst(op==IADD ? a+b : op==ISUB ? a-b : a*b);
+				return true;
+			}));
+		}
+		for (Opcode push : new Opcode[] {ICONST, FCONST, SCONST, VCONST, ILOAD, FLOAD, SLOAD, VLOAD}) {
+			rules.add(new Rule("push-pop", new Opcode[] {push, POP}, (w, i) -> true));
+		}
+		// STORE n; xLOAD n -> DUP; STORE n
+		for (Opcode load : new Opcode[] {ILOAD, FLOAD, SLOAD, VLOAD}) {
+			rules.add(new Rule("store-"+load.name().toLowerCase(), new Opcode[] {STORE, load}, (w, i) -> {
+				if ( !extensions || w.operand(i, 0)!=w.operand(i+1, 0) ) return false;
+				asm.dup();
+				asm.store(w.operand(i, 0));
+				return true;
+			}));
+		}
+	}
+
+	public CodeBlock optimize(String fname, CodeBlock code) {
+		countBranches(code);
+		indexRules();
+		int instrBefore = instructions(code);
+		int bytesBefore = code.sizeBytes();
+
+		boolean changed = true;
+		while ( changed ) {
+			changed = removeDeadCode(code);
+			changed |= threadBranches(code);
+			changed |= applyRules(code);
+		}
+
+		int instrAfter = instructions(code);
+		int bytesAfter = code.sizeBytes();
+		instrSaved += instrBefore-instrAfter;
+		bytesSaved += bytesBefore-bytesAfter;
+		report.add(String.format("%s: %d instr, %d bytes saved (%d -> %d instr, %d -> %d bytes)",
+								 fname, instrBefore-instrAfter, bytesBefore-bytesAfter,
+								 instrBefore, instrAfter, bytesBefore, bytesAfter));
+		return code;
+	}
+
+	public String getReport() {
+		StringBuilder buf = new StringBuilder();
+		for (String line : report) {
+			buf.append(line).append('\n');
+		}
+		buf.append(String.format("total: %d instr, %d bytes saved\n", instrSaved, bytesSaved));
+		return buf.toString();
+	}
+
+	protected void countBranches(CodeBlock code) {
+		refs = new int[code.labels()];
+		landsOn = new int[code.labels()];
+		for (int i = 0; i<code.size(); i++) {
+			if ( code.op(i).branch ) refs[code.target(i)]++;
+		}
+	}
+
+	protected void indexRules() {
+		List<List<Rule>> byLast = new ArrayList<>();
+		for (Opcode op : Opcode.values()) byLast.add(new ArrayList<>());
+		for (Rule r : rules) byLast.get(r.pattern[r.pattern.length-1].ordinal()).add(r);
+		rulesEndingIn = new Rule[byLast.size()][];
+		for (int i = 0; i<byLast.size(); i++) {
+			rulesEndingIn[i] = byLast.get(i).toArray(new Rule[0]);
+		}
+	}
+
+	/** Drop code after an unconditional branch up to the next label in use */
+	protected boolean removeDeadCode(CodeBlock code) {
+		out.clear(code.size());
+		boolean changed = false;
+		boolean dead = false;
+		for (int i = 0; i<code.size(); i++) {
+			Opcode op = code.op(i);
+			if ( op==LABEL ) {
+				if ( refs[code.operand(i, 0)]==0 ) { // keep labels from blocking rules
+					changed = true;
+					continue;
+				}
+				dead = false;
+			}
+			else if ( dead ) {
+				if ( op.branch ) refs[code.target(i)]--;
+				changed = true;
+				continue;
+			}
+			out.add(code, i);
+			dead = op.isUnconditional();
+		}
+		if ( changed ) code.swap(out);
+		return changed;
+	}
+
+	protected boolean threadBranches(CodeBlock code) {
+		int n = code.size();
+		int next = n; // the end
+		for (int i = n-1; i>=0; i--) {
+			if ( code.op(i)==LABEL ) landsOn[code.operand(i, 0)] = next;
+			else next = i;
+		}
+		boolean changed = false;
+		out.clear(n);
+		for (int i = 0; i<n; i++) {
+			Opcode op = code.op(i);
+			if ( op.branch ) {
+				int L = code.target(i);
+				int dest = L;
+				int hops = 0;
+				while ( landsOn[dest]<n && landsOn[dest]!=i && code.op(landsOn[dest])==BR && hops++<n ) {
+					dest = code.target(landsOn[dest]);
+				}
+				if ( dest!=L ) {
+					refs[L]--;
+					refs[dest]++;
+					code.setTarget(i, dest);
+					changed = true;
+				}
+				// a BR to the very next instruction does nothing
+				if ( op==BR && landsOn[dest]==following(code, i) ) {
+					refs[dest]--;
+					changed = true;
+					continue;
+				}
+			}
+			out.add(code, i);
+		}
+		if ( changed ) code.swap(out);
+		return changed;
+	}
+
+	protected boolean applyRules(CodeBlock code) {
+		boolean changed = false;
+		out.clear(code.size());
+		pending.clear(0);
+		int i = 0;
+		while ( !pending.isEmpty() || i<code.size() ) {
+			if ( !pending.isEmpty() ) {
+				out.add(pending, pending.size()-1);
+				pending.truncate(pending.size()-1);
+			}
+			else {
+				out.add(code, i++);
+			}
+			for (Rule r : rulesEndingIn[out.op(out.size()-1).ordinal()]) {
+				int start = out.size()-r.pattern.length;
+				if ( !r.matches(out, start) ) continue;
+				replacement.truncate(0);
+				asm.code = replacement;
+				if ( !r.rewrite.apply(out, start) ) continue;
+				for (int j = start; j<out.size(); j++) {
+					if ( out.op(j).branch ) refs[out.target(j)]--;
+				}
+				out.truncate(start);
+				for (int j = replacement.size()-1; j>=0; j--) {
+					if ( replacement.op(j).branch ) refs[replacement.target(j)]++;
+					pending.add(replacement, j);
+				}
+				changed = true;
+				break;
+			}
+		}
+		if ( changed ) code.swap(out);
+		return changed;
+	}
+
+	/** Index of the first instruction after i that isn't a label */
+	protected static int following(CodeBlock code, int i) {
+		i++;
+		while ( i<code.size() && code.op(i)==LABEL ) i++;
+		return i;
+	}
+
+	/** Instructions in code, not counting labels */
+	protected static int instructions(CodeBlock code) {
+		int n = 0;
+		for (int i = 0; i<code.size(); i++) {
+			if ( code.op(i)!=LABEL ) n++;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,607 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import org.antlr.symtab.Symbol;
+import org.antlr.symtab.Type;
+import org.antlr.v4.runtime.misc.NotNull;
+import org.antlr.v4.runtime.tree.ParseTree;
+import wich.codegen.StringChains;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.semantics.TypeHelper;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.semantics.symbols.WVariableSymbol;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static wich.codegen.bytecode.Opcode.*;
+
+/** Generate the register form of Wich bytecode (BYTECODE_REG).
+ *
+ *  Instructions are three-address and name frame slots directly, so a
+ *  variable is its own register and reading one costs nothing: v[j] > v[j+1]
+ *  is VLOAD_INDEX_R, IADDI_R, VLOAD_INDEX_R and a compare-and-branch rather
+ *  than ten stack instructions. Expression temporaries get the slots above
+ *  the function's variables. Typing and promotion follow BytecodeGenerator
+ *  (exprType/promoteToType), and operators are picked by its
+ *  visitOperator() and renamed to their _R form.
+ *
+ *  Each expression visit leaves the register holding its value in result;
+ *  dest is where the parent would like it, ANY if it doesn't care. Only the
+ *  last instruction of an expression writes dest so x = y - x is safe.
+ *  Temps are handed out as -1, -2, ... and only live within a statement;
+ *  since nested blocks can add variables later on, relocateTemps() moves
+ *  them above the highest variable slot once the function is done.
+ */
+public class RegisterBytecodeGenerator extends BytecodeGenerator {
+	protected static final int ANY = Integer.MIN_VALUE;
+
+	/** compare -> {branch taken when it is true, branch taken when it is false} */
+	protected static final Map<Opcode, Opcode[]> compareBranch = new EnumMap<Opcode, Opcode[]>(Opcode.class) {{
+		put(IEQ, new Opcode[] {BR_IEQ_R, BR_INEQ_R}); put(INEQ, new Opcode[] {BR_INEQ_R, BR_IEQ_R});
+		put(ILT, new Opcode[] {BR_ILT_R, BR_IGE_R}); put(ILE, new Opcode[] {BR_ILE_R, BR_IGT_R});
+		put(IGT, new Opcode[] {BR_IGT_R, BR_ILE_R}); put(IGE, new Opcode[] {BR_IGE_R, BR_ILT_R});
+		// !(a<b) isn't a>=b when either is NaN
+		put(FEQ, new Opcode[] {BR_FEQ_R, BR_FNEQ_R}); put(FNEQ, new Opcode[] {BR_FNEQ_R, BR_FEQ_R});
+		put(FLT, new Opcode[] {BR_FLT_R, BR_FNLT_R}); put(FLE, new Opcode[] {BR_FLE_R, BR_FNLE_R});
+		put(FGT, new Opcode[] {BR_FGT_R, BR_FNGT_R}); put(FGE, new Opcode[] {BR_FGE_R, BR_FNGE_R});
+	}};
+
+	protected int ntemps;		// temps handed out in the current statement
+	protected int dest = ANY;
+	protected int result;
+
+	public RegisterBytecodeGenerator(SymbolTable symtab) {
+		super(symtab);
+		extensions = true; // nothing outside the in-tree VMs runs the register form
+	}
+
+	@Override
+	public Void visit(ParseTree tree) {
+		if ( !(tree instanceof WichParser.StatementContext) ) {
+			return super.visit(tree);
+		}
+		int saved = ntemps; // a statement's temps are dead once it's done
+		super.visit(tree);
+		ntemps = saved;
+		return null;
+	}
+
+	@Override
+	protected CodeBlock genMain(WichParser.ScriptContext ctx) {
+		CodeBlock main = asm.begin();
+		for (WichParser.StatementContext s : ctx.statement()) {
+			visit(s);
+		}
+		asm.halt();
+		return relocateTemps(main, this.main.nslots);
+	}
+
+	@Override
+	public Void visitFunction(@NotNull WichParser.FunctionContext ctx) {
+		pushScope(ctx.scope);
+		CodeBlock func = asm.begin();
+		visit(ctx.block());
+		if ( ctx.type()!=null ) {
+			int t = newTemp();
+			asm.dflt_r(t);
+			asm.ret_r(t);
+		}
+		else {
+			asm.ret();
+		}
+		ntemps = 0;
+		functionBodies.put(ctx.ID().getText(), relocateTemps(func, ctx.scope.nslots));
+		popScope();
+		return null;
+	}
+
+	@Override
+	public Void visitVardef(@NotNull WichParser.VardefContext ctx) {
+		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		if (v.getScope() == symtab.GLOBALS) {//move var in wich global to main
+			main.define(v);
+		}
+		assign(ctx.expr(), getSymbolIndex(v));
+		return null;
+	}
+
+	@Override
+	public Void visitAssign(@NotNull WichParser.AssignContext ctx) {
+		if ( roots.copies.isInPlace(ctx) ) { // v = v op w writes into v itself
+			WichParser.OpContext op = (WichParser.OpContext)stripParens(ctx.expr());
+			operands(op);
+			asm.op_r(operator(op.operator()).inPlace().register(), left, right);
+			return null;
+		}
+		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		assign(ctx.expr(), getSymbolIndex(v));
+		return null;
+	}
+
+	protected void assign(WichParser.ExprContext expr, int slot) {
+		if ( isVectorCopyNeeded(expr) ) {
+			expr(expr, ANY);
+			asm.op_r(COPY_VECTOR_R, slot, result);
+		}
+		else {
+			expr(expr, slot);
+		}
+	}
+
+	@Override
+	public Void visitElementAssign(@NotNull WichParser.ElementAssignContext ctx) {
+		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		expr(ctx.expr(0), ANY);
+		int i = result;
+		if ( ctx.expr(1).exprType == SymbolTable._int ) exprAsFloat(ctx.expr(1), newTemp());
+		else expr(ctx.expr(1), ANY);
+		asm.op_r(STORE_INDEX_R, getSymbolIndex(v), i, result);
+		return null;
+	}
+
+	@Override
+	public Void visitCallStatement(@NotNull WichParser.CallStatementContext ctx) {
+		return visit(ctx.call_expr());
+	}
+
+	@Override
+	public Void visitCall(@NotNull WichParser.CallContext ctx) {
+		return visit(ctx.call_expr());
+	}
+
+	/** Arguments go in consecutive temps; CALL_R copies them into the new frame */
+	@Override
+	public Void visitCall_expr(@NotNull WichParser.Call_exprContext ctx) {
+		List<WichParser.ExprContext> args = ctx.expr_list()!=null ? ctx.expr_list().expr() : Collections.emptyList();
+		int d = target();
+		int first = args.isEmpty() ? 0 : newTemp();
+		for (int i = 1; i<args.size(); i++) newTemp();
+		for (int i = 0; i<args.size(); i++) {
+			int arg = first-i; // temps count down until relocated
+			if ( isVectorCopyNeeded(args.get(i)) ) {
+				expr(args.get(i), ANY);
+				asm.op_r(COPY_VECTOR_R, arg, result);
+			}
+			else {
+				expr(args.get(i), arg);
+			}
+		}
+		int f = ((WFunctionSymbol)currentScope.resolve(ctx.ID().getText())).index;
+		asm.call_r(first, d, f);
+		result = d;
+		return null;
+	}
+
+	@Override
+	public Void visitReturn(@NotNull WichParser.ReturnContext ctx) {
+		expr(ctx.expr(), ANY);
+		asm.ret_r(result);
+		return null;
+	}
+
+	/** Test at the bottom so each iteration takes one branch, not two */
+	@Override
+	public Void visitWhile(@NotNull WichParser.WhileContext ctx) {
+		int top = asm.label();
+		int test = asm.label();
+		asm.br(test);
+		asm.mark(top);
+		visit(ctx.statement());
+		asm.mark(test);
+		condition(ctx.expr(), true, top);
+		return null;
+	}
+
+	@Override
+	public Void visitIf(@NotNull WichParser.IfContext ctx) {
+		int end = asm.label();
+		if ( ctx.statement(1)==null ) {
+			condition(ctx.expr(), false, end);
+			visit(ctx.statement(0));
+		}
+		else {
+			int elseClause = asm.label();
+			condition(ctx.expr(), false, elseClause);
+			visit(ctx.statement(0));
+			asm.br(end);
+			asm.mark(elseClause);
+			visit(ctx.statement(1));
+		}
+		asm.mark(end);
+		return null;
+	}
+
+	/** Int and float compares fuse into the branch */
+	@Override
+	protected void branchOn(WichParser.ExprContext cond, boolean when, int L) {
+		WichParser.ExprContext c = stripParens(cond);
+		if ( c instanceof WichParser.OpContext ) {
+			Opcode[] br = compareBranch.get(operator(((WichParser.OpContext)c).operator()));
+			if ( br!=null ) {
+				operands((WichParser.OpContext)c);
+				asm.br_cmp_r(when ? br[0] : br[1], left, right, L);
+				return;
+			}
+		}
+		expr(cond, ANY);
+		if ( when ) asm.brt_r(result, L);
+		else asm.brf_r(result, L);
+	}
+
+	@Override
+	public Void visitPrint(@NotNull WichParser.PrintContext ctx) {
+		if ( ctx.expr()==null ) return null;
+		if ( printsInParts(ctx.expr()) ) { // parts go in consecutive temps, unconverted
+			List<WichParser.ExprContext> parts = StringChains.parts(ctx.expr());
+			int first = newTemp();
+			for (int i = 1; i<parts.size(); i++) newTemp();
+			for (int i = 0; i<parts.size(); i++) expr(parts.get(i), first-i);
+			asm.printn_r(first, parts.size(), printKinds(parts));
+			return null;
+		}
+		expr(ctx.expr(), ANY);
+		Type type = ctx.expr().exprType;
+		Opcode print;
+		if ( type == SymbolTable._int ) print = IPRINT_R;
+		else if ( type == SymbolTable._float ) print = FPRINT_R;
+		else if ( type == SymbolTable._string ) print = SPRINT_R;
+		else if ( type == SymbolTable._vector ) print = VPRINT_R;
+		else print = BPRINT_R;
+		asm.op_r(print, result);
+		return null;
+	}
+
+	// E X P R E S S I O N S
+
+	/** Generate e, leaving its value in register into unless that is ANY */
+	protected void expr(WichParser.ExprContext e, int into) {
+		int saved = dest;
+		dest = into;
+		visit(e);
+		dest = saved;
+		if ( into!=ANY && result!=into ) {
+			asm.move_r(into, result);
+			result = into;
+		}
+	}
+
+	/** Generate an int expression as a float in register into */
+	protected void exprAsFloat(WichParser.ExprContext e, int into) {
+		Integer v = intLiteral(e);
+		if ( v!=null && (int)(float)(int)v==v ) {
+			asm.fconst_r(into, v);
+		}
+		else {
+			expr(e, ANY);
+			asm.op_r(I2F_R, into, result);
+		}
+		result = into;
+	}
+
+	protected int left, right; // set by operands()
+
+	/** Evaluate both sides of an op, promoted the same way as BytecodeGenerator.visitOp() */
+	protected void operands(WichParser.OpContext ctx) {
+		Type lt = ctx.expr(0).exprType;
+		Type rt = ctx.expr(1).exprType;
+		Type ltarget = lt, rtarget = rt;
+		if ( lt != rt ) {
+			if ( ctx.exprType == SymbolTable._string ) {
+				if ( lt != SymbolTable._string ) ltarget = SymbolTable._string;
+				else if ( rt != SymbolTable._string ) rtarget = SymbolTable._string;
+			}
+			else if ( ctx.exprType == SymbolTable._float ) {
+				if ( lt == SymbolTable._int ) ltarget = SymbolTable._float;
+				else if ( rt == SymbolTable._int ) rtarget = SymbolTable._float;
+			}
+			else if ( ctx.exprType == SymbolTable._boolean ) {
+				if ( lt == SymbolTable._float && rt == SymbolTable._int ) rtarget = SymbolTable._float;
+				else if ( lt == SymbolTable._int && rt == SymbolTable._float ) ltarget = SymbolTable._float;
+			}
+		}
+		operand(ctx.expr(0), ltarget);
+		int a = result;
+		operand(ctx.expr(1), rtarget);
+		int b = result;
+		//order of operands in vector operations, vector first
+		if ( ctx.exprType == SymbolTable._vector && lt != SymbolTable._vector ) {
+			left = b; right = a;
+		}
+		else {
+			left = a; right = b;
+		}
+	}
+
+	protected void operand(WichParser.ExprContext e, Type want) {
+		if ( e.exprType == SymbolTable._int && want == SymbolTable._float ) {
+			exprAsFloat(e, newTemp());
+			return;
+		}
+		expr(e, ANY);
+		if ( want == SymbolTable._string && e.exprType != SymbolTable._string ) {
+			int t = newTemp();
+			asm.op_r(toString(e.exprType), t, result);
+			result = t;
+		}
+	}
+
+	protected static Opcode toString(Type type) {
+		return type == SymbolTable._int ? I2S_R : type == SymbolTable._float ? F2S_R : V2S_R;
+	}
+
+	@Override
+	public Void visitOp(@NotNull WichParser.OpContext ctx) {
+		if ( isLogical(ctx) ) { // a fresh register; dest might be read by the right side
+			int t = newTemp();
+			int end = asm.label();
+			expr(ctx.expr(0), t);
+			if ( ctx.operator().AND()!=null ) asm.brf_r(t, end);
+			else asm.brt_r(t, end);
+			expr(ctx.expr(1), t);
+			asm.mark(end);
+			result = t;
+			return null;
+		}
+		if ( StringChains.isConcat(ctx) && StringChains.parts(ctx).size()>2 ) {
+			concat(StringChains.parts(ctx));
+			return null;
+		}
+		Opcode op = operator(ctx.operator());
+		if ( (op==IADD || op==ISUB) && addImmediate(ctx, op==ISUB) ) {
+			return null;
+		}
+		if ( ctx.exprType == SymbolTable._vector && ctx.expr(0).exprType != SymbolTable._vector &&
+			 (ctx.operator().SUB()!=null || ctx.operator().DIV()!=null) ) { // s - v, s / v
+			operand(ctx.expr(0), SymbolTable._float);
+			int a = result;
+			operand(ctx.expr(1), SymbolTable._vector);
+			int d = target();
+			asm.op_r(ctx.operator().SUB()!=null ? VRSUBF_R : VRDIVF_R, d, a, result);
+			result = d;
+			return null;
+		}
+		operands(ctx);
+		if ( op==null ) { // no bytecode for this operator
+			result = left;
+			return null;
+		}
+		int d = target();
+		asm.op_r(op.register(), d, left, right);
+		result = d;
+		return null;
+	}
+
+	/** a + b + c ... of strings: parts, as strings, go in consecutive temps
+	 *  and one SCONCAT_R joins them
+	 */
+	protected void concat(List<WichParser.ExprContext> parts) {
+		int d = target();
+		int first = newTemp();
+		for (int i = 1; i<parts.size(); i++) newTemp();
+		for (int i = 0; i<parts.size(); i++) {
+			WichParser.ExprContext e = parts.get(i);
+			if ( e.exprType == SymbolTable._string ) {
+				expr(e, first-i);
+			}
+			else {
+				expr(e, ANY);
+				asm.op_r(toString(e.exprType), first-i, result);
+			}
+		}
+		asm.sconcat_r(d, first, parts.size());
+		result = d;
+	}
+
+	/** x + k, k + x and x - k for a small int literal k */
+	protected boolean addImmediate(WichParser.OpContext ctx, boolean sub) {
+		Integer k = intLiteral(ctx.expr(1));
+		WichParser.ExprContext x = ctx.expr(0);
+		if ( k==null && !sub ) {
+			k = intLiteral(ctx.expr(0));
+			x = ctx.expr(1);
+		}
+		if ( k==null ) return false;
+		if ( sub ) k = -k;
+		if ( k<Short.MIN_VALUE || k>Short.MAX_VALUE ) return false;
+		expr(x, ANY);
+		int d = target();
+		asm.iaddi_r(d, result, k);
+		result = d;
+		return true;
+	}
+
+	@Override
+	public Void visitNegate(@NotNull WichParser.NegateContext ctx) {
+		Type type = ctx.exprType != null ? ctx.exprType : ctx.promoteToType;
+		if ( type == SymbolTable._vector ) { // -v is v * -1, element by element
+			expr(ctx.expr(), ANY);
+			int v = result;
+			int k = newTemp();
+			asm.iconst_r(k, -1);
+			int d = target();
+			asm.op_r(VMULI_R, d, v, k);
+			result = d;
+			return null;
+		}
+		unary(type == SymbolTable._int ? INEG_R : FNEG_R, ctx.expr());
+		return null;
+	}
+
+	@Override
+	public Void visitNot(@NotNull WichParser.NotContext ctx) {
+		unary(NOT_R, ctx.expr());
+		return null;
+	}
+
+	@Override
+	public Void visitLen(WichParser.LenContext ctx) {
+		if ( ctx.expr().exprType == SymbolTable._vector ) unary(VLEN_R, ctx.expr());
+		else if ( ctx.expr().exprType == SymbolTable._string ) unary(SLEN_R, ctx.expr());
+		return null;
+	}
+
+	protected void unary(Opcode opcode, WichParser.ExprContext e) {
+		expr(e, ANY);
+		int d = target();
+		asm.op_r(opcode, d, result);
+		result = d;
+	}
+
+	@Override
+	public Void visitIndex(@NotNull WichParser.IndexContext ctx) {
+		WVariableSymbol var = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		expr(ctx.expr(), ANY);
+		int d = target();
+		Opcode opcode = var.getType() == SymbolTable._vector ? VLOAD_INDEX_R : SLOAD_INDEX_R;
+		asm.op_r(opcode, d, getSymbolIndex(var), result);
+		result = d;
+		return null;
+	}
+
+	@Override
+	public Void visitParens(@NotNull WichParser.ParensContext ctx) {
+		return visit(ctx.expr());
+	}
+
+	@Override
+	public Void visitAtom(@NotNull WichParser.AtomContext ctx) {
+		return visit(ctx.primary());
+	}
+
+	/** A variable is its own register */
+	@Override
+	public Void visitIdentifier(@NotNull WichParser.IdentifierContext ctx) {
+		Symbol symbol = currentScope.resolve(ctx.ID().getText());
+		result = getSymbolIndex(symbol);
+		return null;
+	}
+
+	@Override
+	public Void visitInteger(@NotNull WichParser.IntegerContext ctx) {
+		result = target();
+		asm.iconst_r(result, Integer.parseInt(ctx.INT().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitFloat(@NotNull WichParser.FloatContext ctx) {
+		result = target();
+		asm.fconst_r(result, Float.parseFloat(ctx.FLOAT().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitString(@NotNull WichParser.StringContext ctx) {
+		result = target();
+		asm.sconst_r(result, symtab.defineStringLiteral(ctx.STRING().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitTrueLiteral(@NotNull WichParser.TrueLiteralContext ctx) {
+		result = target();
+		asm.iconst_r(result, 1);
+		return null;
+	}
+
+	@Override
+	public Void visitFalseLiteral(@NotNull WichParser.FalseLiteralContext ctx) {
+		result = target();
+		asm.iconst_r(result, 0);
+		return null;
+	}
+
+	@Override
+	public Void visitVector(@NotNull WichParser.VectorContext ctx) {
+		List<WichParser.ExprContext> elems = ctx.expr_list().expr();
+		int d = target();
+		double[] values = TypeHelper.constantVector(ctx, true);
+		if ( values!=null ) {
+			asm.vconst_r(d, symtab.defineVectorLiteral(values));
+		}
+		else {
+			int first = newTemp();
+			for (int i = 1; i<elems.size(); i++) newTemp();
+			for (int i = 0; i<elems.size(); i++) {
+				WichParser.ExprContext e = elems.get(i);
+				if ( e.exprType == SymbolTable._int ) exprAsFloat(e, first-i);
+				else expr(e, first-i);
+			}
+			asm.vector_r(d, first, elems.size());
+		}
+		if (ctx.getParent() instanceof WichParser.OpContext &&
+				((WichParser.OpContext) ctx.getParent()).exprType == SymbolTable._string) {
+			asm.op_r(V2S_R, d, d);
+		}
+		result = d;
+		return null;
+	}
+
+	// S U P P O R T
+
+	/** Register for the current expression's value: dest or a new temp */
+	protected int target() {
+		return dest!=ANY ? dest : newTemp();
+	}
+
+	protected int newTemp() {
+		return -(++ntemps);
+	}
+
+	/** Renumber temp -k as slot base+k-1 where base is past every variable
+	 *  slot and argument in the frame.
+	 */
+	protected CodeBlock relocateTemps(CodeBlock body, int nslots) {
+		int base = nslots;
+		for (int i = 0; i<body.size(); i++) {
+			Opcode op = body.op(i);
+			for (int k = 0; k<op.operands(); k++) {
+				if ( op.isRegister(k) ) base = Math.max(base, body.operand(i, k)+1);
+			}
+		}
+		for (int i = 0; i<body.size(); i++) {
+			Opcode op = body.op(i);
+			for (int k = 0; k<op.operands(); k++) {
+				int r = body.operand(i, k);
+				if ( op.isRegister(k) && r<0 ) body.setOperand(i, k, base-r-1);
+			}
+		}
+		return body;
+	}
+
+	protected static Integer intLiteral(WichParser.ExprContext e) {
+		e = stripParens(e);
+		if ( e instanceof WichParser.AtomContext &&
+			 ((WichParser.AtomContext)e).primary() instanceof WichParser.IntegerContext )
+		{
+			return Integer.valueOf(((WichParser.AtomContext)e).primary().getText());
+		}
+		return null;
+	}
+}
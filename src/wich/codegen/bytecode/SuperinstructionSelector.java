@@ -0,0 +1,91 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.bytecode;
+
+import static wich.codegen.bytecode.Opcode.*;
+
+/** Replace the sequences that dominate loop bodies with single fused
+ *  instructions so the VM dispatches less per iteration. Runs after
+ *  {@link PeepholeOptimizer} and reuses its machinery: a window is fused
+ *  only if nothing branches into the middle of it, and branch offsets are
+ *  recomputed afterwards.
+ *
+ *  The choice of sequences comes from {@link OpcodeFrequency} over
+ *  test/samples: compare followed by BRF heads every loop and if, and
+ *  VLOAD v; ILOAD i; VLOAD_INDEX and the i = i + k update are the most
+ *  executed three and four instruction sequences.
+ */
+public class SuperinstructionSelector extends PeepholeOptimizer {
+	/** compare -> fused branch taken when that compare would be false */
+	public static final Opcode[][] BRANCH_ON_FALSE = {
+		{IEQ, BR_INEQ}, {INEQ, BR_IEQ}, {ILT, BR_IGE}, {ILE, BR_IGT}, {IGT, BR_ILE}, {IGE, BR_ILT},
+		{FEQ, BR_FNEQ}, {FNEQ, BR_FEQ}, {FLT, BR_FGE}, {FLE, BR_FGT}, {FGT, BR_FLE}, {FGE, BR_FLT},
+	};
+
+	/** compare -> fused branch taken when that compare would be true. The
+	 *  float BR_FLT etc. also branch on NaN, so FLT; BRT has no fused form.
+	 */
+	public static final Opcode[][] BRANCH_ON_TRUE = {
+		{IEQ, BR_IEQ}, {INEQ, BR_INEQ}, {ILT, BR_ILT}, {ILE, BR_ILE}, {IGT, BR_IGT}, {IGE, BR_IGE},
+		{FEQ, BR_FEQ}, {FNEQ, BR_FNEQ},
+	};
+
+	@Override
+	protected void addDefaultRules() {
+		for (Opcode[] pair : BRANCH_ON_FALSE) {
+			rules.add(new Rule(pair[1].name().replace('_', '-').toLowerCase(), new Opcode[] {pair[0], BRF}, (w, i) -> {
+				asm.br_cmp(pair[1], w.target(i+1));
+				return true;
+			}));
+		}
+		for (Opcode[] pair : BRANCH_ON_TRUE) {
+			rules.add(new Rule(pair[0].name().toLowerCase()+"-brt", new Opcode[] {pair[0], BRT}, (w, i) -> {
+				asm.br_cmp(pair[1], w.target(i+1));
+				return true;
+			}));
+		}
+		rules.add(new Rule("vload-local-index", new Opcode[] {VLOAD, ILOAD, VLOAD_INDEX}, (w, i) -> {
+			asm.vload_local_index(w.operand(i, 0), w.operand(i+1, 0));
+			return true;
+		}));
+		for (Opcode op : new Opcode[] {IADD, ISUB}) {
+			// i = i + k; the peephole pass turns a following load of i into DUP
+			rules.add(new Rule("iinc-dup", new Opcode[] {ILOAD, ICONST, op, DUP, STORE}, (w, i) -> {
+				if ( !iinc(w, i, i+4, op) ) return false;
+				asm.iload(w.operand(i, 0));
+				return true;
+			}));
+			rules.add(new Rule("iinc", new Opcode[] {ILOAD, ICONST, op, STORE}, (w, i) -> iinc(w, i, i+3, op)));
+		}
+	}
+
+	/** Emit IINC for ILOAD at load; ICONST k; op; ... STORE at store if it fits */
+	protected boolean iinc(CodeBlock w, int load, int store, Opcode op) {
+		if ( w.operand(load, 0)!=w.operand(store, 0) ) return false;
+		int delta = op==IADD ? w.operand(load+1, 0) : -w.operand(load+1, 0);
+		if ( delta<Short.MIN_VALUE || delta>Short.MAX_VALUE ) return false;
+		asm.iinc(w.operand(load, 0), delta);
+		return true;
+	}
+}
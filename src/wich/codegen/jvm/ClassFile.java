@@ -0,0 +1,229 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Just enough of the JVM class file format for JVMGenerator: a constant
+ *  pool and static methods with Code attributes. Classes are version 49
+ *  (Java 5), the last version the JVM verifies by type inference, so
+ *  methods need no StackMapTable frames.
+ */
+public class ClassFile {
+	public static final int MAGIC = 0xCAFEBABE;
+	public static final int VERSION = 49;
+
+	public static final int ACC_PUBLIC = 0x0001;
+	public static final int ACC_STATIC = 0x0008;
+	public static final int ACC_FINAL  = 0x0010;
+	public static final int ACC_SUPER  = 0x0020;
+
+	protected static final int CONSTANT_Utf8 = 1;
+	protected static final int CONSTANT_Integer = 3;
+	protected static final int CONSTANT_Double = 6;
+	protected static final int CONSTANT_Class = 7;
+	protected static final int CONSTANT_String = 8;
+	protected static final int CONSTANT_Methodref = 10;
+	protected static final int CONSTANT_NameAndType = 12;
+
+	/** Internal form, e.g. "fib" or "wich/jvm/WichRuntime" */
+	public final String name;
+
+	protected final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+	protected final Map<String, Integer> constants = new HashMap<>();
+	protected int poolSize = 1; // entry 0 is unused
+
+	protected final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+	protected int nmethods;
+
+	protected final int thisClass;
+	protected final int superClass;
+
+	public ClassFile(String name) {
+		this.name = name;
+		thisClass = classRef(name);
+		superClass = classRef("java/lang/Object");
+	}
+
+	public int utf8(String s) {
+		Integer i = constants.get("U"+s);
+		if ( i!=null ) return i;
+		byte[] bytes = modifiedUTF8(s);
+		if ( bytes.length>0xFFFF ) {
+			throw new IllegalArgumentException("constant too long for a class file: "+bytes.length+" bytes");
+		}
+		pool.write(CONSTANT_Utf8);
+		u2(pool, bytes.length);
+		pool.write(bytes, 0, bytes.length);
+		return add("U"+s, 1);
+	}
+
+	public int classRef(String internalName) {
+		Integer i = constants.get("C"+internalName);
+		if ( i!=null ) return i;
+		int u = utf8(internalName);
+		pool.write(CONSTANT_Class);
+		u2(pool, u);
+		return add("C"+internalName, 1);
+	}
+
+	public int string(String s) {
+		Integer i = constants.get("S"+s);
+		if ( i!=null ) return i;
+		int u = utf8(s);
+		pool.write(CONSTANT_String);
+		u2(pool, u);
+		return add("S"+s, 1);
+	}
+
+	public int integer(int v) {
+		Integer i = constants.get("I"+v);
+		if ( i!=null ) return i;
+		pool.write(CONSTANT_Integer);
+		u4(pool, v);
+		return add("I"+v, 1);
+	}
+
+	/** Doubles take two pool entries */
+	public int doubleConst(double d) {
+		long bits = Double.doubleToRawLongBits(d);
+		Integer i = constants.get("D"+bits);
+		if ( i!=null ) return i;
+		pool.write(CONSTANT_Double);
+		u4(pool, (int)(bits>>>32));
+		u4(pool, (int)bits);
+		return add("D"+bits, 2);
+	}
+
+	public int methodRef(String owner, String name, String descriptor) {
+		String key = "M"+owner+"."+name+descriptor;
+		Integer i = constants.get(key);
+		if ( i!=null ) return i;
+		int c = classRef(owner);
+		int nt = nameAndType(name, descriptor);
+		pool.write(CONSTANT_Methodref);
+		u2(pool, c);
+		u2(pool, nt);
+		return add(key, 1);
+	}
+
+	protected int nameAndType(String name, String descriptor) {
+		String key = "N"+name+":"+descriptor;
+		Integer i = constants.get(key);
+		if ( i!=null ) return i;
+		int n = utf8(name);
+		int d = utf8(descriptor);
+		pool.write(CONSTANT_NameAndType);
+		u2(pool, n);
+		u2(pool, d);
+		return add(key, 1);
+	}
+
+	protected int add(String key, int entries) {
+		if ( poolSize+entries>0xFFFF ) {
+			throw new IllegalStateException("constant pool of "+name+" is full");
+		}
+		int i = poolSize;
+		constants.put(key, i);
+		poolSize += entries;
+		return i;
+	}
+
+	public void addMethod(int access, String name, String descriptor, MethodCode code) {
+		int n = utf8(name);
+		int d = utf8(descriptor);
+		int codeAttr = utf8("Code");
+		byte[] bytes = code.toByteArray();
+		u2(methods, access);
+		u2(methods, n);
+		u2(methods, d);
+		u2(methods, 1); // attributes
+		u2(methods, codeAttr);
+		u4(methods, 12+bytes.length);
+		u2(methods, code.maxStack);
+		u2(methods, code.maxLocals);
+		u4(methods, bytes.length);
+		methods.write(bytes, 0, bytes.length);
+		u2(methods, 0); // exception table
+		u2(methods, 0); // attributes
+		nmethods++;
+	}
+
+	public byte[] toByteArray() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(pool.size()+methods.size()+64);
+		u4(out, MAGIC);
+		u2(out, 0);
+		u2(out, VERSION);
+		u2(out, poolSize);
+		byte[] p = pool.toByteArray();
+		out.write(p, 0, p.length);
+		u2(out, ACC_PUBLIC|ACC_FINAL|ACC_SUPER);
+		u2(out, thisClass);
+		u2(out, superClass);
+		u2(out, 0); // interfaces
+		u2(out, 0); // fields
+		u2(out, nmethods);
+		byte[] m = methods.toByteArray();
+		out.write(m, 0, m.length);
+		u2(out, 0); // attributes
+		return out.toByteArray();
+	}
+
+	/** The class file's string encoding: NUL and chars past 0x7F as two or
+	 *  three bytes, surrogates encoded separately.
+	 */
+	protected static byte[] modifiedUTF8(String s) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(s.length());
+		for (int i = 0; i<s.length(); i++) {
+			char c = s.charAt(i);
+			if ( c>=0x01 && c<=0x7F ) {
+				out.write(c);
+			}
+			else if ( c<=0x7FF ) {
+				out.write(0xC0 | (c>>6));
+				out.write(0x80 | (c & 0x3F));
+			}
+			else {
+				out.write(0xE0 | (c>>12));
+				out.write(0x80 | ((c>>6) & 0x3F));
+				out.write(0x80 | (c & 0x3F));
+			}
+		}
+		return out.toByteArray();
+	}
+
+	protected static void u2(ByteArrayOutputStream out, int v) {
+		out.write(v>>8);
+		out.write(v);
+	}
+
+	protected static void u4(ByteArrayOutputStream out, int v) {
+		out.write(v>>24);
+		out.write(v>>16);
+		out.write(v>>8);
+		out.write(v);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.jvm;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.errors.WichErrorHandler;
+import wich.jvm.WichRuntime;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.vm.ObjectFile;
+import wich.vm.VM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Time Wich programs three ways: the in-process bytecode VM, classes from
+ *  JVMWriter run in-process, and the PLAIN C target compiled with cc -O2
+ *  against the wich runtime in /usr/local/wich. Each is the best of n runs
+ *  in milliseconds; the JVM column also gives the first run, which
+ *  includes defining the class and running it in the interpreter before
+ *  HotSpot compiles anything. The C time is per process, so it includes
+ *  exec and exit. Programs that don't compile are skipped; C is left
+ *  out if the runtime isn't installed.
+ *
+ *  java wich.codegen.jvm.JVMBenchmark [-n runs] file.w|dir ...
+ */
+public class JVMBenchmark {
+	public static final String WICH_DIR = "/usr/local/wich/";
+
+	public int runs = 10;
+	public boolean c = new File(WICH_DIR+"include").isDirectory() && new File(WICH_DIR+"lib").isDirectory();
+	public File workingDir = new File(System.getProperty("java.io.tmpdir"));
+
+	protected final StringBuilder report = new StringBuilder();
+
+	public static void main(String[] args) throws Exception {
+		JVMBenchmark bench = new JVMBenchmark();
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i<args.length; i++) {
+			if ( args[i].equals("-n") ) {
+				bench.runs = Integer.parseInt(args[++i]);
+				continue;
+			}
+			File f = new File(args[i]);
+			if ( f.isDirectory() ) {
+				File[] ws = f.listFiles((dir, name) -> name.endsWith(".w"));
+				if ( ws!=null ) {
+					Arrays.sort(ws);
+					files.addAll(Arrays.asList(ws));
+				}
+			}
+			else {
+				files.add(f);
+			}
+		}
+		if ( files.isEmpty() ) {
+			System.out.println("Try: java wich.codegen.jvm.JVMBenchmark [-n runs] file.w|dir ...");
+			return;
+		}
+		if ( !bench.c ) System.out.println("no wich C runtime in "+WICH_DIR+"; skipping PLAIN");
+		for (File f : files) {
+			bench.add(f.getPath());
+		}
+		System.out.print(bench.getReport());
+	}
+
+	public void add(String fileName) throws Exception {
+		String wichInput = CompilerUtils.readFile(fileName, CompilerUtils.FILE_ENCODING);
+		SymbolTable symtab = new SymbolTable();
+		WichErrorHandler err = new WichErrorHandler();
+		ParserRuleContext tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+		if ( tree==null || err.getErrorNum()>0 ) return;
+		String name = JVMWriter.classNameFor(fileName);
+		PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+
+		BytecodeWriter bytecode = new BytecodeWriter(symtab, (WichParser.ScriptContext)tree);
+		bytecode.extensions = true;
+		ObjectFile obj = ObjectFile.decode(bytecode.genBinaryObjectFile().rewind());
+		double vm = best(() -> {
+			VM v = new VM(obj);
+			v.out = v.err = sink;
+			v.exec();
+		});
+
+		// a fresh tree; BytecodeGenerator moves the script's variables into its main
+		symtab = new SymbolTable();
+		tree = CompilerUtils.checkCorrectness(wichInput, symtab, err);
+		JVMWriter jvm = new JVMWriter(symtab, (WichParser.ScriptContext)tree, name);
+		long start = System.nanoTime();
+		Class<?> script = jvm.load();
+		WichRuntime.run(script, sink, sink);
+		double first = (System.nanoTime()-start)/1e6;
+		double jit = best(() -> WichRuntime.run(script, sink, sink));
+
+		String plain = "-";
+		if ( c ) {
+			String executable = compileC(wichInput, name);
+			if ( executable!=null ) {
+				plain = String.format("%.3f", best(() -> exec(executable)));
+			}
+		}
+		if ( report.length()==0 ) {
+			report.append(String.format("%-28s %10s %10s %10s %10s\n", "program", "vm", "jvm first", "jvm", "c -O2"));
+		}
+		report.append(String.format("%-28s %10.3f %10.3f %10.3f %10s\n", name, vm, first, jit, plain));
+	}
+
+	public String getReport() {
+		return report.toString();
+	}
+
+	protected interface Run {
+		void run() throws Exception;
+	}
+
+	protected double best(Run r) throws Exception {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i<runs; i++) {
+			long start = System.nanoTime();
+			r.run();
+			best = Math.min(best, System.nanoTime()-start);
+		}
+		return best/1e6;
+	}
+
+	/** Return the executable, or null if cc fails */
+	protected String compileC(String wichInput, String name) throws Exception {
+		WichErrorHandler err = new WichErrorHandler();
+		String code = CompilerUtils.genCode(wichInput, new SymbolTable(), err, CompilerUtils.CodeGenTarget.PLAIN);
+		if ( err.getErrorNum()>0 ) return null;
+		File src = new File(workingDir, name+".c");
+		File executable = new File(workingDir, name+"_plain");
+		CompilerUtils.writeFile(src.getPath(), code, CompilerUtils.FILE_ENCODING);
+		List<String> cc = new ArrayList<>(Arrays.asList(
+			"cc", "-O2", "-std=c99", "-o", executable.getPath(), src.getPath(),
+			"-I", WICH_DIR+"include", "-L", WICH_DIR+"lib", "-D"+CompilerUtils.CodeGenTarget.PLAIN.flag));
+		for (String lib : CompilerUtils.CodeGenTarget.PLAIN.libs) cc.add("-l"+lib);
+		Process p = new ProcessBuilder(cc).inheritIO().start();
+		return p.waitFor()==0 ? executable.getPath() : null;
+	}
+
+	protected static void exec(String executable) throws IOException, InterruptedException {
+		Process p = new ProcessBuilder(executable)
+			.redirectOutput(new File("/dev/null"))
+			.redirectError(new File("/dev/null"))
+			.start();
+		p.waitFor();
+	}
+}
@@ -0,0 +1,647 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.jvm;
+
+import org.antlr.symtab.Scope;
+import org.antlr.symtab.Symbol;
+import org.antlr.symtab.Type;
+import org.antlr.v4.runtime.misc.NotNull;
+import wich.codegen.CompilerUtils;
+import wich.codegen.VectorCopies;
+import wich.parser.WichBaseVisitor;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WBlock;
+import wich.semantics.symbols.WBuiltInTypeSymbol;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.semantics.symbols.WVariableSymbol;
+import wich.vm.ObjectFile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static wich.codegen.jvm.MethodCode.*;
+
+/** Walk the annotated parse tree, as BytecodeGenerator does, emitting a
+ *  JVM class: each Wich function becomes a public static method of the
+ *  same name and the script's statements become main(). A main(String[])
+ *  hands the class to WichRuntime so it runs from the command line.
+ *
+ *  int and boolean are JVM ints, float is double (as in the Wich VM),
+ *  string is java.lang.String and vector is double[]. Each variable gets
+ *  its own local slot. Unlike BytecodeGenerator, ints are widened to
+ *  double wherever a float is expected, including arguments, assignments
+ *  and return values, since the JVM verifier insists.
+ *
+ *  if and while branch on comparisons directly rather than materializing
+ *  a boolean.
+ */
+public class JVMGenerator extends WichBaseVisitor<Void> {
+	public static final String RUNTIME = "wich/jvm/WichRuntime";
+	public static final String STRING = "java/lang/String";
+
+	public SymbolTable symtab;
+	public Scope currentScope;
+
+	public final ClassFile cf;
+	protected MethodCode code;
+	protected WFunctionSymbol function; // null for the script's statements
+	protected Map<Symbol, Integer> slots = new HashMap<>();
+	protected int nextSlot;
+	protected final StringBuilder listing = new StringBuilder();
+	protected VectorCopies copies;
+
+	public JVMGenerator(SymbolTable symtab, String className) {
+		this.symtab = symtab;
+		cf = new ClassFile(className);
+		currentScope = symtab.GLOBALS;
+		listing.append(".class ").append(className).append('\n');
+	}
+
+	public String getListing() {
+		return listing.toString();
+	}
+
+	@Override
+	public Void visitScript(@NotNull WichParser.ScriptContext ctx) {
+		copies = new VectorCopies(ctx);
+		for (WichParser.FunctionContext f : ctx.function()) {
+			visit(f);
+		}
+
+		begin(null);
+		for (WichParser.StatementContext s : ctx.statement()) {
+			visit(s);
+		}
+		code.return_();
+		end("main", "()V");
+
+		begin(null);
+		code.maxLocals = 1; // args
+		code.ldcClass(cf.name);
+		code.invokestatic(RUNTIME, "main", "(Ljava/lang/Class;)V");
+		code.return_();
+		end("main", "([Ljava/lang/String;)V");
+		return null;
+	}
+
+	@Override
+	public Void visitFunction(@NotNull WichParser.FunctionContext ctx) {
+		pushScope(ctx.scope);
+		begin(ctx.scope);
+		if ( ctx.formal_args()!=null ) {
+			for (WichParser.Formal_argContext arg : ctx.formal_args().formal_arg()) {
+				newSlot(currentScope.resolve(arg.ID().getText()));
+			}
+		}
+		visit(ctx.block());
+		ret(defaultValue());
+		end(ctx.ID().getText(), descriptor(ctx.scope));
+		popScope();
+		return null;
+	}
+
+	protected void begin(WFunctionSymbol f) {
+		function = f;
+		code = new MethodCode(cf);
+		slots.clear();
+		nextSlot = 0;
+	}
+
+	protected void end(String name, String descriptor) {
+		code.maxLocals = Math.max(code.maxLocals, nextSlot); // unused args still take slots
+		cf.addMethod(ClassFile.ACC_PUBLIC|ClassFile.ACC_STATIC, name, descriptor, code);
+		listing.append(String.format(".method %s%s stack=%d locals=%d\n", name, descriptor, code.maxStack, code.maxLocals));
+		listing.append(code.getListing());
+	}
+
+	@Override
+	public Void visitBlock(@NotNull WichParser.BlockContext ctx) {
+		if (ctx.scope.getEnclosingScope() == symtab.GLOBALS && currentScope instanceof WFunctionSymbol) {
+			ctx.scope.setEnclosingScope(currentScope);
+			((WFunctionSymbol)currentScope).block = (WBlock)ctx.scope;
+		}
+		pushScope(ctx.scope);
+		for (WichParser.StatementContext s : ctx.statement()) {
+			visit(s);
+		}
+		popScope();
+		return null;
+	}
+
+	@Override
+	public Void visitBlockStatement(@NotNull WichParser.BlockStatementContext ctx) {
+		return visit(ctx.block());
+	}
+
+	@Override
+	public Void visitVarDefStatement(@NotNull WichParser.VarDefStatementContext ctx) {
+		return visit(ctx.vardef());
+	}
+
+	@Override
+	public Void visitVardef(@NotNull WichParser.VardefContext ctx) {
+		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		newSlot(v);
+		store(v, ctx.expr());
+		return null;
+	}
+
+	@Override
+	public Void visitAssign(@NotNull WichParser.AssignContext ctx) {
+		WVariableSymbol v = (WVariableSymbol)currentScope.resolve(ctx.ID().getText());
+		store(v, ctx.expr());
+		return null;
+	}
+
+	protected void store(WVariableSymbol v, WichParser.ExprContext value) {
+		expr(value, v.getType());
+		if ( isVectorCopyNeeded(value) ) copyVector();
+		int slot = slot(v);
+		switch ( kind(v.getType()) ) {
+			case 'D' : code.dstore(slot); break;
+			case 'I' : code.istore(slot); break;
+			default : code.astore(slot);
+		}
+	}
+
+	@Override
+	public Void visitElementAssign(@NotNull WichParser.ElementAssignContext ctx) {
+		load(currentScope.resolve(ctx.ID().getText()));
+		expr(ctx.expr(0), SymbolTable._int);
+		expr(ctx.expr(1), SymbolTable._float);
+		code.invokestatic(RUNTIME, "set", "([DID)V");
+		return null;
+	}
+
+	@Override
+	public Void visitCallStatement(@NotNull WichParser.CallStatementContext ctx) {
+		visit(ctx.call_expr());
+		Type type = ((WFunctionSymbol)currentScope.resolve(ctx.call_expr().ID().getText())).getType();
+		if ( kind(type)=='D' ) code.pop2();
+		else if ( kind(type)!='V' ) code.pop();
+		return null;
+	}
+
+	@Override
+	public Void visitCall_expr(@NotNull WichParser.Call_exprContext ctx) {
+		WFunctionSymbol f = (WFunctionSymbol)currentScope.resolve(ctx.ID().getText());
+		if ( ctx.expr_list()!=null ) {
+			int i = 0;
+			for (WichParser.ExprContext arg : ctx.expr_list().expr()) {
+				expr(arg, f.argTypes.get(i++));
+				if ( isVectorCopyNeeded(arg) ) copyVector();
+			}
+		}
+		code.invokestatic(cf.name, f.getName(), descriptor(f));
+		return null;
+	}
+
+	@Override
+	public Void visitReturn(@NotNull WichParser.ReturnContext ctx) {
+		if ( function==null ) {
+			throw new IllegalStateException("return outside of a function at line "+ctx.getStart().getLine());
+		}
+		expr(ctx.expr(), function.getType());
+		ret(function.getType());
+		return null;
+	}
+
+	/** Push the value a function returns if it falls off the end */
+	protected WBuiltInTypeSymbol defaultValue() {
+		WBuiltInTypeSymbol type = function.getType();
+		switch ( kind(type) ) {
+			case 'I' : code.iconst(0); break;
+			case 'D' : code.dconst(0.0); break;
+			case 'L' : code.sconst(""); break;
+			case '[' : code.iconst(0); code.newDoubleArray(); break;
+		}
+		return type;
+	}
+
+	protected void ret(Type type) {
+		switch ( kind(type) ) {
+			case 'V' : code.return_(); break;
+			case 'D' : code.dreturn(); break;
+			case 'I' : code.ireturn(); break;
+			default : code.areturn();
+		}
+	}
+
+	@Override
+	public Void visitIf(@NotNull WichParser.IfContext ctx) {
+		int end = code.label();
+		if ( ctx.statement().size()==1 ) {
+			condition(ctx.expr(), false, end);
+			visit(ctx.statement(0));
+		}
+		else {
+			int elseClause = code.label();
+			condition(ctx.expr(), false, elseClause);
+			visit(ctx.statement(0));
+			code.goto_(end);
+			code.mark(elseClause);
+			visit(ctx.statement(1));
+		}
+		code.mark(end);
+		return null;
+	}
+
+	@Override
+	public Void visitWhile(@NotNull WichParser.WhileContext ctx) {
+		int top = code.label();
+		int end = code.label();
+		code.mark(top);
+		condition(ctx.expr(), false, end);
+		visit(ctx.statement());
+		code.goto_(top);
+		code.mark(end);
+		return null;
+	}
+
+	@Override
+	public Void visitPrint(@NotNull WichParser.PrintContext ctx) {
+		if ( ctx.expr()!=null ) {
+			visit(ctx.expr());
+			Type type = type(ctx.expr());
+			code.invokestatic(RUNTIME, "print", "("+descriptor(kind(type)=='I' ? SymbolTable._int : type)+")V");
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitOp(@NotNull WichParser.OpContext ctx) {
+		WichParser.OperatorContext op = ctx.operator();
+		WichParser.ExprContext left = ctx.expr(0);
+		WichParser.ExprContext right = ctx.expr(1);
+		Type type = type(ctx);
+		if ( isComparison(op) ) {
+			int isFalse = code.label();
+			int end = code.label();
+			compare(ctx, false, isFalse);
+			code.iconst(1);
+			code.goto_(end);
+			code.mark(isFalse);
+			code.iconst(0);
+			code.mark(end);
+		}
+		else if ( op.AND()!=null || op.OR()!=null ) { // left's value is the result if it decides it
+			int end = code.label();
+			visit(left);
+			code.dup();
+			code.branch(op.AND()!=null ? IFEQ : IFNE, end);
+			code.pop();
+			visit(right);
+			code.mark(end);
+		}
+		else if ( type==SymbolTable._vector ) { // in source order; the runtime has scalar-first forms
+			Type lt = type(left)==SymbolTable._vector ? SymbolTable._vector : SymbolTable._float;
+			Type rt = type(right)==SymbolTable._vector ? SymbolTable._vector : SymbolTable._float;
+			expr(left, lt);
+			expr(right, rt);
+			String name = op.ADD()!=null ? "add" : op.SUB()!=null ? "sub" : op.MUL()!=null ? "mul" : "div";
+			code.invokestatic(RUNTIME, name, "("+descriptor(lt)+descriptor(rt)+")[D");
+		}
+		else if ( type==SymbolTable._string ) {
+			toStr(left);
+			toStr(right);
+			code.invokevirtual(STRING, "concat", "(Ljava/lang/String;)Ljava/lang/String;");
+		}
+		else if ( type==SymbolTable._int || type==SymbolTable._float ) {
+			expr(left, type);
+			expr(right, type);
+			boolean ints = type==SymbolTable._int;
+			if ( op.ADD()!=null ) { if ( ints ) code.iadd(); else code.dadd(); }
+			else if ( op.SUB()!=null ) { if ( ints ) code.isub(); else code.dsub(); }
+			else if ( op.MUL()!=null ) { if ( ints ) code.imul(); else code.dmul(); }
+			else if ( op.DIV()!=null ) { if ( ints ) code.idiv(); else code.ddiv(); }
+			else unsupported(ctx);
+		}
+		else {
+			unsupported(ctx);
+		}
+		return null;
+	}
+
+	/** Push e as a string for concatenation */
+	protected void toStr(WichParser.ExprContext e) {
+		visit(e);
+		Type type = type(e);
+		if ( type==SymbolTable._float || type==SymbolTable._vector ) {
+			code.invokestatic(RUNTIME, "toString", "("+descriptor(type)+")Ljava/lang/String;");
+		}
+		else if ( type!=SymbolTable._string ) {
+			code.invokestatic(STRING, "valueOf", "(I)Ljava/lang/String;");
+		}
+	}
+
+	/** Go to L if e comes out equal to when; && and || skip their right
+	 *  side once the left one decides.
+	 */
+	protected void condition(WichParser.ExprContext e, boolean when, int L) {
+		if ( e instanceof WichParser.ParensContext ) {
+			condition(((WichParser.ParensContext)e).expr(), when, L);
+		}
+		else if ( e instanceof WichParser.NotContext ) {
+			condition(((WichParser.NotContext)e).expr(), !when, L);
+		}
+		else if ( e instanceof WichParser.OpContext && isComparison(((WichParser.OpContext)e).operator()) ) {
+			compare((WichParser.OpContext)e, when, L);
+		}
+		else if ( e instanceof WichParser.OpContext &&
+				  (((WichParser.OpContext)e).operator().AND()!=null || ((WichParser.OpContext)e).operator().OR()!=null) )
+		{
+			WichParser.OpContext op = (WichParser.OpContext)e;
+			if ( when==(op.operator().OR()!=null) ) { // either side alone decides
+				condition(op.expr(0), when, L);
+				condition(op.expr(1), when, L);
+			}
+			else {
+				int skip = code.label();
+				condition(op.expr(0), !when, skip);
+				condition(op.expr(1), when, L);
+				code.mark(skip);
+			}
+		}
+		else {
+			visit(e);
+			code.branch(when ? IFNE : IFEQ, L);
+		}
+	}
+
+	/** Compare the operands of ctx and go to L if the comparison comes out
+	 *  equal to when
+	 */
+	protected void compare(WichParser.OpContext ctx, boolean when, int L) {
+		WichParser.OperatorContext op = ctx.operator();
+		WichParser.ExprContext left = ctx.expr(0);
+		WichParser.ExprContext right = ctx.expr(1);
+		Type lt = type(left);
+		Type rt = type(right);
+		boolean equality = op.EQUAL_EQUAL()!=null || op.NOT_EQUAL()!=null;
+		if ( lt==SymbolTable._string && rt==SymbolTable._string ) {
+			visit(left);
+			visit(right);
+			if ( equality ) {
+				code.invokevirtual(STRING, "equals", "(Ljava/lang/Object;)Z");
+				code.branch((op.EQUAL_EQUAL()!=null)==when ? IFNE : IFEQ, L);
+			}
+			else {
+				code.invokevirtual(STRING, "compareTo", "(Ljava/lang/String;)I");
+				code.branch(branchFor(op, IFEQ, when), L);
+			}
+		}
+		else if ( lt==SymbolTable._vector && rt==SymbolTable._vector && equality ) {
+			visit(left);
+			visit(right);
+			code.invokestatic(RUNTIME, "equals", "([D[D)Z");
+			code.branch((op.EQUAL_EQUAL()!=null)==when ? IFNE : IFEQ, L);
+		}
+		else if ( lt==SymbolTable._float || rt==SymbolTable._float ) {
+			expr(left, SymbolTable._float);
+			expr(right, SymbolTable._float);
+			// NaN compares false: make it look greater for < and <=, less otherwise
+			if ( op.LT()!=null || op.LE()!=null ) code.dcmpg();
+			else code.dcmpl();
+			code.branch(branchFor(op, IFEQ, when), L);
+		}
+		else if ( kind(lt)=='I' && kind(rt)=='I' ) {
+			visit(left);
+			visit(right);
+			code.branch(branchFor(op, IF_ICMPEQ, when), L);
+		}
+		else {
+			unsupported(ctx);
+		}
+	}
+
+	/** The branch, in the family starting at eq, taken when op comes out
+	 *  equal to when
+	 */
+	protected static int branchFor(WichParser.OperatorContext op, int eq, boolean when) {
+		// eq, ne, lt, ge, gt, le are consecutive in both families; each
+		// even/odd pair are opposites
+		int taken;
+		if ( op.EQUAL_EQUAL()!=null ) taken = 0;
+		else if ( op.NOT_EQUAL()!=null ) taken = 1;
+		else if ( op.LT()!=null ) taken = 2;
+		else if ( op.GE()!=null ) taken = 3;
+		else if ( op.GT()!=null ) taken = 4;
+		else taken = 5; // LE
+		return eq + (when ? taken : taken^1);
+	}
+
+	protected static boolean isComparison(WichParser.OperatorContext op) {
+		return op.LT()!=null || op.LE()!=null || op.GT()!=null || op.GE()!=null ||
+			   op.EQUAL_EQUAL()!=null || op.NOT_EQUAL()!=null;
+	}
+
+	@Override
+	public Void visitNegate(@NotNull WichParser.NegateContext ctx) {
+		visit(ctx.expr());
+		if ( type(ctx)==SymbolTable._vector ) { // v * -1, as in the VM
+			code.dconst(-1.0);
+			code.invokestatic(RUNTIME, "mul", "([DD)[D");
+		}
+		else if ( type(ctx)==SymbolTable._float ) {
+			if ( type(ctx.expr())==SymbolTable._int ) code.i2d();
+			code.dneg();
+		}
+		else {
+			code.ineg();
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitNot(@NotNull WichParser.NotContext ctx) {
+		visit(ctx.expr());
+		code.iconst(1);
+		code.ixor();
+		return null;
+	}
+
+	@Override
+	public Void visitParens(@NotNull WichParser.ParensContext ctx) {
+		return visit(ctx.expr());
+	}
+
+	@Override
+	public Void visitIndex(@NotNull WichParser.IndexContext ctx) {
+		Symbol var = currentScope.resolve(ctx.ID().getText());
+		load(var);
+		expr(ctx.expr(), SymbolTable._int);
+		if ( ((WVariableSymbol)var).getType()==SymbolTable._vector ) {
+			code.invokestatic(RUNTIME, "get", "([DI)D");
+		}
+		else {
+			code.invokestatic(RUNTIME, "charAt", "(Ljava/lang/String;I)Ljava/lang/String;");
+		}
+		return null;
+	}
+
+	@Override
+	public Void visitLen(WichParser.LenContext ctx) {
+		visit(ctx.expr());
+		if ( type(ctx.expr())==SymbolTable._vector ) code.arraylength();
+		else code.invokevirtual(STRING, "length", "()I");
+		return null;
+	}
+
+	@Override
+	public Void visitInteger(@NotNull WichParser.IntegerContext ctx) {
+		code.iconst(Integer.valueOf(ctx.INT().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitFloat(@NotNull WichParser.FloatContext ctx) {
+		code.dconst(Double.parseDouble(ctx.FLOAT().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitString(@NotNull WichParser.StringContext ctx) {
+		code.sconst(ObjectFile.unescape(CompilerUtils.stripFirstLast(ctx.STRING().getText())));
+		return null;
+	}
+
+	@Override
+	public Void visitTrueLiteral(@NotNull WichParser.TrueLiteralContext ctx) {
+		code.iconst(1);
+		return null;
+	}
+
+	@Override
+	public Void visitFalseLiteral(@NotNull WichParser.FalseLiteralContext ctx) {
+		code.iconst(0);
+		return null;
+	}
+
+	@Override
+	public Void visitIdentifier(@NotNull WichParser.IdentifierContext ctx) {
+		load(currentScope.resolve(ctx.ID().getText()));
+		return null;
+	}
+
+	@Override
+	public Void visitVector(@NotNull WichParser.VectorContext ctx) {
+		int i = 0;
+		code.iconst(ctx.expr_list().expr().size());
+		code.newDoubleArray();
+		for (WichParser.ExprContext e : ctx.expr_list().expr()) {
+			code.dup();
+			code.iconst(i++);
+			expr(e, SymbolTable._float);
+			code.dastore();
+		}
+		return null;
+	}
+
+	/** Push e converted to type target if it is an int and target a float */
+	protected void expr(WichParser.ExprContext e, Type target) {
+		visit(e);
+		if ( target==SymbolTable._float && type(e)==SymbolTable._int ) {
+			code.i2d();
+		}
+	}
+
+	protected void load(Symbol s) {
+		WVariableSymbol v = (WVariableSymbol)s;
+		int slot = slot(v);
+		switch ( kind(v.getType()) ) {
+			case 'D' : code.dload(slot); break;
+			case 'I' : code.iload(slot); break;
+			default : code.aload(slot);
+		}
+	}
+
+	protected void copyVector() {
+		code.invokestatic(RUNTIME, "copy", "([D)[D");
+	}
+
+	/** Give s the next local slot in the current method */
+	protected int newSlot(Symbol s) {
+		Integer slot = slots.get(s);
+		if ( slot==null ) {
+			slot = nextSlot;
+			nextSlot += kind(((WVariableSymbol)s).getType())=='D' ? 2 : 1;
+			slots.put(s, slot);
+		}
+		return slot;
+	}
+
+	protected int slot(Symbol s) {
+		Integer slot = slots.get(s);
+		if ( slot==null ) {
+			// script-level variables live in main(), so functions can't reach them
+			throw new IllegalStateException(s.getName()+" is not a local of "+(function!=null ? function.getName() : "main"));
+		}
+		return slot;
+	}
+
+	protected static Type type(WichParser.ExprContext e) {
+		return e.exprType!=null ? e.exprType : e.promoteToType;
+	}
+
+	/** 'I' for int and boolean, 'D' for float, 'L' for string, '[' for vector, 'V' for none */
+	protected static char kind(Type type) {
+		if ( type==null || type==SymbolTable._void ) return 'V';
+		if ( type==SymbolTable._int || type==SymbolTable._boolean ) return 'I';
+		if ( type==SymbolTable._float ) return 'D';
+		if ( type==SymbolTable._string ) return 'L';
+		return '[';
+	}
+
+	public static String descriptor(Type type) {
+		if ( type==SymbolTable._boolean ) return "Z";
+		switch ( kind(type) ) {
+			case 'V' : return "V";
+			case 'I' : return "I";
+			case 'D' : return "D";
+			case 'L' : return "Ljava/lang/String;";
+			default : return "[D";
+		}
+	}
+
+	public static String descriptor(WFunctionSymbol f) {
+		StringBuilder buf = new StringBuilder("(");
+		for (WBuiltInTypeSymbol t : f.argTypes) buf.append(descriptor(t));
+		return buf.append(')').append(descriptor(f.getType())).toString();
+	}
+
+	/** Type checking lets no such tree through; JVMWriter reports it as an internal error */
+	protected void unsupported(WichParser.ExprContext ctx) {
+		throw new IllegalStateException("can't generate JVM code for "+ctx.getText()+
+										" at line "+ctx.getStart().getLine());
+	}
+
+	public boolean isVectorCopyNeeded(WichParser.ExprContext expr) {
+		return copies.isCopyNeeded(expr);
+	}
+
+	public void pushScope(Scope scope) {currentScope = scope;}
+
+	public void popScope() {currentScope = currentScope.getEnclosingScope();}
+}
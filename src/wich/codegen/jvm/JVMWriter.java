@@ -0,0 +1,142 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.jvm;
+
+import wich.codegen.CompilerUtils;
+import wich.errors.ErrorType;
+import wich.errors.WichErrorHandler;
+import wich.jvm.WichClassLoader;
+import wich.jvm.WichRuntime;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/** Compile a script to a JVM class (CodeGenTarget.JVM) so HotSpot's JIT
+ *  runs it without a C toolchain. foo.w becomes class foo in the default
+ *  package; run foo.class with the wich classes on the class path, run a
+ *  jar from writeJar() with java -jar, or define the class in-process
+ *  with load().
+ */
+public class JVMWriter {
+	public SymbolTable symtab;
+	public WichParser.ScriptContext tree;
+	public final String className;
+
+	/** Where genClass() reports a failure to generate the class */
+	public WichErrorHandler err = new WichErrorHandler();
+
+	protected JVMGenerator gen; // set by genClass()
+	protected byte[] bytes;
+
+	public JVMWriter(SymbolTable symtab, WichParser.ScriptContext tree, String className) {
+		this.symtab = symtab;
+		this.tree = tree;
+		this.className = className;
+	}
+
+	/** A legal class name from a file name: foo/3d-vec.w gives _3d_vec */
+	public static String classNameFor(String fileName) {
+		String name = Paths.get(fileName).getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		if ( dot>0 ) name = name.substring(0, dot);
+		StringBuilder buf = new StringBuilder();
+		for (char c : name.toCharArray()) {
+			buf.append(Character.isJavaIdentifierPart(c) ? c : '_');
+		}
+		if ( buf.length()==0 || !Character.isJavaIdentifierStart(buf.charAt(0)) ) buf.insert(0, '_');
+		return buf.toString();
+	}
+
+	/** The class file, or null if the generator failed; it reports why to err */
+	public byte[] genClass() {
+		if ( gen==null ) {
+			gen = new JVMGenerator(symtab, className);
+			try {
+				gen.visit(tree);
+				bytes = gen.cf.toByteArray();
+			}
+			catch (IllegalStateException e) { // a generator bug, not an error in the script
+				err.error(null, ErrorType.INTERNAL_CODEGEN_ERROR, e.getMessage());
+			}
+		}
+		return bytes;
+	}
+
+	/** Text listing of the generated methods */
+	public String genListing() {
+		return genClass()!=null ? gen.getListing() : "<invalid>";
+	}
+
+	public void writeClass(String outputFile) throws IOException {
+		if ( genClass()==null ) return;
+		Files.write(Paths.get(outputFile), bytes);
+	}
+
+	/** Write an executable jar holding the script and the runtime classes */
+	public void writeJar(String outputFile) throws IOException {
+		if ( genClass()==null ) return;
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, className);
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(outputFile), manifest)) {
+			add(jar, className+".class", bytes);
+			for (Class<?> c : new Class<?>[] {WichRuntime.class, WichRuntime.WichError.class}) {
+				String entry = c.getName().replace('.', '/')+".class";
+				add(jar, entry, resource(entry));
+			}
+		}
+	}
+
+	/** Define the generated class in a fresh loader */
+	public Class<?> load() {
+		if ( genClass()==null ) throw new IllegalStateException(err.toString());
+		return new WichClassLoader().define(className, bytes);
+	}
+
+	protected static void add(JarOutputStream jar, String name, byte[] bytes) throws IOException {
+		jar.putNextEntry(new JarEntry(name));
+		jar.write(bytes);
+		jar.closeEntry();
+	}
+
+	protected static byte[] resource(String name) throws IOException {
+		try (InputStream in = CompilerUtils.getResourceFile(name).openStream()) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buf = new byte[4096];
+			int n;
+			while ( (n = in.read(buf))>0 ) bytes.write(buf, 0, n);
+			return bytes.toByteArray();
+		}
+	}
+}
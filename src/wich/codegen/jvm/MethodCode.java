@@ -0,0 +1,349 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.jvm;
+
+import java.util.Arrays;
+
+/** Assemble the bytecode of one JVM method, much as ASM does for the Wich
+ *  VM: one method per instruction, branches to labels from label() that
+ *  are patched once the method is complete. Tracks operand stack depth in
+ *  slots (doubles take two) as instructions are added so the Code
+ *  attribute gets its max_stack without a separate pass, and keeps a text
+ *  listing for JVMWriter.genListing().
+ *
+ *  The stack depth after an unconditional transfer is whatever was
+ *  recorded for the next label by the first branch to it.
+ */
+public class MethodCode {
+	public static final int ICONST_M1 = 2;
+	public static final int ICONST_0 = 3;
+	public static final int DCONST_0 = 14;
+	public static final int DCONST_1 = 15;
+	public static final int BIPUSH = 16;
+	public static final int SIPUSH = 17;
+	public static final int LDC = 18;
+	public static final int LDC_W = 19;
+	public static final int LDC2_W = 20;
+	public static final int ILOAD = 21;
+	public static final int DLOAD = 24;
+	public static final int ALOAD = 25;
+	public static final int ISTORE = 54;
+	public static final int DSTORE = 57;
+	public static final int ASTORE = 58;
+	public static final int DASTORE = 82;
+	public static final int POP = 87;
+	public static final int POP2 = 88;
+	public static final int DUP = 89;
+	public static final int IADD = 96;
+	public static final int DADD = 99;
+	public static final int ISUB = 100;
+	public static final int DSUB = 103;
+	public static final int IMUL = 104;
+	public static final int DMUL = 107;
+	public static final int IDIV = 108;
+	public static final int DDIV = 111;
+	public static final int INEG = 116;
+	public static final int DNEG = 119;
+	public static final int IAND = 126;
+	public static final int IOR = 128;
+	public static final int IXOR = 130;
+	public static final int I2D = 135;
+	public static final int DCMPL = 151;
+	public static final int DCMPG = 152;
+	public static final int IFEQ = 153;
+	public static final int IFNE = 154;
+	public static final int IFLT = 155;
+	public static final int IFGE = 156;
+	public static final int IFGT = 157;
+	public static final int IFLE = 158;
+	public static final int IF_ICMPEQ = 159;
+	public static final int IF_ICMPNE = 160;
+	public static final int IF_ICMPLT = 161;
+	public static final int IF_ICMPGE = 162;
+	public static final int IF_ICMPGT = 163;
+	public static final int IF_ICMPLE = 164;
+	public static final int GOTO = 167;
+	public static final int IRETURN = 172;
+	public static final int DRETURN = 175;
+	public static final int ARETURN = 176;
+	public static final int RETURN = 177;
+	public static final int INVOKEVIRTUAL = 182;
+	public static final int INVOKESTATIC = 184;
+	public static final int NEWARRAY = 188;
+	public static final int ARRAYLENGTH = 190;
+	public static final int WIDE = 196;
+
+	public static final int T_DOUBLE = 7;
+
+	protected static final int MAX_CODE = 0xFFFF;
+
+	protected final ClassFile cf;
+
+	protected byte[] code = new byte[256];
+	protected int n;
+
+	protected int stack;
+	public int maxStack;
+	public int maxLocals;
+
+	protected int labels;
+	protected int[] labelAddress = new int[16];	// -1 until marked
+	protected int[] labelStack = new int[16];	// depth on entry; -1 until known
+	protected int[] fixups = new int[32];		// branch address, label pairs
+	protected int nfixups;
+
+	protected final StringBuilder listing = new StringBuilder();
+
+	public MethodCode(ClassFile cf) {
+		this.cf = cf;
+	}
+
+	public int size() {
+		return n;
+	}
+
+	public int label() {
+		if ( labels==labelAddress.length ) {
+			labelAddress = Arrays.copyOf(labelAddress, labels*2);
+			labelStack = Arrays.copyOf(labelStack, labels*2);
+		}
+		labelAddress[labels] = -1;
+		labelStack[labels] = -1;
+		return labels++;
+	}
+
+	public void mark(int L) {
+		labelAddress[L] = n;
+		if ( labelStack[L]>=0 ) stack = labelStack[L];
+		else labelStack[L] = stack;
+		listing.append("L").append(L).append(":\n");
+	}
+
+	public void iconst(int v) {
+		if ( v>=-1 && v<=5 ) {
+			op(ICONST_0+v, 1, "iconst_"+(v<0 ? "m1" : String.valueOf(v)));
+		}
+		else if ( v>=Byte.MIN_VALUE && v<=Byte.MAX_VALUE ) {
+			op(BIPUSH, 1, "bipush "+v);
+			u1(v);
+		}
+		else if ( v>=Short.MIN_VALUE && v<=Short.MAX_VALUE ) {
+			op(SIPUSH, 1, "sipush "+v);
+			u2(v);
+		}
+		else {
+			ldc(cf.integer(v), 1, String.valueOf(v));
+		}
+	}
+
+	public void dconst(double v) {
+		if ( Double.doubleToRawLongBits(v)==0L ) op(DCONST_0, 2, "dconst_0");
+		else if ( v==1.0 ) op(DCONST_1, 2, "dconst_1");
+		else {
+			op(LDC2_W, 2, "ldc2_w "+v);
+			u2(cf.doubleConst(v));
+		}
+	}
+
+	public void sconst(String s) {
+		ldc(cf.string(s), 1, '"'+s.replace("\n", "\\n")+'"');
+	}
+
+	/** Push the Class object for a class by internal name */
+	public void ldcClass(String internalName) {
+		ldc(cf.classRef(internalName), 1, internalName+".class");
+	}
+
+	protected void ldc(int index, int delta, String text) {
+		if ( index<=0xFF ) {
+			op(LDC, delta, "ldc "+text);
+			u1(index);
+		}
+		else {
+			op(LDC_W, delta, "ldc_w "+text);
+			u2(index);
+		}
+	}
+
+	public void iload(int slot) { local(ILOAD, "iload", slot, 1); }
+	public void dload(int slot) { local(DLOAD, "dload", slot, 2); }
+	public void aload(int slot) { local(ALOAD, "aload", slot, 1); }
+	public void istore(int slot) { local(ISTORE, "istore", slot, -1); }
+	public void dstore(int slot) { local(DSTORE, "dstore", slot, -2); }
+	public void astore(int slot) { local(ASTORE, "astore", slot, -1); }
+
+	protected void local(int opcode, String name, int slot, int delta) {
+		if ( slot<=0xFF ) {
+			op(opcode, delta, name+" "+slot);
+			u1(slot);
+		}
+		else {
+			op(WIDE, 0, "wide");
+			op(opcode, delta, name+" "+slot);
+			u2(slot);
+		}
+		int size = opcode==DLOAD || opcode==DSTORE ? 2 : 1;
+		maxLocals = Math.max(maxLocals, slot+size);
+	}
+
+	public void dastore() { op(DASTORE, -4, "dastore"); }
+	public void pop() { op(POP, -1, "pop"); }
+	public void pop2() { op(POP2, -2, "pop2"); }
+	public void dup() { op(DUP, 1, "dup"); }
+
+	public void iadd() { op(IADD, -1, "iadd"); }
+	public void isub() { op(ISUB, -1, "isub"); }
+	public void imul() { op(IMUL, -1, "imul"); }
+	public void idiv() { op(IDIV, -1, "idiv"); }
+	public void iand() { op(IAND, -1, "iand"); }
+	public void ior() { op(IOR, -1, "ior"); }
+	public void ixor() { op(IXOR, -1, "ixor"); }
+	public void ineg() { op(INEG, 0, "ineg"); }
+	public void dadd() { op(DADD, -2, "dadd"); }
+	public void dsub() { op(DSUB, -2, "dsub"); }
+	public void dmul() { op(DMUL, -2, "dmul"); }
+	public void ddiv() { op(DDIV, -2, "ddiv"); }
+	public void dneg() { op(DNEG, 0, "dneg"); }
+	public void i2d() { op(I2D, 1, "i2d"); }
+	public void dcmpl() { op(DCMPL, -3, "dcmpl"); }
+	public void dcmpg() { op(DCMPG, -3, "dcmpg"); }
+
+	public void newDoubleArray() {
+		op(NEWARRAY, 0, "newarray double");
+		u1(T_DOUBLE);
+	}
+
+	public void arraylength() { op(ARRAYLENGTH, 0, "arraylength"); }
+
+	public void ireturn() { op(IRETURN, -1, "ireturn"); stack = 0; }
+	public void dreturn() { op(DRETURN, -2, "dreturn"); stack = 0; }
+	public void areturn() { op(ARETURN, -1, "areturn"); stack = 0; }
+	public void return_() { op(RETURN, 0, "return"); stack = 0; }
+
+	public void invokestatic(String owner, String name, String descriptor) {
+		op(INVOKESTATIC, slots(descriptor), "invokestatic "+owner+"."+name+descriptor);
+		u2(cf.methodRef(owner, name, descriptor));
+	}
+
+	public void invokevirtual(String owner, String name, String descriptor) {
+		op(INVOKEVIRTUAL, slots(descriptor)-1, "invokevirtual "+owner+"."+name+descriptor);
+		u2(cf.methodRef(owner, name, descriptor));
+	}
+
+	/** ifeq, if_icmplt, etc.: pop the operands and go to L */
+	public void branch(int opcode, int L) {
+		int delta = opcode>=IF_ICMPEQ && opcode<=IF_ICMPLE ? -2 : -1;
+		branch(opcode, L, delta, branchName(opcode));
+	}
+
+	public void goto_(int L) {
+		branch(GOTO, L, 0, "goto");
+		stack = 0;
+	}
+
+	protected void branch(int opcode, int L, int delta, String name) {
+		op(opcode, delta, name+" L"+L);
+		if ( labelStack[L]<0 ) labelStack[L] = stack;
+		if ( nfixups+2>fixups.length ) fixups = Arrays.copyOf(fixups, fixups.length*2);
+		fixups[nfixups++] = n-1;
+		fixups[nfixups++] = L;
+		u2(0);
+	}
+
+	protected void op(int opcode, int delta, String text) {
+		listing.append(String.format("%6d: %s\n", n, text));
+		u1(opcode);
+		stack += delta;
+		if ( stack<0 ) throw new IllegalStateException("stack underflow at "+text);
+		maxStack = Math.max(maxStack, stack);
+	}
+
+	/** The code with branch offsets filled in */
+	public byte[] toByteArray() {
+		if ( n>MAX_CODE ) {
+			throw new IllegalStateException("method is "+n+" bytes; the JVM limit is "+MAX_CODE);
+		}
+		for (int i = 0; i<nfixups; i += 2) {
+			int at = fixups[i];
+			int target = labelAddress[fixups[i+1]];
+			if ( target<0 ) throw new IllegalStateException("label L"+fixups[i+1]+" never marked");
+			int offset = target - at;
+			if ( offset<Short.MIN_VALUE || offset>Short.MAX_VALUE ) {
+				throw new IllegalStateException("branch at "+at+" to "+target+" doesn't fit in 16 bits");
+			}
+			code[at+1] = (byte)(offset>>8);
+			code[at+2] = (byte)offset;
+		}
+		return Arrays.copyOf(code, n);
+	}
+
+	public String getListing() {
+		return listing.toString();
+	}
+
+	/** Stack slots pushed minus popped by a static call with this descriptor */
+	protected static int slots(String descriptor) {
+		int delta = 0;
+		int i = 1;
+		while ( descriptor.charAt(i)!=')' ) {
+			char c = descriptor.charAt(i);
+			delta -= c=='D' || c=='J' ? 2 : 1;
+			while ( descriptor.charAt(i)=='[' ) i++;
+			if ( descriptor.charAt(i)=='L' ) i = descriptor.indexOf(';', i);
+			i++;
+		}
+		char ret = descriptor.charAt(i+1);
+		if ( ret=='D' || ret=='J' ) delta += 2;
+		else if ( ret!='V' ) delta += 1;
+		return delta;
+	}
+
+	protected static String branchName(int opcode) {
+		switch ( opcode ) {
+			case IFEQ : return "ifeq";
+			case IFNE : return "ifne";
+			case IFLT : return "iflt";
+			case IFGE : return "ifge";
+			case IFGT : return "ifgt";
+			case IFLE : return "ifle";
+			case IF_ICMPEQ : return "if_icmpeq";
+			case IF_ICMPNE : return "if_icmpne";
+			case IF_ICMPLT : return "if_icmplt";
+			case IF_ICMPGE : return "if_icmpge";
+			case IF_ICMPGT : return "if_icmpgt";
+			case IF_ICMPLE : return "if_icmple";
+			default : throw new IllegalArgumentException("not a conditional branch: "+opcode);
+		}
+	}
+
+	protected void u1(int v) {
+		if ( n==code.length ) code = Arrays.copyOf(code, n*2);
+		code[n++] = (byte)v;
+	}
+
+	protected void u2(int v) {
+		u1(v>>8);
+		u1(v);
+	}
+}
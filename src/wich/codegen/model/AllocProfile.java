@@ -0,0 +1,41 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The allocation sites InjectAllocProfiling numbered; the File templates
+ *  render the counters and the table printed at exit from it.
+ */
+public class AllocProfile extends OutputModelObject {
+	/** Site i's "line: source" label, escaped for a C string */
+	public final List<String> sites = new ArrayList<>();
+
+	public int define(int line, String text) {
+		if ( text.length()>40 ) text = text.substring(0, 37)+"...";
+		sites.add(line+": "+text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", " "));
+		return sites.size()-1;
+	}
+}
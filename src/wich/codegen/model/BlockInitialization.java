@@ -25,6 +25,7 @@ package wich.codegen.model;
 
 public class BlockInitialization extends Stat {
 	@ModelElement public final WichType type;
+	public boolean gcFrame = true; // copy of the enclosing Func.gcFrame
 
 	public BlockInitialization(WichType type) {
 		this.type = type;
@@ -25,6 +25,7 @@ package wich.codegen.model;
 
 public class BlockTermination extends Stat {
 	@ModelElement public final WichType type;
+	public boolean gcFrame = true; // copy of the enclosing Func.gcFrame
 
 	public BlockTermination(WichType type) {
 		this.type = type;
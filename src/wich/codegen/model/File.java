@@ -22,16 +22,109 @@ package wich.codegen.model;
 import wich.codegen.model.expr.StringLiteral;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class File extends OutputModelObject {
 	@ModelElement public List<Func> functions;
 	@ModelElement public MainFunc main;
 	@ModelElement public List<StringDecl> decls;
+	@ModelElement public List<VectorDecl> vecDecls;
+	public AllocProfile allocProfile; // -profile-alloc site table, if any
+	public Set<String> inPlaceOps = new TreeSet<>(); // vector ops some VectorInPlaceStat uses
+	public Set<String> scalarOps = new TreeSet<>(); // vector ops some v op s uses
+	public Set<String> scalarFirstOps = new TreeSet<>(); // vector ops some s op v needs its own kernel for
+	public Set<String> concatKinds = new TreeSet<>(); // StringConcat.getKinds() of every chain
+	public Set<String> printKinds = new TreeSet<>(); // PrintSequence.getKinds() of every chain printed
+	public Set<String> stackOps = new TreeSet<>(); // vector ops some StackVectorOp of two vectors uses
+	public Set<String> stackScalarOps = new TreeSet<>(); // vector ops some StackVectorOp v op s uses
+	public Set<String> stackScalarFirstOps = new TreeSet<>(); // like scalarFirstOps, for StackVectorOps
+	public Set<String> stackConcatKinds = new TreeSet<>(); // StackStringConcat.kinds of every join
+	public boolean stackVectors; // some literal is laid out in a frame, see EscapeAnalysis
+	public boolean stackStrings; // some pooled literal is laid out in main's C frame
 
-	public File(List<Func> functions, MainFunc main, List<StringDecl> decls) {
+	public File(List<Func> functions, MainFunc main, List<StringDecl> decls, List<VectorDecl> vecDecls) {
 		this.functions = functions;
 		this.main = main;
 		this.decls = decls;
+		this.vecDecls = vecDecls;
 	}
-}
\ No newline at end of file
+
+	/** Does this file need any of the static vector or string kernels? */
+	public boolean hasKernels() {
+		return !inPlaceOps.isEmpty() || !scalarOps.isEmpty() || !scalarFirstOps.isEmpty() ||
+			   !concatKinds.isEmpty() || !printKinds.isEmpty() || hasStackKernels();
+	}
+
+	/** Does some vector op or string join fill a frame slot? */
+	public boolean hasStackKernels() {
+		return !stackOps.isEmpty() || !stackScalarOps.isEmpty() || !stackScalarFirstOps.isEmpty() ||
+			   !stackConcatKinds.isEmpty();
+	}
+
+	/** Does this file need the helpers that fill in a vector or string in a frame? */
+	public boolean hasStackStorage() {
+		return stackVectors || stackStrings;
+	}
+
+	/** Do the kernels or stack helpers call malloc or memcpy? */
+	public boolean hasLibcCalls() {
+		return !concatKinds.isEmpty() || hasStackStorage() || hasStackKernels();
+	}
+
+	/** concatKinds with each split into one kind per part, for the templates */
+	public List<List<String>> getConcatKernels() {
+		List<List<String>> kernels = new ArrayList<>();
+		for (String kinds : concatKinds) {
+			kernels.add(Arrays.asList(kinds.split("")));
+		}
+		return kernels;
+	}
+
+	/** printKinds split like concatKernels */
+	public List<List<String>> getPrintKernels() {
+		List<List<String>> kernels = new ArrayList<>();
+		for (String kinds : printKinds) {
+			kernels.add(Arrays.asList(kinds.split("")));
+		}
+		return kernels;
+	}
+
+	/** stackConcatKinds split like concatKernels */
+	public List<List<String>> getStackConcatKernels() {
+		List<List<String>> kernels = new ArrayList<>();
+		for (String kinds : stackConcatKinds) {
+			kernels.add(Arrays.asList(kinds.split("")));
+		}
+		return kernels;
+	}
+
+	/** Every kind of part some chain or join into a frame has, each needing its own helpers */
+	public Set<String> getConcatPartKinds() {
+		Set<String> kinds = new TreeSet<>();
+		for (String k : concatKinds) {
+			kinds.addAll(Arrays.asList(k.split("")));
+		}
+		for (String k : stackConcatKinds) {
+			kinds.addAll(Arrays.asList(k.split("")));
+		}
+		return kinds;
+	}
+
+	/** Every kind of part some printed chain has */
+	public Set<String> getPrintPartKinds() {
+		Set<String> kinds = new TreeSet<>();
+		for (String k : printKinds) {
+			kinds.addAll(Arrays.asList(k.split("")));
+		}
+		return kinds;
+	}
+
+	/** Does a printed chain have a part that is formatted as a number? */
+	public boolean hasPrintFormats() {
+		Set<String> kinds = getPrintPartKinds();
+		return kinds.size()>(kinds.contains("s") ? 1 : 0);
+	}
+}
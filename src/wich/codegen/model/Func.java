@@ -33,6 +33,10 @@ public class Func extends OutputModelObject {
 	@ModelElement public WichType returnType;
 	@ModelElement public List<ArgDef> args = new ArrayList<ArgDef>();
 	@ModelElement public FuncBlock body;
+	/** False if it roots nothing, so collecting targets skip saving and restoring the root stack */
+	public boolean gcFrame = true;
+	/** False if it never allocates, so REGION skips opening a region for each call */
+	public boolean region = true;
 
 	public Func(WFunctionSymbol scope, WichType returnType, FuncBlock body) {
 		this.scope = scope;
@@ -0,0 +1,48 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model;
+
+import wich.codegen.model.expr.Expr;
+import wich.codegen.model.expr.StringConcat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** print(a + b + ...) of a string chain, written out one part at a time
+ *  with no string made to hold the whole line.
+ */
+public class PrintSequence extends PrintStat {
+	@ModelElement public List<Expr> parts = new ArrayList<>();
+
+	public PrintSequence(String label) {
+		super(label);
+	}
+
+	/** s, i, f or v for each part, as for {@link StringConcat} */
+	public String getKinds() {
+		StringBuilder buf = new StringBuilder();
+		for (Expr e : parts) buf.append(StringConcat.kind(e.getType()));
+		return buf.toString();
+	}
+}
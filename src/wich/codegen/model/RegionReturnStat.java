@@ -0,0 +1,46 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model;
+
+import wich.codegen.CodeGenerator;
+import wich.semantics.SymbolTable;
+
+/** A return from a function with its own region: the value is computed,
+ *  copied into the caller's region if it is on the heap, and then the
+ *  function's region is freed, along with those of the loops it leaves.
+ */
+public class RegionReturnStat extends ReturnStat {
+	public final boolean heap;
+	public final boolean vector;
+	public final boolean inLoop;
+
+	public RegionReturnStat(ReturnStat ret, boolean inLoop) {
+		super(ret.expr, ret.num);
+		this.enclosingScope = ret.enclosingScope;
+		this.returnType = ret.returnType;
+		this.heap = CodeGenerator.isHeapType(ret.expr.getType());
+		this.vector = ret.expr.getType()==SymbolTable._vector;
+		this.inLoop = inLoop;
+	}
+}
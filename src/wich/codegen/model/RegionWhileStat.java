@@ -0,0 +1,48 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model;
+
+import wich.codegen.model.expr.VarRef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A loop whose iterations each allocate in a region of their own. The
+ *  heap variables the body assigns but doesn't define outlive an
+ *  iteration, so they are copied into a carry region that replaces the
+ *  last one, and into the enclosing region once the loop ends.
+ */
+public class RegionWhileStat extends WhileStat {
+	@ModelElement public List<VarRef> vectors = new ArrayList<>();
+	@ModelElement public List<VarRef> strings = new ArrayList<>();
+	public final int depth; // names the loop's regions apart from those of loops around it
+
+	public RegionWhileStat(WhileStat w, int depth) {
+		super(w.label);
+		this.condition = w.condition;
+		this.stat = w.stat;
+		this.source = w.source;
+		this.depth = depth;
+	}
+}
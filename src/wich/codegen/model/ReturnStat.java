@@ -33,6 +33,8 @@ public class ReturnStat extends Stat {
 	@ModelElement public WichType returnType;
 
 	public String num;
+	/** Copy of the enclosing Func.gcFrame, for targets that unroot on return */
+	public boolean gcFrame = true;
 	public ReturnStat(Expr expr, String label) {
 		this.expr = expr;
 		this.num = label;
@@ -25,6 +25,7 @@ package wich.codegen.model;
 
 import wich.codegen.model.VarDefStat;
 import wich.codegen.model.WichType;
+import wich.semantics.SymbolTable;
 import wich.semantics.symbols.WVariableSymbol;
 
 public class ScopedVarDefStat extends VarDefStat {
@@ -34,6 +35,14 @@ public class ScopedVarDefStat extends VarDefStat {
 
 	@Override
 	public String getName() {
+		return getScopedName(symbol);
+	}
+
+	/** Name a var uniquely within its function; vars sharing a gc root slot share its name */
+	public static String getScopedName(WVariableSymbol symbol) {
+		if ( symbol.rootSlot>=0 ) {
+			return (symbol.getType()==SymbolTable._string ? "sroot" : "vroot")+symbol.rootSlot;
+		}
 		return symbol.getName()+symbol.getInsertionOrderNumber();
 	}
 }
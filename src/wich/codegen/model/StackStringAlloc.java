@@ -21,23 +21,17 @@ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
 OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
-package wich.codegen.model.expr.promotion;
+package wich.codegen.model;
 
-import org.antlr.symtab.Type;
-import wich.codegen.model.ModelElement;
-import wich.codegen.model.expr.Expr;
+import wich.codegen.model.expr.StackStringConcat;
 
-public class VectorFromFloat extends Expr {
-	@ModelElement public Expr vector;
-	@ModelElement public Expr floatLiteral;
+/** Reserve the frame slot of a StackStringConcat at function entry */
+public class StackStringAlloc extends Stat {
+	public final String slot;
+	public final int bytes;
 
-	public VectorFromFloat(Expr floatLiteral, Expr vector) {
-		this.floatLiteral = floatLiteral;
-		this.vector = vector;
-	}
-
-	@Override
-	public Type getType() {
-		return null;
+	public StackStringAlloc(StackStringConcat concat) {
+		this.slot = concat.varRef;
+		this.bytes = concat.bytes;
 	}
 }
@@ -23,12 +23,18 @@ SOFTWARE.
 */
 package wich.codegen.model;
 
+/** A string literal from the symbol table's pool; num is its index there.
+ *  literal keeps the quotes for C; str is the NUL-terminated LLVM form.
+ */
 public class StringDecl extends Stat {
+	public String literal;
 	public String str;
 	public int len;
 	public int num;
+	public boolean stack; // C only: laid out in main's frame, see EscapeAnalysis
 
-	public StringDecl(String str, int len, int num) {
+	public StringDecl(String literal, String str, int len, int num) {
+		this.literal = literal;
 		this.str = str;
 		this.len = len;
 		this.num = num;
@@ -0,0 +1,47 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A constant vector literal hoisted to file scope. The elements are
+ *  promoted to double at compile time; bits holds each one as the hex
+ *  form LLVM wants for an exact double constant.
+ */
+public class VectorDecl extends Stat {
+	public List<String> values = new ArrayList<>();
+	public List<String> bits = new ArrayList<>();
+	public int len;
+	public int num;
+
+	public VectorDecl(double[] elems, int num) {
+		for (double d : elems) {
+			values.add(String.valueOf(d));
+			bits.add(String.format("0x%016X", Double.doubleToRawLongBits(d)));
+		}
+		this.len = elems.length;
+		this.num = num;
+	}
+}
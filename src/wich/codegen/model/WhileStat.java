@@ -23,6 +23,7 @@ SOFTWARE.
 */
 package wich.codegen.model;
 
+import org.antlr.v4.runtime.ParserRuleContext;
 import wich.codegen.model.expr.Expr;
 
 public class WhileStat extends Stat {
@@ -30,6 +31,7 @@ public class WhileStat extends Stat {
 	@ModelElement public Stat stat;
 
 	public String label;
+	public ParserRuleContext source; // set by CodeGenerator
 
 	public WhileStat(String label) {
 		this.label = label;
@@ -0,0 +1,51 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model.expr;
+
+import wich.codegen.model.ModelElement;
+import wich.codegen.model.WichType;
+import wich.semantics.SymbolTable;
+
+/** v op s or s op v for a vector v and a float s (an int one is promoted
+ *  to float); one pass over v, never a vector filled with s.
+ */
+public class BinaryVectorScalarOp extends BinaryOpExpr {
+	@ModelElement public WichType resType;
+	public final boolean scalarFirst;
+
+	public BinaryVectorScalarOp(Expr left, String op, Expr right, WichType type, WichType resType, String tempVarRef) {
+		super(left, op, right, type, tempVarRef);
+		this.resType = resType;
+		this.scalarFirst = left.getType() != SymbolTable._vector;
+	}
+
+	public Expr getVector() { return scalarFirst ? right : left; }
+
+	public Expr getScalar() { return scalarFirst ? left : right; }
+
+	/** s - v and s / v need their own kernel; s + v and s * v are v + s and v * s */
+	public boolean isScalarFirstKernel() {
+		return scalarFirst && !wichOp.equals("+") && !wichOp.equals("*");
+	}
+}
@@ -21,22 +21,23 @@ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
 OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
-package wich.codegen.model.expr.promotion;
-
+package wich.codegen.model.expr;
 
 import org.antlr.symtab.Type;
-import wich.codegen.model.ModelElement;
-import wich.codegen.model.expr.Expr;
+import wich.codegen.model.VectorType;
 import wich.semantics.SymbolTable;
 
-
-public class VectorFromInt extends Expr {
-	@ModelElement public Expr vector;
-	@ModelElement public Expr intLiteral;
-
-	public VectorFromInt(Expr intLiteral, Expr vector) {
-		this.intLiteral = intLiteral;
-		this.vector = vector;
+/** A vector literal of number literals only; it copies its elements
+ *  from VectorDecl num rather than building them one at a time.
+ */
+public class ConstVectorLiteral extends Expr {
+	public final int vectorLength;
+	public final int num;
+
+	public ConstVectorLiteral(int vectorLength, int num) {
+		this.vectorLength = vectorLength;
+		this.num = num;
+		this.type = new VectorType();
 	}
 
 	@Override
@@ -24,6 +24,7 @@ SOFTWARE.
 package wich.codegen.model.expr;
 
 import org.antlr.symtab.Type;
+import org.antlr.v4.runtime.ParserRuleContext;
 import wich.codegen.model.ModelElement;
 import wich.codegen.model.OutputModelObject;
 import wich.codegen.model.WichType;
@@ -31,5 +32,6 @@ import wich.codegen.model.WichType;
 public abstract class Expr extends OutputModelObject {
 	@ModelElement public WichType type;
 	public String varRef;
+	public ParserRuleContext source; // set by CodeGenerator
 	public abstract Type getType();
 }
@@ -23,6 +23,7 @@ SOFTWARE.
 */
 package wich.codegen.model.expr;
 
+import wich.codegen.model.ScopedVarDefStat;
 import wich.semantics.symbols.WVariableSymbol;
 
 public class ScopedStringIndexExpr extends StringIndexExpr {
@@ -31,6 +32,6 @@ public class ScopedStringIndexExpr extends StringIndexExpr {
 	}
 
 	public String getName() {
-		return symbol.getName()+symbol.getInsertionOrderNumber();
+		return ScopedVarDefStat.getScopedName(symbol);
 	}
 }
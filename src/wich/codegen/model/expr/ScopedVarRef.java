@@ -23,6 +23,7 @@ SOFTWARE.
 */
 package wich.codegen.model.expr;
 
+import wich.codegen.model.ScopedVarDefStat;
 import wich.codegen.model.WichType;
 import wich.semantics.symbols.WVariableSymbol;
 
@@ -34,6 +35,6 @@ public class ScopedVarRef extends VarRef {
 
 	@Override
 	public String getName() {
-		return super.getName()+symbol.getInsertionOrderNumber();
+		return ScopedVarDefStat.getScopedName(symbol);
 	}
 }
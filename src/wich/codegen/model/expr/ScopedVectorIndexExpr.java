@@ -23,6 +23,7 @@ SOFTWARE.
 */
 package wich.codegen.model.expr;
 
+import wich.codegen.model.ScopedVarDefStat;
 import wich.semantics.symbols.WVariableSymbol;
 
 public class ScopedVectorIndexExpr extends VectorIndexExpr {
@@ -31,6 +32,6 @@ public class ScopedVectorIndexExpr extends VectorIndexExpr {
 	}
 
 	public String getName() {
-		return symbol.getName()+symbol.getInsertionOrderNumber();
+		return ScopedVarDefStat.getScopedName(symbol);
 	}
 }
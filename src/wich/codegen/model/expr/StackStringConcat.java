@@ -0,0 +1,54 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model.expr;
+
+import org.antlr.symtab.Type;
+import wich.codegen.model.ModelElement;
+import wich.codegen.model.StringType;
+import wich.semantics.SymbolTable;
+
+import java.util.List;
+
+/** A StringConcat, or a + of two strings, whose result never leaves its
+ *  function and whose parts can't make more than bytes-1 chars. It joins
+ *  its parts straight into a StackStringAlloc slot of the function's frame.
+ */
+public class StackStringConcat extends Expr {
+	@ModelElement public List<Expr> parts;
+	public final String kinds;
+	public final int bytes; // the chars and their NUL
+
+	public StackStringConcat(List<Expr> parts, String kinds, int bytes, String tempVar) {
+		this.parts = parts;
+		this.kinds = kinds;
+		this.bytes = bytes;
+		this.varRef = tempVar;
+		this.type = new StringType();
+	}
+
+	@Override
+	public Type getType() {
+		return SymbolTable._string;
+	}
+}
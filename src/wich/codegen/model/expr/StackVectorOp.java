@@ -0,0 +1,66 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model.expr;
+
+import org.antlr.symtab.Type;
+import wich.codegen.model.ModelElement;
+import wich.codegen.model.VectorType;
+import wich.semantics.SymbolTable;
+
+/** A vector op, either two vectors or a vector and a float, whose result
+ *  never leaves its function and whose length is known. Like a
+ *  StackVectorLiteral, it fills a StackVectorAlloc slot of the function's
+ *  frame each time it is evaluated instead of making a heap vector.
+ */
+public class StackVectorOp extends Expr {
+	@ModelElement public Expr left;
+	@ModelElement public Expr right;
+	public final String wichOp;
+	public final int vectorLength;
+	public final boolean scalarOp; // a vector and a float, see BinaryVectorScalarOp
+	public final boolean scalarFirst;
+	public final boolean scalarFirstKernel;
+
+	public StackVectorOp(BinaryOpExpr op, int vectorLength) {
+		this.left = op.left;
+		this.right = op.right;
+		this.wichOp = op.wichOp;
+		this.vectorLength = vectorLength;
+		this.varRef = op.varRef;
+		this.type = new VectorType();
+		BinaryVectorScalarOp vs = op instanceof BinaryVectorScalarOp ? (BinaryVectorScalarOp)op : null;
+		this.scalarOp = vs!=null;
+		this.scalarFirst = vs!=null && vs.scalarFirst;
+		this.scalarFirstKernel = vs!=null && vs.isScalarFirstKernel();
+	}
+
+	public Expr getVector() { return scalarFirst ? right : left; }
+
+	public Expr getScalar() { return scalarFirst ? left : right; }
+
+	@Override
+	public Type getType() {
+		return SymbolTable._vector;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.codegen.model.expr;
+
+import org.antlr.symtab.Type;
+import wich.codegen.model.ModelElement;
+import wich.codegen.model.StringType;
+import wich.semantics.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A chain of string + joined in one step; see {@link wich.codegen.StringChains}.
+ *  Parts that aren't strings are their unpromoted ints, floats and vectors.
+ */
+public class StringConcat extends Expr {
+	@ModelElement public List<Expr> parts = new ArrayList<>();
+
+	public StringConcat(String tempVar) {
+		this.type = new StringType();
+		this.varRef = tempVar;
+	}
+
+	/** s, i, f or v for each part; names the kernel that joins them */
+	public String getKinds() {
+		StringBuilder buf = new StringBuilder();
+		for (Expr e : parts) buf.append(kind(e.getType()));
+		return buf.toString();
+	}
+
+	public static char kind(Type type) {
+		if ( type==SymbolTable._int ) return 'i';
+		if ( type==SymbolTable._float ) return 'f';
+		if ( type==SymbolTable._vector ) return 'v';
+		return 's';
+	}
+
+	@Override
+	public Type getType() {
+		return SymbolTable._string;
+	}
+}
@@ -33,6 +33,6 @@ public class StringFromInt extends Expr {
 
 	@Override
 	public Type getType() {
-		return SymbolTable._int;
+		return SymbolTable._string;
 	}
 }
@@ -0,0 +1,257 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.jvm;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/** What classes from wich.codegen.jvm.JVMGenerator call at run time.
+ *  Wich floats are doubles, vectors are double[] indexed from 1 and
+ *  strings are java.lang.String; everything here behaves as the matching
+ *  instruction of wich.vm.VM does, including the error messages, so a
+ *  script prints the same whichever way it runs.
+ *
+ *  This class depends on nothing else in wich so that JVMWriter can copy
+ *  it into a jar beside the script.
+ */
+public class WichRuntime {
+	/** A fatal error in a running script; the message goes to stderr */
+	public static class WichError extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public WichError(String message) {
+			super(message);
+		}
+	}
+
+	public static PrintStream out = System.out;
+
+	/** Entry point of a generated class's main(String[]) */
+	public static void main(Class<?> script) {
+		PrintStream stdout = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1<<16), false);
+		System.exit(run(script, stdout, System.err));
+	}
+
+	/** Run script's top-level statements; return 0 on success or 1 after a
+	 *  runtime error has been reported on err.
+	 */
+	public static int run(Class<?> script, PrintStream out, PrintStream err) {
+		WichRuntime.out = out;
+		try {
+			Method main = script.getMethod("main");
+			main.invoke(null);
+			return 0;
+		}
+		catch (InvocationTargetException e) {
+			out.flush();
+			Throwable cause = e.getCause();
+			if ( cause instanceof WichError ) {
+				err.println(cause.getMessage());
+			}
+			else if ( cause instanceof StackOverflowError ) {
+				err.println("StackOverflow");
+			}
+			else if ( cause instanceof ArithmeticException ) {
+				err.println("ArithmeticException: "+cause.getMessage());
+			}
+			else {
+				throw new RuntimeException(cause);
+			}
+			return 1;
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException(script.getName()+" is not a Wich script", e);
+		}
+		finally {
+			out.flush();
+		}
+	}
+
+	public static void print(int i) {
+		out.print(i);
+		out.print('\n');
+	}
+
+	public static void print(double d) {
+		out.print(toString(d));
+		out.print('\n');
+	}
+
+	public static void print(String s) {
+		out.print(s);
+		out.print('\n');
+	}
+
+	public static void print(double[] v) {
+		out.print('[');
+		for (int i = 0; i<v.length; i++) {
+			if ( i>0 ) out.print(", ");
+			out.print(toString(v[i]));
+		}
+		out.print("]\n");
+	}
+
+	/** Format like printf("%1.2f"), rounding the exact binary value
+	 *  half-even as C does.
+	 */
+	public static String toString(double d) {
+		if ( Double.isNaN(d) ) return "nan";
+		if ( Double.isInfinite(d) ) return d>0 ? "inf" : "-inf";
+		String s = new BigDecimal(d).setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+		if ( (d<0 || (d==0 && 1/d<0)) && s.charAt(0)!='-' ) s = "-"+s;
+		return s;
+	}
+
+	/** Elements as ints, no separator */
+	public static String toString(double[] v) {
+		StringBuilder buf = new StringBuilder();
+		for (double d : v) buf.append((int)d);
+		return buf.toString();
+	}
+
+	public static double get(double[] v, int i) {
+		checkIndex(v, i);
+		return v[i-1];
+	}
+
+	public static void set(double[] v, int i, double d) {
+		checkIndex(v, i);
+		v[i-1] = d;
+	}
+
+	public static String charAt(String s, int i) {
+		if ( i<1 || i>s.length() ) {
+			throw new WichError(String.format("StringIndexOutOfRange: %d out of index : 1 to %d", i, s.length()));
+		}
+		return String.valueOf(s.charAt(i-1));
+	}
+
+	public static double[] copy(double[] v) {
+		return v.clone();
+	}
+
+	public static boolean equals(double[] a, double[] b) {
+		if ( a.length!=b.length ) return false;
+		for (int i = 0; i<a.length; i++) {
+			if ( a[i]!=b[i] ) return false;
+		}
+		return true;
+	}
+
+	public static double[] add(double[] a, double[] b) {
+		checkLength(a, b);
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] + b[i];
+		return r;
+	}
+
+	public static double[] sub(double[] a, double[] b) {
+		checkLength(a, b);
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] - b[i];
+		return r;
+	}
+
+	public static double[] mul(double[] a, double[] b) {
+		checkLength(a, b);
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] * b[i];
+		return r;
+	}
+
+	public static double[] div(double[] a, double[] b) {
+		checkLength(a, b);
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] / b[i];
+		return r;
+	}
+
+	public static double[] add(double[] a, double b) {
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] + b;
+		return r;
+	}
+
+	public static double[] sub(double[] a, double b) {
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] - b;
+		return r;
+	}
+
+	public static double[] mul(double[] a, double b) {
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] * b;
+		return r;
+	}
+
+	public static double[] div(double[] a, double b) {
+		double[] r = new double[a.length];
+		for (int i = 0; i<r.length; i++) r[i] = a[i] / b;
+		return r;
+	}
+
+	// a scalar on the left, as VRSUBF and VRDIVF have it
+
+	public static double[] add(double a, double[] b) {
+		double[] r = new double[b.length];
+		for (int i = 0; i<r.length; i++) r[i] = a + b[i];
+		return r;
+	}
+
+	public static double[] sub(double a, double[] b) {
+		double[] r = new double[b.length];
+		for (int i = 0; i<r.length; i++) r[i] = a - b[i];
+		return r;
+	}
+
+	public static double[] mul(double a, double[] b) {
+		double[] r = new double[b.length];
+		for (int i = 0; i<r.length; i++) r[i] = a * b[i];
+		return r;
+	}
+
+	public static double[] div(double a, double[] b) {
+		double[] r = new double[b.length];
+		for (int i = 0; i<r.length; i++) r[i] = a / b[i];
+		return r;
+	}
+
+	protected static void checkIndex(double[] v, int i) {
+		if ( i<1 || i>v.length ) {
+			throw new WichError(String.format("VectorIndexOutOfRange: %d out of index : 1 to %d", i, v.length));
+		}
+	}
+
+	protected static void checkLength(double[] a, double[] b) {
+		if ( a.length!=b.length ) {
+			throw new WichError(String.format("IncompatibleVectorLength: %d and %d", a.length, b.length));
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.link;
+
+import wich.vm.Bytecodes;
+import wich.vm.FuncInfo;
+import wich.vm.ObjectFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Merge relocatable {@link Module}s into one executable {@link ObjectFile}.
+ *
+ *  Code segments are concatenated in the order given and each defined
+ *  function is rebased to where its module lands. Every import must be
+ *  defined by exactly one module with the same signature, and exactly one
+ *  module must define main. String and vector pools are merged, sharing
+ *  equal constants. Then each module's CALL, SCONST and VCONST operands,
+ *  stack or register form, are rewritten from its own tables to the merged ones.
+ *  Branch offsets are relative so they stay as they are.
+ *
+ *  java wich.link.Linker -o prog.wasm main.wmod lib.wmod ...
+ */
+public class Linker {
+	public static void main(String[] args) throws IOException {
+		String output = null;
+		List<Module> modules = new ArrayList<>();
+		for (int i = 0; i<args.length; i++) {
+			if ( args[i].equals("-o") && i+1<args.length ) output = args[++i];
+			else modules.add(Module.load(args[i]));
+		}
+		if ( output==null || modules.isEmpty() ) {
+			System.out.println("Try: java wich.link.Linker -o <output_file> module.wmod ...");
+			return;
+		}
+		new Linker().link(modules).write(output);
+	}
+
+	public ObjectFile link(List<Module> modules) {
+		// where each function is defined: name -> index in the merged table
+		Map<String, Integer> defined = new HashMap<>();
+		List<FuncInfo> functions = new ArrayList<>();
+		List<int[]> argTypes = new ArrayList<>();
+		List<String> definedIn = new ArrayList<>();
+		int[] base = new int[modules.size()];
+		int size = 0;
+		int ninstr = 0;
+		boolean registers = modules.get(0).registers;
+		for (int m = 0; m<modules.size(); m++) {
+			Module mod = modules.get(m);
+			if ( mod.registers!=registers ) {
+				throw new IllegalArgumentException(mod.name+" is in a different bytecode form than "+modules.get(0).name);
+			}
+			base[m] = size;
+			for (int i = 0; i<mod.functions.length; i++) {
+				FuncInfo f = mod.functions[i];
+				if ( mod.isImported(i) ) continue;
+				Integer other = defined.put(f.name, functions.size());
+				if ( other!=null ) {
+					throw new IllegalArgumentException("duplicate symbol "+f.name+" in "+definedIn.get(other)+" and "+mod.name);
+				}
+				functions.add(new FuncInfo(f.name, size+f.address, f.nargs, f.nlocals, f.maxStack, f.type));
+				argTypes.add(mod.argTypes[i]);
+				definedIn.add(mod.name);
+			}
+			size += mod.code.limit();
+			ninstr += mod.numInstr;
+		}
+		if ( !defined.containsKey("main") ) {
+			throw new IllegalArgumentException("no module defines main");
+		}
+		if ( functions.size()>Short.MAX_VALUE+1 ) {
+			throw new IllegalArgumentException("too many functions to link");
+		}
+
+		Map<String, Integer> pool = new LinkedHashMap<>();
+		Map<String, Integer> vectorIndex = new HashMap<>(); // Arrays.toString() is exact for doubles
+		List<double[]> vectors = new ArrayList<>();
+		ByteBuffer code = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		for (int m = 0; m<modules.size(); m++) {
+			Module mod = modules.get(m);
+			int[] funcMap = new int[mod.functions.length];
+			for (int i = 0; i<mod.functions.length; i++) {
+				FuncInfo f = mod.functions[i];
+				Integer g = defined.get(f.name);
+				if ( g==null ) {
+					throw new IllegalArgumentException("undefined symbol "+f.name+" in "+mod.name);
+				}
+				FuncInfo def = functions.get(g);
+				if ( def.type!=f.type || !Arrays.equals(argTypes.get(g), mod.argTypes[i]) ) {
+					throw new IllegalArgumentException(mod.name+" calls "+f.name+" with a different signature than "+
+													   definedIn.get(g)+" defines");
+				}
+				funcMap[i] = g;
+			}
+			int[] strMap = new int[mod.strings.length];
+			for (int i = 0; i<mod.strings.length; i++) {
+				Integer s = pool.get(mod.strings[i]);
+				if ( s==null ) {
+					s = pool.size();
+					pool.put(mod.strings[i], s);
+				}
+				strMap[i] = s;
+			}
+			if ( pool.size()>Short.MAX_VALUE+1 ) {
+				throw new IllegalArgumentException("too many strings to link");
+			}
+			int[] vecMap = new int[mod.vectors.length];
+			for (int i = 0; i<mod.vectors.length; i++) {
+				String key = Arrays.toString(mod.vectors[i]);
+				Integer v = vectorIndex.get(key);
+				if ( v==null ) {
+					v = vectors.size();
+					vectorIndex.put(key, v);
+					vectors.add(mod.vectors[i]);
+				}
+				vecMap[i] = v;
+			}
+			if ( vectors.size()>Short.MAX_VALUE+1 ) {
+				throw new IllegalArgumentException("too many constant vectors to link");
+			}
+			ByteBuffer c = mod.code.duplicate();
+			c.rewind();
+			code.position(base[m]);
+			code.put(c);
+			relocate(code, base[m], base[m]+mod.code.limit(), funcMap, strMap, vecMap);
+		}
+		code.rewind();
+		ObjectFile obj = new ObjectFile(pool.keySet().toArray(new String[pool.size()]),
+										functions.toArray(new FuncInfo[functions.size()]),
+										code, ninstr);
+		obj.vectors = vectors.toArray(new double[vectors.size()][]);
+		obj.registers = registers;
+		return obj;
+	}
+
+	/** Rewrite the function, string and vector operands between start and
+	 *  end; each is the last operand of its instruction.
+	 */
+	protected void relocate(ByteBuffer code, int start, int end, int[] funcMap, int[] strMap, int[] vecMap) {
+		int ip = start;
+		while ( ip<end ) {
+			int opcode = code.get(ip) & 0xFF;
+			int size = Bytecodes.size(opcode);
+			int[] map = null;
+			switch ( opcode ) {
+				case Bytecodes.CALL :
+				case Bytecodes.CALL_R :
+					map = funcMap;
+					break;
+				case Bytecodes.SCONST :
+				case Bytecodes.SCONST_R :
+					map = strMap;
+					break;
+				case Bytecodes.VCONST :
+				case Bytecodes.VCONST_R :
+					map = vecMap;
+					break;
+			}
+			if ( map!=null ) {
+				int p = ip+size-2;
+				code.putShort(p, (short)map[code.getShort(p)]);
+			}
+			ip += size;
+		}
+	}
+}
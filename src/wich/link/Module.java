@@ -0,0 +1,207 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.link;
+
+import wich.codegen.CompilerUtils;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WArgSymbol;
+import wich.semantics.symbols.WBuiltInTypeSymbol;
+import wich.semantics.symbols.WFunctionSymbol;
+import wich.vm.FuncInfo;
+import wich.vm.ObjectFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/** A relocatable bytecode module from BytecodeWriter.genModule(): an
+ *  object file whose string pool, vector pool and function table are its
+ *  own. SCONST and VCONST operands index its pools and CALL operands its
+ *  functions, some of
+ *  which may be imported, with address -1, from other modules.
+ *  Addresses start at 0. {@link Linker} merges modules into one
+ *  {@link ObjectFile}, rewriting those operands and addresses.
+ *
+ *  The binary file is little-endian:
+ *
+ *  <pre>
+ *  header     magic u4 ("WMOD"), version u2, flags u2 (FLAG_REGISTERS)
+ *  strings    count u4, then count x (length u4, UTF-8 bytes)
+ *  vectors    count u4, then count x (length u4, length x f8)
+ *  functions  count u4, then count x (addr s4, args u2, locals u2, stack u2, type u2,
+ *             argtypes args x u1, name length u2, UTF-8 bytes)
+ *  code       ninstr u4, nbytes u4, then nbytes of opcodes and operands
+ *  </pre>
+ */
+public class Module extends ObjectFile {
+	public static final int MODULE_MAGIC = 'W' | 'M'<<8 | 'O'<<16 | 'D'<<24;
+	public static final short MODULE_VERSION = 7;
+
+	public String name;
+
+	/** VM type of each argument, per function; see CompilerUtils.INT_TYPE... */
+	public int[][] argTypes;
+
+	public Module(String name, String[] strings, FuncInfo[] functions, int[][] argTypes,
+				  ByteBuffer code, int numInstr)
+	{
+		super(strings, functions, code, numInstr);
+		this.name = name;
+		this.argTypes = argTypes;
+	}
+
+	public static Module load(String fileName) throws IOException {
+		return decode(fileName, ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName))));
+	}
+
+	public static Module decode(String name, ByteBuffer buf) {
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		if ( buf.getInt()!=MODULE_MAGIC ) {
+			throw new IllegalArgumentException(name+" is not a Wich module");
+		}
+		int version = buf.getShort();
+		if ( version!=MODULE_VERSION ) {
+			throw new IllegalArgumentException(name+" has unsupported module version "+version);
+		}
+		int flags = buf.getShort();
+
+		String[] strings = new String[buf.getInt()];
+		for (int i = 0; i<strings.length; i++) {
+			strings[i] = getString(buf, buf.getInt());
+		}
+		double[][] vectors = getVectors(buf);
+
+		FuncInfo[] functions = new FuncInfo[buf.getInt()];
+		int[][] argTypes = new int[functions.length][];
+		for (int i = 0; i<functions.length; i++) {
+			int addr = buf.getInt();
+			int args = buf.getShort();
+			int locals = buf.getShort();
+			int stack = buf.getShort();
+			int type = buf.getShort();
+			argTypes[i] = new int[args];
+			for (int k = 0; k<args; k++) argTypes[i][k] = buf.get();
+			functions[i] = new FuncInfo(getString(buf, buf.getShort()), addr, args, locals, stack, type);
+		}
+
+		int ninstr = buf.getInt();
+		int nbytes = buf.getInt();
+		buf.limit(buf.position()+nbytes);
+		ByteBuffer code = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+		Module m = new Module(name, strings, functions, argTypes, code, ninstr);
+		m.vectors = vectors;
+		m.registers = (flags & FLAG_REGISTERS)!=0;
+		return m;
+	}
+
+	@Override
+	public ByteBuffer encode() {
+		byte[][] pool = new byte[strings.length][];
+		byte[][] names = new byte[functions.length][];
+		int size = HEADER_SIZE + 4 + 4 + 4 + 8 + code.limit();
+		for (double[] v : vectors) size += 4 + v.length*8;
+		for (int i = 0; i<strings.length; i++) {
+			pool[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+			size += 4 + pool[i].length;
+		}
+		for (int i = 0; i<functions.length; i++) {
+			names[i] = functions[i].name.getBytes(StandardCharsets.UTF_8);
+			size += FUNC_RECORD_SIZE + argTypes[i].length + names[i].length;
+		}
+		ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MODULE_MAGIC);
+		buf.putShort(MODULE_VERSION);
+		buf.putShort(registers ? FLAG_REGISTERS : 0);
+		buf.putInt(pool.length);
+		for (byte[] s : pool) {
+			buf.putInt(s.length);
+			buf.put(s);
+		}
+		putVectors(buf, vectors);
+		buf.putInt(functions.length);
+		for (int i = 0; i<functions.length; i++) {
+			FuncInfo f = functions[i];
+			buf.putInt(f.address);
+			buf.putShort((short)f.nargs);
+			buf.putShort((short)f.nlocals);
+			buf.putShort((short)f.maxStack);
+			buf.putShort((short)f.type);
+			for (int t : argTypes[i]) buf.put((byte)t);
+			buf.putShort((short)names[i].length);
+			buf.put(names[i]);
+		}
+		buf.putInt(numInstr);
+		buf.putInt(code.limit());
+		ByteBuffer c = code.duplicate();
+		c.rewind();
+		buf.put(c);
+		return buf;
+	}
+
+	public boolean isImported(int f) {
+		return functions[f].address<0;
+	}
+
+	/** Define the functions this module exports in symtab's global scope,
+	 *  before the symbols of a script compiled against it, so the script
+	 *  can call them. The script's module then imports them.
+	 */
+	public void declare(SymbolTable symtab) {
+		for (int i = 0; i<functions.length; i++) {
+			FuncInfo f = functions[i];
+			if ( isImported(i) || f.name.equals("main") ) continue;
+			WFunctionSymbol fs = new WFunctionSymbol(f.name);
+			fs.setType(type(f.type));
+			fs.setEnclosingScope(symtab.GLOBALS);
+			for (int k = 0; k<argTypes[i].length; k++) {
+				WArgSymbol arg = new WArgSymbol("arg"+k);
+				arg.setType(type(argTypes[i][k]));
+				fs.define(arg);
+				fs.argTypes.add(type(argTypes[i][k]));
+			}
+			symtab.defineFunction(fs);
+		}
+	}
+
+	public static WBuiltInTypeSymbol type(int vmType) {
+		switch ( vmType ) {
+			case CompilerUtils.VOID_TYPE : return SymbolTable._void;
+			case CompilerUtils.INT_TYPE : return SymbolTable._int;
+			case CompilerUtils.FLOAT_TYPE : return SymbolTable._float;
+			case CompilerUtils.BOOLEAN_TYPE : return SymbolTable._boolean;
+			case CompilerUtils.STRING_TYPE : return SymbolTable._string;
+			case CompilerUtils.VECTOR_TYPE : return SymbolTable._vector;
+			default : throw new IllegalArgumentException("no type "+vmType);
+		}
+	}
+
+	protected static String getString(ByteBuffer buf, int length) {
+		byte[] bytes = new byte[length];
+		buf.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -98,7 +98,7 @@ public class DefineSymbols extends CommonWichListener {
 				else error(ctx.ID().getSymbol(), INVALID_TYPE, f.getName());
 			}
 			ctx.scope = f;
-			currentScope.define(f);
+			symtab.defineFunction(f);
 			pushScope(f);
 		}
 	}
@@ -124,6 +124,11 @@ public class DefineSymbols extends CommonWichListener {
 		popScope();
 	}
 
+	@Override
+	public void enterString(@NotNull WichParser.StringContext ctx) {
+		symtab.defineStringLiteral(ctx.STRING().getText());
+	}
+
 	@Override
 	public void enterScript(@NotNull WichParser.ScriptContext ctx) {
 		ctx.scope = symtab.getGlobalScope();
@@ -41,9 +41,18 @@ public class SymbolTable {
 	public GlobalScope GLOBALS = new GlobalScope(PREDEFINED);
 	public static final Type INVALID_TYPE = new InvalidType();
 
-	public HashMap<String,Integer> strings = new HashMap<>();
+	/** String literal (with its quotes) -> index, in index order */
+	public LinkedHashMap<String,Integer> strings = new LinkedHashMap<>();
 	private int strIndex = -1;
 
+	/** Constant vector literals, promoted to double, each at its index */
+	public List<double[]> vectors = new ArrayList<>();
+	protected final Map<String,Integer> vectorIndexes = new HashMap<>();
+
+	/** Functions in definition order; a function's index is its position */
+	protected final List<WFunctionSymbol> functions = new ArrayList<>();
+	protected final LinkedHashMap<String,WFunctionSymbol> functionsByName = new LinkedHashMap<>();
+
 	public static final WInt _int = new WInt();
 	public static final WFloat _float = new WFloat();
 	public static final WString _string = new WString();
@@ -82,53 +91,43 @@ public class SymbolTable {
 	}
 
 
-	public LinkedHashMap sortHashMapByValues(HashMap map) {
-		List mapKeys = new ArrayList(map.keySet());
-		List mapValues = new ArrayList(map.values());
-		Collections.sort(mapValues);
-		Collections.sort(mapKeys);
-
-		LinkedHashMap sortedMap = new LinkedHashMap();
-
-		Iterator valueIt = mapValues.iterator();
-		while (valueIt.hasNext()) {
-			Object val = valueIt.next();
-			Iterator keyIt = mapKeys.iterator();
-
-			while (keyIt.hasNext()) {
-				Object key = keyIt.next();
-				Object keyVal = map.get(key);
-				if (keyVal == val) {
-					sortedMap.put(key, keyVal);
-				}
-			}
+	/** The string literals, each at its index */
+	public List<String> getStringLiterals() {
+		return new ArrayList<>(strings.keySet());
+	}
 
+	/** Pool a constant vector literal, sharing the slot of an identical one */
+	public int defineVectorLiteral(double[] v) {
+		String key = Arrays.toString(v);
+		Integer i = vectorIndexes.get(key);
+		if ( i==null ) {
+			i = vectors.size();
+			vectors.add(v);
+			vectorIndexes.put(key, i);
 		}
-		return sortedMap;
+		return i;
 	}
 
+	/** Define f in the global scope and give it the next function index */
+	public void defineFunction(WFunctionSymbol f) {
+		GLOBALS.define(f);
+		f.index = functions.size();
+		functions.add(f);
+		functionsByName.put(f.getName(), f);
+	}
 
-	public HashMap<String,WFunctionSymbol> getfunctions() {
-		HashMap<String,WFunctionSymbol> functions = new HashMap<>();
-		for (Symbol s :GLOBALS.getAllSymbols()) {
-			if(s instanceof WFunctionSymbol) {
-				functions.put(s.getName(),(WFunctionSymbol)s);
-			}
-		}
-		return functions;
+	/** Name -> function, in index order */
+	public Map<String,WFunctionSymbol> getfunctions() {
+		return Collections.unmodifiableMap(functionsByName);
+	}
+
+	public WFunctionSymbol getFunction(int index) {
+		return functions.get(index);
 	}
 
 	public int computerFuncIndex(String name) {
-		int i = -1;
-		for (Symbol v :GLOBALS.getSymbols()) {
-			if(v instanceof WFunctionSymbol){
-				i++;
-				if (v.getName().equals(name)){
-					return i;
-				}
-			}
-		}
-		return i;
+		WFunctionSymbol f = functionsByName.get(name);
+		return f!=null ? f.index : -1;
 	}
 
 	public static String dump(Scope s) {
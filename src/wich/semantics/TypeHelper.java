@@ -347,6 +347,44 @@ public class TypeHelper {
 		return sb;
 	}
 
+	/** The elements of a vector literal promoted to double at compile time,
+	 *  or null unless every element is a number literal, possibly negated
+	 *  or parenthesized. Set singlePrecision to round float literals the
+	 *  way FCONST does so the bytecode targets print what they always have.
+	 */
+	public static double[] constantVector(WichParser.VectorContext ctx, boolean singlePrecision) {
+		List<ExprContext> elems = ctx.expr_list().expr();
+		double[] values = new double[elems.size()];
+		for (int i = 0; i<values.length; i++) {
+			Double v = constantNumber(elems.get(i), singlePrecision);
+			if ( v==null ) return null;
+			values[i] = v;
+		}
+		return values;
+	}
+
+	protected static Double constantNumber(ExprContext e, boolean singlePrecision) {
+		if ( e instanceof WichParser.ParensContext ) {
+			return constantNumber(((WichParser.ParensContext)e).expr(), singlePrecision);
+		}
+		if ( e instanceof WichParser.NegateContext ) {
+			Double v = constantNumber(((WichParser.NegateContext)e).expr(), singlePrecision);
+			if ( v==null ) return null;
+			return e.exprType==_int ? 0-v : -v; // int negation never yields -0
+
+		}
+		if ( !(e instanceof WichParser.AtomContext) ) return null;
+		WichParser.PrimaryContext p = ((WichParser.AtomContext)e).primary();
+		if ( p instanceof WichParser.IntegerContext ) {
+			return (double)Integer.parseInt(p.getText());
+		}
+		if ( p instanceof WichParser.FloatContext ) {
+			String text = p.getText();
+			return singlePrecision ? (double)Float.parseFloat(text) : Double.parseDouble(text);
+		}
+		return null;
+	}
+
 	public static boolean typesAreCompatible(ExprContext elem, Type type) {
 		return elem.exprType == type || elem.promoteToType == type;
 	}
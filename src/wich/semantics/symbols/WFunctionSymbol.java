@@ -29,7 +29,10 @@ import java.util.ArrayList;
 
 public class WFunctionSymbol extends FunctionSymbol {
 	public WBlock block; // code block of the function
+	public int index = -1; // position in the function table, set by SymbolTable.defineFunction()
 	public int address;
+	public int maxStack; // operand stack depth, set by BytecodeWriter
+	public int nslots = -1; // args and locals in the frame, set by FrameLayout
 	public ArrayList<WBuiltInTypeSymbol> argTypes = new ArrayList<>();
 
 	protected int tempVarNum = 0;
@@ -59,6 +62,7 @@ public class WFunctionSymbol extends FunctionSymbol {
 	}
 
 	public int nlocals() {
+		if ( nslots>=0 ) return nslots-nargs();
 		int num = getSymbols().size()-nargs();
 		if (block != null) {
 			num += block.getSymbols().size();
@@ -28,6 +28,8 @@ import org.antlr.symtab.VariableSymbol;
 import wich.semantics.SymbolTable;
 
 public class WVariableSymbol extends VariableSymbol {
+	public int slot = -1; // frame slot, set by FrameLayout
+	public int rootSlot = -1; // gc root slot shared with vars of disjoint scope, set by InjectGCRoots
 
 	public WVariableSymbol(String name) {
 		super(name);
@@ -0,0 +1,572 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.vm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Opcode numbering and operand layout of the Wich bytecode as the VM sees it.
+ *  {@link wich.codegen.bytecode.Opcode} takes its sizes from here: a bare
+ *  opcode is one byte, a slot/index/branch operand is a 2 byte short,
+ *  ICONST carries a 4 byte int and FCONST an 8 byte double. Operands are
+ *  little-endian. Branch offsets are relative to the first byte of the
+ *  branch instruction.
+ *
+ *  HALT through COPY_VECTOR are the baseline set that wrun also runs.
+ *  DUP and everything after it are extensions BytecodeWriter emits only
+ *  for the in-tree VMs.
+ *
+ *  The superinstructions after DUP each replace a common sequence: BR_xxx
+ *  pops b and a and branches if a xxx b, standing in for the opposite
+ *  comparison followed by BRF (so the float forms branch on NaN just as
+ *  FLE;BRF would for BR_FGT); VLOAD_LOCAL_INDEX v i is VLOAD v; ILOAD i;
+ *  VLOAD_INDEX; IINC i k is ILOAD i; ICONST k; IADD; STORE i. The last two
+ *  carry two short operands. BRT, the complement of BRF, pops a value and
+ *  branches if it is nonzero; && and || compile to it. VCONST i pushes a
+ *  fresh copy of vector i of the object file's constant vector pool.
+ *  VADD_INPLACE and the other _INPLACE ops pop b and a and store a op b
+ *  into a's own elements, pushing nothing; VADD_INPLACE_R a b does the
+ *  same to slot a. They are for a vector nothing else can reach.
+ *  SCONCAT n pops n strings and pushes them joined, first pushed first;
+ *  SCONCAT_R d a n joins the n strings in slots a, a+1, ... into slot d.
+ *  PRINTN n kinds pops n values and prints them, first pushed first, as
+ *  their conversion to string would read, then a newline; the PART_xxx
+ *  kind of each is in kinds. PRINTN_R a n kinds prints slots a, a+1, ...
+ *  the same way. print of a string + chain compiles to them so the
+ *  string is never built. VRSUBF and VRDIVF pop vector b and float a and
+ *  push a - b and a / b element by element, for a scalar on the left of
+ *  - or /; VSUBF and the other scalar ops put the vector first.
+ *
+ *  The _R instructions from FIRST_REGISTER_OPCODE on make up the register
+ *  form generated for BYTECODE_REG and run by {@link RegisterVM}. Their
+ *  operands name frame slots directly: IADD_R d a b is slot[d] = slot[a] +
+ *  slot[b]. An object file uses one form or the other, plus BR, RET
+ *  (for void functions) and HALT, which both share. Opcodes go past 127
+ *  so read them as unsigned bytes.
+ */
+public class Bytecodes {
+	public static final int OPERAND_NONE   = 0;
+	public static final int OPERAND_SHORT  = 1;
+	public static final int OPERAND_INT    = 2;
+	public static final int OPERAND_FLOAT  = 3;
+	public static final int OPERAND_SHORT2 = 4;
+	public static final int OPERAND_REG = 5;
+	public static final int OPERAND_REG2 = 6;
+	public static final int OPERAND_REG3 = 7;
+	public static final int OPERAND_REG_INT = 8;
+	public static final int OPERAND_REG_FLOAT = 9;
+	public static final int OPERAND_REG_SHORT = 10;
+	public static final int OPERAND_REG2_SHORT = 11;
+	public static final int OPERAND_DOUBLE = 12;
+	public static final int OPERAND_SHORT_INT = 13;
+	public static final int OPERAND_REG_SHORT_INT = 14;
+
+	/** Operands of each OPERAND_xxx in order: 's' short, 'i' int, 'f' float,
+	 *  'd' double, 'r' register (frame slot, a short). A branch offset is
+	 *  always the last operand.
+	 */
+	public static final String[] layouts = {"", "s", "i", "f", "ss", "r", "rr", "rrr", "ri", "rf", "rs", "rrs", "d", "si", "rsi"};
+
+	/** PRINTN part kinds, 2 bits per part in its kinds operand, first part lowest */
+	public static final int PART_INT    = 0;
+	public static final int PART_FLOAT  = 1;
+	public static final int PART_STRING = 2;
+	public static final int PART_VECTOR = 3;
+	public static final int MAX_PRINT_PARTS = 16;
+
+	public static final short HALT				= 0;
+	public static final short IADD				= 1;
+	public static final short ISUB				= 2;
+	public static final short IMUL				= 3;
+	public static final short IDIV				= 4;
+	public static final short FADD				= 5;
+	public static final short FSUB				= 6;
+	public static final short FMUL				= 7;
+	public static final short FDIV				= 8;
+	public static final short VADD				= 9;
+	public static final short VSUB				= 10;
+	public static final short VMUL				= 11;
+	public static final short VDIV				= 12;
+	public static final short SADD				= 13;
+	public static final short VADDI				= 14;
+	public static final short VADDF				= 15;
+	public static final short VSUBI				= 16;
+	public static final short VSUBF				= 17;
+	public static final short VMULI				= 18;
+	public static final short VMULF				= 19;
+	public static final short VDIVI				= 20;
+	public static final short VDIVF				= 21;
+	public static final short OR				= 22;
+	public static final short AND				= 23;
+	public static final short INEG				= 24;
+	public static final short FNEG				= 25;
+	public static final short NOT				= 26;
+	public static final short I2F				= 27;
+	public static final short I2S				= 28;
+	public static final short F2S				= 29;
+	public static final short V2S				= 30;
+	public static final short IEQ				= 31;
+	public static final short INEQ				= 32;
+	public static final short ILT				= 33;
+	public static final short ILE				= 34;
+	public static final short IGT				= 35;
+	public static final short IGE				= 36;
+	public static final short FEQ				= 37;
+	public static final short FNEQ				= 38;
+	public static final short FLT				= 39;
+	public static final short FLE				= 40;
+	public static final short FGT				= 41;
+	public static final short FGE				= 42;
+	public static final short VEQ				= 43;
+	public static final short VNEQ				= 44;
+	public static final short SEQ				= 45;
+	public static final short SNEQ				= 46;
+	public static final short SLT				= 47;
+	public static final short SLE				= 48;
+	public static final short SGT				= 49;
+	public static final short SGE				= 50;
+	public static final short BR				= 51;
+	public static final short BRF				= 52;
+	public static final short ICONST			= 53;
+	public static final short FCONST			= 54;
+	public static final short SCONST			= 55;
+	public static final short ILOAD				= 56;
+	public static final short FLOAD				= 57;
+	public static final short VLOAD				= 58;
+	public static final short SLOAD				= 59;
+	public static final short STORE				= 60;
+	public static final short VECTOR			= 61;
+	public static final short SLOAD_INDEX		= 62;
+	public static final short VLOAD_INDEX		= 63;
+	public static final short STORE_INDEX		= 64;
+	public static final short PUSH_DFLT_RETV	= 65;
+	public static final short POP				= 66;
+	public static final short CALL				= 67;
+	public static final short RET				= 68;
+	public static final short IPRINT			= 69;
+	public static final short FPRINT			= 70;
+	public static final short BPRINT			= 71;
+	public static final short SPRINT			= 72;
+	public static final short VPRINT			= 73;
+	public static final short NOP				= 74;
+	public static final short VLEN				= 75;
+	public static final short SLEN				= 76;
+	public static final short GC_START			= 77;
+	public static final short GC_END			= 78;
+	public static final short SROOT				= 79;
+	public static final short VROOT				= 80;
+	public static final short COPY_VECTOR		= 81;
+	public static final short DUP				= 82;
+	public static final short BR_IEQ			= 83;
+	public static final short BR_INEQ			= 84;
+	public static final short BR_ILT			= 85;
+	public static final short BR_ILE			= 86;
+	public static final short BR_IGT			= 87;
+	public static final short BR_IGE			= 88;
+	public static final short BR_FEQ			= 89;
+	public static final short BR_FNEQ			= 90;
+	public static final short BR_FLT			= 91;
+	public static final short BR_FLE			= 92;
+	public static final short BR_FGT			= 93;
+	public static final short BR_FGE			= 94;
+	public static final short VLOAD_LOCAL_INDEX	= 95;
+	public static final short IINC				= 96;
+	public static final short BRT				= 97;
+	public static final short VCONST			= 98;
+	public static final short VADD_INPLACE		= 99;
+	public static final short VSUB_INPLACE		= 100;
+	public static final short VMUL_INPLACE		= 101;
+	public static final short VDIV_INPLACE		= 102;
+	public static final short SCONCAT			= 103;
+	public static final short PRINTN			= 104;
+	public static final short VRSUBF			= 105;
+	public static final short VRDIVF			= 106;
+
+	// register instructions for BYTECODE_REG
+	public static final short IADD_R			= 107;
+	public static final short ISUB_R			= 108;
+	public static final short IMUL_R			= 109;
+	public static final short IDIV_R			= 110;
+	public static final short FADD_R			= 111;
+	public static final short FSUB_R			= 112;
+	public static final short FMUL_R			= 113;
+	public static final short FDIV_R			= 114;
+	public static final short VADD_R			= 115;
+	public static final short VSUB_R			= 116;
+	public static final short VMUL_R			= 117;
+	public static final short VDIV_R			= 118;
+	public static final short SADD_R			= 119;
+	public static final short VADDI_R			= 120;
+	public static final short VADDF_R			= 121;
+	public static final short VSUBI_R			= 122;
+	public static final short VSUBF_R			= 123;
+	public static final short VMULI_R			= 124;
+	public static final short VMULF_R			= 125;
+	public static final short VDIVI_R			= 126;
+	public static final short VDIVF_R			= 127;
+	public static final short OR_R				= 128;
+	public static final short AND_R				= 129;
+	public static final short IEQ_R				= 130;
+	public static final short INEQ_R			= 131;
+	public static final short ILT_R				= 132;
+	public static final short ILE_R				= 133;
+	public static final short IGT_R				= 134;
+	public static final short IGE_R				= 135;
+	public static final short FEQ_R				= 136;
+	public static final short FNEQ_R			= 137;
+	public static final short FLT_R				= 138;
+	public static final short FLE_R				= 139;
+	public static final short FGT_R				= 140;
+	public static final short FGE_R				= 141;
+	public static final short VEQ_R				= 142;
+	public static final short VNEQ_R			= 143;
+	public static final short SEQ_R				= 144;
+	public static final short SNEQ_R			= 145;
+	public static final short SLT_R				= 146;
+	public static final short SLE_R				= 147;
+	public static final short SGT_R				= 148;
+	public static final short SGE_R				= 149;
+	public static final short VLOAD_INDEX_R		= 150;
+	public static final short SLOAD_INDEX_R		= 151;
+	public static final short STORE_INDEX_R		= 152;
+	public static final short MOVE_R			= 153;
+	public static final short INEG_R			= 154;
+	public static final short FNEG_R			= 155;
+	public static final short NOT_R				= 156;
+	public static final short I2F_R				= 157;
+	public static final short I2S_R				= 158;
+	public static final short F2S_R				= 159;
+	public static final short V2S_R				= 160;
+	public static final short VLEN_R			= 161;
+	public static final short SLEN_R			= 162;
+	public static final short COPY_VECTOR_R		= 163;
+	public static final short IPRINT_R			= 164;
+	public static final short FPRINT_R			= 165;
+	public static final short BPRINT_R			= 166;
+	public static final short SPRINT_R			= 167;
+	public static final short VPRINT_R			= 168;
+	public static final short RET_R				= 169;
+	public static final short DFLT_R			= 170;
+	public static final short ICONST_R			= 171;
+	public static final short FCONST_R			= 172;
+	public static final short SCONST_R			= 173;
+	public static final short BRF_R				= 174;
+	public static final short BRT_R				= 175;
+	public static final short IADDI_R			= 176;
+	public static final short CALL_R			= 177;
+	public static final short VECTOR_R			= 178;
+	public static final short BR_IEQ_R			= 179;
+	public static final short BR_INEQ_R			= 180;
+	public static final short BR_ILT_R			= 181;
+	public static final short BR_ILE_R			= 182;
+	public static final short BR_IGT_R			= 183;
+	public static final short BR_IGE_R			= 184;
+	public static final short BR_FEQ_R			= 185;
+	public static final short BR_FNEQ_R			= 186;
+	public static final short BR_FLT_R			= 187;
+	public static final short BR_FLE_R			= 188;
+	public static final short BR_FGT_R			= 189;
+	public static final short BR_FGE_R			= 190;
+	public static final short BR_FNLT_R			= 191;
+	public static final short BR_FNLE_R			= 192;
+	public static final short BR_FNGT_R			= 193;
+	public static final short BR_FNGE_R			= 194;
+	public static final short VCONST_R			= 195;
+	public static final short VADD_INPLACE_R	= 196;
+	public static final short VSUB_INPLACE_R	= 197;
+	public static final short VMUL_INPLACE_R	= 198;
+	public static final short VDIV_INPLACE_R	= 199;
+	public static final short SCONCAT_R			= 200;
+	public static final short PRINTN_R			= 201;
+	public static final short VRSUBF_R			= 202;
+	public static final short VRDIVF_R			= 203;
+
+	public static final short FIRST_REGISTER_OPCODE = IADD_R;
+
+	public static final int NUM_OPCODES = 204;
+
+	/** Indexed by opcode */
+	public static final String[] names = new String[NUM_OPCODES];
+	public static final int[] operandType = new int[NUM_OPCODES];
+
+	protected static final Map<String,Short> opcodes = new HashMap<>();
+
+	static {
+		def(HALT, "HALT");
+		def(IADD, "IADD");
+		def(ISUB, "ISUB");
+		def(IMUL, "IMUL");
+		def(IDIV, "IDIV");
+		def(FADD, "FADD");
+		def(FSUB, "FSUB");
+		def(FMUL, "FMUL");
+		def(FDIV, "FDIV");
+		def(VADD, "VADD");
+		def(VSUB, "VSUB");
+		def(VMUL, "VMUL");
+		def(VDIV, "VDIV");
+		def(SADD, "SADD");
+		def(VADDI, "VADDI");
+		def(VADDF, "VADDF");
+		def(VSUBI, "VSUBI");
+		def(VSUBF, "VSUBF");
+		def(VMULI, "VMULI");
+		def(VMULF, "VMULF");
+		def(VDIVI, "VDIVI");
+		def(VDIVF, "VDIVF");
+		def(OR, "OR");
+		def(AND, "AND");
+		def(INEG, "INEG");
+		def(FNEG, "FNEG");
+		def(NOT, "NOT");
+		def(I2F, "I2F");
+		def(I2S, "I2S");
+		def(F2S, "F2S");
+		def(V2S, "V2S");
+		def(IEQ, "IEQ");
+		def(INEQ, "INEQ");
+		def(ILT, "ILT");
+		def(ILE, "ILE");
+		def(IGT, "IGT");
+		def(IGE, "IGE");
+		def(FEQ, "FEQ");
+		def(FNEQ, "FNEQ");
+		def(FLT, "FLT");
+		def(FLE, "FLE");
+		def(FGT, "FGT");
+		def(FGE, "FGE");
+		def(VEQ, "VEQ");
+		def(VNEQ, "VNEQ");
+		def(SEQ, "SEQ");
+		def(SNEQ, "SNEQ");
+		def(SLT, "SLT");
+		def(SLE, "SLE");
+		def(SGT, "SGT");
+		def(SGE, "SGE");
+		def(BR, "BR", OPERAND_SHORT);
+		def(BRF, "BRF", OPERAND_SHORT);
+		def(ICONST, "ICONST", OPERAND_INT);
+		def(FCONST, "FCONST", OPERAND_DOUBLE);
+		def(SCONST, "SCONST", OPERAND_SHORT);
+		def(ILOAD, "ILOAD", OPERAND_SHORT);
+		def(FLOAD, "FLOAD", OPERAND_SHORT);
+		def(VLOAD, "VLOAD", OPERAND_SHORT);
+		def(SLOAD, "SLOAD", OPERAND_SHORT);
+		def(STORE, "STORE", OPERAND_SHORT);
+		def(VECTOR, "VECTOR");
+		def(SLOAD_INDEX, "SLOAD_INDEX");
+		def(VLOAD_INDEX, "VLOAD_INDEX");
+		def(STORE_INDEX, "STORE_INDEX");
+		def(PUSH_DFLT_RETV, "PUSH_DFLT_RETV");
+		def(POP, "POP");
+		def(CALL, "CALL", OPERAND_SHORT);
+		def(RET, "RET");
+		def(IPRINT, "IPRINT");
+		def(FPRINT, "FPRINT");
+		def(BPRINT, "BPRINT");
+		def(SPRINT, "SPRINT");
+		def(VPRINT, "VPRINT");
+		def(NOP, "NOP");
+		def(VLEN, "VLEN");
+		def(SLEN, "SLEN");
+		def(GC_START, "GC_START");
+		def(GC_END, "GC_END");
+		def(SROOT, "SROOT");
+		def(VROOT, "VROOT");
+		def(COPY_VECTOR, "COPY_VECTOR");
+		def(DUP, "DUP");
+		def(BR_IEQ, "BR_IEQ", OPERAND_SHORT);
+		def(BR_INEQ, "BR_INEQ", OPERAND_SHORT);
+		def(BR_ILT, "BR_ILT", OPERAND_SHORT);
+		def(BR_ILE, "BR_ILE", OPERAND_SHORT);
+		def(BR_IGT, "BR_IGT", OPERAND_SHORT);
+		def(BR_IGE, "BR_IGE", OPERAND_SHORT);
+		def(BR_FEQ, "BR_FEQ", OPERAND_SHORT);
+		def(BR_FNEQ, "BR_FNEQ", OPERAND_SHORT);
+		def(BR_FLT, "BR_FLT", OPERAND_SHORT);
+		def(BR_FLE, "BR_FLE", OPERAND_SHORT);
+		def(BR_FGT, "BR_FGT", OPERAND_SHORT);
+		def(BR_FGE, "BR_FGE", OPERAND_SHORT);
+		def(VLOAD_LOCAL_INDEX, "VLOAD_LOCAL_INDEX", OPERAND_SHORT2);
+		def(IINC, "IINC", OPERAND_SHORT2);
+		def(BRT, "BRT", OPERAND_SHORT);
+		def(VCONST, "VCONST", OPERAND_SHORT);
+		def(VADD_INPLACE, "VADD_INPLACE");
+		def(VSUB_INPLACE, "VSUB_INPLACE");
+		def(VMUL_INPLACE, "VMUL_INPLACE");
+		def(VDIV_INPLACE, "VDIV_INPLACE");
+		def(SCONCAT, "SCONCAT", OPERAND_SHORT);
+		def(PRINTN, "PRINTN", OPERAND_SHORT_INT);
+		def(VRSUBF, "VRSUBF");
+		def(VRDIVF, "VRDIVF");
+		def(IADD_R, "IADD_R", OPERAND_REG3);
+		def(ISUB_R, "ISUB_R", OPERAND_REG3);
+		def(IMUL_R, "IMUL_R", OPERAND_REG3);
+		def(IDIV_R, "IDIV_R", OPERAND_REG3);
+		def(FADD_R, "FADD_R", OPERAND_REG3);
+		def(FSUB_R, "FSUB_R", OPERAND_REG3);
+		def(FMUL_R, "FMUL_R", OPERAND_REG3);
+		def(FDIV_R, "FDIV_R", OPERAND_REG3);
+		def(VADD_R, "VADD_R", OPERAND_REG3);
+		def(VSUB_R, "VSUB_R", OPERAND_REG3);
+		def(VMUL_R, "VMUL_R", OPERAND_REG3);
+		def(VDIV_R, "VDIV_R", OPERAND_REG3);
+		def(SADD_R, "SADD_R", OPERAND_REG3);
+		def(VADDI_R, "VADDI_R", OPERAND_REG3);
+		def(VADDF_R, "VADDF_R", OPERAND_REG3);
+		def(VSUBI_R, "VSUBI_R", OPERAND_REG3);
+		def(VSUBF_R, "VSUBF_R", OPERAND_REG3);
+		def(VMULI_R, "VMULI_R", OPERAND_REG3);
+		def(VMULF_R, "VMULF_R", OPERAND_REG3);
+		def(VDIVI_R, "VDIVI_R", OPERAND_REG3);
+		def(VDIVF_R, "VDIVF_R", OPERAND_REG3);
+		def(OR_R, "OR_R", OPERAND_REG3);
+		def(AND_R, "AND_R", OPERAND_REG3);
+		def(IEQ_R, "IEQ_R", OPERAND_REG3);
+		def(INEQ_R, "INEQ_R", OPERAND_REG3);
+		def(ILT_R, "ILT_R", OPERAND_REG3);
+		def(ILE_R, "ILE_R", OPERAND_REG3);
+		def(IGT_R, "IGT_R", OPERAND_REG3);
+		def(IGE_R, "IGE_R", OPERAND_REG3);
+		def(FEQ_R, "FEQ_R", OPERAND_REG3);
+		def(FNEQ_R, "FNEQ_R", OPERAND_REG3);
+		def(FLT_R, "FLT_R", OPERAND_REG3);
+		def(FLE_R, "FLE_R", OPERAND_REG3);
+		def(FGT_R, "FGT_R", OPERAND_REG3);
+		def(FGE_R, "FGE_R", OPERAND_REG3);
+		def(VEQ_R, "VEQ_R", OPERAND_REG3);
+		def(VNEQ_R, "VNEQ_R", OPERAND_REG3);
+		def(SEQ_R, "SEQ_R", OPERAND_REG3);
+		def(SNEQ_R, "SNEQ_R", OPERAND_REG3);
+		def(SLT_R, "SLT_R", OPERAND_REG3);
+		def(SLE_R, "SLE_R", OPERAND_REG3);
+		def(SGT_R, "SGT_R", OPERAND_REG3);
+		def(SGE_R, "SGE_R", OPERAND_REG3);
+		def(VLOAD_INDEX_R, "VLOAD_INDEX_R", OPERAND_REG3);
+		def(SLOAD_INDEX_R, "SLOAD_INDEX_R", OPERAND_REG3);
+		def(STORE_INDEX_R, "STORE_INDEX_R", OPERAND_REG3);
+		def(MOVE_R, "MOVE_R", OPERAND_REG2);
+		def(INEG_R, "INEG_R", OPERAND_REG2);
+		def(FNEG_R, "FNEG_R", OPERAND_REG2);
+		def(NOT_R, "NOT_R", OPERAND_REG2);
+		def(I2F_R, "I2F_R", OPERAND_REG2);
+		def(I2S_R, "I2S_R", OPERAND_REG2);
+		def(F2S_R, "F2S_R", OPERAND_REG2);
+		def(V2S_R, "V2S_R", OPERAND_REG2);
+		def(VLEN_R, "VLEN_R", OPERAND_REG2);
+		def(SLEN_R, "SLEN_R", OPERAND_REG2);
+		def(COPY_VECTOR_R, "COPY_VECTOR_R", OPERAND_REG2);
+		def(IPRINT_R, "IPRINT_R", OPERAND_REG);
+		def(FPRINT_R, "FPRINT_R", OPERAND_REG);
+		def(BPRINT_R, "BPRINT_R", OPERAND_REG);
+		def(SPRINT_R, "SPRINT_R", OPERAND_REG);
+		def(VPRINT_R, "VPRINT_R", OPERAND_REG);
+		def(RET_R, "RET_R", OPERAND_REG);
+		def(DFLT_R, "DFLT_R", OPERAND_REG);
+		def(ICONST_R, "ICONST_R", OPERAND_REG_INT);
+		def(FCONST_R, "FCONST_R", OPERAND_REG_FLOAT);
+		def(SCONST_R, "SCONST_R", OPERAND_REG_SHORT);
+		def(BRF_R, "BRF_R", OPERAND_REG_SHORT);
+		def(BRT_R, "BRT_R", OPERAND_REG_SHORT);
+		def(IADDI_R, "IADDI_R", OPERAND_REG2_SHORT);
+		def(CALL_R, "CALL_R", OPERAND_REG2_SHORT);
+		def(VECTOR_R, "VECTOR_R", OPERAND_REG2_SHORT);
+		def(BR_IEQ_R, "BR_IEQ_R", OPERAND_REG2_SHORT);
+		def(BR_INEQ_R, "BR_INEQ_R", OPERAND_REG2_SHORT);
+		def(BR_ILT_R, "BR_ILT_R", OPERAND_REG2_SHORT);
+		def(BR_ILE_R, "BR_ILE_R", OPERAND_REG2_SHORT);
+		def(BR_IGT_R, "BR_IGT_R", OPERAND_REG2_SHORT);
+		def(BR_IGE_R, "BR_IGE_R", OPERAND_REG2_SHORT);
+		def(BR_FEQ_R, "BR_FEQ_R", OPERAND_REG2_SHORT);
+		def(BR_FNEQ_R, "BR_FNEQ_R", OPERAND_REG2_SHORT);
+		def(BR_FLT_R, "BR_FLT_R", OPERAND_REG2_SHORT);
+		def(BR_FLE_R, "BR_FLE_R", OPERAND_REG2_SHORT);
+		def(BR_FGT_R, "BR_FGT_R", OPERAND_REG2_SHORT);
+		def(BR_FGE_R, "BR_FGE_R", OPERAND_REG2_SHORT);
+		def(BR_FNLT_R, "BR_FNLT_R", OPERAND_REG2_SHORT);
+		def(BR_FNLE_R, "BR_FNLE_R", OPERAND_REG2_SHORT);
+		def(BR_FNGT_R, "BR_FNGT_R", OPERAND_REG2_SHORT);
+		def(BR_FNGE_R, "BR_FNGE_R", OPERAND_REG2_SHORT);
+		def(VCONST_R, "VCONST_R", OPERAND_REG_SHORT);
+		def(VADD_INPLACE_R, "VADD_INPLACE_R", OPERAND_REG2);
+		def(VSUB_INPLACE_R, "VSUB_INPLACE_R", OPERAND_REG2);
+		def(VMUL_INPLACE_R, "VMUL_INPLACE_R", OPERAND_REG2);
+		def(VDIV_INPLACE_R, "VDIV_INPLACE_R", OPERAND_REG2);
+		def(SCONCAT_R, "SCONCAT_R", OPERAND_REG2_SHORT);
+		def(PRINTN_R, "PRINTN_R", OPERAND_REG_SHORT_INT);
+		def(VRSUBF_R, "VRSUBF_R", OPERAND_REG3);
+		def(VRDIVF_R, "VRDIVF_R", OPERAND_REG3);
+	}
+
+	protected static void def(short opcode, String name) {
+		def(opcode, name, OPERAND_NONE);
+	}
+
+	protected static void def(short opcode, String name, int operand) {
+		names[opcode] = name;
+		operandType[opcode] = operand;
+		opcodes.put(name, opcode);
+	}
+
+	/** Return opcode for name or -1 if unknown */
+	public static int opcode(String name) {
+		Short op = opcodes.get(name);
+		return op!=null ? op : -1;
+	}
+
+	public static String layout(int opcode) {
+		return layouts[operandType[opcode]];
+	}
+
+	/** Size in bytes of an instruction, opcode included */
+	public static int size(int opcode) {
+		String layout = layout(opcode);
+		int n = 1;
+		for (int i = 0; i<layout.length(); i++) {
+			n += operandSize(layout.charAt(i));
+		}
+		return n;
+	}
+
+	public static int operandSize(char kind) {
+		switch ( kind ) {
+			case 'i' :
+			case 'f' :
+				return 4;
+			case 'd' :
+				return 8;
+			default :
+				return 2;
+		}
+	}
+
+	/** The PART_xxx kind of part k in a PRINTN kinds operand */
+	public static int partKind(int kinds, int k) {
+		return kinds>>>(2*k) & 3;
+	}
+
+	public static boolean isRegisterOp(int opcode) {
+		return opcode>=FIRST_REGISTER_OPCODE;
+	}
+}
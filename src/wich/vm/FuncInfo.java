@@ -0,0 +1,55 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.vm;
+
+/** An entry in the function table of a Wich object file. Slots 0..nargs-1
+ *  of a frame hold the arguments, followed by the locals.
+ */
+public class FuncInfo {
+	public final String name;
+	public final int address;
+	public final int nargs;
+	public final int nlocals;
+	public int maxStack;		// deepest the operand stack gets above the frame
+	public final int type;		// CompilerUtils.VOID_TYPE, INT_TYPE, ...
+
+	/** Number of frame slots to reserve; at least nargs+nlocals. */
+	public int nslots;
+
+	public FuncInfo(String name, int address, int nargs, int nlocals, int maxStack, int type) {
+		this.name = name;
+		this.address = address;
+		this.nargs = nargs;
+		this.nlocals = nlocals;
+		this.maxStack = maxStack;
+		this.type = type;
+		this.nslots = nargs + nlocals;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("addr=%d args=%d locals=%d stack=%d type=%d %d/%s",
+							 address, nargs, nlocals, maxStack, type, name.length(), name);
+	}
+}
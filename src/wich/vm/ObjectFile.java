@@ -0,0 +1,509 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.vm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/** The loaded form of a Wich object file: string table, constant vector
+ *  pool, function table and code segment. The code segment is laid out exactly as the addresses
+ *  computed by {@link wich.codegen.bytecode.BytecodeWriter} so that branch
+ *  offsets and function addresses can be used as is.
+ *
+ *  The binary file is little-endian:
+ *
+ *  <pre>
+ *  header     magic u4 ("WICH"), version u2, flags u2 (FLAG_REGISTERS)
+ *  strings    count u4, nliterals u4, then count x (length u4, UTF-8 bytes)
+ *             entries 0..nliterals-1 are SCONST operands; function names follow
+ *  vectors    count u4, then count x (length u4, length x f8); VCONST operands
+ *  functions  count u4, then count x (addr u4, args u2, locals u2, stack u2, type u2,
+ *             name u2)
+ *  code       ninstr u4, nbytes u4, then nbytes of opcodes and operands
+ *  </pre>
+ *
+ *  {@link #map} executes the code segment straight out of the mapped file.
+ *  The text form from BytecodeWriter.genObjectFile() is still accepted
+ *  by {@link #load} and is what {@link #disassemble} produces; it leaves
+ *  out the vectors section when there are none. The baseline listing wrun
+ *  reads, with no vectors and no stack= in the function table, loads too.
+ */
+public class ObjectFile {
+	public static final int MAGIC = 'W' | 'I'<<8 | 'C'<<16 | 'H'<<24;
+	public static final short VERSION = 9;
+	public static final int HEADER_SIZE = 8;
+	public static final int FUNC_RECORD_SIZE = 14;
+
+	/** Code is in the register form; run it with {@link RegisterVM} */
+	public static final short FLAG_REGISTERS = 1;
+
+	public static final double[][] NO_VECTORS = new double[0][];
+
+	/** maxStack of a function in a text listing without stack= */
+	protected static final int UNKNOWN_STACK = -1;
+
+	public String[] strings;
+	public double[][] vectors = NO_VECTORS;
+	public FuncInfo[] functions;
+	public ByteBuffer code;
+	public int numInstr;
+	public boolean registers;
+
+	public ObjectFile(String[] strings, FuncInfo[] functions, ByteBuffer code, int numInstr) {
+		this.strings = strings;
+		this.functions = functions;
+		this.code = code;
+		this.numInstr = numInstr;
+	}
+
+	/** Load a binary or text object file */
+	public static ObjectFile load(String fileName) throws IOException {
+		Path path = Paths.get(fileName);
+		if ( isBinary(path) ) {
+			return map(fileName);
+		}
+		return parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+	}
+
+	protected static boolean isBinary(Path path) throws IOException {
+		try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while ( magic.hasRemaining() && ch.read(magic)>=0 ) { }
+			return !magic.hasRemaining() && magic.getInt(0)==MAGIC;
+		}
+	}
+
+	/** Memory-map a binary object file. Only the string pool and function
+	 *  table become objects; code is a read-only view of the mapping.
+	 */
+	public static ObjectFile map(String fileName) throws IOException {
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+			return decode(buf);
+		}
+	}
+
+	/** Write the binary form */
+	public void write(String fileName) throws IOException {
+		Files.write(Paths.get(fileName), encode().array());
+	}
+
+	/** Return the binary form; function names go in the string pool after
+	 *  the literals.
+	 */
+	public ByteBuffer encode() {
+		byte[][] pool = new byte[strings.length+functions.length][];
+		for (int i = 0; i<strings.length; i++) {
+			pool[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+		}
+		for (int i = 0; i<functions.length; i++) {
+			pool[strings.length+i] = functions[i].name.getBytes(StandardCharsets.UTF_8);
+		}
+		int size = HEADER_SIZE + 8 + 4 + 4 + functions.length*FUNC_RECORD_SIZE + 8 + code.limit();
+		for (byte[] s : pool) size += 4 + s.length;
+		for (double[] v : vectors) size += 4 + v.length*8;
+		ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MAGIC);
+		buf.putShort(VERSION);
+		buf.putShort(registers ? FLAG_REGISTERS : 0);
+		buf.putInt(pool.length);
+		buf.putInt(strings.length);
+		for (byte[] s : pool) {
+			buf.putInt(s.length);
+			buf.put(s);
+		}
+		putVectors(buf, vectors);
+		buf.putInt(functions.length);
+		for (int i = 0; i<functions.length; i++) {
+			FuncInfo f = functions[i];
+			buf.putInt(f.address);
+			buf.putShort((short)f.nargs);
+			buf.putShort((short)f.nlocals);
+			buf.putShort((short)f.maxStack);
+			buf.putShort((short)f.type);
+			buf.putShort((short)(strings.length+i));
+		}
+		buf.putInt(numInstr);
+		buf.putInt(code.limit());
+		ByteBuffer c = code.duplicate();
+		c.rewind();
+		buf.put(c);
+		return buf;
+	}
+
+	public static ObjectFile decode(ByteBuffer buf) {
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		if ( buf.getInt()!=MAGIC ) {
+			throw new IllegalArgumentException("not a Wich object file");
+		}
+		int version = buf.getShort();
+		if ( version!=VERSION ) {
+			throw new IllegalArgumentException("unsupported object file version "+version);
+		}
+		int flags = buf.getShort();
+
+		String[] pool = new String[buf.getInt()];
+		int nliterals = buf.getInt();
+		for (int i = 0; i<pool.length; i++) {
+			byte[] bytes = new byte[buf.getInt()];
+			buf.get(bytes);
+			pool[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		String[] strings = new String[nliterals];
+		System.arraycopy(pool, 0, strings, 0, nliterals);
+		double[][] vectors = getVectors(buf);
+
+		FuncInfo[] functions = new FuncInfo[buf.getInt()];
+		for (int i = 0; i<functions.length; i++) {
+			int addr = buf.getInt();
+			int args = buf.getShort();
+			int locals = buf.getShort();
+			int stack = buf.getShort();
+			int type = buf.getShort();
+			functions[i] = new FuncInfo(pool[buf.getShort()], addr, args, locals, stack, type);
+		}
+
+		int ninstr = buf.getInt();
+		int nbytes = buf.getInt();
+		buf.limit(buf.position()+nbytes);
+		ByteBuffer code = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+		ObjectFile obj = new ObjectFile(strings, functions, code, ninstr);
+		obj.vectors = vectors;
+		obj.registers = (flags & FLAG_REGISTERS)!=0;
+		return obj;
+	}
+
+	protected static void putVectors(ByteBuffer buf, double[][] vectors) {
+		buf.putInt(vectors.length);
+		for (double[] v : vectors) {
+			buf.putInt(v.length);
+			for (double d : v) buf.putDouble(d);
+		}
+	}
+
+	protected static double[][] getVectors(ByteBuffer buf) {
+		double[][] vectors = new double[buf.getInt()][];
+		for (int i = 0; i<vectors.length; i++) {
+			vectors[i] = new double[buf.getInt()];
+			for (int k = 0; k<vectors[i].length; k++) vectors[i][k] = buf.getDouble();
+		}
+		return vectors;
+	}
+
+	/** Parse the text form generated by BytecodeWriter.genObjectFile(). */
+	public static ObjectFile parse(String text) {
+		Scanner in = new Scanner(text);
+		int nstrings = in.nextInt();
+		in.match("strings");
+		String[] strings = new String[nstrings];
+		for (int i = 0; i<nstrings; i++) {
+			int index = in.nextInt();
+			in.match(":");
+			strings[index] = unescape(in.nextCounted());
+		}
+
+		double[][] vectors = NO_VECTORS;
+		if ( in.atSection("vectors") ) {
+			vectors = new double[in.nextInt()][];
+			in.match("vectors");
+			for (int i = 0; i<vectors.length; i++) {
+				int index = in.nextInt();
+				in.match(":");
+				vectors[index] = new double[in.nextInt()];
+				for (int k = 0; k<vectors[index].length; k++) {
+					vectors[index][k] = Double.parseDouble(in.nextWord());
+				}
+			}
+		}
+
+		int nfuncs = in.nextInt();
+		in.match("functions");
+		FuncInfo[] functions = new FuncInfo[nfuncs];
+		for (int i = 0; i<nfuncs; i++) {
+			int index = in.nextInt();
+			in.match(":");
+			int addr = in.nextAttr("addr");
+			int args = in.nextAttr("args");
+			int locals = in.nextAttr("locals");
+			int stack = in.atAttr("stack") ? in.nextAttr("stack") : UNKNOWN_STACK; // not in wrun's listing
+			int type = in.nextAttr("type");
+			functions[index] = new FuncInfo(in.nextCounted(), addr, args, locals, stack, type);
+		}
+
+		int ninstr = in.nextInt();
+		in.match("instr,");
+		int nbytes = in.nextInt();
+		in.match("bytes");
+		ByteBuffer code = ByteBuffer.allocate(nbytes).order(ByteOrder.LITTLE_ENDIAN);
+		boolean registers = false;
+		for (int i = 0; i<ninstr; i++) {
+			String name = in.nextWord();
+			int opcode = Bytecodes.opcode(name);
+			if ( opcode<0 ) {
+				throw new IllegalArgumentException("unknown instruction "+name);
+			}
+			code.put((byte)opcode);
+			for (char kind : Bytecodes.layout(opcode).toCharArray()) {
+				String operand = in.nextWord();
+				switch ( kind ) {
+					case 'i' :
+						code.putInt(Integer.parseInt(operand));
+						break;
+					case 'f' :
+						code.putFloat(Float.parseFloat(operand));
+						break;
+					case 'd' :
+						code.putDouble(Float.parseFloat(operand));
+						break;
+					default :
+						code.putShort((short)Integer.parseInt(operand));
+				}
+			}
+			registers |= Bytecodes.isRegisterOp(opcode);
+		}
+		code.flip();
+		ObjectFile obj = new ObjectFile(strings, functions, code, ninstr);
+		obj.vectors = vectors;
+		obj.registers = registers;
+		obj.computeFrameSizes();
+		return obj;
+	}
+
+	/** Return the text listing, same as BytecodeWriter.genObjectFile() */
+	public String disassemble() {
+		StringBuilder buf = new StringBuilder();
+		buf.append(String.format("%d strings\n", strings.length));
+		for (int i = 0; i<strings.length; i++) {
+			String literal = escape(strings[i]);
+			buf.append(String.format("\t%d: %d/%s\n", i, literal.length(), literal));
+		}
+		appendVectors(buf, vectors);
+		buf.append(String.format("%d functions\n", functions.length));
+		for (int i = 0; i<functions.length; i++) {
+			buf.append(String.format("\t%d: %s\n", i, functions[i]));
+		}
+		buf.append(String.format("%d instr, %d bytes\n", numInstr, code.limit()));
+		int ip = 0;
+		while ( ip<code.limit() ) {
+			int opcode = code.get(ip) & 0xFF;
+			buf.append('\t');
+			buf.append(Bytecodes.names[opcode]);
+			int p = ip+1;
+			for (char kind : Bytecodes.layout(opcode).toCharArray()) {
+				buf.append(' ');
+				switch ( kind ) {
+					case 'i' :
+						buf.append(code.getInt(p));
+						break;
+					case 'f' :
+						buf.append(code.getFloat(p));
+						break;
+					case 'd' : // FCONST holds a float widened to double
+						buf.append((float)code.getDouble(p));
+						break;
+					default :
+						buf.append(code.getShort(p));
+				}
+				p += Bytecodes.operandSize(kind);
+			}
+			buf.append('\n');
+			ip += Bytecodes.size(opcode);
+		}
+		return buf.toString();
+	}
+
+	/** The vectors section of the text form, if there are any */
+	public static void appendVectors(StringBuilder buf, double[][] vectors) {
+		if ( vectors.length==0 ) return;
+		buf.append(String.format("%d vectors\n", vectors.length));
+		for (int i = 0; i<vectors.length; i++) {
+			buf.append(String.format("\t%d: %d", i, vectors[i].length));
+			for (double d : vectors[i]) buf.append(' ').append(d);
+			buf.append('\n');
+		}
+	}
+
+	public int indexOfFunction(String name) {
+		for (int i = 0; i<functions.length; i++) {
+			if ( functions[i].name.equals(name) ) return i;
+		}
+		return -1;
+	}
+
+	/** The locals count in a text function table does not cover every level
+	 *  of nested blocks so widen each frame to the highest slot its
+	 *  code actually touches, registers included. Functions are laid out
+	 *  in table order. The binary writer records the widened count itself.
+	 *  No instruction pushes more than one value, so a function whose max
+	 *  stack isn't listed gets one slot per byte of its code.
+	 */
+	protected void computeFrameSizes() {
+		for (int f = 0; f<functions.length; f++) {
+			FuncInfo func = functions[f];
+			int end = f+1<functions.length ? functions[f+1].address : code.limit();
+			int ip = func.address;
+			if ( func.maxStack==UNKNOWN_STACK ) func.maxStack = Math.max(end-ip, 0);
+			while ( ip>=0 && ip<end ) {
+				int opcode = code.get(ip) & 0xFF;
+				switch ( opcode ) {
+					case Bytecodes.ILOAD :
+					case Bytecodes.FLOAD :
+					case Bytecodes.VLOAD :
+					case Bytecodes.SLOAD :
+					case Bytecodes.STORE :
+					case Bytecodes.IINC :
+						func.nslots = Math.max(func.nslots, code.getShort(ip+1)+1);
+						break;
+					case Bytecodes.VLOAD_LOCAL_INDEX :
+						func.nslots = Math.max(func.nslots, code.getShort(ip+1)+1);
+						func.nslots = Math.max(func.nslots, code.getShort(ip+3)+1);
+						break;
+				}
+				int p = ip+1;
+				for (char kind : Bytecodes.layout(opcode).toCharArray()) {
+					if ( kind=='r' ) func.nslots = Math.max(func.nslots, code.getShort(p)+1);
+					p += Bytecodes.operandSize(kind);
+				}
+				ip += Bytecodes.size(opcode);
+			}
+		}
+	}
+
+	public static String unescape(String s) {
+		if ( s.indexOf('\\')<0 ) return s;
+		StringBuilder buf = new StringBuilder(s.length());
+		for (int i = 0; i<s.length(); i++) {
+			char c = s.charAt(i);
+			if ( c=='\\' && i+1<s.length() ) {
+				c = s.charAt(++i);
+				switch ( c ) {
+					case 'n' : c = '\n'; break;
+					case 't' : c = '\t'; break;
+					case 'r' : c = '\r'; break;
+					case 'f' : c = '\f'; break;
+					case 'b' : c = '\b'; break;
+				}
+			}
+			buf.append(c);
+		}
+		return buf.toString();
+	}
+
+	/** Inverse of unescape() for the characters a Wich literal can escape */
+	public static String escape(String s) {
+		StringBuilder buf = new StringBuilder(s.length());
+		for (int i = 0; i<s.length(); i++) {
+			char c = s.charAt(i);
+			switch ( c ) {
+				case '\n' : buf.append("\\n"); break;
+				case '\t' : buf.append("\\t"); break;
+				case '\r' : buf.append("\\r"); break;
+				case '\f' : buf.append("\\f"); break;
+				case '\b' : buf.append("\\b"); break;
+				case '"' : buf.append("\\\""); break;
+				default : buf.append(c);
+			}
+		}
+		return buf.toString();
+	}
+
+	/** Minimal tokenizer over the text object file */
+	static class Scanner {
+		String text;
+		int p = 0;
+
+		Scanner(String text) { this.text = text; }
+
+		void skipWS() {
+			while ( p<text.length() && Character.isWhitespace(text.charAt(p)) ) p++;
+		}
+
+		String nextWord() {
+			skipWS();
+			int start = p;
+			while ( p<text.length() && !Character.isWhitespace(text.charAt(p)) ) p++;
+			if ( start==p ) throw new IllegalArgumentException("unexpected end of object file");
+			return text.substring(start, p);
+		}
+
+		int nextInt() {
+			skipWS();
+			int start = p;
+			if ( p<text.length() && text.charAt(p)=='-' ) p++;
+			while ( p<text.length() && Character.isDigit(text.charAt(p)) ) p++;
+			return Integer.parseInt(text.substring(start, p));
+		}
+
+		/** Match name=value and return value */
+		int nextAttr(String name) {
+			skipWS();
+			match(name+"=");
+			return nextInt();
+		}
+
+		boolean atAttr(String name) {
+			skipWS();
+			return text.startsWith(name+"=", p);
+		}
+
+		/** Read n/chars where chars may hold whitespace */
+		String nextCounted() {
+			int n = nextInt();
+			match("/");
+			String s = text.substring(p, p+n);
+			p += n;
+			return s;
+		}
+
+		/** True if the next line starts "n name" */
+		boolean atSection(String name) {
+			int save = p;
+			try {
+				nextInt();
+				return nextWord().equals(name);
+			}
+			catch (RuntimeException e) {
+				return false;
+			}
+			finally {
+				p = save;
+			}
+		}
+
+		void match(String s) {
+			skipWS();
+			if ( !text.startsWith(s, p) ) {
+				throw new IllegalArgumentException("expected '"+s+"' at offset "+p+" of object file");
+			}
+			p += s.length();
+		}
+	}
+}
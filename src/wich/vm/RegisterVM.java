@@ -0,0 +1,516 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.vm;
+
+import java.nio.ByteBuffer;
+
+import static wich.vm.Bytecodes.*;
+
+/** Execute the register form of Wich bytecode (BYTECODE_REG).
+ *
+ *  Same storage as {@link VM}: slot i of the current frame is prims[fp+i]
+ *  and refs[fp+i], and every register operand is a slot number. There is
+ *  no operand stack; sp only marks the end of the current frame, so a
+ *  frame is exactly FuncInfo.nslots long. CALL_R first d f copies nargs
+ *  registers starting at first into the new frame and remembers where d
+ *  is; RET_R s copies s back there. Compare-and-branch instructions take
+ *  their offset last and branch if the compare holds; BR_FNxx_R branch if
+ *  it doesn't, which is not the same thing as the opposite compare once
+ *  NaN is involved.
+ */
+public class RegisterVM extends VM {
+	protected final int[] frameRetReg;	// caller's slot for the return value
+
+	public RegisterVM(ObjectFile obj) {
+		this(obj, DEFAULT_STACK_SIZE, DEFAULT_MAX_CALL_DEPTH);
+	}
+
+	public RegisterVM(ObjectFile obj, int stackSize, int maxCallDepth) {
+		super(obj, stackSize, maxCallDepth);
+		frameRetReg = new int[maxCallDepth];
+	}
+
+	@Override
+	protected void run(int mainIndex) {
+		final ByteBuffer code = this.code;
+		final long[] prims = this.prims;
+		final Object[] refs = this.refs;
+		final long[] profile = this.profile;
+
+		FuncInfo func = functions[mainIndex];
+		int callsp = 0;
+		frameFunc[0] = mainIndex;
+		frameFp[0] = 0;
+		frameRetIp[0] = -1;
+		int fp = 0;
+		int sp = func.nslots-1;		// last slot of the current frame
+		if ( sp>=prims.length ) {
+			throw new VMException("StackOverflow");
+		}
+		for (int i = 0; i<=sp; i++) { prims[i] = 0; refs[i] = null; }
+		int ip = func.address;
+		long count = 0;
+
+		try {
+			while ( true ) {
+				int opcode = code.get(ip) & 0xFF;
+				count++;
+				if ( profile!=null ) profile[ip]++;
+				switch ( opcode ) {
+					case IADD_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] + (int)prims[fp+code.getShort(ip+5)];
+						ip += 7;
+						break;
+					case ISUB_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] - (int)prims[fp+code.getShort(ip+5)];
+						ip += 7;
+						break;
+					case IMUL_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] * (int)prims[fp+code.getShort(ip+5)];
+						ip += 7;
+						break;
+					case IDIV_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] / (int)prims[fp+code.getShort(ip+5)];
+						ip += 7;
+						break;
+					case FADD_R :
+						prims[fp+code.getShort(ip+1)] = bits(dbl(prims[fp+code.getShort(ip+3)]) + dbl(prims[fp+code.getShort(ip+5)]));
+						ip += 7;
+						break;
+					case FSUB_R :
+						prims[fp+code.getShort(ip+1)] = bits(dbl(prims[fp+code.getShort(ip+3)]) - dbl(prims[fp+code.getShort(ip+5)]));
+						ip += 7;
+						break;
+					case FMUL_R :
+						prims[fp+code.getShort(ip+1)] = bits(dbl(prims[fp+code.getShort(ip+3)]) * dbl(prims[fp+code.getShort(ip+5)]));
+						ip += 7;
+						break;
+					case FDIV_R :
+						prims[fp+code.getShort(ip+1)] = bits(dbl(prims[fp+code.getShort(ip+3)]) / dbl(prims[fp+code.getShort(ip+5)]));
+						ip += 7;
+						break;
+					case VADD_R :	// same order as the stack forms
+					case VSUB_R :
+					case VMUL_R :
+					case VDIV_R :
+						refs[fp+code.getShort(ip+1)] = vectorOp(opcode-VADD_R+VADD, (double[])refs[fp+code.getShort(ip+3)],
+																(double[])refs[fp+code.getShort(ip+5)]);
+						ip += 7;
+						break;
+					case VADDI_R :
+					case VSUBI_R :
+					case VMULI_R :
+					case VDIVI_R :
+						refs[fp+code.getShort(ip+1)] = scalarOp(opcode-VADDI_R+VADDI, (double[])refs[fp+code.getShort(ip+3)],
+																(int)prims[fp+code.getShort(ip+5)]);
+						ip += 7;
+						break;
+					case VADDF_R :
+					case VSUBF_R :
+					case VMULF_R :
+					case VDIVF_R :
+						refs[fp+code.getShort(ip+1)] = scalarOp(opcode-VADDI_R+VADDI, (double[])refs[fp+code.getShort(ip+3)],
+																dbl(prims[fp+code.getShort(ip+5)]));
+						ip += 7;
+						break;
+					case SADD_R :
+						refs[fp+code.getShort(ip+1)] = ((String)refs[fp+code.getShort(ip+3)]).concat((String)refs[fp+code.getShort(ip+5)]);
+						ip += 7;
+						break;
+					case OR_R :
+						prims[fp+code.getShort(ip+1)] = prims[fp+code.getShort(ip+3)]!=0 || prims[fp+code.getShort(ip+5)]!=0 ? 1 : 0;
+						ip += 7;
+						break;
+					case AND_R :
+						prims[fp+code.getShort(ip+1)] = prims[fp+code.getShort(ip+3)]!=0 && prims[fp+code.getShort(ip+5)]!=0 ? 1 : 0;
+						ip += 7;
+						break;
+					case IEQ_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] == (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case INEQ_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] != (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case ILT_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] < (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case ILE_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] <= (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case IGT_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] > (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case IGE_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] >= (int)prims[fp+code.getShort(ip+5)] ? 1 : 0;
+						ip += 7;
+						break;
+					case FEQ_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) == dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case FNEQ_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) != dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case FLT_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) < dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case FLE_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) <= dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case FGT_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) > dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case FGE_R :
+						prims[fp+code.getShort(ip+1)] = dbl(prims[fp+code.getShort(ip+3)]) >= dbl(prims[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case VEQ_R :
+						prims[fp+code.getShort(ip+1)] = vectorEquals((double[])refs[fp+code.getShort(ip+3)], (double[])refs[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case VNEQ_R :
+						prims[fp+code.getShort(ip+1)] = vectorEquals((double[])refs[fp+code.getShort(ip+3)], (double[])refs[fp+code.getShort(ip+5)]) ? 0 : 1;
+						ip += 7;
+						break;
+					case SEQ_R :
+						prims[fp+code.getShort(ip+1)] = refs[fp+code.getShort(ip+3)].equals(refs[fp+code.getShort(ip+5)]) ? 1 : 0;
+						ip += 7;
+						break;
+					case SNEQ_R :
+						prims[fp+code.getShort(ip+1)] = refs[fp+code.getShort(ip+3)].equals(refs[fp+code.getShort(ip+5)]) ? 0 : 1;
+						ip += 7;
+						break;
+					case SLT_R :
+						prims[fp+code.getShort(ip+1)] = compare(refs, fp, code, ip) < 0 ? 1 : 0;
+						ip += 7;
+						break;
+					case SLE_R :
+						prims[fp+code.getShort(ip+1)] = compare(refs, fp, code, ip) <= 0 ? 1 : 0;
+						ip += 7;
+						break;
+					case SGT_R :
+						prims[fp+code.getShort(ip+1)] = compare(refs, fp, code, ip) > 0 ? 1 : 0;
+						ip += 7;
+						break;
+					case SGE_R :
+						prims[fp+code.getShort(ip+1)] = compare(refs, fp, code, ip) >= 0 ? 1 : 0;
+						ip += 7;
+						break;
+					case VLOAD_INDEX_R : {
+						double[] v = (double[])refs[fp+code.getShort(ip+3)];
+						int i = (int)prims[fp+code.getShort(ip+5)];
+						checkIndex(v, i);
+						prims[fp+code.getShort(ip+1)] = bits(v[i-1]);
+						ip += 7;
+						break;
+					}
+					case SLOAD_INDEX_R : {
+						String s = (String)refs[fp+code.getShort(ip+3)];
+						int i = (int)prims[fp+code.getShort(ip+5)];
+						if ( i<1 || i>s.length() ) {
+							throw new VMException(String.format("StringIndexOutOfRange: %d out of index : 1 to %d", i, s.length()));
+						}
+						char c = s.charAt(i-1);
+						refs[fp+code.getShort(ip+1)] = c<charStrings.length ? charStrings[c] : String.valueOf(c);
+						ip += 7;
+						break;
+					}
+					case STORE_INDEX_R : {
+						double[] v = (double[])refs[fp+code.getShort(ip+1)];
+						int i = (int)prims[fp+code.getShort(ip+3)];
+						checkIndex(v, i);
+						v[i-1] = dbl(prims[fp+code.getShort(ip+5)]);
+						ip += 7;
+						break;
+					}
+					case MOVE_R : {
+						int d = fp+code.getShort(ip+1);
+						int s = fp+code.getShort(ip+3);
+						prims[d] = prims[s];
+						refs[d] = refs[s];
+						ip += 5;
+						break;
+					}
+					case INEG_R :
+						prims[fp+code.getShort(ip+1)] = -(int)prims[fp+code.getShort(ip+3)];
+						ip += 5;
+						break;
+					case FNEG_R :
+						prims[fp+code.getShort(ip+1)] = bits(-dbl(prims[fp+code.getShort(ip+3)]));
+						ip += 5;
+						break;
+					case NOT_R :
+						prims[fp+code.getShort(ip+1)] = prims[fp+code.getShort(ip+3)]==0 ? 1 : 0;
+						ip += 5;
+						break;
+					case I2F_R :
+						prims[fp+code.getShort(ip+1)] = bits((int)prims[fp+code.getShort(ip+3)]);
+						ip += 5;
+						break;
+					case I2S_R :
+						refs[fp+code.getShort(ip+1)] = String.valueOf((int)prims[fp+code.getShort(ip+3)]);
+						ip += 5;
+						break;
+					case F2S_R :
+						refs[fp+code.getShort(ip+1)] = formatFloat(dbl(prims[fp+code.getShort(ip+3)]));
+						ip += 5;
+						break;
+					case V2S_R :
+						refs[fp+code.getShort(ip+1)] = vectorToString((double[])refs[fp+code.getShort(ip+3)]);
+						ip += 5;
+						break;
+					case VLEN_R :
+						prims[fp+code.getShort(ip+1)] = ((double[])refs[fp+code.getShort(ip+3)]).length;
+						ip += 5;
+						break;
+					case SLEN_R :
+						prims[fp+code.getShort(ip+1)] = ((String)refs[fp+code.getShort(ip+3)]).length();
+						ip += 5;
+						break;
+					case COPY_VECTOR_R :
+						refs[fp+code.getShort(ip+1)] = ((double[])refs[fp+code.getShort(ip+3)]).clone();
+						ip += 5;
+						break;
+					case IPRINT_R :
+					case BPRINT_R :
+						out.print((int)prims[fp+code.getShort(ip+1)]);
+						out.print('\n');
+						ip += 3;
+						break;
+					case FPRINT_R :
+						out.print(formatFloat(dbl(prims[fp+code.getShort(ip+1)])));
+						out.print('\n');
+						ip += 3;
+						break;
+					case SPRINT_R :
+						out.print((String)refs[fp+code.getShort(ip+1)]);
+						out.print('\n');
+						ip += 3;
+						break;
+					case VPRINT_R :
+						printVector((double[])refs[fp+code.getShort(ip+1)]);
+						out.print('\n');
+						ip += 3;
+						break;
+					case ICONST_R :
+						prims[fp+code.getShort(ip+1)] = code.getInt(ip+3);
+						ip += 7;
+						break;
+					case FCONST_R :
+						prims[fp+code.getShort(ip+1)] = bits(code.getFloat(ip+3));
+						ip += 7;
+						break;
+					case SCONST_R :
+						refs[fp+code.getShort(ip+1)] = strings[code.getShort(ip+3)];
+						ip += 5;
+						break;
+					case VCONST_R :
+						refs[fp+code.getShort(ip+1)] = vectors[code.getShort(ip+3)].clone();
+						ip += 5;
+						break;
+					case VADD_INPLACE_R :
+					case VSUB_INPLACE_R :
+					case VMUL_INPLACE_R :
+					case VDIV_INPLACE_R : {
+						double[] a = (double[])refs[fp+code.getShort(ip+1)];
+						vectorOp(opcode-VADD_INPLACE_R+VADD, a, (double[])refs[fp+code.getShort(ip+3)], a);
+						ip += 5;
+						break;
+					}
+					case PRINTN_R :
+						printParts(prims, refs, fp+code.getShort(ip+1), code.getShort(ip+3), code.getInt(ip+5));
+						ip += 9;
+						break;
+					case VRSUBF_R :
+					case VRDIVF_R :
+						refs[fp+code.getShort(ip+1)] = reverseScalarOp(opcode-VRSUBF_R+VRSUBF, dbl(prims[fp+code.getShort(ip+3)]),
+																	   (double[])refs[fp+code.getShort(ip+5)]);
+						ip += 7;
+						break;
+					case SCONCAT_R :
+						refs[fp+code.getShort(ip+1)] = concat(refs, fp+code.getShort(ip+3), code.getShort(ip+5));
+						ip += 7;
+						break;
+					case IADDI_R :
+						prims[fp+code.getShort(ip+1)] = (int)prims[fp+code.getShort(ip+3)] + code.getShort(ip+5);
+						ip += 7;
+						break;
+					case VECTOR_R : {
+						int first = fp+code.getShort(ip+3);
+						double[] v = new double[code.getShort(ip+5)];
+						for (int i = 0; i<v.length; i++) v[i] = dbl(prims[first+i]);
+						refs[fp+code.getShort(ip+1)] = v;
+						ip += 7;
+						break;
+					}
+					case BR :
+						ip += code.getShort(ip+1);
+						break;
+					case BRF_R :
+						if ( prims[fp+code.getShort(ip+1)]==0 ) ip += code.getShort(ip+3);
+						else ip += 5;
+						break;
+					case BRT_R :
+						if ( prims[fp+code.getShort(ip+1)]!=0 ) ip += code.getShort(ip+3);
+						else ip += 5;
+						break;
+					case BR_IEQ_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] == (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_INEQ_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] != (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_ILT_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] < (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_ILE_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] <= (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_IGT_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] > (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_IGE_R :
+						if ( (int)prims[fp+code.getShort(ip+1)] >= (int)prims[fp+code.getShort(ip+3)] ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FEQ_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) == dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FNEQ_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) != dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FLT_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) < dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FLE_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) <= dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FGT_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) > dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FGE_R :
+						if ( dbl(prims[fp+code.getShort(ip+1)]) >= dbl(prims[fp+code.getShort(ip+3)]) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FNLT_R :
+						if ( !(dbl(prims[fp+code.getShort(ip+1)]) < dbl(prims[fp+code.getShort(ip+3)])) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FNLE_R :
+						if ( !(dbl(prims[fp+code.getShort(ip+1)]) <= dbl(prims[fp+code.getShort(ip+3)])) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FNGT_R :
+						if ( !(dbl(prims[fp+code.getShort(ip+1)]) > dbl(prims[fp+code.getShort(ip+3)])) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case BR_FNGE_R :
+						if ( !(dbl(prims[fp+code.getShort(ip+1)]) >= dbl(prims[fp+code.getShort(ip+3)])) ) ip += code.getShort(ip+5);
+						else ip += 7;
+						break;
+					case CALL_R : {
+						int first = fp+code.getShort(ip+1);
+						int target = code.getShort(ip+5);
+						FuncInfo f = functions[target];
+						if ( callsp+1==frameFunc.length || sp+f.nslots>=prims.length ) {
+							throw new VMException("StackOverflow");
+						}
+						callsp++;
+						frameFunc[callsp] = target;
+						frameFp[callsp] = fp;
+						frameRetIp[callsp] = ip+7;
+						frameRetReg[callsp] = fp+code.getShort(ip+3);
+						fp = sp+1;
+						System.arraycopy(prims, first, prims, fp, f.nargs);
+						System.arraycopy(refs, first, refs, fp, f.nargs);
+						sp = fp+f.nslots-1;
+						for (int i = fp+f.nargs; i<=sp; i++) { prims[i] = 0; refs[i] = null; }
+						ip = f.address;
+						func = f;
+						break;
+					}
+					case RET_R : {
+						int s = fp+code.getShort(ip+1);
+						int d = frameRetReg[callsp];
+						prims[d] = prims[s];
+						refs[d] = refs[s];
+						sp = fp-1;
+						fp = frameFp[callsp];
+						ip = frameRetIp[callsp];
+						callsp--;
+						func = functions[frameFunc[callsp]];
+						break;
+					}
+					case RET :
+						sp = fp-1;
+						fp = frameFp[callsp];
+						ip = frameRetIp[callsp];
+						callsp--;
+						func = functions[frameFunc[callsp]];
+						break;
+					case DFLT_R : {
+						int d = fp+code.getShort(ip+1);
+						prims[d] = 0;
+						refs[d] = defaultValue(func.type);
+						ip += 3;
+						break;
+					}
+					case NOP :
+						ip++;
+						break;
+					case HALT :
+						return;
+					default :
+						throw new VMException("invalid opcode "+opcode+" at "+ip);
+				}
+			}
+		}
+		finally {
+			instrCount = count;
+		}
+	}
+
+	protected static int compare(Object[] refs, int fp, ByteBuffer code, int ip) {
+		return ((String)refs[fp+code.getShort(ip+3)]).compareTo((String)refs[fp+code.getShort(ip+5)]);
+	}
+}
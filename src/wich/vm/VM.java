@@ -0,0 +1,753 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package wich.vm;
+
+import wich.codegen.CompilerUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+import static wich.vm.Bytecodes.*;
+
+/** Execute a Wich object file inside the JVM instead of forking wrun.
+ *
+ *  The operand stack is typed by instruction rather than by tag: ints and
+ *  the raw bits of doubles live in prims[], strings and vectors (double[])
+ *  live in refs[] at the same index. Frames are carved out of the same
+ *  stack; slot i of the current frame is stack[fp+i], args first. The
+ *  caller state for each activation goes in preallocated parallel arrays
+ *  so a CALL/RET never allocates. CALL checks that the callee's frame
+ *  plus its max stack from the function table fits, so nothing inside
+ *  a function has to check sp. Heap values are regular Java objects
+ *  so GC_START, GC_END, SROOT and VROOT are no-ops here.
+ */
+public class VM {
+	public static final int DEFAULT_STACK_SIZE = 64*1024;
+	public static final int DEFAULT_MAX_CALL_DEPTH = 8*1024;
+
+	protected final ObjectFile obj;
+	protected final ByteBuffer code;
+	protected final String[] strings;
+	protected final double[][] vectors;
+	protected final FuncInfo[] functions;
+
+	protected final long[] prims;
+	protected final Object[] refs;
+
+	// caller state per activation; indexed by call depth
+	protected final int[] frameFunc;	// function executing at that depth
+	protected final int[] frameFp;		// caller's fp
+	protected final int[] frameRetIp;	// where to resume in caller
+
+	public PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false);
+	public PrintStream err = System.err;
+
+	/** Number of instructions dispatched by the last exec() */
+	public long instrCount;
+
+	/** If non-null, exec() counts dispatches per code address into it;
+	 *  size it to the code segment.
+	 */
+	public long[] profile;
+
+	protected static final String[] charStrings = new String[128];
+	static {
+		for (int c = 0; c<charStrings.length; c++) charStrings[c] = String.valueOf((char)c);
+	}
+
+	public VM(ObjectFile obj) {
+		this(obj, DEFAULT_STACK_SIZE, DEFAULT_MAX_CALL_DEPTH);
+	}
+
+	public VM(ObjectFile obj, int stackSize, int maxCallDepth) {
+		this.obj = obj;
+		this.code = obj.code;
+		this.strings = obj.strings;
+		this.vectors = obj.vectors;
+		this.functions = obj.functions;
+		prims = new long[stackSize];
+		refs = new Object[stackSize];
+		frameFunc = new int[maxCallDepth];
+		frameFp = new int[maxCallDepth];
+		frameRetIp = new int[maxCallDepth];
+	}
+
+	public static void main(String[] args) throws IOException {
+		boolean stats = args.length==2 && args[1].equals("-stats");
+		boolean disasm = args.length==2 && args[1].equals("-disasm");
+		if ( args.length!=1 && !stats && !disasm ) {
+			System.out.println("Try: java wich.vm.VM <object_file> [-stats|-disasm]");
+			return;
+		}
+		ObjectFile obj = ObjectFile.load(args[0]);
+		if ( disasm ) {
+			System.out.print(obj.disassemble());
+			return;
+		}
+		VM vm = forObjectFile(obj);
+		long start = System.nanoTime();
+		int rc = vm.exec();
+		if ( stats ) {
+			long ms = (System.nanoTime()-start)/1000000;
+			System.err.printf("%d instructions in %d ms\n", vm.instrCount, ms);
+		}
+		System.exit(rc);
+	}
+
+	/** A VM for whichever bytecode form obj holds */
+	public static VM forObjectFile(ObjectFile obj) {
+		return obj.registers ? new RegisterVM(obj) : new VM(obj);
+	}
+
+	/** Run main; return 0 on success or 1 after a runtime error has been
+	 *  reported on err.
+	 */
+	public int exec() {
+		int main = obj.indexOfFunction("main");
+		if ( main<0 ) {
+			throw new IllegalArgumentException("object file has no main function");
+		}
+		try {
+			run(main);
+			return 0;
+		}
+		catch (VMException e) {
+			out.flush();
+			err.println(e.getMessage());
+			return 1;
+		}
+		catch (ArithmeticException e) {
+			out.flush();
+			err.println("ArithmeticException: "+e.getMessage());
+			return 1;
+		}
+		finally {
+			out.flush();
+		}
+	}
+
+	protected void run(int mainIndex) {
+		final ByteBuffer code = this.code;
+		final long[] prims = this.prims;
+		final Object[] refs = this.refs;
+		final long[] profile = this.profile;
+
+		FuncInfo func = functions[mainIndex];
+		int callsp = 0;
+		frameFunc[0] = mainIndex;
+		frameFp[0] = 0;
+		frameRetIp[0] = -1;
+		int fp = 0;
+		int sp = func.nslots-1;		// sp points at top element
+		if ( sp+func.maxStack>=prims.length ) {
+			throw new VMException("StackOverflow");
+		}
+		for (int i = 0; i<=sp; i++) { prims[i] = 0; refs[i] = null; }
+		int ip = func.address;
+		long count = 0;
+
+		try {
+			while ( true ) {
+				int opcode = code.get(ip) & 0xFF;
+				count++;
+				if ( profile!=null ) profile[ip]++;
+				switch ( opcode ) {
+					case IADD :
+						prims[sp-1] = (int)prims[sp-1] + (int)prims[sp];
+						sp--; ip++;
+						break;
+					case ISUB :
+						prims[sp-1] = (int)prims[sp-1] - (int)prims[sp];
+						sp--; ip++;
+						break;
+					case IMUL :
+						prims[sp-1] = (int)prims[sp-1] * (int)prims[sp];
+						sp--; ip++;
+						break;
+					case IDIV :
+						prims[sp-1] = (int)prims[sp-1] / (int)prims[sp];
+						sp--; ip++;
+						break;
+					case FADD :
+						prims[sp-1] = bits(dbl(prims[sp-1]) + dbl(prims[sp]));
+						sp--; ip++;
+						break;
+					case FSUB :
+						prims[sp-1] = bits(dbl(prims[sp-1]) - dbl(prims[sp]));
+						sp--; ip++;
+						break;
+					case FMUL :
+						prims[sp-1] = bits(dbl(prims[sp-1]) * dbl(prims[sp]));
+						sp--; ip++;
+						break;
+					case FDIV :
+						prims[sp-1] = bits(dbl(prims[sp-1]) / dbl(prims[sp]));
+						sp--; ip++;
+						break;
+					case VADD :
+					case VSUB :
+					case VMUL :
+					case VDIV :
+						refs[sp-1] = vectorOp(opcode, (double[])refs[sp-1], (double[])refs[sp]);
+						sp--; ip++;
+						break;
+					case VADDI :
+					case VSUBI :
+					case VMULI :
+					case VDIVI :
+						refs[sp-1] = scalarOp(opcode, (double[])refs[sp-1], (int)prims[sp]);
+						sp--; ip++;
+						break;
+					case VADDF :
+					case VSUBF :
+					case VMULF :
+					case VDIVF :
+						refs[sp-1] = scalarOp(opcode, (double[])refs[sp-1], dbl(prims[sp]));
+						sp--; ip++;
+						break;
+					case SADD :
+						refs[sp-1] = ((String)refs[sp-1]).concat((String)refs[sp]);
+						sp--; ip++;
+						break;
+					case OR :
+						prims[sp-1] = prims[sp-1]!=0 || prims[sp]!=0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case AND :
+						prims[sp-1] = prims[sp-1]!=0 && prims[sp]!=0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case INEG :
+						prims[sp] = -(int)prims[sp];
+						ip++;
+						break;
+					case FNEG :
+						prims[sp] = bits(-dbl(prims[sp]));
+						ip++;
+						break;
+					case NOT :
+						prims[sp] = prims[sp]==0 ? 1 : 0;
+						ip++;
+						break;
+					case I2F :
+						prims[sp] = bits((int)prims[sp]);
+						ip++;
+						break;
+					case I2S :
+						refs[sp] = String.valueOf((int)prims[sp]);
+						ip++;
+						break;
+					case F2S :
+						refs[sp] = formatFloat(dbl(prims[sp]));
+						ip++;
+						break;
+					case V2S :
+						refs[sp] = vectorToString((double[])refs[sp]);
+						ip++;
+						break;
+					case IEQ :
+						prims[sp-1] = (int)prims[sp-1] == (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case INEQ :
+						prims[sp-1] = (int)prims[sp-1] != (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case ILT :
+						prims[sp-1] = (int)prims[sp-1] < (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case ILE :
+						prims[sp-1] = (int)prims[sp-1] <= (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case IGT :
+						prims[sp-1] = (int)prims[sp-1] > (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case IGE :
+						prims[sp-1] = (int)prims[sp-1] >= (int)prims[sp] ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FEQ :
+						prims[sp-1] = dbl(prims[sp-1]) == dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FNEQ :
+						prims[sp-1] = dbl(prims[sp-1]) != dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FLT :
+						prims[sp-1] = dbl(prims[sp-1]) < dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FLE :
+						prims[sp-1] = dbl(prims[sp-1]) <= dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FGT :
+						prims[sp-1] = dbl(prims[sp-1]) > dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case FGE :
+						prims[sp-1] = dbl(prims[sp-1]) >= dbl(prims[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case VEQ :
+						prims[sp-1] = vectorEquals((double[])refs[sp-1], (double[])refs[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case VNEQ :
+						prims[sp-1] = vectorEquals((double[])refs[sp-1], (double[])refs[sp]) ? 0 : 1;
+						sp--; ip++;
+						break;
+					case SEQ :
+						prims[sp-1] = refs[sp-1].equals(refs[sp]) ? 1 : 0;
+						sp--; ip++;
+						break;
+					case SNEQ :
+						prims[sp-1] = refs[sp-1].equals(refs[sp]) ? 0 : 1;
+						sp--; ip++;
+						break;
+					case SLT :
+						prims[sp-1] = ((String)refs[sp-1]).compareTo((String)refs[sp]) < 0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case SLE :
+						prims[sp-1] = ((String)refs[sp-1]).compareTo((String)refs[sp]) <= 0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case SGT :
+						prims[sp-1] = ((String)refs[sp-1]).compareTo((String)refs[sp]) > 0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case SGE :
+						prims[sp-1] = ((String)refs[sp-1]).compareTo((String)refs[sp]) >= 0 ? 1 : 0;
+						sp--; ip++;
+						break;
+					case BR :
+						ip += code.getShort(ip+1);
+						break;
+					case BRF :
+						if ( prims[sp--]==0 ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BRT :
+						if ( prims[sp--]!=0 ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_IEQ :
+						sp -= 2;
+						if ( (int)prims[sp+1] == (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_INEQ :
+						sp -= 2;
+						if ( (int)prims[sp+1] != (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_ILT :
+						sp -= 2;
+						if ( (int)prims[sp+1] < (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_ILE :
+						sp -= 2;
+						if ( (int)prims[sp+1] <= (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_IGT :
+						sp -= 2;
+						if ( (int)prims[sp+1] > (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_IGE :
+						sp -= 2;
+						if ( (int)prims[sp+1] >= (int)prims[sp+2] ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					// float forms negate the compare they replace so NaN branches the same way
+					case BR_FEQ :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) != dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_FNEQ :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) == dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_FLT :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) >= dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_FLE :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) > dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_FGT :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) <= dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case BR_FGE :
+						sp -= 2;
+						if ( !(dbl(prims[sp+1]) < dbl(prims[sp+2])) ) ip += code.getShort(ip+1);
+						else ip += 3;
+						break;
+					case ICONST :
+						prims[++sp] = code.getInt(ip+1);
+						ip += 5;
+						break;
+					case FCONST :
+						prims[++sp] = bits(code.getDouble(ip+1));
+						ip += 9;
+						break;
+					case SCONST :
+						refs[++sp] = strings[code.getShort(ip+1)];
+						ip += 3;
+						break;
+					case VCONST :
+						refs[++sp] = vectors[code.getShort(ip+1)].clone();
+						ip += 3;
+						break;
+					case VADD_INPLACE :
+					case VSUB_INPLACE :
+					case VMUL_INPLACE :
+					case VDIV_INPLACE :
+						vectorOp(opcode-VADD_INPLACE+VADD, (double[])refs[sp-1], (double[])refs[sp], (double[])refs[sp-1]);
+						sp -= 2; ip++;
+						break;
+					case SCONCAT : {
+						int n = code.getShort(ip+1);
+						sp -= n-1;
+						refs[sp] = concat(refs, sp, n);
+						ip += 3;
+						break;
+					}
+					case PRINTN : {
+						int n = code.getShort(ip+1);
+						sp -= n;
+						printParts(prims, refs, sp+1, n, code.getInt(ip+3));
+						ip += 7;
+						break;
+					}
+					case VRSUBF :
+					case VRDIVF :
+						refs[sp-1] = reverseScalarOp(opcode, dbl(prims[sp-1]), (double[])refs[sp]);
+						sp--; ip++;
+						break;
+					case ILOAD :
+					case FLOAD :
+						prims[++sp] = prims[fp+code.getShort(ip+1)];
+						ip += 3;
+						break;
+					case VLOAD :
+					case SLOAD :
+						refs[++sp] = refs[fp+code.getShort(ip+1)];
+						ip += 3;
+						break;
+					case STORE : {
+						int slot = fp+code.getShort(ip+1);
+						prims[slot] = prims[sp];
+						refs[slot] = refs[sp];
+						sp--; ip += 3;
+						break;
+					}
+					case VECTOR : {
+						int n = (int)prims[sp];
+						double[] v = new double[n];
+						int first = sp-n;
+						for (int i = 0; i<n; i++) v[i] = dbl(prims[first+i]);
+						sp = first;
+						refs[sp] = v;
+						ip++;
+						break;
+					}
+					case SLOAD_INDEX : {
+						String s = (String)refs[sp-1];
+						int i = (int)prims[sp];
+						if ( i<1 || i>s.length() ) {
+							throw new VMException(String.format("StringIndexOutOfRange: %d out of index : 1 to %d", i, s.length()));
+						}
+						char c = s.charAt(i-1);
+						refs[sp-1] = c<charStrings.length ? charStrings[c] : String.valueOf(c);
+						sp--; ip++;
+						break;
+					}
+					case VLOAD_INDEX : {
+						double[] v = (double[])refs[sp-1];
+						int i = (int)prims[sp];
+						checkIndex(v, i);
+						prims[sp-1] = bits(v[i-1]);
+						sp--; ip++;
+						break;
+					}
+					case VLOAD_LOCAL_INDEX : {
+						double[] v = (double[])refs[fp+code.getShort(ip+1)];
+						int i = (int)prims[fp+code.getShort(ip+3)];
+						checkIndex(v, i);
+						prims[++sp] = bits(v[i-1]);
+						ip += 5;
+						break;
+					}
+					case IINC : {
+						int slot = fp+code.getShort(ip+1);
+						prims[slot] = (int)prims[slot] + code.getShort(ip+3);
+						ip += 5;
+						break;
+					}
+					case STORE_INDEX : {
+						double[] v = (double[])refs[sp-2];
+						int i = (int)prims[sp-1];
+						checkIndex(v, i);
+						v[i-1] = dbl(prims[sp]);
+						sp -= 3; ip++;
+						break;
+					}
+					case PUSH_DFLT_RETV :
+						sp++;
+						prims[sp] = 0;
+						refs[sp] = defaultValue(func.type);
+						ip++;
+						break;
+					case POP :
+						sp--; ip++;
+						break;
+					case DUP :
+						prims[sp+1] = prims[sp];
+						refs[sp+1] = refs[sp];
+						sp++; ip++;
+						break;
+					case CALL : {
+						int target = code.getShort(ip+1);
+						FuncInfo f = functions[target];
+						int top = sp-f.nargs+f.nslots;
+						if ( callsp+1==frameFunc.length || top+f.maxStack>=prims.length ) {
+							throw new VMException("StackOverflow");
+						}
+						callsp++;
+						frameFunc[callsp] = target;
+						frameFp[callsp] = fp;
+						frameRetIp[callsp] = ip+3;
+						fp = sp-f.nargs+1;
+						for (int i = sp+1; i<=top; i++) { prims[i] = 0; refs[i] = null; }
+						sp = top;
+						ip = f.address;
+						func = f;
+						break;
+					}
+					case RET : {
+						if ( func.type!=CompilerUtils.VOID_TYPE ) {
+							prims[fp] = prims[sp];
+							refs[fp] = refs[sp];
+							sp = fp;
+						}
+						else {
+							sp = fp-1;
+						}
+						fp = frameFp[callsp];
+						ip = frameRetIp[callsp];
+						callsp--;
+						func = functions[frameFunc[callsp]];
+						break;
+					}
+					case IPRINT :
+					case BPRINT :
+						out.print((int)prims[sp--]);
+						out.print('\n');
+						ip++;
+						break;
+					case FPRINT :
+						out.print(formatFloat(dbl(prims[sp--])));
+						out.print('\n');
+						ip++;
+						break;
+					case SPRINT :
+						out.print((String)refs[sp--]);
+						out.print('\n');
+						ip++;
+						break;
+					case VPRINT :
+						printVector((double[])refs[sp--]);
+						out.print('\n');
+						ip++;
+						break;
+					case VLEN :
+						prims[sp] = ((double[])refs[sp]).length;
+						ip++;
+						break;
+					case SLEN :
+						prims[sp] = ((String)refs[sp]).length();
+						ip++;
+						break;
+					case COPY_VECTOR :
+						refs[sp] = ((double[])refs[sp]).clone();
+						ip++;
+						break;
+					case NOP :
+					case GC_START :
+					case GC_END :
+					case SROOT :
+					case VROOT :
+						ip++;
+						break;
+					case HALT :
+						return;
+					default :
+						throw new VMException("invalid opcode "+opcode+" at "+ip);
+				}
+			}
+		}
+		finally {
+			instrCount = count;
+		}
+	}
+
+	protected static double dbl(long bits) { return Double.longBitsToDouble(bits); }
+
+	protected static long bits(double d) { return Double.doubleToRawLongBits(d); }
+
+	protected static Object defaultValue(int type) {
+		switch ( type ) {
+			case CompilerUtils.STRING_TYPE :
+				return "";
+			case CompilerUtils.VECTOR_TYPE :
+				return new double[0];
+			default :
+				return null;
+		}
+	}
+
+	protected static void checkIndex(double[] v, int i) {
+		if ( i<1 || i>v.length ) {
+			throw new VMException(String.format("VectorIndexOutOfRange: %d out of index : 1 to %d", i, v.length));
+		}
+	}
+
+	protected static double[] vectorOp(int opcode, double[] a, double[] b) {
+		return vectorOp(opcode, a, b, new double[a.length]);
+	}
+
+	/** a op b into r, which may be a itself */
+	protected static double[] vectorOp(int opcode, double[] a, double[] b, double[] r) {
+		if ( a.length!=b.length ) {
+			throw new VMException(String.format("IncompatibleVectorLength: %d and %d", a.length, b.length));
+		}
+		switch ( opcode ) {
+			case VADD : for (int i = 0; i<r.length; i++) r[i] = a[i] + b[i]; break;
+			case VSUB : for (int i = 0; i<r.length; i++) r[i] = a[i] - b[i]; break;
+			case VMUL : for (int i = 0; i<r.length; i++) r[i] = a[i] * b[i]; break;
+			case VDIV : for (int i = 0; i<r.length; i++) r[i] = a[i] / b[i]; break;
+		}
+		return r;
+	}
+
+	protected static double[] scalarOp(int opcode, double[] a, double b) {
+		double[] r = new double[a.length];
+		switch ( opcode ) {
+			case VADDI : case VADDF : for (int i = 0; i<r.length; i++) r[i] = a[i] + b; break;
+			case VSUBI : case VSUBF : for (int i = 0; i<r.length; i++) r[i] = a[i] - b; break;
+			case VMULI : case VMULF : for (int i = 0; i<r.length; i++) r[i] = a[i] * b; break;
+			case VDIVI : case VDIVF : for (int i = 0; i<r.length; i++) r[i] = a[i] / b; break;
+		}
+		return r;
+	}
+
+	/** a - b or a / b element by element, for a scalar on the left */
+	protected static double[] reverseScalarOp(int opcode, double a, double[] b) {
+		double[] r = new double[b.length];
+		switch ( opcode ) {
+			case VRSUBF : for (int i = 0; i<r.length; i++) r[i] = a - b[i]; break;
+			case VRDIVF : for (int i = 0; i<r.length; i++) r[i] = a / b[i]; break;
+		}
+		return r;
+	}
+
+	protected static boolean vectorEquals(double[] a, double[] b) {
+		if ( a.length!=b.length ) return false;
+		for (int i = 0; i<a.length; i++) {
+			if ( a[i]!=b[i] ) return false;
+		}
+		return true;
+	}
+
+	protected void printVector(double[] v) {
+		out.print('[');
+		for (int i = 0; i<v.length; i++) {
+			if ( i>0 ) out.print(", ");
+			out.print(formatFloat(v[i]));
+		}
+		out.print(']');
+	}
+
+	/** Print slots first to first+n-1 as PRINTN describes, then a newline */
+	protected void printParts(long[] prims, Object[] refs, int first, int n, int kinds) {
+		for (int k = 0; k<n; k++) {
+			int i = first+k;
+			switch ( partKind(kinds, k) ) {
+				case PART_INT : out.print((int)prims[i]); break;
+				case PART_FLOAT : out.print(formatFloat(dbl(prims[i]))); break;
+				case PART_STRING : out.print((String)refs[i]); break;
+				default : out.print(vectorToString((double[])refs[i]));
+			}
+		}
+		out.print('\n');
+	}
+
+	/** Join strings refs[first] to refs[first+n-1] into one sized up front */
+	protected static String concat(Object[] refs, int first, int n) {
+		int len = 0;
+		for (int i = first; i<first+n; i++) len += ((String)refs[i]).length();
+		StringBuilder buf = new StringBuilder(len);
+		for (int i = first; i<first+n; i++) buf.append((String)refs[i]);
+		return buf.toString();
+	}
+
+	/** Same as the runtime's string-from-vector: elements as ints, no separator */
+	public static String vectorToString(double[] v) {
+		StringBuilder buf = new StringBuilder();
+		for (double d : v) buf.append((int)d);
+		return buf.toString();
+	}
+
+	/** Format like printf("%1.2f"). Rounds the exact binary value half-even
+	 *  as C does; Java's Formatter rounds the shortest decimal half-up.
+	 */
+	public static String formatFloat(double d) {
+		if ( Double.isNaN(d) ) return "nan";
+		if ( Double.isInfinite(d) ) return d>0 ? "inf" : "-inf";
+		String s = new BigDecimal(d).setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+		if ( (d<0 || (d==0 && 1/d<0)) && s.charAt(0)!='-' ) s = "-"+s;
+		return s;
+	}
+}
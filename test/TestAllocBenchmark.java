@@ -0,0 +1,80 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+import org.antlr.v4.runtime.misc.Triple;
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+import wich.codegen.CompilerUtils;
+import wich.codegen.CompilerUtils.CodeGenTarget;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/** Run the allocation heavy samples under each heap managing target and
+ *  print how long each took; every target must print the same thing.
+ *  Nothing is asserted about the times, which depend on the machine.
+ */
+public class TestAllocBenchmark extends TestWichExecution {
+	protected static final String TEST_BENCH = TEST_RES + "/bench";
+
+	public static final CodeGenTarget[] TARGETS = {
+		CodeGenTarget.REGION,
+		CodeGenTarget.REFCOUNTING,
+		CodeGenTarget.MARK_AND_SWEEP,
+		CodeGenTarget.MARK_AND_COMPACT,
+		CodeGenTarget.SCAVENGER
+	};
+
+	public TestAllocBenchmark(File input, String baseName) {
+		super(input, baseName);
+	}
+
+	@Test
+	public void testBenchmark() throws Exception {
+		String expected = CompilerUtils.readFile(CompilerUtils.getResourceFile(TEST_BENCH+"/"+baseName+".output").getPath(),
+												 CompilerUtils.FILE_ENCODING);
+		StringBuilder report = new StringBuilder(baseName+":\n");
+		for (CodeGenTarget target : TARGETS) {
+			String executable = "./"+baseName+"_"+target.flag.toLowerCase();
+			List<String> cc = new ArrayList<>();
+			String targetName = getCompilerCommand(target, executable, cc);
+			compile(input.getAbsolutePath(), target, cc, targetName, executable);
+
+			long start = System.nanoTime();
+			Triple<Integer, String, String> res = executeC(executable);
+			long ms = (System.nanoTime()-start)/1000000;
+			assertEquals(target+" output", expected, res.b);
+			report.append(String.format("  %-18s %6dms\n", target, ms));
+		}
+		System.out.print(report);
+	}
+
+	@Parameterized.Parameters(name="{1}")
+	public static Collection<Object[]> findInputFiles() {
+		return findTestCasesInFolder(TEST_BENCH);
+	}
+}
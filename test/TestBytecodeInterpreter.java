@@ -98,7 +98,8 @@ public class TestBytecodeInterpreter extends TestWichExecution {
 			throw new RuntimeException("failed compilation of "+wichInputFilename+" with error:\n "+ err.toString());
 		}
 		BytecodeWriter writer = new BytecodeWriter(symtab, tree);
-		writer.write(WORKING_DIR+wasmFilename);
+		writer.extensions = false; // wrun knows only the baseline instructions and listing
+		writer.writeDisasm(WORKING_DIR+wasmFilename); // wrun reads the text listing
 	}
 
 	protected String executeWASM(String wasmFilename) throws IOException, InterruptedException {
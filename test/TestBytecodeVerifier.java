@@ -0,0 +1,155 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.ASM;
+import wich.codegen.bytecode.BytecodeVerifier;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.codegen.bytecode.CodeBlock;
+import wich.codegen.bytecode.PeepholeOptimizer;
+import wich.errors.WichErrorHandler;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.semantics.symbols.WFunctionSymbol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Hand-built stack code the generator never emits, to check that the
+ *  verifier measures stack depth and rejects inconsistent code. Every
+ *  sample program also goes through it via BytecodeWriter, which reports
+ *  a rejection as an internal error.
+ */
+public class TestBytecodeVerifier {
+	@Test
+	public void testMaxStack() {
+		ASM asm = new ASM(null);
+		CodeBlock code = asm.begin();
+		asm.iconst(1);
+		asm.iconst(2);
+		asm.iconst(3);
+		asm.iadd();
+		asm.iadd();
+		asm.iprint();
+		asm.halt();
+		assertEquals(3, verify(code));
+	}
+
+	@Test
+	public void testBranchesMergeWithSameStack() {
+		ASM asm = new ASM(null);
+		CodeBlock code = asm.begin();
+		int other = asm.label();
+		int end = asm.label();
+		asm.iconst(1);
+		asm.brf(other);
+		asm.fconst(1.0f);
+		asm.br(end);
+		asm.mark(other);
+		asm.fconst(2.0f);
+		asm.mark(end);
+		asm.fprint();
+		asm.halt();
+		assertEquals(1, verify(code));
+	}
+
+	@Test
+	public void testRejectsTypeMismatchAtMerge() {
+		ASM asm = new ASM(null);
+		CodeBlock code = asm.begin();
+		int other = asm.label();
+		int end = asm.label();
+		asm.iconst(1);
+		asm.brf(other);
+		asm.fconst(1.0f);
+		asm.br(end);
+		asm.mark(other);
+		asm.iconst(2);
+		asm.mark(end);
+		asm.pop();
+		asm.halt();
+		assertRejected(code, "differs from");
+	}
+
+	@Test
+	public void testRejectsWrongOperandType() {
+		ASM asm = new ASM(null);
+		CodeBlock code = asm.begin();
+		asm.iconst(1);
+		asm.fconst(2.0f);
+		asm.iadd();
+		asm.ret();
+		assertRejected(code, "expects int but found float");
+	}
+
+	@Test
+	public void testRejectsUnderflow() {
+		ASM asm = new ASM(null);
+		CodeBlock code = asm.begin();
+		asm.iconst(1);
+		asm.iadd();
+		asm.ret();
+		assertRejected(code, "stack underflow");
+	}
+
+	@Test
+	public void testWriterReportsRejectedCode() throws Exception {
+		SymbolTable symtab = new SymbolTable();
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext)CompilerUtils.checkCorrectness("print(1)", symtab, err);
+		BytecodeWriter writer = new BytecodeWriter(symtab, tree);
+		writer.err = err;
+		writer.peephole = new PeepholeOptimizer() {
+			@Override
+			public CodeBlock optimize(String fname, CodeBlock code) {
+				ASM asm = new ASM(null);
+				CodeBlock broken = asm.begin();
+				asm.iadd();
+				asm.halt();
+				return broken;
+			}
+		};
+		assertEquals("<invalid>", writer.genObjectFile());
+		assertEquals(1, err.getErrorNum());
+		assertTrue(err.toString(), err.toString().contains("internal code generation error: main: IADD at 0 stack underflow"));
+	}
+
+	protected int verify(CodeBlock code) {
+		WFunctionSymbol f = new WFunctionSymbol("f");
+		f.setType(SymbolTable._void);
+		return new BytecodeVerifier(new WFunctionSymbol[] {f}).verify(f, code);
+	}
+
+	protected void assertRejected(CodeBlock code, String msg) {
+		try {
+			verify(code);
+			fail("verifier accepted\n"+code);
+		}
+		catch (IllegalStateException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(msg));
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.errors.WichErrorHandler;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Bytecode generation, peephole and layout must stay linear in the
+ *  number of statements, functions and string literals: four times the script may take at most about
+ *  four times as long, well short of the sixteen a quadratic pass takes.
+ */
+public class TestCodeGenScaling {
+	public static final int SMALL = 25000;
+	public static final int LARGE = 100000;
+	public static final int SMALL_FUNCS = 2000;
+	public static final int LARGE_FUNCS = 8000;
+	public static final double MAX_RATIO = 8.0;
+
+	@Test
+	public void testStackCodeScalesLinearly() throws Exception {
+		checkLinear(false);
+	}
+
+	@Test
+	public void testRegisterCodeScalesLinearly() throws Exception {
+		checkLinear(true);
+	}
+
+	@Test
+	public void testManyFunctionsScaleLinearly() throws Exception {
+		compileTime(genFunctions(SMALL_FUNCS), false); // warm up the JIT
+		long smallTime = compileTime(genFunctions(SMALL_FUNCS), false);
+		long largeTime = compileTime(genFunctions(LARGE_FUNCS), false);
+		checkRatio("functions", SMALL_FUNCS, smallTime, LARGE_FUNCS, largeTime);
+	}
+
+	protected void checkLinear(boolean registers) {
+		compileTime(genScript(SMALL), registers); // warm up the JIT
+		long smallTime = compileTime(genScript(SMALL), registers);
+		long largeTime = compileTime(genScript(LARGE), registers);
+		checkRatio("statements", SMALL, smallTime, LARGE, largeTime);
+	}
+
+	protected static void checkRatio(String what, int small, long smallTime, int large, long largeTime) {
+		double ratio = (double)largeTime/Math.max(smallTime, 1);
+		assertTrue(String.format("%d %s took %dms but %d took %dms (%.1fx)",
+								 small, what, smallTime/1000000, large, largeTime/1000000, ratio),
+				   ratio<MAX_RATIO);
+	}
+
+	/** Time from checked parse tree to binary object file */
+	protected static long compileTime(String script, boolean registers) {
+		SymbolTable symtab = new SymbolTable();
+		WichParser.ScriptContext tree = parse(script, symtab);
+		BytecodeWriter writer = new BytecodeWriter(symtab, tree);
+		writer.registers = registers;
+		writer.extensions = true;
+		long start = System.nanoTime();
+		writer.genBinaryObjectFile();
+		return System.nanoTime()-start;
+	}
+
+	protected static WichParser.ScriptContext parse(String script, SymbolTable symtab) {
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext)CompilerUtils.checkCorrectness(script, symtab, err);
+		assertEquals(0, err.getErrorNum());
+		return tree;
+	}
+
+	/** n statements: globals tested in ifs and whiles that branch forward and back */
+	public static String genScript(int n) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i<n; i+=4) {
+			String v = "v"+i;
+			buf.append("var ").append(v).append(" = ").append(i%7).append('\n');
+			buf.append("if (").append(v).append(" > 3) { print(").append(v).append(" * 2) }")
+			   .append(" else { ").append(v).append(" = ").append(v).append(" - 1 }\n");
+			buf.append("while (").append(v).append(" < 2) { ").append(v).append(" = ").append(v).append(" + 1 }\n");
+			buf.append("print(").append(v).append(")\n");
+		}
+		return buf.toString();
+	}
+
+	/** n functions, each returning its own string literal, all called from main */
+	public static String genFunctions(int n) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i<n; i++) {
+			buf.append("func f").append(i).append("() : string { return \"s").append(i).append("\" }\n");
+		}
+		for (int i = 0; i<n; i++) {
+			buf.append("print(f").append(i).append("())\n");
+		}
+		return buf.toString();
+	}
+}
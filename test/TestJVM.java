@@ -0,0 +1,70 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.jvm.JVMWriter;
+import wich.errors.WichErrorHandler;
+import wich.jvm.WichRuntime;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+
+/** Same samples as TestWichVM compiled to JVM classes by JVMWriter and
+ *  run in-process; the output must match the C and VM runs.
+ */
+public class TestJVM extends WichBaseTest {
+	public TestJVM(File input, String baseName) {
+		super(input, baseName);
+	}
+
+	@Test
+	public void testExecution() throws Exception {
+		URL expectedFile = CompilerUtils.getResourceFile(baseName + ".output");
+		String expected = "";
+		if ( expectedFile!=null ) {
+			expected = CompilerUtils.readFile(expectedFile.getPath(), CompilerUtils.FILE_ENCODING);
+		}
+		String wichInput = CompilerUtils.readFile(input.getAbsolutePath(), CompilerUtils.FILE_ENCODING);
+		SymbolTable symtab = new SymbolTable();
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext) CompilerUtils.checkCorrectness(wichInput, symtab, err);
+		if ( err.getErrorNum() > 0 ) {
+			throw new RuntimeException("failed compilation of "+baseName+" with error:\n "+ err.toString());
+		}
+		JVMWriter writer = new JVMWriter(symtab, tree, JVMWriter.classNameFor(input.getName()));
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+		int resultCode = WichRuntime.run(writer.load(), new PrintStream(stdout), new PrintStream(stderr));
+		if ( resultCode!=0 ) {
+			throw new RuntimeException("failed execution of " + baseName + " with result code "+resultCode+"; stderr:\n"+stderr);
+		}
+		assertEquals(expected, stdout.toString());
+	}
+}
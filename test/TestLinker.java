@@ -0,0 +1,167 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.errors.WichErrorHandler;
+import wich.link.Linker;
+import wich.link.Module;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.vm.ObjectFile;
+import wich.vm.VM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Separate compilation: modules from BytecodeWriter.genModule() linked
+ *  by wich.link.Linker must run like the whole script compiled at once.
+ */
+public class TestLinker {
+	public static final String LIB =
+		"func greet(s : string) : string { return \"hello \" + s }\n" +
+		"func sum(v : []) : float {\n" +
+		"	var i = 1\n" +
+		"	var t = 0.0\n" +
+		"	while (i <= len(v)) { t = t + v[i]  i = i + 1 }\n" +
+		"	return t\n" +
+		"}\n";
+
+	public static final String PROG =
+		"func twice(x : int) : int { return x * 2 }\n" +
+		"print(greet(\"world\"))\n" +
+		"print(sum([1,2,3.5]))\n" +
+		"print(twice(21))\n" +
+		"print(\"hello \")\n";
+
+	public static final String EXPECTED = "hello world\n6.50\n42\nhello \n";
+
+	@Test
+	public void testCallsAcrossModules() throws Exception {
+		for (boolean registers : new boolean[] {false, true}) {
+			Module lib = compile("lib", LIB, registers);
+			Module prog = compile("prog", PROG, registers, lib);
+			ObjectFile obj = link(prog, lib);
+			assertEquals(EXPECTED, run(obj));
+			assertEquals(2, obj.strings.length); // "hello " is shared
+		}
+	}
+
+	@Test
+	public void testConstantVectorsAcrossModules() throws Exception {
+		for (boolean registers : new boolean[] {false, true}) {
+			Module lib = compile("lib", LIB, registers);
+			Module vecs = compile("vecs", "func ones() : [] { return [1,1] }\nfunc mixed() : [] { return [1,2,3.5] }\n", registers);
+			Module prog = compile("prog", PROG+"print(ones())\nprint(sum(mixed()))\n", registers, lib, vecs);
+			ObjectFile obj = link(prog, lib, vecs);
+			assertEquals(EXPECTED+"[1.00, 1.00]\n6.50\n", run(obj));
+			assertEquals(2, obj.vectors.length); // [1,2,3.5] is shared
+		}
+	}
+
+	@Test
+	public void testLibraryHasNoMain() throws Exception {
+		Module lib = compile("lib", LIB, false);
+		assertEquals(2, lib.functions.length);
+		assertTrue(lib.indexOfFunction("main")<0);
+	}
+
+	@Test
+	public void testEachSampleLinksAlone() throws Exception {
+		for (Object[] args : WichBaseTest.findTestCasesInFolder(WichBaseTest.TEST_RES)) {
+			File input = (File)args[0];
+			String src = CompilerUtils.readFile(input.getPath(), CompilerUtils.FILE_ENCODING);
+			WichErrorHandler err = new WichErrorHandler();
+			String listing = CompilerUtils.genBytecode(src, new SymbolTable(), err, CompilerUtils.CodeGenTarget.BYTECODE, true);
+			if ( err.getErrorNum()>0 ) continue;
+			Module m = compile(input.getName(), src, false);
+			if ( m.indexOfFunction("main")<0 ) continue; // nothing but functions; a library
+			ObjectFile obj = link(m);
+			assertEquals(input.getName(), listing, obj.disassemble());
+		}
+	}
+
+	@Test
+	public void testUndefinedSymbol() throws Exception {
+		Module lib = compile("lib", LIB, false);
+		assertLinkError("undefined symbol greet in prog", compile("prog", PROG, false, lib));
+	}
+
+	@Test
+	public void testDuplicateSymbol() throws Exception {
+		Module lib = compile("lib", LIB, false);
+		Module prog = compile("prog", PROG, false, lib);
+		assertLinkError("duplicate symbol greet in lib and lib2", prog, lib, compile("lib2", LIB, false));
+	}
+
+	@Test
+	public void testNoMain() throws Exception {
+		assertLinkError("no module defines main", compile("lib", LIB, false));
+	}
+
+	protected Module compile(String name, String src, boolean registers, Module... imports) {
+		SymbolTable symtab = new SymbolTable();
+		for (Module m : imports) m.declare(symtab);
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext)CompilerUtils.checkCorrectness(src, symtab, err);
+		assertEquals(err.toString(), 0, err.getErrorNum());
+		BytecodeWriter writer = new BytecodeWriter(symtab, tree);
+		writer.registers = registers;
+		writer.extensions = true;
+		// go through the binary form as a separate compile would
+		return Module.decode(name, (ByteBuffer)writer.genModule(name).encode().rewind());
+	}
+
+	protected ObjectFile link(Module... modules) {
+		ObjectFile obj = new Linker().link(Arrays.asList(modules));
+		return ObjectFile.decode((ByteBuffer)obj.encode().rewind());
+	}
+
+	protected String run(ObjectFile obj) {
+		VM vm = VM.forObjectFile(obj);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		vm.out = new PrintStream(out);
+		vm.err = vm.out;
+		assertEquals(0, vm.exec());
+		return out.toString();
+	}
+
+	protected void assertLinkError(String msg, Module... modules) {
+		try {
+			link(modules);
+			fail("linked without "+msg);
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals(msg, e.getMessage());
+		}
+	}
+}
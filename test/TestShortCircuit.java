@@ -0,0 +1,110 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.codegen.jvm.JVMWriter;
+import wich.errors.WichErrorHandler;
+import wich.jvm.WichRuntime;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.vm.ObjectFile;
+import wich.vm.VM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/** && and || must not evaluate their right side once the left one decides
+ *  the result, as values and as if/while conditions, on every target.
+ */
+public class TestShortCircuit {
+	public static final String PROG =
+		"func t(x : int) : boolean { print(x) return true }\n" +
+		"func f(x : int) : boolean { print(x) return false }\n" +
+		"var a = f(1) && t(2)\n" +
+		"print(a)\n" +
+		"var b = t(3) || f(4)\n" +
+		"print(b)\n" +
+		"var c = (f(5) || t(6)) && (t(7) && f(8))\n" +
+		"print(c)\n" +
+		"if ( !(f(9) && t(10)) ) { print(\"ok\") }\n" +
+		"var i = 0\n" +
+		"while ( (i < 2) && t(i) ) { i = i + 1 }\n" +
+		"if ( (f(11) || f(12)) || t(13) ) { print(\"y\") } else { print(\"n\") }\n" +
+		"var d = true\n" +
+		"d = f(14) || d\n" +
+		"print(d)\n";
+
+	public static final String EXPECTED =
+		"1\n0\n3\n1\n5\n6\n7\n8\n0\n9\nok\n0\n1\n11\n12\n13\ny\n14\n1\n";
+
+	@Test
+	public void testStackVM() throws Exception {
+		assertEquals(EXPECTED, runVM(false, true));
+	}
+
+	@Test
+	public void testStackVMBaselineInstructions() throws Exception {
+		assertEquals(EXPECTED, runVM(false, false));
+	}
+
+	@Test
+	public void testRegisterVM() throws Exception {
+		assertEquals(EXPECTED, runVM(true, true));
+	}
+
+	@Test
+	public void testJVM() throws Exception {
+		SymbolTable symtab = new SymbolTable();
+		WichParser.ScriptContext tree = parse(symtab);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PrintStream ps = new PrintStream(out);
+		assertEquals(0, WichRuntime.run(new JVMWriter(symtab, tree, "short_circuit").load(), ps, ps));
+		assertEquals(EXPECTED, out.toString());
+	}
+
+	protected String runVM(boolean registers, boolean extensions) throws Exception {
+		SymbolTable symtab = new SymbolTable();
+		BytecodeWriter writer = new BytecodeWriter(symtab, parse(symtab));
+		writer.registers = registers;
+		writer.extensions = extensions;
+		ObjectFile obj = ObjectFile.decode((ByteBuffer)writer.genBinaryObjectFile().rewind());
+		VM vm = VM.forObjectFile(obj);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		vm.out = new PrintStream(out);
+		vm.err = vm.out;
+		assertEquals(0, vm.exec());
+		return out.toString();
+	}
+
+	protected WichParser.ScriptContext parse(SymbolTable symtab) {
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext)CompilerUtils.checkCorrectness(PROG, symtab, err);
+		assertEquals(err.toString(), 0, err.getErrorNum());
+		return tree;
+	}
+}
@@ -46,12 +46,22 @@ public class TestWichError extends TestWichExecution {
 
 	@Test
 	public void testErrorHandling() throws IOException, InterruptedException {
+		checkErrors(CompilerUtils.CodeGenTarget.PLAIN);
+	}
+
+	/** REGION inlines its own vector ops and stores, so it must raise the same runtime errors. */
+	@Test
+	public void testRegionErrorHandling() throws IOException, InterruptedException {
+		checkErrors(CompilerUtils.CodeGenTarget.REGION);
+	}
+
+	protected void checkErrors(CompilerUtils.CodeGenTarget target) throws IOException, InterruptedException {
 		WichErrorHandler err = new WichErrorHandler();
 		SymbolTable symtab = new SymbolTable();
 		assertTrue(err.toString(), err.getErrorNum()==0);
 
 		String wichInput = CompilerUtils.readFile(input.getAbsolutePath(), CompilerUtils.FILE_ENCODING);
-		CompilerUtils.genCode(wichInput, symtab, err, CompilerUtils.CodeGenTarget.PLAIN);
+		CompilerUtils.genCode(wichInput, symtab, err, target);
 
 		URL expectedOutputURL = CompilerUtils.getResourceFile(TEST_ERR+"/"+baseName+".output");
 		assertNotNull(expectedOutputURL);
@@ -60,7 +70,7 @@ public class TestWichError extends TestWichExecution {
 		String expected = CompilerUtils.readFile(expPath, CompilerUtils.FILE_ENCODING);
 		if (err.getErrorNum() > 0) {assertEquals(expected, err.toString()); return;}
 
-		executeAndCheck(input.getAbsolutePath(), expected, false, CompilerUtils.CodeGenTarget.PLAIN);
+		executeAndCheck(input.getAbsolutePath(), expected, false, target);
 	}
 
 	@Parameterized.Parameters(name="{1}")
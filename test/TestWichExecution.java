@@ -101,11 +101,19 @@ public class TestWichExecution extends WichBaseTest {
 				expectedOutputURL =
 						CompilerUtils.getResourceFile(TEST_RES_BYTECODE_GEND_CODE+"/"+baseName+".wasm");
 				break;
+			case BYTECODE_REG:
+				expectedOutputURL =
+						CompilerUtils.getResourceFile(TEST_RES_BYTECODE_REG_GEND_CODE+"/"+baseName+".wasm");
+				break;
 			case MARK_AND_COMPACT:
 			case MARK_AND_SWEEP:
 				expectedOutputURL =
 					CompilerUtils.getResourceFile(TEST_RES_GC_GEND_CODE+"/"+baseName+".c");
 				break;
+			case REGION:
+				expectedOutputURL =
+					CompilerUtils.getResourceFile(TEST_RES_REGION_GEND_CODE+"/"+baseName+".c");
+				break;
 			default :
 				err.error(null, ErrorType.UNKNOWN_TARGET, target.toString());
 		}
@@ -114,7 +122,7 @@ public class TestWichExecution extends WichBaseTest {
 		String expPath = expectedOutputURL.getPath();
 		String expected = CompilerUtils.readFile(expPath, CompilerUtils.FILE_ENCODING);
 		expected = expected.replace("\n\n", "\n"); // strip blank lines
-		if (target == CodeGenTarget.BYTECODE)
+		if (target == CodeGenTarget.BYTECODE || target == CodeGenTarget.BYTECODE_REG)
 			CompilerUtils.writeFile("/tmp/__expected.wasm", expected, StandardCharsets.UTF_8);
 		else
 			CompilerUtils.writeFile("/tmp/__expected.c", expected, StandardCharsets.UTF_8);
@@ -123,18 +131,19 @@ public class TestWichExecution extends WichBaseTest {
 		String actual = CompilerUtils.genCode(wichInput, symtab, err, target);
 		assertTrue(err.toString(), err.getErrorNum()==0);
 		actual = actual.replace("\n\n", "\n");
-		if (target == CodeGenTarget.BYTECODE)
+		if (target == CodeGenTarget.BYTECODE || target == CodeGenTarget.BYTECODE_REG)
 			CompilerUtils.writeFile("/tmp/__t.wasm", actual, StandardCharsets.UTF_8);
 		else
 			CompilerUtils.writeFile("/tmp/__t.c", actual, StandardCharsets.UTF_8);
 
 		if (target != CodeGenTarget.BYTECODE &&
+			target != CodeGenTarget.BYTECODE_REG &&
 			target != CodeGenTarget.LLVM &&
 			target != CodeGenTarget.LLVM_MARK_AND_COMPACT &&
 			target != CodeGenTarget.LLVM_MARK_AND_SWEEP &&
 			target != CodeGenTarget.LLVM_SCAVENGER) actual = normalizeFile();
 
-		if (target == CodeGenTarget.BYTECODE)
+		if (target == CodeGenTarget.BYTECODE || target == CodeGenTarget.BYTECODE_REG)
 			expected = CompilerUtils.readFile("/tmp/__expected.wasm", StandardCharsets.UTF_8);
 		else
 			expected = CompilerUtils.readFile("/tmp/__expected.c", StandardCharsets.UTF_8);
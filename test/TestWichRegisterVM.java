@@ -0,0 +1,47 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+
+import java.io.File;
+
+/** The samples again, compiled to the register form (BYTECODE_REG) and
+ *  run by wich.vm.RegisterVM.
+ */
+public class TestWichRegisterVM extends TestWichVM {
+	public TestWichRegisterVM(File input, String baseName) {
+		super(input, baseName);
+	}
+
+	@Override
+	protected CompilerUtils.CodeGenTarget target() {
+		return CompilerUtils.CodeGenTarget.BYTECODE_REG;
+	}
+
+	@Test
+	@Override
+	public void testCodeGen() throws Exception {
+		testCodeGen(CompilerUtils.CodeGenTarget.BYTECODE_REG);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015 Terence Parr, Hanzhou Shi, Shuai Yuan, Yuanyuan Zhang
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import org.junit.Test;
+import wich.codegen.CompilerUtils;
+import wich.codegen.bytecode.BytecodeWriter;
+import wich.errors.WichErrorHandler;
+import wich.parser.WichParser;
+import wich.semantics.SymbolTable;
+import wich.vm.Bytecodes;
+import wich.vm.ObjectFile;
+import wich.vm.VM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Same samples as TestBytecodeInterpreter but executed in-process by
+ *  wich.vm.VM rather than by forking wrun, so no native install is needed.
+ *  Runs the binary object file and checks that its disassembly matches
+ *  the text listing.
+ */
+public class TestWichVM extends TestBytecodeInterpreter {
+	public TestWichVM(File input, String baseName) {
+		super(input, baseName);
+	}
+
+	@Override
+	public void setUp() throws Exception {
+	}
+
+	protected CompilerUtils.CodeGenTarget target() {
+		return CompilerUtils.CodeGenTarget.BYTECODE;
+	}
+
+	@Override
+	protected void compileWASM(String wichInputFilename, String wasmFilename) throws IOException {
+		String wichInput = CompilerUtils.readFile(wichInputFilename, CompilerUtils.FILE_ENCODING);
+
+		SymbolTable symtab = new SymbolTable();
+		WichErrorHandler err = new WichErrorHandler();
+		WichParser.ScriptContext tree = (WichParser.ScriptContext) CompilerUtils.checkCorrectness(wichInput, symtab, err);
+		if ( err.getErrorNum() > 0 ) {
+			throw new RuntimeException("failed compilation of "+wichInputFilename+" with error:\n "+ err.toString());
+		}
+		BytecodeWriter writer = new BytecodeWriter(symtab, tree);
+		writer.registers = target()==CompilerUtils.CodeGenTarget.BYTECODE_REG;
+		writer.extensions = true;
+		writer.write(WORKING_DIR+wasmFilename);
+
+		String listing = CompilerUtils.genBytecode(wichInput, new SymbolTable(), err, target(), true);
+		assertEquals(listing, ObjectFile.map(WORKING_DIR+wasmFilename).disassemble());
+	}
+
+	/** The listing TestBytecodeInterpreter hands wrun loads and runs here too */
+	@Test
+	public void testBaselineListing() throws Exception {
+		if ( target()!=CompilerUtils.CodeGenTarget.BYTECODE ) return; // no wrun form
+		String wasmFilename = baseName+"_listing.wasm";
+		super.compileWASM(input.getAbsolutePath(), wasmFilename);
+		ObjectFile obj = ObjectFile.load(WORKING_DIR+wasmFilename);
+		for (int ip = 0; ip<obj.code.limit(); ip += Bytecodes.size(obj.code.get(ip) & 0xFF)) {
+			assertTrue(Bytecodes.names[obj.code.get(ip) & 0xFF], (obj.code.get(ip) & 0xFF)<Bytecodes.DUP);
+		}
+		URL expectedFile = CompilerUtils.getResourceFile(baseName + ".output");
+		String expected = "";
+		if ( expectedFile!=null ) {
+			expected = CompilerUtils.readFile(expectedFile.getPath(), CompilerUtils.FILE_ENCODING);
+		}
+		assertEquals(expected, executeWASM(wasmFilename));
+	}
+
+	@Override
+	protected String executeWASM(String wasmFilename) throws IOException {
+		VM vm = VM.forObjectFile(ObjectFile.load(WORKING_DIR + wasmFilename));
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+		vm.out = new PrintStream(stdout);
+		vm.err = new PrintStream(stderr);
+		int resultCode = vm.exec();
+		if ( resultCode!=0 ) {
+			throw new RuntimeException("failed execution of " + wasmFilename + " with result code "+resultCode+"; stderr:\n"+stderr);
+		}
+		return stdout.toString();
+	}
+}
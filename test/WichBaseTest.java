@@ -42,7 +42,9 @@ public class WichBaseTest {
 	public static final String TEST_RES_LLVM_MS_GEND_CODE = "llvm-ms";
 	public static final String TEST_RES_LLVM_SVGR_GEND_CODE = "llvm-svgr";
 	public static final String TEST_RES_GC_GEND_CODE = "gc";
+	public static final String TEST_RES_REGION_GEND_CODE = "region";
 	public static final String TEST_RES_BYTECODE_GEND_CODE = "wasm";
+	public static final String TEST_RES_BYTECODE_REG_GEND_CODE = "wasm-reg";
 
 	protected File input;
 	protected String baseName;
@@ -0,0 +1,20 @@
+func name(i:int) : string {
+	var s = "x"
+	var j = 0
+	while ( j < i ) {
+		s = s + "y" + j
+		j = j + 1
+	}
+	return s
+}
+
+var k = 0
+var n = 0
+var last = ""
+while ( k < 20000 ) {
+	last = name(n)
+	n = n + 1
+	if ( n > 49 ) n = 0
+	k = k + 1
+}
+print(last)
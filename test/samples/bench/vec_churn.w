@@ -0,0 +1,17 @@
+func churn(n:int) : [] {
+	var v = [1,2,3,4,5,6,7,8]
+	var i = 0
+	while ( i < n ) {
+		v = v + [1,1,1,1,1,1,1,1]
+		i = i + 1
+	}
+	return v
+}
+
+var k = 0
+var last = [0,0,0,0,0,0,0,0]
+while ( k < 20000 ) {
+	last = churn(100)
+	k = k + 1
+}
+print(last)
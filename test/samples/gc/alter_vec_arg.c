@@ -1,16 +1,16 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 void bar(PVector_ptr x);
 
 void bar(PVector_ptr x)
 {
-	gc_begin_func();
 	set_ith(x, 1-1, 100);
 	print_vector(x);
 
-	gc_end_func();
 }
 
 
@@ -19,7 +19,7 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
 	gc_begin_func();
 	VECTOR(x);
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	bar(PVector_copy(x));
 	set_ith(x, 2-1, 99);
 	print_vector(x);
@@ -6,8 +6,6 @@ void f(int x,PVector_ptr v);
 
 void f(int x,PVector_ptr v)
 {
-	gc_begin_func();
-	gc_end_func();
 }
 
 
@@ -1,15 +1,25 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 bool foo(int x);
 
 bool foo(int x)
 {
-	gc_begin_func();
-	{gc_end_func(); return (x < 10);}
+	return (x < 10);
 
-	gc_end_func();
 }
 
 
@@ -19,13 +29,17 @@ int main(int ____c, char *____v[])
 	gc_begin_func();
 	int x;
 	bool y;
+	union { String string; char bytes[sizeof(String) + sizeof("happy")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "happy", sizeof("happy") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("sad")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "sad", sizeof("sad") - 1);
 	x = 5;
 	y = foo(x);
 	if (y) {
-		print_string(String_new("happy"));
+		print_string(sl_str0);
 	}
 	else {
-		print_string(String_new("sad"));
+		print_string(sl_str1);
 	}
 	gc_end_func();
 
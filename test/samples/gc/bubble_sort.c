@@ -1,12 +1,13 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {100.0,99.0,4.0,2.15,2.0,23.0,3.0};
+
 PVector_ptr bubbleSort(PVector_ptr v);
 
 PVector_ptr
 bubbleSort(PVector_ptr v)
 {
-    gc_begin_func();
     int length;
 
     int i;
@@ -30,11 +31,7 @@ bubbleSort(PVector_ptr v)
         }
         i = (i + 1);
     }
-    {
-        gc_end_func();
-        return v;
-    }
-    gc_end_func();
+    return v;
 }
 
 int
@@ -43,8 +40,7 @@ main(int ____c, char *____v[])
     setup_error_handlers();
     gc_begin_func();
     VECTOR(x);
-    x = Vector_new((double[]) {
-                   100, 99, 4, 2.15, 2, 23, 3}, 7);
+    x = Vector_new((double *)vl_vec0, 7);
     print_vector(bubbleSort(PVector_copy(x)));
     gc_end_func();
     gc();
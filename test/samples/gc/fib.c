@@ -6,13 +6,11 @@ int fib(int x);
 
 int fib(int x)
 {
-	gc_begin_func();
 	if (((x == 0) || (x == 1))) {
-		{gc_end_func(); return x;}
+		return x;
 	}
-	{gc_end_func(); return (fib((x - 1)) + fib((x - 2)));}
+	return (fib((x - 1)) + fib((x - 2)));
 
-	gc_end_func();
 }
 
 
@@ -7,18 +7,14 @@ double g();
 
 String * f()
 {
-	gc_begin_func();
 	g();
 
-	gc_end_func();
 }
 
 double g()
 {
-	gc_begin_func();
 	f();
 
-	gc_end_func();
 }
 
 
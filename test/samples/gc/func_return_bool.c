@@ -6,10 +6,8 @@ bool bar(int x);
 
 bool bar(int x)
 {
-	gc_begin_func();
-	{gc_end_func(); return (x < 10);}
+	return (x < 10);
 
-	gc_end_func();
 }
 
 
@@ -1,14 +1,15 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0};
+
 int
 main(int ____c, char *____v[])
 {
     setup_error_handlers();
     gc_begin_func();
     VECTOR(x);
-    x = Vector_new((double[]) {
-                   1, 2.0, 3, 4}, 4);
+    x = Vector_new((double *)vl_vec0, 4);
     while ((ith(x, (3) - 1) > 0)) {
         set_ith(x, 3 - 1, (ith(x, (3) - 1) - 1));
     }
@@ -0,0 +1,51 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {1.0,2.0,3.0,4.0,5.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+
+int f();
+int g(PVector_ptr v);
+
+int f()
+{
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
+	PVector_ptr v;
+	v = stack_vector(&sv_0, vl_vec0, 3);
+	return 3;
+
+}
+
+int g(PVector_ptr v)
+{
+	return Vector_len(v);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	printf("%d\n", f());
+	printf("%d\n", g(Vector_new((double *)vl_vec1, 5)));
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
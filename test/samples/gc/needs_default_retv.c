@@ -6,8 +6,6 @@ int f();
 
 int f()
 {
-	gc_begin_func();
-	gc_end_func();
 }
 
 
@@ -1,6 +1,18 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 void f();
 
@@ -8,11 +20,11 @@ void f()
 {
 	gc_begin_func();
 	STRING(x);
-	x = String_new("cat");
+	x = sl_str0;
 	{
-		STRING(y);
-		STRING(z);
-		y = String_new("dog");
+		String * y;
+		String * z;
+		y = sl_str1;
 		z = x;
 	}
 
@@ -24,6 +36,9 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
+	sl_str0 = String_new("cat"); gc_add_root((void **)&sl_str0);
+	union { String string; char bytes[sizeof(String) + sizeof("dog")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "dog", sizeof("dog") - 1);
 	f();
 	gc_end_func();
 
@@ -7,23 +7,19 @@ bool bar(int x);
 
 bool foo(int x)
 {
-	gc_begin_func();
-	{gc_end_func(); return (x < 10);}
+	return (x < 10);
 
-	gc_end_func();
 }
 
 bool bar(int x)
 {
-	gc_begin_func();
 	if ((x < 1)) {
-		{gc_end_func(); return true;}
+		return true;
 	}
 	else {
-		{gc_end_func(); return false;}
+		return false;
 	}
 
-	gc_end_func();
 }
 
 
@@ -0,0 +1,87 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+String * id(String * s);
+PVector_ptr same(PVector_ptr v);
+String * g();
+PVector_ptr h();
+
+String * id(String * s)
+{
+	return s;
+
+}
+
+PVector_ptr same(PVector_ptr v)
+{
+	return v;
+
+}
+
+String * g()
+{
+	String * x;
+	String * t;
+	x = String_add(sl_str0,sl_str1);
+	t = id(x);
+	return t;
+
+}
+
+PVector_ptr h()
+{
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_0;
+	union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_1;
+	VECTOR(w);
+	PVector_ptr u;
+	w = Vector_add(stack_vector(&sv_0, vl_vec0, 2),stack_vector(&sv_1, vl_vec0, 2));
+	u = PVector_copy(same(w));
+	{gc_end_func(); return u;}
+
+	gc_end_func();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { String string; char bytes[sizeof(String) + sizeof("a")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "a", sizeof("a") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("b")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "b", sizeof("b") - 1);
+	print_string(g());
+	print_vector(h());
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
@@ -1,17 +1,17 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 PVector_ptr f();
 
 PVector_ptr f()
 {
-	gc_begin_func();
-	VECTOR(x);
-	x = Vector_new((double []){1,2,3}, 3);
-	{gc_end_func(); return x;}
+	PVector_ptr x;
+	x = Vector_new((double *)vl_vec0, 3);
+	return x;
 
-	gc_end_func();
 }
 
 
@@ -1,6 +1,28 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static void print_concat_sss(String *p0, String *p1, String *p2)
+{
+fputs(p0->str, stdout);
+fputs(p1->str, stdout);
+fputs(p2->str, stdout);
+putchar('\n');
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 bool str_gt(String * s1,String * t);
 void gt_msg(String * s,String * t);
@@ -8,26 +30,20 @@ void le_msg(String * s,String * t);
 
 bool str_gt(String * s1,String * t)
 {
-	gc_begin_func();
-	{gc_end_func(); return String_gt(s1,t);}
+	return String_gt(s1,t);
 
-	gc_end_func();
 }
 
 void gt_msg(String * s,String * t)
 {
-	gc_begin_func();
-	print_string(String_add(String_add(s,String_new(" is greater than ")),t));
+	print_concat_sss(s,sl_str0,t);
 
-	gc_end_func();
 }
 
 void le_msg(String * s,String * t)
 {
-	gc_begin_func();
-	print_string(String_add(String_add(s,String_new(" is less than or equal to ")),t));
+	print_concat_sss(s,sl_str1,t);
 
-	gc_end_func();
 }
 
 
@@ -40,9 +56,16 @@ int main(int ____c, char *____v[])
 	STRING(t);
 	bool s1t;
 	bool s2t;
-	s1 = String_new("hellp");
-	s2 = String_new("aello");
-	t = String_new("hello");
+	union { String string; char bytes[sizeof(String) + sizeof(" is greater than ")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, " is greater than ", sizeof(" is greater than ") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(" is less than or equal to ")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, " is less than or equal to ", sizeof(" is less than or equal to ") - 1);
+	sl_str2 = String_new("hellp"); gc_add_root((void **)&sl_str2);
+	sl_str3 = String_new("aello"); gc_add_root((void **)&sl_str3);
+	sl_str4 = String_new("hello"); gc_add_root((void **)&sl_str4);
+	s1 = sl_str2;
+	s2 = sl_str3;
+	t = sl_str4;
 	s1t = str_gt(s1,t);
 	if (s1t) {
 		gt_msg(s1,t);
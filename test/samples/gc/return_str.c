@@ -1,15 +1,26 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 String * becomeSuper(String * name);
 
 String * becomeSuper(String * name)
 {
-	gc_begin_func();
-	{gc_end_func(); return String_add(String_new("super"),name);}
+	return String_add(sl_str0,name);
 
-	gc_end_func();
 }
 
 
@@ -17,8 +28,12 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	print_string(becomeSuper(String_new("man")));
-	print_string(becomeSuper(String_new("duper")));
+	union { String string; char bytes[sizeof(String) + sizeof("super")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "super", sizeof("super") - 1);
+	sl_str1 = String_new("man"); gc_add_root((void **)&sl_str1);
+	sl_str2 = String_new("duper"); gc_add_root((void **)&sl_str2);
+	print_string(becomeSuper(sl_str1));
+	print_string(becomeSuper(sl_str2));
 	gc_end_func();
 
 	gc();
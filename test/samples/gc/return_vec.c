@@ -1,15 +1,15 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0,5.0};
+
 
 PVector_ptr foo();
 
 PVector_ptr foo()
 {
-	gc_begin_func();
-	{gc_end_func(); return Vector_new((double []){1,2,3,4,5}, 5);}
+	return Vector_new((double *)vl_vec0, 5);
 
-	gc_end_func();
 }
 
 
@@ -17,8 +17,8 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	VECTOR(x);
-	x = PVector_copy(foo());
+	PVector_ptr x;
+	x = foo();
 	print_vector(foo());
 	gc_end_func();
 
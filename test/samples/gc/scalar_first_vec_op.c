@@ -0,0 +1,81 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static const double vl_vec0[] = {2.0,4.0,8.0};
+static const double vl_vec1[] = {4.0,8.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_sub_scalar_first(double s, PVector_ptr a)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = s - ith(a, i);
+	return r;
+}
+static PVector_ptr Vector_sub_scalar_first_stack(void *slot, double s, PVector_ptr a, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = s - ith(a, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_div_scalar_first_stack(void *slot, double s, PVector_ptr a, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = s / ith(a, i);
+	return (PVector_ptr){0, r};
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+
+PVector_ptr twice(PVector_ptr v);
+
+PVector_ptr twice(PVector_ptr v)
+{
+	return Vector_mul_scalar(v,2);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_4;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_7;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_10;
+	union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_12;
+	union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_13;
+	VECTOR(v);
+	double k;
+	v = Vector_new((double *)vl_vec0, 3);
+	k = 1.5;
+	print_vector(Vector_sub_scalar_first_stack(&sv_4, 1, v, 3));
+	print_vector(Vector_div_scalar_first_stack(&sv_7, 16, v, 3));
+	print_vector(Vector_sub_scalar_first_stack(&sv_10, k, v, 3));
+	print_vector(Vector_div_scalar_first_stack(&sv_13, 2.0, stack_vector(&sv_12, vl_vec1, 2), 2));
+	print_vector(Vector_sub_scalar_first(10,twice(v)));
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
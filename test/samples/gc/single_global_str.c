@@ -1,13 +1,26 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	STRING(x);
-	x = String_new("Hello World!");
+	String * x;
+	union { String string; char bytes[sizeof(String) + sizeof("Hello World!")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "Hello World!", sizeof("Hello World!") - 1);
+	x = sl_str0;
 	gc_end_func();
 
 	gc();
@@ -0,0 +1,232 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static String *sl_str5;
+static String *sl_str6;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {4.0,5.0,6.0};
+static const double vl_vec2[] = {0.0,0.0,0.0};
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	return b;
+}
+static PVector_ptr Vector_mul_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) * ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_add_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) + ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_div_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) / ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_mul_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) * s;
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_sub_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) - s;
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_sub_scalar_first_stack(void *slot, double s, PVector_ptr a, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = s - ith(a, i);
+	return (PVector_ptr){0, r};
+}
+static String *String_concat_sisf_stack(void *slot, String *p0, int p1, String *p2, double p3)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	b = concat_put_s(b, p2);
+	b = concat_put_f(b, p3);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static String *String_concat_ss_stack(void *slot, String *p0, String *p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_s(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static String *String_concat_sv_stack(void *slot, String *p0, PVector_ptr p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_v(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+double norm(PVector_ptr v);
+
+double norm(PVector_ptr v)
+{
+	PVector_ptr d;
+	double s;
+	int i;
+	d = Vector_mul(v,v);
+	s = 0.0;
+	i = 1;
+	while ((i <= Vector_len(d))) {
+		s = (s + ith(d, (i)-1));
+		i = (i + 1);
+	}
+	return s;
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_4;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_7;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_10;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_13;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_18;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_29;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_31;
+	union { String string; char bytes[sizeof(String) + 11]; } ss_40;
+	union { String string; char bytes[sizeof(String) + 12]; } ss_44;
+	union { String string; char bytes[sizeof(String) + 327]; } ss_50;
+	union { String string; char bytes[sizeof(String) + 35]; } ss_57;
+	VECTOR(x);
+	PVector_ptr y;
+	PVector_ptr z;
+	int i;
+	VECTOR(total);
+	String * name;
+	String * greeting;
+	String * tag;
+	String * label;
+	union { String string; char bytes[sizeof(String) + sizeof("wich")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "wich", sizeof("wich") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("hello ")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "hello ", sizeof("hello ") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("!")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "!", sizeof("!") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("n")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "n", sizeof("n") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("/")]; } ss_str4;
+	sl_str4 = stack_string(&ss_str4, "/", sizeof("/") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("hello wich")]; } ss_str5;
+	sl_str5 = stack_string(&ss_str5, "hello wich", sizeof("hello wich") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("v")]; } ss_str6;
+	sl_str6 = stack_string(&ss_str6, "v", sizeof("v") - 1);
+	x = Vector_new((double *)vl_vec0, 3);
+	y = stack_vector(&sv_1, vl_vec1, 3);
+	z = Vector_add_stack(&sv_4, x, y, 3);
+	print_vector(Vector_mul_scalar_stack(&sv_7, z, 2, 3));
+	print_vector(Vector_sub_scalar_first_stack(&sv_10, 2, z, 3));
+	print_vector(Vector_mul_scalar_stack(&sv_13, z, -1.0, 3));
+	printf("%1.2f\n", ith(z, (2)-1));
+	printf("%d\n", Vector_len(Vector_div_stack(&sv_18, z, y, 3)));
+	printf("%1.2f\n", norm(x));
+	i = 0;
+	total = Vector_new((double *)vl_vec2, 3);
+	while ((i < 3)) {
+		PVector_ptr t;
+		t = Vector_sub_scalar_stack(&sv_31, Vector_mul_stack(&sv_29, x, y, 3), i, 3);
+		Vector_add_inplace(&total, t);
+		i = (i + 1);
+	}
+	print_vector(total);
+	name = sl_str0;
+	greeting = String_concat_ss_stack(&ss_40, sl_str1,name);
+	print_string(greeting);
+	printf("%d\n", String_len(String_concat_ss_stack(&ss_44, greeting,sl_str2)));
+	tag = String_concat_sisf_stack(&ss_50, sl_str3,i,sl_str4,2.5);
+	print_string(tag);
+	printf("%d\n", String_eq(greeting,sl_str5));
+	label = String_concat_sv_stack(&ss_57, sl_str6,x);
+	print_string(label);
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
@@ -1,16 +1,38 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static void print_concat_ss(String *p0, String *p1)
+{
+fputs(p0->str, stdout);
+fputs(p1->str, stdout);
+putchar('\n');
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	STRING(hello);
-	STRING(world);
-	hello = String_new("hello");
-	world = String_new("world");
-	print_string(String_add(hello,world));
+	String * hello;
+	String * world;
+	union { String string; char bytes[sizeof(String) + sizeof("hello")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "hello", sizeof("hello") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("world")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "world", sizeof("world") - 1);
+	hello = sl_str0;
+	world = sl_str1;
+	print_concat_ss(hello,world);
 	gc_end_func();
 
 	gc();
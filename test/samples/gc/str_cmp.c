@@ -1,18 +1,29 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 bool f(String * s);
 
 bool f(String * s)
 {
-	gc_begin_func();
-	if (String_le(s,String_new("cat"))) {
-		{gc_end_func(); return true;}
+	if (String_le(s,sl_str0)) {
+		return true;
 	}
-	{gc_end_func(); return false;}
+	return false;
 
-	gc_end_func();
 }
 
 
@@ -20,14 +31,19 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	STRING(s1);
+	String * s1;
 	STRING(s2);
-	s1 = String_new("");
-	s2 = String_new("cat");
+	sl_str0 = String_new("cat"); gc_add_root((void **)&sl_str0);
+	union { String string; char bytes[sizeof(String) + sizeof("")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "", sizeof("") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("miaow")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "miaow", sizeof("miaow") - 1);
+	s1 = sl_str1;
+	s2 = sl_str0;
 	if (String_gt(s1,s2)) {
 	}
 	else {
-		print_string(String_new("miaow"));
+		print_string(sl_str2);
 	}
 	printf("%d\n", f(s2));
 	gc_end_func();
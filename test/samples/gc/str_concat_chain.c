@@ -0,0 +1,158 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static String *sl_str5;
+static String *sl_str6;
+static String *sl_str7;
+static String *sl_str8;
+static String *sl_str9;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_sisss(String *p0, int p1, String *p2, String *p3, String *p4)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1) + concat_len_s(p2) + concat_len_s(p3) + concat_len_s(p4);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	b = concat_put_s(b, p2);
+	b = concat_put_s(b, p3);
+	b = concat_put_s(b, p4);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static String *String_concat_ssis(String *p0, String *p1, int p2, String *p3)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_s(p1) + concat_len_i(p2) + concat_len_s(p3);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_s(b, p1);
+	b = concat_put_i(b, p2);
+	b = concat_put_s(b, p3);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static void print_concat_is(int p0, String *p1)
+{
+	printf("%d", p0);
+	fputs(p1->str, stdout);
+	putchar('\n');
+}
+static void print_concat_sifv(String *p0, int p1, double p2, PVector_ptr p3)
+{
+	fputs(p0->str, stdout);
+	printf("%d", p1);
+	printf("%1.2f", p2);
+	for (size_t i = 0; i < p3.vector->length; i++) printf("%d", (int)ith(p3, i));
+	putchar('\n');
+}
+static void print_concat_ss(String *p0, String *p1)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	putchar('\n');
+}
+static void print_concat_ssssi(String *p0, String *p1, String *p2, String *p3, int p4)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	fputs(p2->str, stdout);
+	fputs(p3->str, stdout);
+	printf("%d", p4);
+	putchar('\n');
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+String * label(String * name,int n);
+
+String * label(String * name,int n)
+{
+	return String_concat_ssis(name,sl_str0,n,sl_str1);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_3;
+	String * s;
+	int i;
+	double f;
+	PVector_ptr v;
+	STRING(t);
+	int k;
+	union { String string; char bytes[sizeof(String) + sizeof("#")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "#", sizeof("#") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(":")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, ":", sizeof(":") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("x")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "x", sizeof("x") - 1);
+	sl_str3 = String_new("a"); gc_add_root((void **)&sl_str3);
+	union { String string; char bytes[sizeof(String) + sizeof("y")]; } ss_str4;
+	sl_str4 = stack_string(&ss_str4, "y", sizeof("y") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("z")]; } ss_str5;
+	sl_str5 = stack_string(&ss_str5, "z", sizeof("z") - 1);
+	sl_str6 = String_new(""); gc_add_root((void **)&sl_str6);
+	union { String string; char bytes[sizeof(String) + sizeof(",")]; } ss_str7;
+	sl_str7 = stack_string(&ss_str7, ",", sizeof(",") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("|")]; } ss_str8;
+	sl_str8 = stack_string(&ss_str8, "|", sizeof("|") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("!")]; } ss_str9;
+	sl_str9 = stack_string(&ss_str9, "!", sizeof("!") - 1);
+	s = sl_str2;
+	i = 7;
+	f = 2.5;
+	v = stack_vector(&sv_3, vl_vec0, 3);
+	print_concat_sifv(s,i,f,v);
+	print_concat_ssssi(label(sl_str3,1),s,sl_str4,sl_str5,i);
+	t = sl_str6;
+	k = 0;
+	while ((k < 60)) {
+		t = String_concat_sisss(t,k,sl_str7,s,sl_str8);
+		k = (k + 1);
+	}
+	print_string(t);
+	print_concat_is(i,s);
+	print_concat_ss(s,sl_str9);
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
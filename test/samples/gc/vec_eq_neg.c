@@ -0,0 +1,98 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {3.0,2.0,1.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_add_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) + ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_mul_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) * s;
+	return (PVector_ptr){0, r};
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+PVector_ptr neg(PVector_ptr v);
+
+PVector_ptr neg(PVector_ptr v)
+{
+	return Vector_mul_scalar(v,-1.0);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_16;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_19;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_21;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_26;
+	PVector_ptr v;
+	PVector_ptr w;
+	VECTOR(u);
+	union { String string; char bytes[sizeof(String) + sizeof("same")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "same", sizeof("same") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("differ")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "differ", sizeof("differ") - 1);
+	v = stack_vector(&sv_0, vl_vec0, 3);
+	w = stack_vector(&sv_1, vl_vec0, 3);
+	u = Vector_new((double *)vl_vec1, 3);
+	printf("%d\n", Vector_eq(v,w));
+	printf("%d\n", Vector_neq(v,u));
+	if (Vector_eq(v,u)) {
+		print_string(sl_str0);
+	}
+	else {
+		print_string(sl_str1);
+	}
+	print_vector(Vector_mul_scalar_stack(&sv_16, v, -1.0, 3));
+	print_vector(Vector_mul_scalar_stack(&sv_21, Vector_add_stack(&sv_19, v, u, 3), -1.0, 3));
+	printf("%d\n", Vector_eq(neg(u),Vector_mul_scalar_stack(&sv_26, u, -1.0, 3)));
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
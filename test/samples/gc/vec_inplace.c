@@ -0,0 +1,93 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {2.0,2.0,2.0};
+static const double vl_vec2[] = {1.0,1.0,1.0};
+static const double vl_vec3[] = {1.5,2.5,3.5};
+static void Vector_mul_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_mul(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data *= ith(b, i);
+}
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static void Vector_sub_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_sub(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data -= ith(b, i);
+}
+static void Vector_div_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_div(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data /= ith(b, i);
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+
+PVector_ptr scale(int n);
+
+PVector_ptr scale(int n)
+{
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	VECTOR(v);
+	PVector_ptr w;
+	int i;
+	v = Vector_new((double *)vl_vec0, 3);
+	w = stack_vector(&sv_1, vl_vec1, 3);
+	i = 0;
+	while ((i < n)) {
+		Vector_mul_inplace(&v, w);
+		i = (i + 1);
+	}
+	{gc_end_func(); return v;}
+
+	gc_end_func();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_3;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_4;
+	VECTOR(x);
+	PVector_ptr y;
+	VECTOR(a);
+	VECTOR(b);
+	x = Vector_new((double *)vl_vec2, 3);
+	y = stack_vector(&sv_1, vl_vec3, 3);
+	Vector_add_inplace(&x, y);
+	Vector_sub_inplace(&x, stack_vector(&sv_3, vl_vec2, 3));
+	Vector_div_inplace(&x, stack_vector(&sv_4, vl_vec1, 3));
+	print_vector(x);
+	a = Vector_new((double *)vl_vec0, 3);
+	b = a;
+	a = Vector_add(a,y);
+	print_vector(a);
+	print_vector(b);
+	print_vector(scale(3));
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
@@ -0,0 +1,76 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "gc.h"
+
+static const double vl_vec0[] = {2.0,4.0,8.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_add_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + s;
+	return r;
+}
+static PVector_ptr Vector_mul_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) * s;
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_sub_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) - s;
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_div_scalar_stack(void *slot, PVector_ptr a, double s, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) / s;
+	return (PVector_ptr){0, r};
+}
+PVector_ptr scale(PVector_ptr v,double k);
+
+PVector_ptr scale(PVector_ptr v,double k)
+{
+	return Vector_mul_scalar(v,k);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	gc_begin_func();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_4;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_7;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_10;
+	VECTOR(v);
+	int i;
+	v = Vector_new((double *)vl_vec0, 3);
+	i = 2;
+	print_vector(Vector_sub_scalar_stack(&sv_4, v, 1, 3));
+	print_vector(Vector_div_scalar_stack(&sv_7, v, i, 3));
+	print_vector(Vector_mul_scalar_stack(&sv_10, v, i, 3));
+	print_vector(Vector_add_scalar(scale(v,0.5),0.25));
+	gc_end_func();
+
+	gc();
+	Heap_Info info = get_heap_info();
+	if ( info.live!=0 ) fprintf(stderr, "%d objects remain after collection\n", info.live);
+	gc_shutdown();
+	return 0;
+}
+
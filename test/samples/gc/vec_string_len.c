@@ -1,16 +1,43 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
 
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	STRING(a);
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	String * a;
 	int b;
-	a = String_new("hello");
-	b = Vector_len(Vector_new((double []){1,2,3}, 3));
-	printf("%d\n", ((String_len(a) + String_len(String_new("world"))) + b));
+	union { String string; char bytes[sizeof(String) + sizeof("hello")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "hello", sizeof("hello") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("world")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "world", sizeof("world") - 1);
+	a = sl_str0;
+	b = 3;
+	printf("%d\n", ((String_len(a) + String_len(sl_str1)) + b));
 	gc_end_func();
 
 	gc();
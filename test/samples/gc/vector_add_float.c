@@ -1,16 +1,35 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static PVector_ptr Vector_add_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + s;
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+PVector *v = slot;
+memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+v->length = n;
+for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+return (PVector_ptr){0, v};
+}
+
 
 PVector_ptr f(double x);
 
 PVector_ptr f(double x)
 {
 	gc_begin_func();
-	VECTOR(y);
-	VECTOR(z);
-	y = Vector_new((double []){1,2,3}, 3);
-	z = Vector_add(y,Vector_from_float(x,(y).vector->length));
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
+	PVector_ptr y;
+	PVector_ptr z;
+	y = stack_vector(&sv_0, vl_vec0, 3);
+	z = Vector_add_scalar(y,x);
 	{gc_end_func(); return z;}
 
 	gc_end_func();
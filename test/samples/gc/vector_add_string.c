@@ -1,17 +1,66 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "gc.h"
 
+static String *sl_str0;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	return b;
+}
+static String *String_concat_sv_stack(void *slot, String *p0, PVector_ptr p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_v(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	gc_begin_func();
-	STRING(s);
-	VECTOR(v);
-	STRING(z);
-	s = String_new("hello");
-	v = Vector_new((double []){1,2,3}, 3);
-	z = String_add(s,String_from_vector(v));
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	union { String string; char bytes[sizeof(String) + 39]; } ss_4;
+	String * s;
+	PVector_ptr v;
+	String * z;
+	union { String string; char bytes[sizeof(String) + sizeof("hello")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "hello", sizeof("hello") - 1);
+	s = sl_str0;
+	v = stack_vector(&sv_1, vl_vec0, 3);
+	z = String_concat_sv_stack(&ss_4, s,v);
 	print_string(z);
 	gc_end_func();
 
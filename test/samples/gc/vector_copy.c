@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "gc.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -8,7 +10,7 @@ int main(int ____c, char *____v[])
 	gc_begin_func();
 	VECTOR(x);
 	VECTOR(y);
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	y = PVector_copy(x);
 	set_ith(y, 1-1, 4);
 	print_vector(x);
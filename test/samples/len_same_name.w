@@ -0,0 +1,11 @@
+func f() : int {
+	var v = [1, 2, 3]
+	return len(v)
+}
+
+func g(v:[]) : int {
+	return len(v)
+}
+
+print(f())
+print(g([1, 2, 3, 4, 5]))
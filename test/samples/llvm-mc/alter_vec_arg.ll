@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -216,39 +220,26 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%x1_ = alloca %struct.PVector_ptr
-%x1_mcp_target_ = bitcast %struct.PVector_ptr* %x1_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x1_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x1_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x1_, i32 0, i32 1
-%x1_raw_ptr_ = bitcast %struct.PVector** %x1_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x1_raw_ptr_)
-%0 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_4 = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 3)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %x1_
-%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %x1_
-%6 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %5)
-call void (%struct.PVector_ptr) @bar(%struct.PVector_ptr %6)
-%7 = load %struct.PVector_ptr, %struct.PVector_ptr* %x1_
-%8 = add i32 2, 0
-%index_8 = sub i32 %8, 1
-%9 = add i32 99, 0
-%promo3 = sitofp i32 %9 to double
-call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %7, i32 %index_8, double %promo3)
-%10 = load %struct.PVector_ptr, %struct.PVector_ptr* %x1_
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %10)
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%2 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %1)
+call void (%struct.PVector_ptr) @bar(%struct.PVector_ptr %2)
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%4 = add i32 2, 0
+%index_4 = sub i32 %4, 1
+%5 = add i32 99, 0
+%promo0 = sitofp i32 %5 to double
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %3, i32 %index_4, double %promo0)
+%6 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %6)
 br label %ret__
 ret__:
 br label %ret_
@@ -275,3 +266,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -187,9 +191,6 @@ entry:
 %x0_ = alloca i32
 store i32 %x0, i32* %x0_
 %retval_ = alloca i1
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %0 = load i32, i32* %x0_
 %1 = add i32 10, 0
 %2 = icmp slt i32 %0, %1
@@ -201,8 +202,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load i1, i1* %retval_
 ret i1 %retval
 }
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -195,58 +199,42 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%0 = alloca [4 x double]
-%vpromo0_ = getelementptr [4 x double], [4 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%v2_ = getelementptr [4 x double], [4 x double]* %0, i64 0, i64 1
-%2 = fadd double 2.0, 0.00
-store double %2, double* %v2_
-%vpromo1_ = getelementptr [4 x double], [4 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo1 = sitofp i32 %3 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [4 x double], [4 x double]* %0, i64 0, i64 3
-%4 = add i32 4, 0
-%promo2 = sitofp i32 %4 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_5 = getelementptr [4 x double], [4 x double]* %0, i64 0, i64 0
-%5 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_5, i64 4)
-store %struct.PVector_ptr %5, %struct.PVector_ptr* %x0_
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vec_ptr_0 = getelementptr [4 x double], [4 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 4)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
 br label %while.block_entry_0
 while.block_entry_0:
-%vec_7 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
+%vec_2 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%1 = add i32 3, 0
+%index_1 = sub i32 %1, 1
+%2 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_2, i32 %index_1)
+%3 = add i32 0, 0
+%promo0 = sitofp i32 %3 to double
+%4 = fcmp ogt double %2, %promo0
+br i1 %4, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
 %6 = add i32 3, 0
 %index_6 = sub i32 %6, 1
-%7 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_7, i32 %index_6)
-%8 = add i32 0, 0
-%promo3 = sitofp i32 %8 to double
-%9 = fcmp ogt double %7, %promo3
-br i1 %9, label %while.block_body_0, label %while.block_exit_0
-while.block_body_0:
-%10 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%11 = add i32 3, 0
-%index_11 = sub i32 %11, 1
-%vec_13 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%12 = add i32 3, 0
-%index_12 = sub i32 %12, 1
-%13 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_13, i32 %index_12)
-%14 = add i32 1, 0
-%promo4 = sitofp i32 %14 to double
-%15 = fsub double %13, %promo4
-call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %10, i32 %index_11, double %15)
+%vec_8 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%7 = add i32 3, 0
+%index_7 = sub i32 %7, 1
+%8 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_8, i32 %index_7)
+%9 = add i32 1, 0
+%promo1 = sitofp i32 %9 to double
+%10 = fsub double %8, %promo1
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %5, i32 %index_6, double %10)
 
 br label %while.block_entry_0
 while.block_exit_0:
-%16 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %16)
+%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %11)
 br label %ret__
 ret__:
 br label %ret_
@@ -273,3 +261,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [4 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000], align 8
\ No newline at end of file
@@ -0,0 +1,621 @@
+%struct.heap_object = type { i32, %struct._object_metadata*, i32, i8, %struct.heap_object* }
+target triple = "x86_64-apple-macosx10.11.0"
+
+; ///////// ///////// D A T A  S T R U C T U R E S ///////// /////////
+%struct._object_metadata = type { i8*, i16, [0 x i16] }
+%struct.Heap_Info = type { i8*, i8*, i8*, i32, i32, i32, i32, i32, i32, i32 }
+%struct.__sFILE = type { i8*, i32, i32, i16, i16, %struct.__sbuf, i32, i8*, i32 (i8*)*, i32 (i8*, i8*, i32)*, i64 (i8*, i64, i32)*, i32 (i8*, i8*, i32)*, %struct.__sbuf, %struct.__sFILEX*, i32, [3 x i8], [1 x i8], %struct.__sbuf, i32, i64 }
+%struct.__sFILEX = type opaque
+%struct.__sbuf = type { i8*, i32 }
+%struct.PVector_ptr = type { i32, %struct.PVector* }
+%struct.PVector = type { %struct.heap_object, i32, i64, [0 x %struct._PVectorFatNode] }
+%struct._PVectorFatNode = type { double, %struct._PVectorFatNodeElem* }
+%struct._PVectorFatNodeElem = type { %struct.heap_object, i32, double, %struct._PVectorFatNodeElem* }
+%struct.string = type { %struct.heap_object, i64, [0 x i8] }
+
+declare %struct.PVector_ptr @PVector_init(double, i64)
+
+declare void @print_pvector(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @PVector_new(double*, i64)
+
+declare void @set_ith(%struct.PVector_ptr, i32, double)
+
+declare double @ith(%struct.PVector_ptr, i32)
+
+declare i8* @PVector_as_string(%struct.PVector_ptr)
+
+; ///////// ///////// W I C H  R U N T I M E  F U N C T I O N S ///////// /////////
+declare %struct.PVector_ptr @Vector_empty(i64)
+
+declare %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_new(double*, i64)
+
+declare %struct.PVector_ptr @Vector_from_int(i32, i64)
+
+declare %struct.PVector_ptr @Vector_from_float(double, i64)
+
+declare %struct.PVector_ptr @Vector_add(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_sub(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare i32 @Vector_len(%struct.PVector_ptr)
+
+declare void @print_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_new(i8*)
+
+declare %struct.string* @String_from_char(i8 signext)
+
+declare %struct.string* @String_add(%struct.string*, %struct.string*)
+
+declare %struct.string* @String_from_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_from_int(i32)
+
+declare %struct.string* @String_from_float(double)
+
+declare void @print_string(%struct.string*)
+
+declare zeroext i1 @String_eq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_neq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_gt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_ge(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_lt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_le(%struct.string*, %struct.string*)
+
+declare i32 @String_len(%struct.string*)
+
+declare void (i32)* @signal(i32, void (i32)*)
+
+; ///////// ///////// G C ///////// /////////
+
+declare i32 @gc_num_roots(...)
+
+declare void @gc_set_num_roots(i32)
+
+declare void @gc_add_root(i8**)
+
+declare void @gc(...)
+
+declare void @get_heap_info(%struct.Heap_Info* sret, ...)
+
+declare void @gc_shutdown(...)
+
+; ///////// ///////// S Y S T E M  F U N C T I O N S ///////// /////////
+declare i32 @fprintf(%struct.__sFILE*, i8*, ...)
+
+declare void @exit(i32)
+
+declare i32 @printf(i8*, ...)
+
+declare void @llvm.memcpy.p0i8.p0i8.i64(i8* nocapture, i8* nocapture readonly, i64, i32, i1)
+
+; ///////// ///////// I N L I N E  F U N C T I O N S ///////// /////////
+define internal { i32, %struct.PVector* } @PVector_copy(i32 %v.coerce0, %struct.PVector* %v.coerce1) {
+%1 = alloca %struct.PVector_ptr, align 8
+%v = alloca %struct.PVector_ptr, align 8
+%2 = bitcast %struct.PVector_ptr* %v to { i32, %struct.PVector* }*
+%3 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 0
+store i32 %v.coerce0, i32* %3, align 8
+%4 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 1
+store %struct.PVector* %v.coerce1, %struct.PVector** %4, align 8
+%5 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 0
+%6 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%7 = load %struct.PVector*, %struct.PVector** %6, align 8
+%8 = getelementptr inbounds %struct.PVector, %struct.PVector* %7, i32 0, i32 1
+%9 = load i32, i32* %8, align 8
+%10 = add nsw i32 %9, 1
+store i32 %10, i32* %8, align 8
+store i32 %10, i32* %5, align 8
+%11 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 1
+%12 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%13 = load %struct.PVector*, %struct.PVector** %12, align 8
+store %struct.PVector* %13, %struct.PVector** %11, align 8
+%14 = bitcast %struct.PVector_ptr* %1 to { i32, %struct.PVector* }*
+%15 = load { i32, %struct.PVector* }, { i32, %struct.PVector* }* %14, align 8
+ret { i32, %struct.PVector* } %15
+}
+
+define internal void @setup_error_handlers() {
+%1 = call void (i32)* @signal(i32 11, void (i32)* @handle_sys_errors)
+%2 = call void (i32)* @signal(i32 10, void (i32)* @handle_sys_errors)
+ret void
+}
+
+define internal void @handle_sys_errors(i32 %errno) {
+%1 = alloca i32, align 4
+%signame = alloca i8*, align 8
+store i32 %errno, i32* %1, align 4
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.2, i32 0, i32 0), i8** %signame, align 8
+%2 = load i32, i32* %1, align 4
+%3 = icmp eq i32 %2, 11
+br i1 %3, label %4, label %5
+
+; label:4                                       ; preds = %0
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.3, i32 0, i32 0), i8** %signame, align 8
+br label %10
+
+; label:5                                       ; preds = %0
+%6 = load i32, i32* %1, align 4
+%7 = icmp eq i32 %6, 10
+br i1 %7, label %8, label %9
+
+; label:8                                       ; preds = %5
+store i8* getelementptr inbounds ([7 x i8], [7 x i8]* @.str.4, i32 0, i32 0), i8** %signame, align 8
+br label %9
+
+; label:9                                       ; preds = %8, %5
+br label %10
+
+; label:10                                      ; preds = %9, %4
+%11 = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%12 = load i8*, i8** %signame, align 8
+%13 = load i32, i32* %1, align 4
+%14 = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %11, i8* getelementptr inbounds ([34 x i8], [34 x i8]* @.str.5, i32 0, i32 0), i8* %12, i32 %13)
+%15 = load i32, i32* %1, align 4
+call void @exit(i32 %15) #4
+unreachable
+                                              ; No predecessors!
+ret void
+}
+
+; ///////// ///////// C O N S T A N T S ///////// /////////
+@NIL_VECTOR = internal constant %struct.PVector_ptr { i32 -1, %struct.PVector* null }, align 8
+@pf.str = private unnamed_addr constant [7 x i8] c"%1.2f\0A\00", align 1
+@pi.str = private unnamed_addr constant [4 x i8] c"%d\0A\00", align 1
+@.str.2 = private unnamed_addr constant [8 x i8] c"UNKNOWN\00", align 1
+@.str.3 = private unnamed_addr constant [8 x i8] c"SIGSEGV\00", align 1
+@.str.4 = private unnamed_addr constant [7 x i8] c"SIGBUS\00", align 1
+@__stderrp = external global %struct.__sFILE*, align 8
+@.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
+@.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
+; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @Vector_add_inplace(%struct.PVector_ptr* %a, %struct.PVector_ptr %b) {
+entry:
+%av = load %struct.PVector_ptr, %struct.PVector_ptr* %a
+%avec = extractvalue %struct.PVector_ptr %av, 1
+%bvec = extractvalue %struct.PVector_ptr %b, 1
+%alen_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%alen = load i64, i64* %alen_
+%blen_ = getelementptr %struct.PVector, %struct.PVector* %bvec, i32 0, i32 2
+%blen = load i64, i64* %blen_
+%same = icmp eq i64 %alen, %blen
+br i1 %same, label %loop, label %mismatch
+mismatch:
+%r = call %struct.PVector_ptr @Vector_add(%struct.PVector_ptr %av, %struct.PVector_ptr %b)
+store %struct.PVector_ptr %r, %struct.PVector_ptr* %a
+ret void
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %alen
+br i1 %more, label %body, label %done
+body:
+%x_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 3, i64 %i, i32 0
+%x = load double, double* %x_
+%j = trunc i64 %i to i32
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fadd double %x, %y
+store double %z, double* %x_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret void
+}
+
+define internal %struct.PVector_ptr @Vector_mul_scalar(%struct.PVector_ptr %a, double %s) {
+entry:
+%avec = extractvalue %struct.PVector_ptr %a, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%len = load i64, i64* %len_
+%r = call %struct.PVector_ptr @Vector_empty(i64 %len)
+%rvec = extractvalue %struct.PVector_ptr %r, 1
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fmul double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret %struct.PVector_ptr %r
+}
+
+define internal i64 @concat_len_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_i(i8* %b, i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, i32 %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal %struct.string* @String_concat_si(%struct.string* %p0, i32 %p1) {
+entry:
+%small = alloca [256 x i8]
+%n0 = add i64 0, 0
+%len0 = call i64 @concat_len_s(%struct.string* %p0)
+%n1 = add i64 %n0, %len0
+%len1 = call i64 @concat_len_i(i32 %p1)
+%n2 = add i64 %n1, %len1
+%fits = icmp ult i64 %n2, 256
+br i1 %fits, label %stack, label %heap
+stack:
+%small_ = getelementptr [256 x i8], [256 x i8]* %small, i64 0, i64 0
+br label %fill
+heap:
+%size = add i64 %n2, 1
+%big = call i8* @malloc(i64 %size)
+br label %fill
+fill:
+%b0 = phi i8* [ %small_, %stack ], [ %big, %heap ]
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_i(i8* %b1, i32 %p1)
+store i8 0, i8* %b2
+%r = call %struct.string* (i8*) @String_new(i8* %b0)
+br i1 %fits, label %done, label %release
+release:
+call void @free(i8* %b0)
+br label %done
+done:
+ret %struct.string* %r
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
+
+define %struct.string* @pad(%struct.string* %s0, i32 %n0) {
+entry:
+%s0_ = alloca %struct.string*
+store %struct.string* %s0, %struct.string** %s0_
+%n0_ = alloca i32
+store i32 %n0, i32* %n0_
+%retval_ = alloca %struct.string*
+%i0_ = alloca i32
+%0 = add i32 0, 0
+store i32 %0, i32* %i0_
+br label %while.block_entry_0
+while.block_entry_0:
+%1 = load i32, i32* %i0_
+%2 = load i32, i32* %n0_
+%3 = icmp slt i32 %1, %2
+br i1 %3, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%4 = load %struct.string*, %struct.string** %s0_
+%5 = load %struct.string*, %struct.string** @sl.obj0
+%6 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %4,%struct.string* %5)
+store %struct.string* %6, %struct.string** %s0_
+%7 = load i32, i32* %i0_
+%8 = add i32 3, 0
+%9 = icmp eq i32 %7, %8
+br i1 %9, label %if.block_true_0, label %if.block_false_0
+if.block_true_0:
+%10 = load %struct.string*, %struct.string** %s0_
+%11 = load %struct.string*, %struct.string** @sl.obj1
+%12 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %10,%struct.string* %11)
+store %struct.string* %12, %struct.string** %retval_
+br label %ret_
+return.exit_0:
+
+br label %if.block_exit_0
+if.block_false_0:
+br label %if.block_exit_0
+if.block_exit_0:
+%13 = load i32, i32* %i0_
+%14 = add i32 1, 0
+%15 = add i32 %13, %14
+store i32 %15, i32* %i0_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%16 = load %struct.string*, %struct.string** %s0_
+store %struct.string* %16, %struct.string** %retval_
+br label %ret_
+return.exit_1:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.string*, %struct.string** %retval_
+ret %struct.string* %retval
+}
+
+define %struct.PVector_ptr @grow(i32 %n1) {
+entry:
+%n1_ = alloca i32
+store i32 %n1, i32* %n1_
+%sv_9 = alloca { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }, align 8
+%retval_ = alloca %struct.PVector_ptr
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%i1_ = alloca i32
+%vec_ptr_0 = getelementptr [2 x double], [2 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 2)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = add i32 0, 0
+store i32 %1, i32* %i1_
+br label %while.block_entry_0
+while.block_entry_0:
+%2 = load i32, i32* %i1_
+%3 = load i32, i32* %n1_
+%4 = icmp slt i32 %2, %3
+br i1 %4, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%j0_ = alloca i32
+%5 = add i32 0, 0
+store i32 %5, i32* %j0_
+br label %while.block_entry_1
+while.block_entry_1:
+%6 = load i32, i32* %j0_
+%7 = load i32, i32* %n1_
+%8 = icmp slt i32 %6, %7
+br i1 %8, label %while.block_body_1, label %while.block_exit_1
+while.block_body_1:
+store { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }* %sv_9
+%sv_len_9 = getelementptr { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }* %sv_9, i32 0, i32 2
+store i64 2, i64* %sv_len_9
+%sv_9_0 = getelementptr { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }* %sv_9, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_9_0
+%sv_9_1 = getelementptr { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }* %sv_9, i32 0, i32 3, i64 1, i32 0
+store double 0x3FF0000000000000, double* %sv_9_1
+%sv_vec_9 = bitcast { %struct.heap_object, i32, i64, [2 x %struct._PVectorFatNode] }* %sv_9 to %struct.PVector*
+%9 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_9, 1
+call void (%struct.PVector_ptr*,%struct.PVector_ptr) @Vector_add_inplace(%struct.PVector_ptr* %vroot0_, %struct.PVector_ptr %9)
+%10 = load i32, i32* %j0_
+%11 = add i32 1, 0
+%12 = add i32 %10, %11
+store i32 %12, i32* %j0_
+
+br label %while.block_entry_1
+while.block_exit_1:
+%13 = load i32, i32* %i1_
+%14 = add i32 1, 0
+%15 = add i32 %13, %14
+store i32 %15, i32* %i1_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%16 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+store %struct.PVector_ptr %16, %struct.PVector_ptr* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+%retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
+ret %struct.PVector_ptr %retval
+}
+
+
+define i32 @main(i32 %argc, i8** %argv) {
+entry:
+%retval_ = alloca i32
+%argc_ = alloca i32
+%argv_ = alloca i8**
+store i32 0, i32* %retval_
+store i32 %argc, i32* %argc_
+store i8** %argv, i8*** %argv_
+call void () @setup_error_handlers()
+%__info__ = alloca %struct.Heap_Info, align 8
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%sv_18 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%vroot1_ = alloca %struct.PVector_ptr
+%vroot1_mcp_target_ = bitcast %struct.PVector_ptr* %vroot1_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot1_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot1_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_, i32 0, i32 1
+%vroot1_raw_ptr_ = bitcast %struct.PVector** %vroot1_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot1_raw_ptr_)
+%i2_ = alloca i32
+%sl_init0 = getelementptr [2 x i8], [2 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [2 x i8], [2 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [2 x i8], [2 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%sl_init3 = getelementptr [2 x i8], [2 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj3 to i8**))
+%sl_init4 = getelementptr [3 x i8], [3 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj4 to i8**))
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec2, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = load %struct.string*, %struct.string** @sl.obj2
+store %struct.string* %1, %struct.string** %sroot0_
+%2 = add i32 0, 0
+store i32 %2, i32* %i2_
+br label %while.block_entry_0
+while.block_entry_0:
+%3 = load i32, i32* %i2_
+%4 = add i32 20000, 0
+%5 = icmp slt i32 %3, %4
+br i1 %5, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%6 = alloca [3 x double]
+%vpromo0_ = getelementptr [3 x double], [3 x double]* %6, i64 0, i64 0
+%7 = load i32, i32* %i2_
+%promo0 = sitofp i32 %7 to double
+store double %promo0, double* %vpromo0_
+%vpromo1_ = getelementptr [3 x double], [3 x double]* %6, i64 0, i64 1
+%8 = load i32, i32* %i2_
+%promo1 = sitofp i32 %8 to double
+store double %promo1, double* %vpromo1_
+%vpromo2_ = getelementptr [3 x double], [3 x double]* %6, i64 0, i64 2
+%9 = load i32, i32* %i2_
+%promo2 = sitofp i32 %9 to double
+store double %promo2, double* %vpromo2_
+%vec_ptr_10 = getelementptr [3 x double], [3 x double]* %6, i64 0, i64 0
+%10 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_10, i64 3)
+%11 = add i32 2, 0
+%promo3 = sitofp i32 %11 to double
+%12 = call %struct.PVector_ptr (%struct.PVector_ptr,double) @Vector_mul_scalar(%struct.PVector_ptr %10,double %promo3)
+store %struct.PVector_ptr %12, %struct.PVector_ptr* %vroot1_
+%13 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%14 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_
+%15 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_add(%struct.PVector_ptr %13,%struct.PVector_ptr %14)
+%16 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_
+%17 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_sub(%struct.PVector_ptr %15,%struct.PVector_ptr %16)
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18
+%sv_len_18 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18, i32 0, i32 2
+store i64 3, i64* %sv_len_18
+%sv_18_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_18_0
+%sv_18_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18, i32 0, i32 3, i64 1, i32 0
+store double 0x3FF0000000000000, double* %sv_18_1
+%sv_18_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18, i32 0, i32 3, i64 2, i32 0
+store double 0x3FF0000000000000, double* %sv_18_2
+%sv_vec_18 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18 to %struct.PVector*
+%18 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_18, 1
+%19 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_add(%struct.PVector_ptr %17,%struct.PVector_ptr %18)
+store %struct.PVector_ptr %19, %struct.PVector_ptr* %vroot0_
+%20 = load %struct.string*, %struct.string** @sl.obj3
+%21 = load i32, i32* %i2_
+%22 = call %struct.string* (%struct.string*,i32) @String_concat_si(%struct.string* %20,i32 %21)
+store %struct.string* %22, %struct.string** %sroot0_
+%23 = load i32, i32* %i2_
+%24 = add i32 1, 0
+%25 = add i32 %23, %24
+store i32 %25, i32* %i2_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%26 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %26)
+%27 = load %struct.string*, %struct.string** %sroot0_
+call void (%struct.string*) @print_string(%struct.string* %27)
+%28 = load %struct.string*, %struct.string** @sl.obj4
+%29 = add i32 2, 0
+%30 = call %struct.string* (%struct.string*,i32) @pad(%struct.string* %28,i32 %29)
+call void (%struct.string*) @print_string(%struct.string* %30)
+%31 = load %struct.string*, %struct.string** @sl.obj4
+%32 = add i32 10, 0
+%33 = call %struct.string* (%struct.string*,i32) @pad(%struct.string* %31,i32 %32)
+call void (%struct.string*) @print_string(%struct.string* %33)
+%34 = add i32 3, 0
+%35 = call %struct.PVector_ptr (i32) @grow(i32 %34)
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %35)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+call void (...) @gc()
+call void (%struct.Heap_Info*, ...) @get_heap_info(%struct.Heap_Info* sret %__info__)
+%info___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%info__ = load i32, i32* %info___, align 4
+%heap_dirty__ = icmp ne i32 %info__, 0
+br i1 %heap_dirty__, label %gc.heap_dirty____, label %gc.heap_clean____
+gc.heap_dirty____:
+%__stderr = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%remain_num___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%remain_num__ = load i32, i32* %remain_num___, align 4
+%__fprintfret = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %__stderr, i8* getelementptr inbounds ([36 x i8], [36 x i8]* @.str.6, i32 0, i32 0), i32 %remain_num__)
+br label %gc.heap_clean____
+gc.heap_clean____:
+call void (...) @gc_shutdown()
+%retval = load i32, i32* %retval_
+ret i32 %retval
+}
+
+
+@sl.str0 = private unnamed_addr constant [2 x i8] c".\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [2 x i8] c"!\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@sl.str2 = private unnamed_addr constant [2 x i8] c"a\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
+@sl.str3 = private unnamed_addr constant [2 x i8] c"n\00", align 1
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [3 x i8] c"ab\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [2 x double] [double 0x0000000000000000, double 0x0000000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [2 x double] [double 0x3FF0000000000000, double 0x3FF0000000000000], align 8
+@vl.vec2 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
+@vl.vec3 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x3FF0000000000000, double 0x3FF0000000000000], align 8
\ No newline at end of file
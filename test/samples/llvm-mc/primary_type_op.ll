@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -187,9 +191,6 @@ entry:
 %x0_ = alloca i32
 store i32 %x0, i32* %x0_
 %retval_ = alloca double
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %y0_ = alloca double
 %0 = fadd double 1.0, 0.00
 store double %0, double* %y0_
@@ -206,8 +207,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load double, double* %retval_
 ret double %retval
 }
@@ -227,6 +226,14 @@ call void () @setup_error_handlers()
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
 %z0_ = alloca double
+%sl_init0 = getelementptr [5 x i8], [5 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [5 x i8], [5 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
 %0 = add i32 2, 0
 %1 = call double (i32) @f(i32 %0)
 store double %1, double* %z0_
@@ -236,14 +243,12 @@ store double %1, double* %z0_
 %4 = fcmp oeq double %2, %promo0
 br i1 %4, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
-%sl_5 = getelementptr [5 x i8], [5 x i8]* @sl.str0, i32 0, i32 0
-%5 = call %struct.string* (i8*) @String_new(i8* %sl_5)
+%5 = load %struct.string*, %struct.string** @sl.obj0
 call void (%struct.string*) @print_string(%struct.string* %5)
 
 br label %if.block_exit_0
 if.block_false_0:
-%sl_6 = getelementptr [5 x i8], [5 x i8]* @sl.str1, i32 0, i32 0
-%6 = call %struct.string* (i8*) @String_new(i8* %sl_6)
+%6 = load %struct.string*, %struct.string** @sl.obj1
 call void (%struct.string*) @print_string(%struct.string* %6)
 
 br label %if.block_exit_0
@@ -275,4 +280,6 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [5 x i8] c"z==0\00", align 1
-@sl.str1 = private unnamed_addr constant [5 x i8] c"z!=0\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [5 x i8] c"z!=0\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
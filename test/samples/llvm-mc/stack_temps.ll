@@ -0,0 +1,851 @@
+%struct.heap_object = type { i32, %struct._object_metadata*, i32, i8, %struct.heap_object* }
+target triple = "x86_64-apple-macosx10.11.0"
+
+; ///////// ///////// D A T A  S T R U C T U R E S ///////// /////////
+%struct._object_metadata = type { i8*, i16, [0 x i16] }
+%struct.Heap_Info = type { i8*, i8*, i8*, i32, i32, i32, i32, i32, i32, i32 }
+%struct.__sFILE = type { i8*, i32, i32, i16, i16, %struct.__sbuf, i32, i8*, i32 (i8*)*, i32 (i8*, i8*, i32)*, i64 (i8*, i64, i32)*, i32 (i8*, i8*, i32)*, %struct.__sbuf, %struct.__sFILEX*, i32, [3 x i8], [1 x i8], %struct.__sbuf, i32, i64 }
+%struct.__sFILEX = type opaque
+%struct.__sbuf = type { i8*, i32 }
+%struct.PVector_ptr = type { i32, %struct.PVector* }
+%struct.PVector = type { %struct.heap_object, i32, i64, [0 x %struct._PVectorFatNode] }
+%struct._PVectorFatNode = type { double, %struct._PVectorFatNodeElem* }
+%struct._PVectorFatNodeElem = type { %struct.heap_object, i32, double, %struct._PVectorFatNodeElem* }
+%struct.string = type { %struct.heap_object, i64, [0 x i8] }
+
+declare %struct.PVector_ptr @PVector_init(double, i64)
+
+declare void @print_pvector(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @PVector_new(double*, i64)
+
+declare void @set_ith(%struct.PVector_ptr, i32, double)
+
+declare double @ith(%struct.PVector_ptr, i32)
+
+declare i8* @PVector_as_string(%struct.PVector_ptr)
+
+; ///////// ///////// W I C H  R U N T I M E  F U N C T I O N S ///////// /////////
+declare %struct.PVector_ptr @Vector_empty(i64)
+
+declare %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_new(double*, i64)
+
+declare %struct.PVector_ptr @Vector_from_int(i32, i64)
+
+declare %struct.PVector_ptr @Vector_from_float(double, i64)
+
+declare %struct.PVector_ptr @Vector_add(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_sub(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare i32 @Vector_len(%struct.PVector_ptr)
+
+declare void @print_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_new(i8*)
+
+declare %struct.string* @String_from_char(i8 signext)
+
+declare %struct.string* @String_add(%struct.string*, %struct.string*)
+
+declare %struct.string* @String_from_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_from_int(i32)
+
+declare %struct.string* @String_from_float(double)
+
+declare void @print_string(%struct.string*)
+
+declare zeroext i1 @String_eq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_neq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_gt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_ge(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_lt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_le(%struct.string*, %struct.string*)
+
+declare i32 @String_len(%struct.string*)
+
+declare void (i32)* @signal(i32, void (i32)*)
+
+; ///////// ///////// G C ///////// /////////
+
+declare i32 @gc_num_roots(...)
+
+declare void @gc_set_num_roots(i32)
+
+declare void @gc_add_root(i8**)
+
+declare void @gc(...)
+
+declare void @get_heap_info(%struct.Heap_Info* sret, ...)
+
+declare void @gc_shutdown(...)
+
+; ///////// ///////// S Y S T E M  F U N C T I O N S ///////// /////////
+declare i32 @fprintf(%struct.__sFILE*, i8*, ...)
+
+declare void @exit(i32)
+
+declare i32 @printf(i8*, ...)
+
+declare void @llvm.memcpy.p0i8.p0i8.i64(i8* nocapture, i8* nocapture readonly, i64, i32, i1)
+
+; ///////// ///////// I N L I N E  F U N C T I O N S ///////// /////////
+define internal { i32, %struct.PVector* } @PVector_copy(i32 %v.coerce0, %struct.PVector* %v.coerce1) {
+%1 = alloca %struct.PVector_ptr, align 8
+%v = alloca %struct.PVector_ptr, align 8
+%2 = bitcast %struct.PVector_ptr* %v to { i32, %struct.PVector* }*
+%3 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 0
+store i32 %v.coerce0, i32* %3, align 8
+%4 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 1
+store %struct.PVector* %v.coerce1, %struct.PVector** %4, align 8
+%5 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 0
+%6 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%7 = load %struct.PVector*, %struct.PVector** %6, align 8
+%8 = getelementptr inbounds %struct.PVector, %struct.PVector* %7, i32 0, i32 1
+%9 = load i32, i32* %8, align 8
+%10 = add nsw i32 %9, 1
+store i32 %10, i32* %8, align 8
+store i32 %10, i32* %5, align 8
+%11 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 1
+%12 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%13 = load %struct.PVector*, %struct.PVector** %12, align 8
+store %struct.PVector* %13, %struct.PVector** %11, align 8
+%14 = bitcast %struct.PVector_ptr* %1 to { i32, %struct.PVector* }*
+%15 = load { i32, %struct.PVector* }, { i32, %struct.PVector* }* %14, align 8
+ret { i32, %struct.PVector* } %15
+}
+
+define internal void @setup_error_handlers() {
+%1 = call void (i32)* @signal(i32 11, void (i32)* @handle_sys_errors)
+%2 = call void (i32)* @signal(i32 10, void (i32)* @handle_sys_errors)
+ret void
+}
+
+define internal void @handle_sys_errors(i32 %errno) {
+%1 = alloca i32, align 4
+%signame = alloca i8*, align 8
+store i32 %errno, i32* %1, align 4
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.2, i32 0, i32 0), i8** %signame, align 8
+%2 = load i32, i32* %1, align 4
+%3 = icmp eq i32 %2, 11
+br i1 %3, label %4, label %5
+
+; label:4                                       ; preds = %0
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.3, i32 0, i32 0), i8** %signame, align 8
+br label %10
+
+; label:5                                       ; preds = %0
+%6 = load i32, i32* %1, align 4
+%7 = icmp eq i32 %6, 10
+br i1 %7, label %8, label %9
+
+; label:8                                       ; preds = %5
+store i8* getelementptr inbounds ([7 x i8], [7 x i8]* @.str.4, i32 0, i32 0), i8** %signame, align 8
+br label %9
+
+; label:9                                       ; preds = %8, %5
+br label %10
+
+; label:10                                      ; preds = %9, %4
+%11 = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%12 = load i8*, i8** %signame, align 8
+%13 = load i32, i32* %1, align 4
+%14 = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %11, i8* getelementptr inbounds ([34 x i8], [34 x i8]* @.str.5, i32 0, i32 0), i8* %12, i32 %13)
+%15 = load i32, i32* %1, align 4
+call void @exit(i32 %15) #4
+unreachable
+                                              ; No predecessors!
+ret void
+}
+
+; ///////// ///////// C O N S T A N T S ///////// /////////
+@NIL_VECTOR = internal constant %struct.PVector_ptr { i32 -1, %struct.PVector* null }, align 8
+@pf.str = private unnamed_addr constant [7 x i8] c"%1.2f\0A\00", align 1
+@pi.str = private unnamed_addr constant [4 x i8] c"%d\0A\00", align 1
+@.str.2 = private unnamed_addr constant [8 x i8] c"UNKNOWN\00", align 1
+@.str.3 = private unnamed_addr constant [8 x i8] c"SIGSEGV\00", align 1
+@.str.4 = private unnamed_addr constant [7 x i8] c"SIGBUS\00", align 1
+@__stderrp = external global %struct.__sFILE*, align 8
+@.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
+@.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
+; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @Vector_add_inplace(%struct.PVector_ptr* %a, %struct.PVector_ptr %b) {
+entry:
+%av = load %struct.PVector_ptr, %struct.PVector_ptr* %a
+%avec = extractvalue %struct.PVector_ptr %av, 1
+%bvec = extractvalue %struct.PVector_ptr %b, 1
+%alen_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%alen = load i64, i64* %alen_
+%blen_ = getelementptr %struct.PVector, %struct.PVector* %bvec, i32 0, i32 2
+%blen = load i64, i64* %blen_
+%same = icmp eq i64 %alen, %blen
+br i1 %same, label %loop, label %mismatch
+mismatch:
+%r = call %struct.PVector_ptr @Vector_add(%struct.PVector_ptr %av, %struct.PVector_ptr %b)
+store %struct.PVector_ptr %r, %struct.PVector_ptr* %a
+ret void
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %alen
+br i1 %more, label %body, label %done
+body:
+%x_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 3, i64 %i, i32 0
+%x = load double, double* %x_
+%j = trunc i64 %i to i32
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fadd double %x, %y
+store double %z, double* %x_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret void
+}
+
+define internal i64 @concat_len_f(double %x) {
+entry:
+%fmt = getelementptr [6 x i8], [6 x i8]* @concat.f, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, double %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_f(i8* %b, double %x) {
+entry:
+%fmt = getelementptr [6 x i8], [6 x i8]* @concat.f, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, double %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_i(i8* %b, i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, i32 %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_v(%struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%n = phi i64 [ 0, %entry ], [ %n1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %d)
+%k_ = sext i32 %k to i64
+%n1 = add i64 %n, %k_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i64 %n
+}
+
+define internal i8* @concat_put_v(i8* %b, %struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%p = phi i8* [ %b, %entry ], [ %p1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i8*, ...) @sprintf(i8* %p, i8* %fmt, i32 %d)
+%p1 = getelementptr i8, i8* %p, i32 %k
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i8* %p
+}
+
+define internal %struct.PVector_ptr @Vector_mul_stack(i8* %slot, %struct.PVector_ptr %a, %struct.PVector_ptr %b, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fmul double %x, %y
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_add_stack(i8* %slot, %struct.PVector_ptr %a, %struct.PVector_ptr %b, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fadd double %x, %y
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_div_stack(i8* %slot, %struct.PVector_ptr %a, %struct.PVector_ptr %b, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fdiv double %x, %y
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_mul_scalar_stack(i8* %slot, %struct.PVector_ptr %a, double %s, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fmul double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_sub_scalar_stack(i8* %slot, %struct.PVector_ptr %a, double %s, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fsub double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_sub_scalar_first_stack(i8* %slot, double %s, %struct.PVector_ptr %a, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fsub double %s, %x
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.string* @String_concat_sisf_stack(i8* %slot, %struct.string* %p0, i32 %p1, %struct.string* %p2, double %p3) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_i(i8* %b1, i32 %p1)
+%b3 = call i8* @concat_put_s(i8* %b2, %struct.string* %p2)
+%b4 = call i8* @concat_put_f(i8* %b3, double %p3)
+store i8 0, i8* %b4
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b4 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+define internal %struct.string* @String_concat_ss_stack(i8* %slot, %struct.string* %p0, %struct.string* %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_s(i8* %b1, %struct.string* %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+define internal %struct.string* @String_concat_sv_stack(i8* %slot, %struct.string* %p0, %struct.PVector_ptr %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_v(i8* %b1, %struct.PVector_ptr %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
+
+define double @norm(%struct.PVector_ptr %v0) {
+entry:
+%v0_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v0, %struct.PVector_ptr* %v0_
+%retval_ = alloca double
+%d0_ = alloca %struct.PVector_ptr
+%s0_ = alloca double
+%i0_ = alloca i32
+%0 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%2 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_mul(%struct.PVector_ptr %0,%struct.PVector_ptr %1)
+store %struct.PVector_ptr %2, %struct.PVector_ptr* %d0_
+%3 = fadd double 0.0, 0.00
+store double %3, double* %s0_
+%4 = add i32 1, 0
+store i32 %4, i32* %i0_
+br label %while.block_entry_0
+while.block_entry_0:
+%5 = load i32, i32* %i0_
+%6 = load %struct.PVector_ptr, %struct.PVector_ptr* %d0_
+%7 = call i32 @Vector_len(%struct.PVector_ptr %6)
+%8 = icmp sle i32 %5, %7
+br i1 %8, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%9 = load double, double* %s0_
+%vec_11 = load %struct.PVector_ptr, %struct.PVector_ptr* %d0_
+%10 = load i32, i32* %i0_
+%index_10 = sub i32 %10, 1
+%11 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_11, i32 %index_10)
+%12 = fadd double %9, %11
+store double %12, double* %s0_
+%13 = load i32, i32* %i0_
+%14 = add i32 1, 0
+%15 = add i32 %13, %14
+store i32 %15, i32* %i0_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%16 = load double, double* %s0_
+store double %16, double* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load double, double* %retval_
+ret double %retval
+}
+
+
+define i32 @main(i32 %argc, i8** %argv) {
+entry:
+%retval_ = alloca i32
+%argc_ = alloca i32
+%argv_ = alloca i8**
+store i32 0, i32* %retval_
+store i32 %argc, i32* %argc_
+store i8** %argv, i8*** %argv_
+call void () @setup_error_handlers()
+%__info__ = alloca %struct.Heap_Info, align 8
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%sv_1 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_4 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_7 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_10 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_13 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_18 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_29 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_31 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%ss_40 = alloca { %struct.heap_object, i64, [11 x i8] }, align 8
+%ss_44 = alloca { %struct.heap_object, i64, [12 x i8] }, align 8
+%ss_50 = alloca { %struct.heap_object, i64, [327 x i8] }, align 8
+%ss_57 = alloca { %struct.heap_object, i64, [35 x i8] }, align 8
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vroot3_ = alloca %struct.PVector_ptr
+%vroot3_mcp_target_ = bitcast %struct.PVector_ptr* %vroot3_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot3_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot3_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot3_, i32 0, i32 1
+%vroot3_raw_ptr_ = bitcast %struct.PVector** %vroot3_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot3_raw_ptr_)
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%y0_ = alloca %struct.PVector_ptr
+%z0_ = alloca %struct.PVector_ptr
+%i1_ = alloca i32
+%greeting0_ = alloca %struct.string*
+%tag0_ = alloca %struct.string*
+%label0_ = alloca %struct.string*
+%sl_init0 = getelementptr [5 x i8], [5 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [7 x i8], [7 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [2 x i8], [2 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%sl_init3 = getelementptr [2 x i8], [2 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj3 to i8**))
+%sl_init4 = getelementptr [2 x i8], [2 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj4 to i8**))
+%sl_init5 = getelementptr [11 x i8], [11 x i8]* @sl.str5, i32 0, i32 0
+%sl_obj5 = call %struct.string* (i8*) @String_new(i8* %sl_init5)
+store %struct.string* %sl_obj5, %struct.string** @sl.obj5
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj5 to i8**))
+%sl_init6 = getelementptr [2 x i8], [2 x i8]* @sl.str6, i32 0, i32 0
+%sl_obj6 = call %struct.string* (i8*) @String_new(i8* %sl_init6)
+store %struct.string* %sl_obj6, %struct.string** @sl.obj6
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj6 to i8**))
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1
+%sv_len_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 2
+store i64 3, i64* %sv_len_1
+%sv_1_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 0, i32 0
+store double 0x4010000000000000, double* %sv_1_0
+%sv_1_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 1, i32 0
+store double 0x4014000000000000, double* %sv_1_1
+%sv_1_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 2, i32 0
+store double 0x4018000000000000, double* %sv_1_2
+%sv_vec_1 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1 to %struct.PVector*
+%1 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_1, 1
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %y0_
+%2 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
+%sv_slot_4 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_4 to i8*
+%4 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,%struct.PVector_ptr,i64) @Vector_add_stack(i8* %sv_slot_4, %struct.PVector_ptr %2, %struct.PVector_ptr %3, i64 3)
+store %struct.PVector_ptr %4, %struct.PVector_ptr* %z0_
+%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+%6 = add i32 2, 0
+%promo0 = sitofp i32 %6 to double
+%sv_slot_7 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_7 to i8*
+%7 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_mul_scalar_stack(i8* %sv_slot_7, %struct.PVector_ptr %5, double %promo0, i64 3)
+
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %7)
+%8 = add i32 2, 0
+%promo1 = sitofp i32 %8 to double
+%9 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+%sv_slot_10 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_10 to i8*
+%10 = call %struct.PVector_ptr (i8*,double,%struct.PVector_ptr,i64) @Vector_sub_scalar_first_stack(i8* %sv_slot_10, double %promo1, %struct.PVector_ptr %9, i64 3)
+
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %10)
+%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+%12 = fadd double -1.0, 0.00
+%sv_slot_13 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_13 to i8*
+%13 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_mul_scalar_stack(i8* %sv_slot_13, %struct.PVector_ptr %11, double %12, i64 3)
+
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %13)
+%vec_15 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+%14 = add i32 2, 0
+%index_14 = sub i32 %14, 1
+%15 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_15, i32 %index_14)
+%pf_3 = call i32 (i8*, ...) @printf(i8* getelementptr ([7 x i8], [7 x i8]* @pf.str, i64 0, i64 0), double %15)
+%16 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+%17 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
+%sv_slot_18 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_18 to i8*
+%18 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,%struct.PVector_ptr,i64) @Vector_div_stack(i8* %sv_slot_18, %struct.PVector_ptr %16, %struct.PVector_ptr %17, i64 3)
+%19 = call i32 @Vector_len(%struct.PVector_ptr %18)
+%pi_4 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %19)
+%20 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%21 = call double (%struct.PVector_ptr) @norm(%struct.PVector_ptr %20)
+%pf_5 = call i32 (i8*, ...) @printf(i8* getelementptr ([7 x i8], [7 x i8]* @pf.str, i64 0, i64 0), double %21)
+%22 = add i32 0, 0
+store i32 %22, i32* %i1_
+%vec_ptr_23 = getelementptr [3 x double], [3 x double]* @vl.vec2, i64 0, i64 0
+%23 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_23, i64 3)
+store %struct.PVector_ptr %23, %struct.PVector_ptr* %vroot3_
+br label %while.block_entry_0
+while.block_entry_0:
+%24 = load i32, i32* %i1_
+%25 = add i32 3, 0
+%26 = icmp slt i32 %24, %25
+br i1 %26, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%t0_ = alloca %struct.PVector_ptr
+%27 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%28 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
+%sv_slot_29 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_29 to i8*
+%29 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,%struct.PVector_ptr,i64) @Vector_mul_stack(i8* %sv_slot_29, %struct.PVector_ptr %27, %struct.PVector_ptr %28, i64 3)
+%30 = load i32, i32* %i1_
+%promo2 = sitofp i32 %30 to double
+%sv_slot_31 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_31 to i8*
+%31 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_sub_scalar_stack(i8* %sv_slot_31, %struct.PVector_ptr %29, double %promo2, i64 3)
+
+store %struct.PVector_ptr %31, %struct.PVector_ptr* %t0_
+%32 = load %struct.PVector_ptr, %struct.PVector_ptr* %t0_
+call void (%struct.PVector_ptr*,%struct.PVector_ptr) @Vector_add_inplace(%struct.PVector_ptr* %vroot3_, %struct.PVector_ptr %32)
+%33 = load i32, i32* %i1_
+%34 = add i32 1, 0
+%35 = add i32 %33, %34
+store i32 %35, i32* %i1_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%36 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot3_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %36)
+%37 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %37, %struct.string** %sroot0_
+%38 = load %struct.string*, %struct.string** @sl.obj1
+%39 = load %struct.string*, %struct.string** %sroot0_
+%ss_slot_40 = bitcast { %struct.heap_object, i64, [11 x i8] }* %ss_40 to i8*
+%40 = call %struct.string* (i8*,%struct.string*,%struct.string*) @String_concat_ss_stack(i8* %ss_slot_40, %struct.string* %38,%struct.string* %39)
+store %struct.string* %40, %struct.string** %greeting0_
+%41 = load %struct.string*, %struct.string** %greeting0_
+call void (%struct.string*) @print_string(%struct.string* %41)
+%42 = load %struct.string*, %struct.string** %greeting0_
+%43 = load %struct.string*, %struct.string** @sl.obj2
+%ss_slot_44 = bitcast { %struct.heap_object, i64, [12 x i8] }* %ss_44 to i8*
+%44 = call %struct.string* (i8*,%struct.string*,%struct.string*) @String_concat_ss_stack(i8* %ss_slot_44, %struct.string* %42,%struct.string* %43)
+%45 = call i32 @String_len(%struct.string* %44)
+%pi_8 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %45)
+%46 = load %struct.string*, %struct.string** @sl.obj3
+%47 = load i32, i32* %i1_
+%48 = load %struct.string*, %struct.string** @sl.obj4
+%49 = fadd double 2.5, 0.00
+%ss_slot_50 = bitcast { %struct.heap_object, i64, [327 x i8] }* %ss_50 to i8*
+%50 = call %struct.string* (i8*,%struct.string*,i32,%struct.string*,double) @String_concat_sisf_stack(i8* %ss_slot_50, %struct.string* %46,i32 %47,%struct.string* %48,double %49)
+store %struct.string* %50, %struct.string** %tag0_
+%51 = load %struct.string*, %struct.string** %tag0_
+call void (%struct.string*) @print_string(%struct.string* %51)
+%52 = load %struct.string*, %struct.string** %greeting0_
+%53 = load %struct.string*, %struct.string** @sl.obj5
+%54 = call i1 (%struct.string*,%struct.string*) @String_eq(%struct.string* %52,%struct.string* %53)
+%pb_10 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i1 %54)
+%55 = load %struct.string*, %struct.string** @sl.obj6
+%56 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%ss_slot_57 = bitcast { %struct.heap_object, i64, [35 x i8] }* %ss_57 to i8*
+%57 = call %struct.string* (i8*,%struct.string*,%struct.PVector_ptr) @String_concat_sv_stack(i8* %ss_slot_57, %struct.string* %55,%struct.PVector_ptr %56)
+store %struct.string* %57, %struct.string** %label0_
+%58 = load %struct.string*, %struct.string** %label0_
+call void (%struct.string*) @print_string(%struct.string* %58)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+call void (...) @gc()
+call void (%struct.Heap_Info*, ...) @get_heap_info(%struct.Heap_Info* sret %__info__)
+%info___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%info__ = load i32, i32* %info___, align 4
+%heap_dirty__ = icmp ne i32 %info__, 0
+br i1 %heap_dirty__, label %gc.heap_dirty____, label %gc.heap_clean____
+gc.heap_dirty____:
+%__stderr = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%remain_num___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%remain_num__ = load i32, i32* %remain_num___, align 4
+%__fprintfret = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %__stderr, i8* getelementptr inbounds ([36 x i8], [36 x i8]* @.str.6, i32 0, i32 0), i32 %remain_num__)
+br label %gc.heap_clean____
+gc.heap_clean____:
+call void (...) @gc_shutdown()
+%retval = load i32, i32* %retval_
+ret i32 %retval
+}
+
+
+@sl.str0 = private unnamed_addr constant [5 x i8] c"wich\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [7 x i8] c"hello \00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@sl.str2 = private unnamed_addr constant [2 x i8] c"!\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
+@sl.str3 = private unnamed_addr constant [2 x i8] c"n\00", align 1
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [2 x i8] c"/\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
+@sl.str5 = private unnamed_addr constant [11 x i8] c"hello wich\00", align 1
+@sl.obj5 = internal global %struct.string* null, align 8
+@sl.str6 = private unnamed_addr constant [2 x i8] c"v\00", align 1
+@sl.obj6 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [3 x double] [double 0x4010000000000000, double 0x4014000000000000, double 0x4018000000000000], align 8
+@vl.vec2 = private unnamed_addr constant [3 x double] [double 0x0000000000000000, double 0x0000000000000000, double 0x0000000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,25 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_concat_ss(%struct.string* %p0, %struct.string* %p1) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
 
 define i32 @main(i32 %argc, i8** %argv) {
 entry:
@@ -195,24 +218,29 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%hello0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %hello0_, align 8
-%hello0_raw_ptr_ = bitcast %struct.string** %hello0_ to i8**
-call void @gc_add_root(i8** %hello0_raw_ptr_)
-%world0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %world0_, align 8
-%world0_raw_ptr_ = bitcast %struct.string** %world0_ to i8**
-call void @gc_add_root(i8** %world0_raw_ptr_)
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-store %struct.string* %0, %struct.string** %hello0_
-%sl_1 = getelementptr [6 x i8], [6 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-store %struct.string* %1, %struct.string** %world0_
-%2 = load %struct.string*, %struct.string** %hello0_
-%3 = load %struct.string*, %struct.string** %world0_
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %3)
-call void (%struct.string*) @print_string(%struct.string* %4)
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%sroot1_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot1_, align 8
+%sroot1_raw_ptr_ = bitcast %struct.string** %sroot1_ to i8**
+call void @gc_add_root(i8** %sroot1_raw_ptr_)
+%sl_init0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [6 x i8], [6 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %0, %struct.string** %sroot0_
+%1 = load %struct.string*, %struct.string** @sl.obj1
+store %struct.string* %1, %struct.string** %sroot1_
+%2 = load %struct.string*, %struct.string** %sroot0_
+%3 = load %struct.string*, %struct.string** %sroot1_
+call void (%struct.string*,%struct.string*) @print_concat_ss(%struct.string* %2,%struct.string* %3)
 br label %ret__
 ret__:
 br label %ret_
@@ -240,4 +268,6 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
-@sl.str1 = private unnamed_addr constant [6 x i8] c"world\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [6 x i8] c"world\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
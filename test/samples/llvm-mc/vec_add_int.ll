@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,54 +185,60 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal %struct.PVector_ptr @Vector_add_scalar(%struct.PVector_ptr %a, double %s) {
+entry:
+%avec = extractvalue %struct.PVector_ptr %a, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%len = load i64, i64* %len_
+%r = call %struct.PVector_ptr @Vector_empty(i64 %len)
+%rvec = extractvalue %struct.PVector_ptr %r, 1
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fadd double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret %struct.PVector_ptr %r
+}
 
 define %struct.PVector_ptr @f(i32 %x0) {
 entry:
 %x0_ = alloca i32
 store i32 %x0, i32* %x0_
+%sv_0 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
 %retval_ = alloca %struct.PVector_ptr
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
 %y0_ = alloca %struct.PVector_ptr
-%y0_mcp_target_ = bitcast %struct.PVector_ptr* %y0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %y0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%y0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %y0_, i32 0, i32 1
-%y0_raw_ptr_ = bitcast %struct.PVector** %y0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %y0_raw_ptr_)
 %z0_ = alloca %struct.PVector_ptr
-%z0_mcp_target_ = bitcast %struct.PVector_ptr* %z0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %z0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%z0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %z0_, i32 0, i32 1
-%z0_raw_ptr_ = bitcast %struct.PVector** %z0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %z0_raw_ptr_)
-%0 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_4 = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 3)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %y0_
-%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
-%6 = load i32, i32* %x0_
-%vec_ref_5 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
-%vec_5_ = extractvalue %struct.PVector_ptr %vec_ref_5, 1
-%vec_5 = load %struct.PVector, %struct.PVector* %vec_5_
-%len_5 = extractvalue %struct.PVector %vec_5, 2
-%promo3 = call %struct.PVector_ptr (i32, i64) @Vector_from_int(i32 %6, i64 %len_5)
-%7 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_add(%struct.PVector_ptr %5,%struct.PVector_ptr %promo3)
-store %struct.PVector_ptr %7, %struct.PVector_ptr* %z0_
-%8 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
-store %struct.PVector_ptr %8, %struct.PVector_ptr* %retval_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0
+%sv_len_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 2
+store i64 3, i64* %sv_len_0
+%sv_0_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_0_0
+%sv_0_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_0_1
+%sv_0_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_0_2
+%sv_vec_0 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0 to %struct.PVector*
+%0 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_0, 1
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %y0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %y0_
+%2 = load i32, i32* %x0_
+%promo0 = sitofp i32 %2 to double
+%3 = call %struct.PVector_ptr (%struct.PVector_ptr,double) @Vector_add_scalar(%struct.PVector_ptr %1,double %promo0)
+store %struct.PVector_ptr %3, %struct.PVector_ptr* %z0_
+%4 = load %struct.PVector_ptr, %struct.PVector_ptr* %z0_
+store %struct.PVector_ptr %4, %struct.PVector_ptr* %retval_
 br label %ret_
 return.exit_0:
 br label %ret__
@@ -285,3 +295,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -0,0 +1,422 @@
+%struct.heap_object = type { i32, %struct._object_metadata*, i32, i8, %struct.heap_object* }
+target triple = "x86_64-apple-macosx10.11.0"
+
+; ///////// ///////// D A T A  S T R U C T U R E S ///////// /////////
+%struct._object_metadata = type { i8*, i16, [0 x i16] }
+%struct.Heap_Info = type { i8*, i8*, i8*, i32, i32, i32, i32, i32, i32, i32 }
+%struct.__sFILE = type { i8*, i32, i32, i16, i16, %struct.__sbuf, i32, i8*, i32 (i8*)*, i32 (i8*, i8*, i32)*, i64 (i8*, i64, i32)*, i32 (i8*, i8*, i32)*, %struct.__sbuf, %struct.__sFILEX*, i32, [3 x i8], [1 x i8], %struct.__sbuf, i32, i64 }
+%struct.__sFILEX = type opaque
+%struct.__sbuf = type { i8*, i32 }
+%struct.PVector_ptr = type { i32, %struct.PVector* }
+%struct.PVector = type { %struct.heap_object, i32, i64, [0 x %struct._PVectorFatNode] }
+%struct._PVectorFatNode = type { double, %struct._PVectorFatNodeElem* }
+%struct._PVectorFatNodeElem = type { %struct.heap_object, i32, double, %struct._PVectorFatNodeElem* }
+%struct.string = type { %struct.heap_object, i64, [0 x i8] }
+
+declare %struct.PVector_ptr @PVector_init(double, i64)
+
+declare void @print_pvector(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @PVector_new(double*, i64)
+
+declare void @set_ith(%struct.PVector_ptr, i32, double)
+
+declare double @ith(%struct.PVector_ptr, i32)
+
+declare i8* @PVector_as_string(%struct.PVector_ptr)
+
+; ///////// ///////// W I C H  R U N T I M E  F U N C T I O N S ///////// /////////
+declare %struct.PVector_ptr @Vector_empty(i64)
+
+declare %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_new(double*, i64)
+
+declare %struct.PVector_ptr @Vector_from_int(i32, i64)
+
+declare %struct.PVector_ptr @Vector_from_float(double, i64)
+
+declare %struct.PVector_ptr @Vector_add(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_sub(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare i32 @Vector_len(%struct.PVector_ptr)
+
+declare void @print_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_new(i8*)
+
+declare %struct.string* @String_from_char(i8 signext)
+
+declare %struct.string* @String_add(%struct.string*, %struct.string*)
+
+declare %struct.string* @String_from_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_from_int(i32)
+
+declare %struct.string* @String_from_float(double)
+
+declare void @print_string(%struct.string*)
+
+declare zeroext i1 @String_eq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_neq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_gt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_ge(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_lt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_le(%struct.string*, %struct.string*)
+
+declare i32 @String_len(%struct.string*)
+
+declare void (i32)* @signal(i32, void (i32)*)
+
+; ///////// ///////// G C ///////// /////////
+
+declare i32 @gc_num_roots(...)
+
+declare void @gc_set_num_roots(i32)
+
+declare void @gc_add_root(i8**)
+
+declare void @gc(...)
+
+declare void @get_heap_info(%struct.Heap_Info* sret, ...)
+
+declare void @gc_shutdown(...)
+
+; ///////// ///////// S Y S T E M  F U N C T I O N S ///////// /////////
+declare i32 @fprintf(%struct.__sFILE*, i8*, ...)
+
+declare void @exit(i32)
+
+declare i32 @printf(i8*, ...)
+
+declare void @llvm.memcpy.p0i8.p0i8.i64(i8* nocapture, i8* nocapture readonly, i64, i32, i1)
+
+; ///////// ///////// I N L I N E  F U N C T I O N S ///////// /////////
+define internal { i32, %struct.PVector* } @PVector_copy(i32 %v.coerce0, %struct.PVector* %v.coerce1) {
+%1 = alloca %struct.PVector_ptr, align 8
+%v = alloca %struct.PVector_ptr, align 8
+%2 = bitcast %struct.PVector_ptr* %v to { i32, %struct.PVector* }*
+%3 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 0
+store i32 %v.coerce0, i32* %3, align 8
+%4 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 1
+store %struct.PVector* %v.coerce1, %struct.PVector** %4, align 8
+%5 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 0
+%6 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%7 = load %struct.PVector*, %struct.PVector** %6, align 8
+%8 = getelementptr inbounds %struct.PVector, %struct.PVector* %7, i32 0, i32 1
+%9 = load i32, i32* %8, align 8
+%10 = add nsw i32 %9, 1
+store i32 %10, i32* %8, align 8
+store i32 %10, i32* %5, align 8
+%11 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 1
+%12 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%13 = load %struct.PVector*, %struct.PVector** %12, align 8
+store %struct.PVector* %13, %struct.PVector** %11, align 8
+%14 = bitcast %struct.PVector_ptr* %1 to { i32, %struct.PVector* }*
+%15 = load { i32, %struct.PVector* }, { i32, %struct.PVector* }* %14, align 8
+ret { i32, %struct.PVector* } %15
+}
+
+define internal void @setup_error_handlers() {
+%1 = call void (i32)* @signal(i32 11, void (i32)* @handle_sys_errors)
+%2 = call void (i32)* @signal(i32 10, void (i32)* @handle_sys_errors)
+ret void
+}
+
+define internal void @handle_sys_errors(i32 %errno) {
+%1 = alloca i32, align 4
+%signame = alloca i8*, align 8
+store i32 %errno, i32* %1, align 4
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.2, i32 0, i32 0), i8** %signame, align 8
+%2 = load i32, i32* %1, align 4
+%3 = icmp eq i32 %2, 11
+br i1 %3, label %4, label %5
+
+; label:4                                       ; preds = %0
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.3, i32 0, i32 0), i8** %signame, align 8
+br label %10
+
+; label:5                                       ; preds = %0
+%6 = load i32, i32* %1, align 4
+%7 = icmp eq i32 %6, 10
+br i1 %7, label %8, label %9
+
+; label:8                                       ; preds = %5
+store i8* getelementptr inbounds ([7 x i8], [7 x i8]* @.str.4, i32 0, i32 0), i8** %signame, align 8
+br label %9
+
+; label:9                                       ; preds = %8, %5
+br label %10
+
+; label:10                                      ; preds = %9, %4
+%11 = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%12 = load i8*, i8** %signame, align 8
+%13 = load i32, i32* %1, align 4
+%14 = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %11, i8* getelementptr inbounds ([34 x i8], [34 x i8]* @.str.5, i32 0, i32 0), i8* %12, i32 %13)
+%15 = load i32, i32* %1, align 4
+call void @exit(i32 %15) #4
+unreachable
+                                              ; No predecessors!
+ret void
+}
+
+; ///////// ///////// C O N S T A N T S ///////// /////////
+@NIL_VECTOR = internal constant %struct.PVector_ptr { i32 -1, %struct.PVector* null }, align 8
+@pf.str = private unnamed_addr constant [7 x i8] c"%1.2f\0A\00", align 1
+@pi.str = private unnamed_addr constant [4 x i8] c"%d\0A\00", align 1
+@.str.2 = private unnamed_addr constant [8 x i8] c"UNKNOWN\00", align 1
+@.str.3 = private unnamed_addr constant [8 x i8] c"SIGSEGV\00", align 1
+@.str.4 = private unnamed_addr constant [7 x i8] c"SIGBUS\00", align 1
+@__stderrp = external global %struct.__sFILE*, align 8
+@.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
+@.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
+; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+
+define double @sum(%struct.PVector_ptr %v0) {
+entry:
+%v0_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v0, %struct.PVector_ptr* %v0_
+%retval_ = alloca double
+%s0_ = alloca double
+%i0_ = alloca i32
+%0 = fadd double 0.0, 0.00
+store double %0, double* %s0_
+%1 = add i32 1, 0
+store i32 %1, i32* %i0_
+br label %while.block_entry_0
+while.block_entry_0:
+%2 = load i32, i32* %i0_
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%4 = call i32 @Vector_len(%struct.PVector_ptr %3)
+%5 = icmp sle i32 %2, %4
+br i1 %5, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%6 = load double, double* %s0_
+%vec_8 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%7 = load i32, i32* %i0_
+%index_7 = sub i32 %7, 1
+%8 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_8, i32 %index_7)
+%9 = fadd double %6, %8
+store double %9, double* %s0_
+%10 = load i32, i32* %i0_
+%11 = add i32 1, 0
+%12 = add i32 %10, %11
+store i32 %12, i32* %i0_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%13 = load double, double* %s0_
+store double %13, double* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load double, double* %retval_
+ret double %retval
+}
+
+define %struct.PVector_ptr @zero(%struct.PVector_ptr %v1) {
+entry:
+%v1_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v1, %struct.PVector_ptr* %v1_
+%retval_ = alloca %struct.PVector_ptr
+%0 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%1 = add i32 1, 0
+%index_1 = sub i32 %1, 1
+%2 = add i32 0, 0
+%promo0 = sitofp i32 %2 to double
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %0, i32 %index_1, double %promo0)
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+store %struct.PVector_ptr %3, %struct.PVector_ptr* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
+ret %struct.PVector_ptr %retval
+}
+
+define %struct.PVector_ptr @same(%struct.PVector_ptr %v2) {
+entry:
+%v2_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v2, %struct.PVector_ptr* %v2_
+%retval_ = alloca %struct.PVector_ptr
+%w0_ = alloca %struct.PVector_ptr
+%0 = load %struct.PVector_ptr, %struct.PVector_ptr* %v2_
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %w0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %w0_
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
+ret %struct.PVector_ptr %retval
+}
+
+define %struct.PVector_ptr @fresh() {
+entry:
+%retval_ = alloca %struct.PVector_ptr
+%v3_ = alloca %struct.PVector_ptr
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %v3_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %v3_
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
+ret %struct.PVector_ptr %retval
+}
+
+
+define i32 @main(i32 %argc, i8** %argv) {
+entry:
+%retval_ = alloca i32
+%argc_ = alloca i32
+%argv_ = alloca i8**
+store i32 0, i32* %retval_
+store i32 %argc, i32* %argc_
+store i8** %argv, i8*** %argv_
+call void () @setup_error_handlers()
+%__info__ = alloca %struct.Heap_Info, align 8
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vroot1_ = alloca %struct.PVector_ptr
+%vroot1_mcp_target_ = bitcast %struct.PVector_ptr* %vroot1_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot1_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot1_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_, i32 0, i32 1
+%vroot1_raw_ptr_ = bitcast %struct.PVector** %vroot1_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot1_raw_ptr_)
+%vroot2_ = alloca %struct.PVector_ptr
+%vroot2_mcp_target_ = bitcast %struct.PVector_ptr* %vroot2_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot2_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot2_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_, i32 0, i32 1
+%vroot2_raw_ptr_ = bitcast %struct.PVector** %vroot2_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot2_raw_ptr_)
+%vroot3_ = alloca %struct.PVector_ptr
+%vroot3_mcp_target_ = bitcast %struct.PVector_ptr* %vroot3_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot3_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot3_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot3_, i32 0, i32 1
+%vroot3_raw_ptr_ = bitcast %struct.PVector** %vroot3_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot3_raw_ptr_)
+%vroot4_ = alloca %struct.PVector_ptr
+%vroot4_mcp_target_ = bitcast %struct.PVector_ptr* %vroot4_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot4_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot4_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot4_, i32 0, i32 1
+%vroot4_raw_ptr_ = bitcast %struct.PVector** %vroot4_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot4_raw_ptr_)
+%c0_ = alloca %struct.PVector_ptr
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec1, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%2 = call double (%struct.PVector_ptr) @sum(%struct.PVector_ptr %1)
+%pf_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([7 x i8], [7 x i8]* @pf.str, i64 0, i64 0), double %2)
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%4 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %3)
+%5 = call %struct.PVector_ptr (%struct.PVector_ptr) @zero(%struct.PVector_ptr %4)
+store %struct.PVector_ptr %5, %struct.PVector_ptr* %vroot1_
+%6 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %6)
+%7 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %7)
+%8 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%9 = call %struct.PVector_ptr (%struct.PVector_ptr) @same(%struct.PVector_ptr %8)
+%10 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %9)
+store %struct.PVector_ptr %10, %struct.PVector_ptr* %c0_
+%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%12 = call %struct.PVector_ptr (%struct.PVector_ptr) @same(%struct.PVector_ptr %11)
+%13 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %12)
+store %struct.PVector_ptr %13, %struct.PVector_ptr* %vroot2_
+%14 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%15 = add i32 2, 0
+%index_15 = sub i32 %15, 1
+%16 = add i32 5, 0
+%promo0 = sitofp i32 %16 to double
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %14, i32 %index_15, double %promo0)
+%17 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %17)
+%18 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %18)
+
+%19 = call %struct.PVector_ptr () @fresh()
+store %struct.PVector_ptr %19, %struct.PVector_ptr* %vroot3_
+%20 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot3_
+%21 = add i32 1, 0
+%index_21 = sub i32 %21, 1
+%22 = add i32 1, 0
+%promo1 = sitofp i32 %22 to double
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %20, i32 %index_21, double %promo1)
+%23 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot3_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %23)
+
+%24 = call %struct.PVector_ptr () @fresh()
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %24)
+%25 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+store %struct.PVector_ptr %25, %struct.PVector_ptr* %vroot4_
+%26 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot4_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %26)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+call void (...) @gc()
+call void (%struct.Heap_Info*, ...) @get_heap_info(%struct.Heap_Info* sret %__info__)
+%info___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%info__ = load i32, i32* %info___, align 4
+%heap_dirty__ = icmp ne i32 %info__, 0
+br i1 %heap_dirty__, label %gc.heap_dirty____, label %gc.heap_clean____
+gc.heap_dirty____:
+%__stderr = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%remain_num___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%remain_num__ = load i32, i32* %remain_num___, align 4
+%__fprintfret = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %__stderr, i8* getelementptr inbounds ([36 x i8], [36 x i8]* @.str.6, i32 0, i32 0), i32 %remain_num__)
+br label %gc.heap_clean____
+gc.heap_clean____:
+call void (...) @gc_shutdown()
+%retval = load i32, i32* %retval_
+ret i32 %retval
+}
+
+
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x401C000000000000, double 0x4020000000000000, double 0x4022000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -0,0 +1,432 @@
+%struct.heap_object = type { i32, %struct._object_metadata*, i32, i8, %struct.heap_object* }
+target triple = "x86_64-apple-macosx10.11.0"
+
+; ///////// ///////// D A T A  S T R U C T U R E S ///////// /////////
+%struct._object_metadata = type { i8*, i16, [0 x i16] }
+%struct.Heap_Info = type { i8*, i8*, i8*, i32, i32, i32, i32, i32, i32, i32 }
+%struct.__sFILE = type { i8*, i32, i32, i16, i16, %struct.__sbuf, i32, i8*, i32 (i8*)*, i32 (i8*, i8*, i32)*, i64 (i8*, i64, i32)*, i32 (i8*, i8*, i32)*, %struct.__sbuf, %struct.__sFILEX*, i32, [3 x i8], [1 x i8], %struct.__sbuf, i32, i64 }
+%struct.__sFILEX = type opaque
+%struct.__sbuf = type { i8*, i32 }
+%struct.PVector_ptr = type { i32, %struct.PVector* }
+%struct.PVector = type { %struct.heap_object, i32, i64, [0 x %struct._PVectorFatNode] }
+%struct._PVectorFatNode = type { double, %struct._PVectorFatNodeElem* }
+%struct._PVectorFatNodeElem = type { %struct.heap_object, i32, double, %struct._PVectorFatNodeElem* }
+%struct.string = type { %struct.heap_object, i64, [0 x i8] }
+
+declare %struct.PVector_ptr @PVector_init(double, i64)
+
+declare void @print_pvector(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @PVector_new(double*, i64)
+
+declare void @set_ith(%struct.PVector_ptr, i32, double)
+
+declare double @ith(%struct.PVector_ptr, i32)
+
+declare i8* @PVector_as_string(%struct.PVector_ptr)
+
+; ///////// ///////// W I C H  R U N T I M E  F U N C T I O N S ///////// /////////
+declare %struct.PVector_ptr @Vector_empty(i64)
+
+declare %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_new(double*, i64)
+
+declare %struct.PVector_ptr @Vector_from_int(i32, i64)
+
+declare %struct.PVector_ptr @Vector_from_float(double, i64)
+
+declare %struct.PVector_ptr @Vector_add(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_sub(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare i32 @Vector_len(%struct.PVector_ptr)
+
+declare void @print_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_new(i8*)
+
+declare %struct.string* @String_from_char(i8 signext)
+
+declare %struct.string* @String_add(%struct.string*, %struct.string*)
+
+declare %struct.string* @String_from_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_from_int(i32)
+
+declare %struct.string* @String_from_float(double)
+
+declare void @print_string(%struct.string*)
+
+declare zeroext i1 @String_eq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_neq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_gt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_ge(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_lt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_le(%struct.string*, %struct.string*)
+
+declare i32 @String_len(%struct.string*)
+
+declare void (i32)* @signal(i32, void (i32)*)
+
+; ///////// ///////// G C ///////// /////////
+
+declare i32 @gc_num_roots(...)
+
+declare void @gc_set_num_roots(i32)
+
+declare void @gc_add_root(i8**)
+
+declare void @gc(...)
+
+declare void @get_heap_info(%struct.Heap_Info* sret, ...)
+
+declare void @gc_shutdown(...)
+
+; ///////// ///////// S Y S T E M  F U N C T I O N S ///////// /////////
+declare i32 @fprintf(%struct.__sFILE*, i8*, ...)
+
+declare void @exit(i32)
+
+declare i32 @printf(i8*, ...)
+
+declare void @llvm.memcpy.p0i8.p0i8.i64(i8* nocapture, i8* nocapture readonly, i64, i32, i1)
+
+; ///////// ///////// I N L I N E  F U N C T I O N S ///////// /////////
+define internal { i32, %struct.PVector* } @PVector_copy(i32 %v.coerce0, %struct.PVector* %v.coerce1) {
+%1 = alloca %struct.PVector_ptr, align 8
+%v = alloca %struct.PVector_ptr, align 8
+%2 = bitcast %struct.PVector_ptr* %v to { i32, %struct.PVector* }*
+%3 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 0
+store i32 %v.coerce0, i32* %3, align 8
+%4 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 1
+store %struct.PVector* %v.coerce1, %struct.PVector** %4, align 8
+%5 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 0
+%6 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%7 = load %struct.PVector*, %struct.PVector** %6, align 8
+%8 = getelementptr inbounds %struct.PVector, %struct.PVector* %7, i32 0, i32 1
+%9 = load i32, i32* %8, align 8
+%10 = add nsw i32 %9, 1
+store i32 %10, i32* %8, align 8
+store i32 %10, i32* %5, align 8
+%11 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 1
+%12 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%13 = load %struct.PVector*, %struct.PVector** %12, align 8
+store %struct.PVector* %13, %struct.PVector** %11, align 8
+%14 = bitcast %struct.PVector_ptr* %1 to { i32, %struct.PVector* }*
+%15 = load { i32, %struct.PVector* }, { i32, %struct.PVector* }* %14, align 8
+ret { i32, %struct.PVector* } %15
+}
+
+define internal void @setup_error_handlers() {
+%1 = call void (i32)* @signal(i32 11, void (i32)* @handle_sys_errors)
+%2 = call void (i32)* @signal(i32 10, void (i32)* @handle_sys_errors)
+ret void
+}
+
+define internal void @handle_sys_errors(i32 %errno) {
+%1 = alloca i32, align 4
+%signame = alloca i8*, align 8
+store i32 %errno, i32* %1, align 4
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.2, i32 0, i32 0), i8** %signame, align 8
+%2 = load i32, i32* %1, align 4
+%3 = icmp eq i32 %2, 11
+br i1 %3, label %4, label %5
+
+; label:4                                       ; preds = %0
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.3, i32 0, i32 0), i8** %signame, align 8
+br label %10
+
+; label:5                                       ; preds = %0
+%6 = load i32, i32* %1, align 4
+%7 = icmp eq i32 %6, 10
+br i1 %7, label %8, label %9
+
+; label:8                                       ; preds = %5
+store i8* getelementptr inbounds ([7 x i8], [7 x i8]* @.str.4, i32 0, i32 0), i8** %signame, align 8
+br label %9
+
+; label:9                                       ; preds = %8, %5
+br label %10
+
+; label:10                                      ; preds = %9, %4
+%11 = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%12 = load i8*, i8** %signame, align 8
+%13 = load i32, i32* %1, align 4
+%14 = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %11, i8* getelementptr inbounds ([34 x i8], [34 x i8]* @.str.5, i32 0, i32 0), i8* %12, i32 %13)
+%15 = load i32, i32* %1, align 4
+call void @exit(i32 %15) #4
+unreachable
+                                              ; No predecessors!
+ret void
+}
+
+; ///////// ///////// C O N S T A N T S ///////// /////////
+@NIL_VECTOR = internal constant %struct.PVector_ptr { i32 -1, %struct.PVector* null }, align 8
+@pf.str = private unnamed_addr constant [7 x i8] c"%1.2f\0A\00", align 1
+@pi.str = private unnamed_addr constant [4 x i8] c"%d\0A\00", align 1
+@.str.2 = private unnamed_addr constant [8 x i8] c"UNKNOWN\00", align 1
+@.str.3 = private unnamed_addr constant [8 x i8] c"SIGSEGV\00", align 1
+@.str.4 = private unnamed_addr constant [7 x i8] c"SIGBUS\00", align 1
+@__stderrp = external global %struct.__sFILE*, align 8
+@.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
+@.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
+; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal %struct.PVector_ptr @Vector_mul_scalar(%struct.PVector_ptr %a, double %s) {
+entry:
+%avec = extractvalue %struct.PVector_ptr %a, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%len = load i64, i64* %len_
+%r = call %struct.PVector_ptr @Vector_empty(i64 %len)
+%rvec = extractvalue %struct.PVector_ptr %r, 1
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fmul double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_add_stack(i8* %slot, %struct.PVector_ptr %a, %struct.PVector_ptr %b, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%y = call double @ith(%struct.PVector_ptr %b, i32 %j)
+%z = fadd double %x, %y
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define internal %struct.PVector_ptr @Vector_mul_scalar_stack(i8* %slot, %struct.PVector_ptr %a, double %s, i64 %len) {
+entry:
+%rvec = bitcast i8* %slot to %struct.PVector*
+%head_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%pad_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 1
+store i32 0, i32* %pad_
+%len_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 2
+store i64 %len, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fmul double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%h_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 1
+store %struct._PVectorFatNodeElem* null, %struct._PVectorFatNodeElem** %h_
+%next = add i64 %i, 1
+br label %loop
+done:
+%r = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %rvec, 1
+ret %struct.PVector_ptr %r
+}
+
+define %struct.PVector_ptr @neg(%struct.PVector_ptr %v0) {
+entry:
+%v0_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v0, %struct.PVector_ptr* %v0_
+%retval_ = alloca %struct.PVector_ptr
+%0 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%1 = fadd double -1.0, 0.00
+%2 = call %struct.PVector_ptr (%struct.PVector_ptr,double) @Vector_mul_scalar(%struct.PVector_ptr %0,double %1)
+store %struct.PVector_ptr %2, %struct.PVector_ptr* %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
+ret %struct.PVector_ptr %retval
+}
+
+
+define i32 @main(i32 %argc, i8** %argv) {
+entry:
+%retval_ = alloca i32
+%argc_ = alloca i32
+%argv_ = alloca i8**
+store i32 0, i32* %retval_
+store i32 %argc, i32* %argc_
+store i8** %argv, i8*** %argv_
+call void () @setup_error_handlers()
+%__info__ = alloca %struct.Heap_Info, align 8
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%sv_0 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_1 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_16 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_19 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_21 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_26 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%vroot2_ = alloca %struct.PVector_ptr
+%vroot2_mcp_target_ = bitcast %struct.PVector_ptr* %vroot2_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot2_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot2_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_, i32 0, i32 1
+%vroot2_raw_ptr_ = bitcast %struct.PVector** %vroot2_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot2_raw_ptr_)
+%v1_ = alloca %struct.PVector_ptr
+%w0_ = alloca %struct.PVector_ptr
+%sl_init0 = getelementptr [5 x i8], [5 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [7 x i8], [7 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0
+%sv_len_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 2
+store i64 3, i64* %sv_len_0
+%sv_0_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_0_0
+%sv_0_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_0_1
+%sv_0_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_0_2
+%sv_vec_0 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0 to %struct.PVector*
+%0 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_0, 1
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %v1_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1
+%sv_len_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 2
+store i64 3, i64* %sv_len_1
+%sv_1_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_1_0
+%sv_1_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_1_1
+%sv_1_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_1_2
+%sv_vec_1 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1 to %struct.PVector*
+%1 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_1, 1
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %w0_
+%vec_ptr_2 = getelementptr [3 x double], [3 x double]* @vl.vec1, i64 0, i64 0
+%2 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_2, i64 3)
+store %struct.PVector_ptr %2, %struct.PVector_ptr* %vroot2_
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%4 = load %struct.PVector_ptr, %struct.PVector_ptr* %w0_
+%5 = call i1 (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_eq(%struct.PVector_ptr %3,%struct.PVector_ptr %4)
+%pb_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i1 %5)
+%6 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%7 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%8 = call i1 (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_neq(%struct.PVector_ptr %6,%struct.PVector_ptr %7)
+%pb_1 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i1 %8)
+%9 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%10 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%11 = call i1 (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_eq(%struct.PVector_ptr %9,%struct.PVector_ptr %10)
+br i1 %11, label %if.block_true_0, label %if.block_false_0
+if.block_true_0:
+%12 = load %struct.string*, %struct.string** @sl.obj0
+call void (%struct.string*) @print_string(%struct.string* %12)
+
+br label %if.block_exit_0
+if.block_false_0:
+%13 = load %struct.string*, %struct.string** @sl.obj1
+call void (%struct.string*) @print_string(%struct.string* %13)
+
+br label %if.block_exit_0
+if.block_exit_0:
+%14 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%15 = fadd double -1.0, 0.00
+%sv_slot_16 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_16 to i8*
+%16 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_mul_scalar_stack(i8* %sv_slot_16, %struct.PVector_ptr %14, double %15, i64 3)
+
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %16)
+%17 = load %struct.PVector_ptr, %struct.PVector_ptr* %v1_
+%18 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%sv_slot_19 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_19 to i8*
+%19 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,%struct.PVector_ptr,i64) @Vector_add_stack(i8* %sv_slot_19, %struct.PVector_ptr %17, %struct.PVector_ptr %18, i64 3)
+%20 = fadd double -1.0, 0.00
+%sv_slot_21 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_21 to i8*
+%21 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_mul_scalar_stack(i8* %sv_slot_21, %struct.PVector_ptr %19, double %20, i64 3)
+
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %21)
+%22 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%23 = call %struct.PVector_ptr (%struct.PVector_ptr) @neg(%struct.PVector_ptr %22)
+%24 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot2_
+%25 = fadd double -1.0, 0.00
+%sv_slot_26 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_26 to i8*
+%26 = call %struct.PVector_ptr (i8*,%struct.PVector_ptr,double,i64) @Vector_mul_scalar_stack(i8* %sv_slot_26, %struct.PVector_ptr %24, double %25, i64 3)
+
+%27 = call i1 (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_eq(%struct.PVector_ptr %23,%struct.PVector_ptr %26)
+%pb_6 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i1 %27)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+call void (...) @gc()
+call void (%struct.Heap_Info*, ...) @get_heap_info(%struct.Heap_Info* sret %__info__)
+%info___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%info__ = load i32, i32* %info___, align 4
+%heap_dirty__ = icmp ne i32 %info__, 0
+br i1 %heap_dirty__, label %gc.heap_dirty____, label %gc.heap_clean____
+gc.heap_dirty____:
+%__stderr = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%remain_num___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%remain_num__ = load i32, i32* %remain_num___, align 4
+%__fprintfret = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %__stderr, i8* getelementptr inbounds ([36 x i8], [36 x i8]* @.str.6, i32 0, i32 0), i32 %remain_num__)
+br label %gc.heap_clean____
+gc.heap_clean____:
+call void (...) @gc_shutdown()
+%retval = load i32, i32* %retval_
+ret i32 %retval
+}
+
+
+@sl.str0 = private unnamed_addr constant [5 x i8] c"same\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [7 x i8] c"differ\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [3 x double] [double 0x4008000000000000, double 0x4000000000000000, double 0x3FF0000000000000], align 8
\ No newline at end of file
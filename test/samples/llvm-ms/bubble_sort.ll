@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -187,9 +191,6 @@ entry:
 %v0_ = alloca %struct.PVector_ptr
 store %struct.PVector_ptr %v0, %struct.PVector_ptr* %v0_
 %retval_ = alloca %struct.PVector_ptr
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %length0_ = alloca i32
 %i0_ = alloca i32
 %j0_ = alloca i32
@@ -282,8 +283,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
 ret %struct.PVector_ptr %retval
 }
@@ -302,47 +301,19 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%0 = alloca [7 x double]
-%vpromo0_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 0
-%1 = add i32 100, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 1
-%2 = add i32 99, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 2
-%3 = add i32 4, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%v4_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 3
-%4 = fadd double 2.15, 0.00
-store double %4, double* %v4_
-%vpromo3_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 4
-%5 = add i32 2, 0
-%promo3 = sitofp i32 %5 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 5
-%6 = add i32 23, 0
-%promo4 = sitofp i32 %6 to double
-store double %promo4, double* %vpromo4_
-%vpromo5_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 6
-%7 = add i32 3, 0
-%promo5 = sitofp i32 %7 to double
-store double %promo5, double* %vpromo5_
-%vec_ptr_8 = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 0
-%8 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_8, i64 7)
-store %struct.PVector_ptr %8, %struct.PVector_ptr* %x0_
-%9 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%10 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %9)
-%11 = call %struct.PVector_ptr (%struct.PVector_ptr) @bubbleSort(%struct.PVector_ptr %10)
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %11)
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vec_ptr_0 = getelementptr [7 x double], [7 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 7)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%2 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %1)
+%3 = call %struct.PVector_ptr (%struct.PVector_ptr) @bubbleSort(%struct.PVector_ptr %2)
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %3)
 br label %ret__
 ret__:
 br label %ret_
@@ -369,3 +340,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [7 x double] [double 0x4059000000000000, double 0x4058C00000000000, double 0x4010000000000000, double 0x4001333333333333, double 0x4000000000000000, double 0x4037000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
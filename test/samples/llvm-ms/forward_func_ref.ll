@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -185,17 +189,12 @@ ret void
 define %struct.string* @f() {
 entry:
 %retval_ = alloca %struct.string*
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %0 = call double () @g()
 br label %ret__
 ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load %struct.string*, %struct.string** %retval_
 ret %struct.string* %retval
 }
@@ -203,17 +202,12 @@ ret %struct.string* %retval
 define double @g() {
 entry:
 %retval_ = alloca double
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %0 = call %struct.string* () @f()
 br label %ret__
 ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load double, double* %retval_
 ret double %retval
 }
@@ -0,0 +1,596 @@
+%struct.heap_object = type { %struct._object_metadata*, i32, i8, %struct.heap_object* }
+target triple = "x86_64-apple-macosx10.11.0"
+
+; ///////// ///////// D A T A  S T R U C T U R E S ///////// /////////
+%struct._object_metadata = type { i8*, i16, [0 x i16] }
+%struct.Heap_Info = type { i8*, i8*, i8*, i32, i32, i32, i32, i32, i32, i32 }
+%struct.__sFILE = type { i8*, i32, i32, i16, i16, %struct.__sbuf, i32, i8*, i32 (i8*)*, i32 (i8*, i8*, i32)*, i64 (i8*, i64, i32)*, i32 (i8*, i8*, i32)*, %struct.__sbuf, %struct.__sFILEX*, i32, [3 x i8], [1 x i8], %struct.__sbuf, i32, i64 }
+%struct.__sFILEX = type opaque
+%struct.__sbuf = type { i8*, i32 }
+%struct.PVector_ptr = type { i32, %struct.PVector* }
+%struct.PVector = type { %struct.heap_object, i32, i64, [0 x %struct._PVectorFatNode] }
+%struct._PVectorFatNode = type { double, %struct._PVectorFatNodeElem* }
+%struct._PVectorFatNodeElem = type { %struct.heap_object, i32, double, %struct._PVectorFatNodeElem* }
+%struct.string = type { %struct.heap_object, i64, [0 x i8] }
+
+declare %struct.PVector_ptr @PVector_init(double, i64)
+
+declare void @print_pvector(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @PVector_new(double*, i64)
+
+declare void @set_ith(%struct.PVector_ptr, i32, double)
+
+declare double @ith(%struct.PVector_ptr, i32)
+
+declare i8* @PVector_as_string(%struct.PVector_ptr)
+
+; ///////// ///////// W I C H  R U N T I M E  F U N C T I O N S ///////// /////////
+declare %struct.PVector_ptr @Vector_empty(i64)
+
+declare %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_new(double*, i64)
+
+declare %struct.PVector_ptr @Vector_from_int(i32, i64)
+
+declare %struct.PVector_ptr @Vector_from_float(double, i64)
+
+declare %struct.PVector_ptr @Vector_add(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_sub(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare i32 @Vector_len(%struct.PVector_ptr)
+
+declare void @print_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_new(i8*)
+
+declare %struct.string* @String_from_char(i8 signext)
+
+declare %struct.string* @String_add(%struct.string*, %struct.string*)
+
+declare %struct.string* @String_from_vector(%struct.PVector_ptr)
+
+declare %struct.string* @String_from_int(i32)
+
+declare %struct.string* @String_from_float(double)
+
+declare void @print_string(%struct.string*)
+
+declare zeroext i1 @String_eq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_neq(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_gt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_ge(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_lt(%struct.string*, %struct.string*)
+
+declare zeroext i1 @String_le(%struct.string*, %struct.string*)
+
+declare i32 @String_len(%struct.string*)
+
+declare void (i32)* @signal(i32, void (i32)*)
+
+; ///////// ///////// G C ///////// /////////
+
+declare i32 @gc_num_roots(...)
+
+declare void @gc_set_num_roots(i32)
+
+declare void @gc_add_root(i8**)
+
+declare void @gc(...)
+
+declare void @get_heap_info(%struct.Heap_Info* sret, ...)
+
+declare void @gc_shutdown(...)
+
+; ///////// ///////// S Y S T E M  F U N C T I O N S ///////// /////////
+declare i32 @fprintf(%struct.__sFILE*, i8*, ...)
+
+declare void @exit(i32)
+
+declare i32 @printf(i8*, ...)
+
+declare void @llvm.memcpy.p0i8.p0i8.i64(i8* nocapture, i8* nocapture readonly, i64, i32, i1)
+
+; ///////// ///////// I N L I N E  F U N C T I O N S ///////// /////////
+define internal { i32, %struct.PVector* } @PVector_copy(i32 %v.coerce0, %struct.PVector* %v.coerce1) {
+%1 = alloca %struct.PVector_ptr, align 8
+%v = alloca %struct.PVector_ptr, align 8
+%2 = bitcast %struct.PVector_ptr* %v to { i32, %struct.PVector* }*
+%3 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 0
+store i32 %v.coerce0, i32* %3, align 8
+%4 = getelementptr inbounds { i32, %struct.PVector* }, { i32, %struct.PVector* }* %2, i32 0, i32 1
+store %struct.PVector* %v.coerce1, %struct.PVector** %4, align 8
+%5 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 0
+%6 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%7 = load %struct.PVector*, %struct.PVector** %6, align 8
+%8 = getelementptr inbounds %struct.PVector, %struct.PVector* %7, i32 0, i32 1
+%9 = load i32, i32* %8, align 8
+%10 = add nsw i32 %9, 1
+store i32 %10, i32* %8, align 8
+store i32 %10, i32* %5, align 8
+%11 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %1, i32 0, i32 1
+%12 = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v, i32 0, i32 1
+%13 = load %struct.PVector*, %struct.PVector** %12, align 8
+store %struct.PVector* %13, %struct.PVector** %11, align 8
+%14 = bitcast %struct.PVector_ptr* %1 to { i32, %struct.PVector* }*
+%15 = load { i32, %struct.PVector* }, { i32, %struct.PVector* }* %14, align 8
+ret { i32, %struct.PVector* } %15
+}
+
+define internal void @setup_error_handlers() {
+%1 = call void (i32)* @signal(i32 11, void (i32)* @handle_sys_errors)
+%2 = call void (i32)* @signal(i32 10, void (i32)* @handle_sys_errors)
+ret void
+}
+
+define internal void @handle_sys_errors(i32 %errno) {
+%1 = alloca i32, align 4
+%signame = alloca i8*, align 8
+store i32 %errno, i32* %1, align 4
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.2, i32 0, i32 0), i8** %signame, align 8
+%2 = load i32, i32* %1, align 4
+%3 = icmp eq i32 %2, 11
+br i1 %3, label %4, label %5
+
+; label:4                                       ; preds = %0
+store i8* getelementptr inbounds ([8 x i8], [8 x i8]* @.str.3, i32 0, i32 0), i8** %signame, align 8
+br label %10
+
+; label:5                                       ; preds = %0
+%6 = load i32, i32* %1, align 4
+%7 = icmp eq i32 %6, 10
+br i1 %7, label %8, label %9
+
+; label:8                                       ; preds = %5
+store i8* getelementptr inbounds ([7 x i8], [7 x i8]* @.str.4, i32 0, i32 0), i8** %signame, align 8
+br label %9
+
+; label:9                                       ; preds = %8, %5
+br label %10
+
+; label:10                                      ; preds = %9, %4
+%11 = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%12 = load i8*, i8** %signame, align 8
+%13 = load i32, i32* %1, align 4
+%14 = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %11, i8* getelementptr inbounds ([34 x i8], [34 x i8]* @.str.5, i32 0, i32 0), i8* %12, i32 %13)
+%15 = load i32, i32* %1, align 4
+call void @exit(i32 %15) #4
+unreachable
+                                              ; No predecessors!
+ret void
+}
+
+; ///////// ///////// C O N S T A N T S ///////// /////////
+@NIL_VECTOR = internal constant %struct.PVector_ptr { i32 -1, %struct.PVector* null }, align 8
+@pf.str = private unnamed_addr constant [7 x i8] c"%1.2f\0A\00", align 1
+@pi.str = private unnamed_addr constant [4 x i8] c"%d\0A\00", align 1
+@.str.2 = private unnamed_addr constant [8 x i8] c"UNKNOWN\00", align 1
+@.str.3 = private unnamed_addr constant [8 x i8] c"SIGSEGV\00", align 1
+@.str.4 = private unnamed_addr constant [7 x i8] c"SIGBUS\00", align 1
+@__stderrp = external global %struct.__sFILE*, align 8
+@.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
+@.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
+; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal i64 @concat_len_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_i(i8* %b, i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, i32 %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal %struct.string* @String_concat_sis(%struct.string* %p0, i32 %p1, %struct.string* %p2) {
+entry:
+%small = alloca [256 x i8]
+%n0 = add i64 0, 0
+%len0 = call i64 @concat_len_s(%struct.string* %p0)
+%n1 = add i64 %n0, %len0
+%len1 = call i64 @concat_len_i(i32 %p1)
+%n2 = add i64 %n1, %len1
+%len2 = call i64 @concat_len_s(%struct.string* %p2)
+%n3 = add i64 %n2, %len2
+%fits = icmp ult i64 %n3, 256
+br i1 %fits, label %stack, label %heap
+stack:
+%small_ = getelementptr [256 x i8], [256 x i8]* %small, i64 0, i64 0
+br label %fill
+heap:
+%size = add i64 %n3, 1
+%big = call i8* @malloc(i64 %size)
+br label %fill
+fill:
+%b0 = phi i8* [ %small_, %stack ], [ %big, %heap ]
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_i(i8* %b1, i32 %p1)
+%b3 = call i8* @concat_put_s(i8* %b2, %struct.string* %p2)
+store i8 0, i8* %b3
+%r = call %struct.string* (i8*) @String_new(i8* %b0)
+br i1 %fits, label %done, label %release
+release:
+call void @free(i8* %b0)
+br label %done
+done:
+ret %struct.string* %r
+}
+
+define internal void @print_part_f(double %x) {
+entry:
+%fmt = getelementptr [6 x i8], [6 x i8]* @concat.f, i64 0, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, double %x)
+ret void
+}
+
+define internal void @print_part_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i32 %x)
+ret void
+}
+
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_part_v(%struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, ...) @printf(i8* %fmt, i32 %d)
+%next = add i64 %i, 1
+br label %loop
+done:
+ret void
+}
+
+define internal void @print_concat_si(%struct.string* %p0, i32 %p1) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_i(i32 %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_sifs(%struct.string* %p0, i32 %p1, double %p2, %struct.string* %p3) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_i(i32 %p1)
+call void @print_part_f(double %p2)
+call void @print_part_s(%struct.string* %p3)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_sisfi(%struct.string* %p0, i32 %p1, %struct.string* %p2, double %p3, i32 %p4) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_i(i32 %p1)
+call void @print_part_s(%struct.string* %p2)
+call void @print_part_f(double %p3)
+call void @print_part_i(i32 %p4)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_ss(%struct.string* %p0, %struct.string* %p1) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_ssfsv(%struct.string* %p0, %struct.string* %p1, double %p2, %struct.string* %p3, %struct.PVector_ptr %p4) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+call void @print_part_f(double %p2)
+call void @print_part_s(%struct.string* %p3)
+call void @print_part_v(%struct.PVector_ptr %p4)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_sss(%struct.string* %p0, %struct.string* %p1, %struct.string* %p2) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+call void @print_part_s(%struct.string* %p2)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal void @print_concat_vs(%struct.PVector_ptr %p0, %struct.string* %p1) {
+entry:
+call void @print_part_v(%struct.PVector_ptr %p0)
+call void @print_part_s(%struct.string* %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
+
+define %struct.string* @tag(i32 %n0) {
+entry:
+%n0_ = alloca i32
+store i32 %n0, i32* %n0_
+%retval_ = alloca %struct.string*
+%0 = load %struct.string*, %struct.string** @sl.obj0
+%1 = load i32, i32* %n0_
+call void (%struct.string*,i32) @print_concat_si(%struct.string* %0,i32 %1)
+%2 = load %struct.string*, %struct.string** @sl.obj1
+%3 = load i32, i32* %n0_
+%4 = load %struct.string*, %struct.string** @sl.obj2
+%5 = call %struct.string* (%struct.string*,i32,%struct.string*) @String_concat_sis(%struct.string* %2,i32 %3,%struct.string* %4)
+store %struct.string* %5, %struct.string** %retval_
+br label %ret_
+return.exit_0:
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%retval = load %struct.string*, %struct.string** %retval_
+ret %struct.string* %retval
+}
+
+define void @show(%struct.string* %name0, double %x0, %struct.PVector_ptr %v0) {
+entry:
+%name0_ = alloca %struct.string*
+store %struct.string* %name0, %struct.string** %name0_
+%x0_ = alloca double
+store double %x0, double* %x0_
+%v0_ = alloca %struct.PVector_ptr
+store %struct.PVector_ptr %v0, %struct.PVector_ptr* %v0_
+%0 = load %struct.string*, %struct.string** %name0_
+%1 = load %struct.string*, %struct.string** @sl.obj3
+%2 = load double, double* %x0_
+%3 = load %struct.string*, %struct.string** @sl.obj4
+%4 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+call void (%struct.string*,%struct.string*,double,%struct.string*,%struct.PVector_ptr) @print_concat_ssfsv(%struct.string* %0,%struct.string* %1,double %2,%struct.string* %3,%struct.PVector_ptr %4)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+ret void
+}
+
+
+define i32 @main(i32 %argc, i8** %argv) {
+entry:
+%retval_ = alloca i32
+%argc_ = alloca i32
+%argv_ = alloca i8**
+store i32 0, i32* %retval_
+store i32 %argc, i32* %argc_
+store i8** %argv, i8*** %argv_
+call void () @setup_error_handlers()
+%__info__ = alloca %struct.Heap_Info, align 8
+%_funcsp = alloca i32, align 4
+%____num_roots = call i32 (...) @gc_num_roots()
+store i32 %____num_roots, i32* %_funcsp, align 4
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%i0_ = alloca i32
+%sl_init0 = getelementptr [5 x i8], [5 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [2 x i8], [2 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [2 x i8], [2 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%sl_init3 = getelementptr [2 x i8], [2 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj3 to i8**))
+%sl_init4 = getelementptr [2 x i8], [2 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj4 to i8**))
+%sl_init5 = getelementptr [2 x i8], [2 x i8]* @sl.str5, i32 0, i32 0
+%sl_obj5 = call %struct.string* (i8*) @String_new(i8* %sl_init5)
+store %struct.string* %sl_obj5, %struct.string** @sl.obj5
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj5 to i8**))
+%sl_init6 = getelementptr [7 x i8], [7 x i8]* @sl.str6, i32 0, i32 0
+%sl_obj6 = call %struct.string* (i8*) @String_new(i8* %sl_init6)
+store %struct.string* %sl_obj6, %struct.string** @sl.obj6
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj6 to i8**))
+%sl_init7 = getelementptr [6 x i8], [6 x i8]* @sl.str7, i32 0, i32 0
+%sl_obj7 = call %struct.string* (i8*) @String_new(i8* %sl_init7)
+store %struct.string* %sl_obj7, %struct.string** @sl.obj7
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj7 to i8**))
+%sl_init8 = getelementptr [2 x i8], [2 x i8]* @sl.str8, i32 0, i32 0
+%sl_obj8 = call %struct.string* (i8*) @String_new(i8* %sl_init8)
+store %struct.string* %sl_obj8, %struct.string** @sl.obj8
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj8 to i8**))
+%sl_init9 = getelementptr [3 x i8], [3 x i8]* @sl.str9, i32 0, i32 0
+%sl_obj9 = call %struct.string* (i8*) @String_new(i8* %sl_init9)
+store %struct.string* %sl_obj9, %struct.string** @sl.obj9
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj9 to i8**))
+%sl_init10 = getelementptr [2 x i8], [2 x i8]* @sl.str10, i32 0, i32 0
+%sl_obj10 = call %struct.string* (i8*) @String_new(i8* %sl_init10)
+store %struct.string* %sl_obj10, %struct.string** @sl.obj10
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj10 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj5
+store %struct.string* %0, %struct.string** %sroot0_
+%vec_ptr_1 = getelementptr [2 x double], [2 x double]* @vl.vec0, i64 0, i64 0
+%1 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_1, i64 2)
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %vroot0_
+%2 = load %struct.string*, %struct.string** @sl.obj6
+%3 = add i32 1, 0
+%4 = call %struct.string* (i32) @tag(i32 %3)
+%5 = load %struct.string*, %struct.string** @sl.obj7
+call void (%struct.string*,%struct.string*,%struct.string*) @print_concat_sss(%struct.string* %2,%struct.string* %4,%struct.string* %5)
+%6 = add i32 2, 0
+%7 = call %struct.string* (i32) @tag(i32 %6)
+%8 = add i32 2, 0
+call void (%struct.string*,i32) @print_concat_si(%struct.string* %7,i32 %8)
+%9 = load %struct.string*, %struct.string** @sl.obj8
+%10 = fadd double 1.5, 0.00
+%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.string*,double,%struct.PVector_ptr) @show(%struct.string* %9,double %10,%struct.PVector_ptr %11)
+%12 = load %struct.string*, %struct.string** %sroot0_
+%13 = add i32 3, 0
+%14 = fadd double 0.25, 0.00
+%15 = load %struct.string*, %struct.string** %sroot0_
+call void (%struct.string*,i32,double,%struct.string*) @print_concat_sifs(%struct.string* %12,i32 %13,double %14,%struct.string* %15)
+%16 = load %struct.string*, %struct.string** %sroot0_
+%17 = load %struct.string*, %struct.string** %sroot0_
+call void (%struct.string*,%struct.string*) @print_concat_ss(%struct.string* %16,%struct.string* %17)
+%18 = add i32 0, 0
+store i32 %18, i32* %i0_
+br label %while.block_entry_0
+while.block_entry_0:
+%19 = load i32, i32* %i0_
+%20 = add i32 3, 0
+%21 = icmp slt i32 %19, %20
+br i1 %21, label %while.block_body_0, label %while.block_exit_0
+while.block_body_0:
+%22 = load %struct.string*, %struct.string** @sl.obj9
+%23 = load i32, i32* %i0_
+%24 = load %struct.string*, %struct.string** @sl.obj10
+%vec_26 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%25 = add i32 1, 0
+%index_25 = sub i32 %25, 1
+%26 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_26, i32 %index_25)
+%27 = load i32, i32* %i0_
+call void (%struct.string*,i32,%struct.string*,double,i32) @print_concat_sisfi(%struct.string* %22,i32 %23,%struct.string* %24,double %26,i32 %27)
+%28 = load i32, i32* %i0_
+%29 = add i32 1, 0
+%30 = add i32 %28, %29
+store i32 %30, i32* %i0_
+
+br label %while.block_entry_0
+while.block_exit_0:
+%31 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%32 = load %struct.string*, %struct.string** %sroot0_
+call void (%struct.PVector_ptr,%struct.string*) @print_concat_vs(%struct.PVector_ptr %31,%struct.string* %32)
+br label %ret__
+ret__:
+br label %ret_
+
+ret_:
+%num_roots____ = load i32, i32* %_funcsp, align 4
+call void @gc_set_num_roots(i32 %num_roots____)
+call void (...) @gc()
+call void (%struct.Heap_Info*, ...) @get_heap_info(%struct.Heap_Info* sret %__info__)
+%info___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%info__ = load i32, i32* %info___, align 4
+%heap_dirty__ = icmp ne i32 %info__, 0
+br i1 %heap_dirty__, label %gc.heap_dirty____, label %gc.heap_clean____
+gc.heap_dirty____:
+%__stderr = load %struct.__sFILE*, %struct.__sFILE** @__stderrp, align 8
+%remain_num___ = getelementptr inbounds  %struct.Heap_Info, %struct.Heap_Info* %__info__, i32 0, i32 5
+%remain_num__ = load i32, i32* %remain_num___, align 4
+%__fprintfret = call i32 (%struct.__sFILE*, i8*, ...) @fprintf(%struct.__sFILE* %__stderr, i8* getelementptr inbounds ([36 x i8], [36 x i8]* @.str.6, i32 0, i32 0), i32 %remain_num__)
+br label %gc.heap_clean____
+gc.heap_clean____:
+call void (...) @gc_shutdown()
+%retval = load i32, i32* %retval_
+ret i32 %retval
+}
+
+
+@sl.str0 = private unnamed_addr constant [5 x i8] c"tag \00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [2 x i8] c"<\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@sl.str2 = private unnamed_addr constant [2 x i8] c">\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
+@sl.str3 = private unnamed_addr constant [2 x i8] c"=\00", align 1
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [2 x i8] c" \00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
+@sl.str5 = private unnamed_addr constant [2 x i8] c"s\00", align 1
+@sl.obj5 = internal global %struct.string* null, align 8
+@sl.str6 = private unnamed_addr constant [7 x i8] c"first \00", align 1
+@sl.obj6 = internal global %struct.string* null, align 8
+@sl.str7 = private unnamed_addr constant [6 x i8] c" then\00", align 1
+@sl.obj7 = internal global %struct.string* null, align 8
+@sl.str8 = private unnamed_addr constant [2 x i8] c"x\00", align 1
+@sl.obj8 = internal global %struct.string* null, align 8
+@sl.str9 = private unnamed_addr constant [3 x i8] c"i=\00", align 1
+@sl.obj9 = internal global %struct.string* null, align 8
+@sl.str10 = private unnamed_addr constant [2 x i8] c";\00", align 1
+@sl.obj10 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [2 x double] [double 0x4010000000000000, double 0x4014000000000000], align 8
\ No newline at end of file
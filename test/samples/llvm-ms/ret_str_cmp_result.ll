@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,26 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_concat_sss(%struct.string* %p0, %struct.string* %p1, %struct.string* %p2) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+call void @print_part_s(%struct.string* %p2)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
 
 define i1 @str_gt(%struct.string* %s10, %struct.string* %t0) {
 entry:
@@ -189,9 +213,6 @@ store %struct.string* %s10, %struct.string** %s10_
 %t0_ = alloca %struct.string*
 store %struct.string* %t0, %struct.string** %t0_
 %retval_ = alloca i1
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %0 = load %struct.string*, %struct.string** %s10_
 %1 = load %struct.string*, %struct.string** %t0_
 %2 = call i1 (%struct.string*,%struct.string*) @String_gt(%struct.string* %0,%struct.string* %1)
@@ -203,8 +224,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load i1, i1* %retval_
 ret i1 %retval
 }
@@ -216,12 +235,9 @@ store %struct.string* %s0, %struct.string** %s0_
 %t1_ = alloca %struct.string*
 store %struct.string* %t1, %struct.string** %t1_
 %0 = load %struct.string*, %struct.string** %s0_
-%sl_1 = getelementptr [18 x i8], [18 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-%2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
-%3 = load %struct.string*, %struct.string** %t1_
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %3)
-call void (%struct.string*) @print_string(%struct.string* %4)
+%1 = load %struct.string*, %struct.string** @sl.obj0
+%2 = load %struct.string*, %struct.string** %t1_
+call void (%struct.string*,%struct.string*,%struct.string*) @print_concat_sss(%struct.string* %0,%struct.string* %1,%struct.string* %2)
 br label %ret__
 ret__:
 br label %ret_
@@ -237,12 +253,9 @@ store %struct.string* %s1, %struct.string** %s1_
 %t2_ = alloca %struct.string*
 store %struct.string* %t2, %struct.string** %t2_
 %0 = load %struct.string*, %struct.string** %s1_
-%sl_1 = getelementptr [27 x i8], [27 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-%2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
-%3 = load %struct.string*, %struct.string** %t2_
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %3)
-call void (%struct.string*) @print_string(%struct.string* %4)
+%1 = load %struct.string*, %struct.string** @sl.obj1
+%2 = load %struct.string*, %struct.string** %t2_
+call void (%struct.string*,%struct.string*,%struct.string*) @print_concat_sss(%struct.string* %0,%struct.string* %1,%struct.string* %2)
 br label %ret__
 ret__:
 br label %ret_
@@ -265,63 +278,80 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%s11_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %s11_, align 8
-%s11_raw_ptr_ = bitcast %struct.string** %s11_ to i8**
-call void @gc_add_root(i8** %s11_raw_ptr_)
-%s20_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %s20_, align 8
-%s20_raw_ptr_ = bitcast %struct.string** %s20_ to i8**
-call void @gc_add_root(i8** %s20_raw_ptr_)
-%t3_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %t3_, align 8
-%t3_raw_ptr_ = bitcast %struct.string** %t3_ to i8**
-call void @gc_add_root(i8** %t3_raw_ptr_)
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%sroot1_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot1_, align 8
+%sroot1_raw_ptr_ = bitcast %struct.string** %sroot1_ to i8**
+call void @gc_add_root(i8** %sroot1_raw_ptr_)
+%sroot2_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot2_, align 8
+%sroot2_raw_ptr_ = bitcast %struct.string** %sroot2_ to i8**
+call void @gc_add_root(i8** %sroot2_raw_ptr_)
 %s1t0_ = alloca i1
 %s2t0_ = alloca i1
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-store %struct.string* %0, %struct.string** %s11_
-%sl_1 = getelementptr [6 x i8], [6 x i8]* @sl.str3, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-store %struct.string* %1, %struct.string** %s20_
-%sl_2 = getelementptr [6 x i8], [6 x i8]* @sl.str4, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
-store %struct.string* %2, %struct.string** %t3_
-%3 = load %struct.string*, %struct.string** %s11_
-%4 = load %struct.string*, %struct.string** %t3_
+%sl_init0 = getelementptr [18 x i8], [18 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [27 x i8], [27 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%sl_init3 = getelementptr [6 x i8], [6 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj3 to i8**))
+%sl_init4 = getelementptr [6 x i8], [6 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj4 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj2
+store %struct.string* %0, %struct.string** %sroot0_
+%1 = load %struct.string*, %struct.string** @sl.obj3
+store %struct.string* %1, %struct.string** %sroot1_
+%2 = load %struct.string*, %struct.string** @sl.obj4
+store %struct.string* %2, %struct.string** %sroot2_
+%3 = load %struct.string*, %struct.string** %sroot0_
+%4 = load %struct.string*, %struct.string** %sroot2_
 %5 = call i1 (%struct.string*,%struct.string*) @str_gt(%struct.string* %3,%struct.string* %4)
 store i1 %5, i1* %s1t0_
 %6 = load i1, i1* %s1t0_
 br i1 %6, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
-%7 = load %struct.string*, %struct.string** %s11_
-%8 = load %struct.string*, %struct.string** %t3_
+%7 = load %struct.string*, %struct.string** %sroot0_
+%8 = load %struct.string*, %struct.string** %sroot2_
 call void (%struct.string*,%struct.string*) @gt_msg(%struct.string* %7,%struct.string* %8)
 
 br label %if.block_exit_0
 if.block_false_0:
-%9 = load %struct.string*, %struct.string** %s11_
-%10 = load %struct.string*, %struct.string** %t3_
+%9 = load %struct.string*, %struct.string** %sroot0_
+%10 = load %struct.string*, %struct.string** %sroot2_
 call void (%struct.string*,%struct.string*) @le_msg(%struct.string* %9,%struct.string* %10)
 
 br label %if.block_exit_0
 if.block_exit_0:
-%11 = load %struct.string*, %struct.string** %s20_
-%12 = load %struct.string*, %struct.string** %t3_
+%11 = load %struct.string*, %struct.string** %sroot1_
+%12 = load %struct.string*, %struct.string** %sroot2_
 %13 = call i1 (%struct.string*,%struct.string*) @str_gt(%struct.string* %11,%struct.string* %12)
 store i1 %13, i1* %s2t0_
 %14 = load i1, i1* %s2t0_
 br i1 %14, label %if.block_true_1, label %if.block_false_1
 if.block_true_1:
-%15 = load %struct.string*, %struct.string** %s20_
-%16 = load %struct.string*, %struct.string** %t3_
+%15 = load %struct.string*, %struct.string** %sroot1_
+%16 = load %struct.string*, %struct.string** %sroot2_
 call void (%struct.string*,%struct.string*) @gt_msg(%struct.string* %15,%struct.string* %16)
 
 br label %if.block_exit_1
 if.block_false_1:
-%17 = load %struct.string*, %struct.string** %s20_
-%18 = load %struct.string*, %struct.string** %t3_
+%17 = load %struct.string*, %struct.string** %sroot1_
+%18 = load %struct.string*, %struct.string** %sroot2_
 call void (%struct.string*,%struct.string*) @le_msg(%struct.string* %17,%struct.string* %18)
 
 br label %if.block_exit_1
@@ -353,7 +383,12 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [18 x i8] c" is greater than \00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [27 x i8] c" is less than or equal to \00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
 @sl.str2 = private unnamed_addr constant [6 x i8] c"hellp\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
 @sl.str3 = private unnamed_addr constant [6 x i8] c"aello\00", align 1
-@sl.str4 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
\ No newline at end of file
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
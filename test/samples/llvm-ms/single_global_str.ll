@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -196,11 +200,11 @@ call void () @setup_error_handlers()
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
 %x0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %x0_, align 8
-%x0_raw_ptr_ = bitcast %struct.string** %x0_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%sl_0 = getelementptr [13 x i8], [13 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [13 x i8], [13 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj0
 store %struct.string* %0, %struct.string** %x0_
 br label %ret__
 ret__:
@@ -228,4 +232,5 @@ ret i32 %retval
 }
 
 
-@sl.str0 = private unnamed_addr constant [13 x i8] c"Hello World!\00", align 1
\ No newline at end of file
+@sl.str0 = private unnamed_addr constant [13 x i8] c"Hello World!\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,18 +185,79 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_concat_ss(%struct.string* %p0, %struct.string* %p1) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+define internal %struct.string* @String_concat_ss_stack(i8* %slot, %struct.string* %p0, %struct.string* %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_s(i8* %b1, %struct.string* %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
 
 define void @f() {
 entry:
+%ss_2 = alloca { %struct.heap_object, i64, [7 x i8] }, align 8
 %x0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %x0_, align 8
-%x0_raw_ptr_ = bitcast %struct.string** %x0_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-%2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
+%0 = load %struct.string*, %struct.string** @sl.obj0
+%1 = load %struct.string*, %struct.string** @sl.obj1
+%ss_slot_2 = bitcast { %struct.heap_object, i64, [7 x i8] }* %ss_2 to i8*
+%2 = call %struct.string* (i8*,%struct.string*,%struct.string*) @String_concat_ss_stack(i8* %ss_slot_2, %struct.string* %0,%struct.string* %1)
 store %struct.string* %2, %struct.string** %x0_
 %3 = load %struct.string*, %struct.string** %x0_
 call void (%struct.string*) @print_string(%struct.string* %3)
@@ -210,8 +275,7 @@ call void (%struct.string*) @print_string(%struct.string* %3)
 %c_7_ = getelementptr [0 x i8], [0 x i8]* %str_7_str_, i64 0, i32 %index_7
 %c_7 = load i8, i8* %c_7_
 %7 = call %struct.string* (i8) @String_from_char(i8 %c_7)
-%8 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %5,%struct.string* %7)
-call void (%struct.string*) @print_string(%struct.string* %8)
+call void (%struct.string*,%struct.string*) @print_concat_ss(%struct.string* %5,%struct.string* %7)
 br label %ret__
 ret__:
 br label %ret_
@@ -234,6 +298,15 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+
 call void () @f()
 br label %ret__
 ret__:
@@ -262,4 +335,6 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
-@sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,99 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_v(%struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%n = phi i64 [ 0, %entry ], [ %n1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %d)
+%k_ = sext i32 %k to i64
+%n1 = add i64 %n, %k_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i64 %n
+}
+
+define internal i8* @concat_put_v(i8* %b, %struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%p = phi i8* [ %b, %entry ], [ %p1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i8*, ...) @sprintf(i8* %p, i8* %fmt, i32 %d)
+%p1 = getelementptr i8, i8* %p, i32 %k
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i8* %p
+}
+
+define internal %struct.string* @String_concat_sv_stack(i8* %slot, %struct.string* %p0, %struct.PVector_ptr %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_v(i8* %b1, %struct.PVector_ptr %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
 
 define i32 @main(i32 %argc, i8** %argv) {
 entry:
@@ -195,46 +292,39 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%s0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %s0_, align 8
-%s0_raw_ptr_ = bitcast %struct.string** %s0_ to i8**
-call void @gc_add_root(i8** %s0_raw_ptr_)
+%sv_1 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%ss_4 = alloca { %struct.heap_object, i64, [39 x i8] }, align 8
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
 %v0_ = alloca %struct.PVector_ptr
-%v0_mcp_target_ = bitcast %struct.PVector_ptr* %v0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %v0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%v0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v0_, i32 0, i32 1
-%v0_raw_ptr_ = bitcast %struct.PVector** %v0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %v0_raw_ptr_)
 %z0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %z0_, align 8
-%z0_raw_ptr_ = bitcast %struct.string** %z0_ to i8**
-call void @gc_add_root(i8** %z0_raw_ptr_)
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-store %struct.string* %0, %struct.string** %s0_
-%1 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 0
-%2 = add i32 1, 0
-%promo0 = sitofp i32 %2 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 1
-%3 = add i32 2, 0
-%promo1 = sitofp i32 %3 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 2
-%4 = add i32 3, 0
-%promo2 = sitofp i32 %4 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_5 = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 0
-%5 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_5, i64 3)
-store %struct.PVector_ptr %5, %struct.PVector_ptr* %v0_
-%6 = load %struct.string*, %struct.string** %s0_
-%7 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%promo3 = call %struct.string* (%struct.PVector_ptr) @String_from_vector(%struct.PVector_ptr %7)
-%8 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %6,%struct.string* %promo3)
-store %struct.string* %8, %struct.string** %z0_
-%9 = load %struct.string*, %struct.string** %z0_
-call void (%struct.string*) @print_string(%struct.string* %9)
+%sl_init0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %0, %struct.string** %sroot0_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1
+%sv_len_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 2
+store i64 3, i64* %sv_len_1
+%sv_1_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_1_0
+%sv_1_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_1_1
+%sv_1_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_1_2
+%sv_vec_1 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1 to %struct.PVector*
+%1 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_1, 1
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %v0_
+%2 = load %struct.string*, %struct.string** %sroot0_
+%3 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%ss_slot_4 = bitcast { %struct.heap_object, i64, [39 x i8] }* %ss_4 to i8*
+%4 = call %struct.string* (i8*,%struct.string*,%struct.PVector_ptr) @String_concat_sv_stack(i8* %ss_slot_4, %struct.string* %2,%struct.PVector_ptr %3)
+store %struct.string* %4, %struct.string** %z0_
+%5 = load %struct.string*, %struct.string** %z0_
+call void (%struct.string*) @print_string(%struct.string* %5)
 br label %ret__
 ret__:
 br label %ret_
@@ -261,4 +351,6 @@ ret i32 %retval
 }
 
 
-@sl.str0 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
\ No newline at end of file
+@sl.str0 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -184,25 +188,17 @@ ret void
 
 define void @f() {
 entry:
-%x0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %x0_, align 8
-%x0_raw_ptr_ = bitcast %struct.string** %x0_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-store %struct.string* %0, %struct.string** %x0_
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%0 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %0, %struct.string** %sroot0_
 %y0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %y0_, align 8
-%y0_raw_ptr_ = bitcast %struct.string** %y0_ to i8**
-call void @gc_add_root(i8** %y0_raw_ptr_)
 %z0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %z0_, align 8
-%z0_raw_ptr_ = bitcast %struct.string** %z0_ to i8**
-call void @gc_add_root(i8** %z0_raw_ptr_)
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj1
 store %struct.string* %1, %struct.string** %y0_
-%2 = load %struct.string*, %struct.string** %x0_
+%2 = load %struct.string*, %struct.string** %sroot0_
 store %struct.string* %2, %struct.string** %z0_
 
 br label %ret__
@@ -227,6 +223,15 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+
 call void () @f()
 br label %ret__
 ret__:
@@ -255,4 +260,6 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
-@sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -186,39 +190,20 @@ define i32 @f(%struct.PVector_ptr %a0) {
 entry:
 %a0_ = alloca %struct.PVector_ptr
 store %struct.PVector_ptr %a0, %struct.PVector_ptr* %a0_
+%sv_6 = alloca { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, align 8
 %retval_ = alloca i32
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %x0_ = alloca i32
 %b0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %b0_, align 8
-%b0_raw_ptr_ = bitcast %struct.string** %b0_ to i8**
-call void @gc_add_root(i8** %b0_raw_ptr_)
 %e0_ = alloca %struct.PVector_ptr
-%e0_mcp_target_ = bitcast %struct.PVector_ptr* %e0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %e0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%e0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %e0_, i32 0, i32 1
-%e0_raw_ptr_ = bitcast %struct.PVector** %e0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %e0_raw_ptr_)
 %0 = add i32 32, 0
 store i32 %0, i32* %x0_
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj0
 store %struct.string* %1, %struct.string** %b0_
 %c0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %c0_, align 8
-%c0_raw_ptr_ = bitcast %struct.string** %c0_ to i8**
-call void @gc_add_root(i8** %c0_raw_ptr_)
-%sl_2 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
+%2 = load %struct.string*, %struct.string** @sl.obj1
 store %struct.string* %2, %struct.string** %c0_
 %d0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %d0_, align 8
-%d0_raw_ptr_ = bitcast %struct.string** %d0_ to i8**
-call void @gc_add_root(i8** %d0_raw_ptr_)
-%sl_3 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
-%3 = call %struct.string* (i8*) @String_new(i8* %sl_3)
+%3 = load %struct.string*, %struct.string** @sl.obj2
 store %struct.string* %3, %struct.string** %d0_
 %4 = load i32, i32* %x0_
 store i32 %4, i32* %retval_
@@ -227,28 +212,22 @@ return.exit_0:
 
 
 %b1_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %b1_, align 8
-%b1_raw_ptr_ = bitcast %struct.string** %b1_ to i8**
-call void @gc_add_root(i8** %b1_raw_ptr_)
-%sl_5 = getelementptr [4 x i8], [4 x i8]* @sl.str3, i32 0, i32 0
-%5 = call %struct.string* (i8*) @String_new(i8* %sl_5)
+%5 = load %struct.string*, %struct.string** @sl.obj3
 store %struct.string* %5, %struct.string** %b1_
 
-%6 = alloca [1 x double]
-%vpromo0_ = getelementptr [1 x double], [1 x double]* %6, i64 0, i64 0
-%7 = add i32 7, 0
-%promo0 = sitofp i32 %7 to double
-store double %promo0, double* %vpromo0_
-%vec_ptr_8 = getelementptr [1 x double], [1 x double]* %6, i64 0, i64 0
-%8 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_8, i64 1)
-store %struct.PVector_ptr %8, %struct.PVector_ptr* %e0_
+store { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_6
+%sv_len_6 = getelementptr { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_6, i32 0, i32 2
+store i64 1, i64* %sv_len_6
+%sv_6_0 = getelementptr { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_6, i32 0, i32 3, i64 0, i32 0
+store double 0x401C000000000000, double* %sv_6_0
+%sv_vec_6 = bitcast { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_6 to %struct.PVector*
+%6 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_6, 1
+store %struct.PVector_ptr %6, %struct.PVector_ptr* %e0_
 br label %ret__
 ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load i32, i32* %retval_
 ret i32 %retval
 }
@@ -267,15 +246,26 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%0 = alloca [1 x double]
-%vpromo0_ = getelementptr [1 x double], [1 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vec_ptr_2 = getelementptr [1 x double], [1 x double]* %0, i64 0, i64 0
-%2 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_2, i64 1)
-%3 = call i32 (%struct.PVector_ptr) @f(%struct.PVector_ptr %2)
-%pi_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %3)
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%sl_init3 = getelementptr [4 x i8], [4 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj3 to i8**))
+%vec_ptr_0 = getelementptr [1 x double], [1 x double]* @vl.vec1, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 1)
+%1 = call i32 (%struct.PVector_ptr) @f(%struct.PVector_ptr %0)
+%pi_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %1)
 br label %ret__
 ret__:
 br label %ret_
@@ -303,6 +293,12 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
 @sl.str2 = private unnamed_addr constant [4 x i8] c"moo\00", align 1
-@sl.str3 = private unnamed_addr constant [4 x i8] c"boo\00", align 1
\ No newline at end of file
+@sl.obj2 = internal global %struct.string* null, align 8
+@sl.str3 = private unnamed_addr constant [4 x i8] c"boo\00", align 1
+@sl.obj3 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [1 x double] [double 0x401C000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [1 x double] [double 0x3FF0000000000000], align 8
\ No newline at end of file
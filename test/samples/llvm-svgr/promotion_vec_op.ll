@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,29 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal %struct.PVector_ptr @Vector_add_scalar(%struct.PVector_ptr %a, double %s) {
+entry:
+%avec = extractvalue %struct.PVector_ptr %a, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %avec, i32 0, i32 2
+%len = load i64, i64* %len_
+%r = call %struct.PVector_ptr @Vector_empty(i64 %len)
+%rvec = extractvalue %struct.PVector_ptr %r, 1
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %a, i32 %j)
+%z = fadd double %x, %s
+%z_ = getelementptr %struct.PVector, %struct.PVector* %rvec, i32 0, i32 3, i64 %i, i32 0
+store double %z, double* %z_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret %struct.PVector_ptr %r
+}
 
 define i32 @main(i32 %argc, i8** %argv) {
 entry:
@@ -195,53 +222,35 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%v0_ = alloca %struct.PVector_ptr
-%v0_mcp_target_ = bitcast %struct.PVector_ptr* %v0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %v0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%v0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v0_, i32 0, i32 1
-%v0_raw_ptr_ = bitcast %struct.PVector** %v0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %v0_raw_ptr_)
-%w0_ = alloca %struct.PVector_ptr
-%w0_mcp_target_ = bitcast %struct.PVector_ptr* %w0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %w0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%w0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %w0_, i32 0, i32 1
-%w0_raw_ptr_ = bitcast %struct.PVector** %w0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %w0_raw_ptr_)
-%0 = alloca [3 x double]
-%v1_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%1 = fadd double 1.0, 0.00
-store double %1, double* %v1_
-%v2_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 1
-%2 = fadd double 2.0, 0.00
-store double %2, double* %v2_
-%v3_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 2
-%3 = fadd double 3.0, 0.00
-store double %3, double* %v3_
-%vec_ptr_4 = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 3)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %v0_
-%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%6 = add i32 4, 0
-%vec_ref_5 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%vec_5_ = extractvalue %struct.PVector_ptr %vec_ref_5, 1
-%vec_5 = load %struct.PVector, %struct.PVector* %vec_5_
-%len_5 = extractvalue %struct.PVector %vec_5, 2
-%promo0 = call %struct.PVector_ptr (i32, i64) @Vector_from_int(i32 %6, i64 %len_5)
-%7 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_add(%struct.PVector_ptr %5,%struct.PVector_ptr %promo0)
-store %struct.PVector_ptr %7, %struct.PVector_ptr* %v0_
-%8 = add i32 100, 0
-%vec_ref_9 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%vec_9_ = extractvalue %struct.PVector_ptr %vec_ref_9, 1
-%vec_9 = load %struct.PVector, %struct.PVector* %vec_9_
-%len_9 = extractvalue %struct.PVector %vec_9, 2
-%promo1 = call %struct.PVector_ptr (i32, i64) @Vector_from_int(i32 %8, i64 %len_9)
-%9 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%10 = call %struct.PVector_ptr (%struct.PVector_ptr,%struct.PVector_ptr) @Vector_add(%struct.PVector_ptr %promo1,%struct.PVector_ptr %9)
-store %struct.PVector_ptr %10, %struct.PVector_ptr* %w0_
-%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %11)
-%12 = load %struct.PVector_ptr, %struct.PVector_ptr* %w0_
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %12)
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
+%vroot1_ = alloca %struct.PVector_ptr
+%vroot1_mcp_target_ = bitcast %struct.PVector_ptr* %vroot1_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot1_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot1_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_, i32 0, i32 1
+%vroot1_raw_ptr_ = bitcast %struct.PVector** %vroot1_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot1_raw_ptr_)
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %vroot0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%2 = add i32 4, 0
+%promo0 = sitofp i32 %2 to double
+%3 = call %struct.PVector_ptr (%struct.PVector_ptr,double) @Vector_add_scalar(%struct.PVector_ptr %1,double %promo0)
+store %struct.PVector_ptr %3, %struct.PVector_ptr* %vroot0_
+%4 = add i32 100, 0
+%promo1 = sitofp i32 %4 to double
+%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%6 = call %struct.PVector_ptr (%struct.PVector_ptr,double) @Vector_add_scalar(%struct.PVector_ptr %5,double %promo1)
+store %struct.PVector_ptr %6, %struct.PVector_ptr* %vroot1_
+%7 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %7)
+%8 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot1_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %8)
 br label %ret__
 ret__:
 br label %ret_
@@ -268,3 +277,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -185,33 +189,12 @@ ret void
 define %struct.PVector_ptr @f() {
 entry:
 %retval_ = alloca %struct.PVector_ptr
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%0 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_4 = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 3)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %x0_
-%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-store %struct.PVector_ptr %5, %struct.PVector_ptr* %retval_
+%vec_ptr_0 = getelementptr [3 x double], [3 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 3)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %retval_
 br label %ret_
 return.exit_0:
 br label %ret__
@@ -219,8 +202,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
 ret %struct.PVector_ptr %retval
 }
@@ -269,3 +250,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -185,33 +189,9 @@ ret void
 define %struct.PVector_ptr @foo() {
 entry:
 %retval_ = alloca %struct.PVector_ptr
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
-%0 = alloca [5 x double]
-%vpromo0_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vpromo3_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 3
-%4 = add i32 4, 0
-%promo3 = sitofp i32 %4 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 4
-%5 = add i32 5, 0
-%promo4 = sitofp i32 %5 to double
-store double %promo4, double* %vpromo4_
-%vec_ptr_6 = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%6 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_6, i64 5)
-store %struct.PVector_ptr %6, %struct.PVector_ptr* %retval_
+%vec_ptr_0 = getelementptr [5 x double], [5 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 5)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %retval_
 br label %ret_
 return.exit_0:
 br label %ret__
@@ -219,8 +199,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load %struct.PVector_ptr, %struct.PVector_ptr* %retval_
 ret %struct.PVector_ptr %retval
 }
@@ -240,17 +218,11 @@ call void () @setup_error_handlers()
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
 %x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
 %0 = call %struct.PVector_ptr () @foo()
-%1 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %0)
-store %struct.PVector_ptr %1, %struct.PVector_ptr* %x0_
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
 
-%2 = call %struct.PVector_ptr () @foo()
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %2)
+%1 = call %struct.PVector_ptr () @foo()
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %1)
 br label %ret__
 ret__:
 br label %ret_
@@ -277,3 +249,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [5 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000, double 0x4014000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -195,36 +199,24 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%sv_0 = alloca { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, align 8
 %x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
-%0 = alloca [5 x double]
-%vpromo0_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vpromo3_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 3
-%4 = add i32 4, 0
-%promo3 = sitofp i32 %4 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 4
-%5 = add i32 5, 0
-%promo4 = sitofp i32 %5 to double
-store double %promo4, double* %vpromo4_
-%vec_ptr_6 = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%6 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_6, i64 5)
-store %struct.PVector_ptr %6, %struct.PVector_ptr* %x0_
+store { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0
+%sv_len_0 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 2
+store i64 5, i64* %sv_len_0
+%sv_0_0 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_0_0
+%sv_0_1 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_0_1
+%sv_0_2 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_0_2
+%sv_0_3 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 3, i32 0
+store double 0x4010000000000000, double* %sv_0_3
+%sv_0_4 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 4, i32 0
+store double 0x4014000000000000, double* %sv_0_4
+%sv_vec_0 = bitcast { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0 to %struct.PVector*
+%0 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_0, 1
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
 br label %ret__
 ret__:
 br label %ret_
@@ -251,3 +243,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [5 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000, double 0x4014000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -187,12 +191,8 @@ entry:
 %s0_ = alloca %struct.string*
 store %struct.string* %s0, %struct.string** %s0_
 %retval_ = alloca i1
-%_funcsp = alloca i32, align 4
-%____num_roots = call i32 (...) @gc_num_roots()
-store i32 %____num_roots, i32* %_funcsp, align 4
 %0 = load %struct.string*, %struct.string** %s0_
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj0
 %2 = call i1 (%struct.string*,%struct.string*) @String_le(%struct.string* %0,%struct.string* %1)
 br i1 %2, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
@@ -214,8 +214,6 @@ ret__:
 br label %ret_
 
 ret_:
-%num_roots____ = load i32, i32* %_funcsp, align 4
-call void @gc_set_num_roots(i32 %num_roots____)
 %retval = load i1, i1* %retval_
 ret i1 %retval
 }
@@ -234,34 +232,43 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
-%s10_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %s10_, align 8
-%s10_raw_ptr_ = bitcast %struct.string** %s10_ to i8**
-call void @gc_add_root(i8** %s10_raw_ptr_)
-%s20_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %s20_, align 8
-%s20_raw_ptr_ = bitcast %struct.string** %s20_ to i8**
-call void @gc_add_root(i8** %s20_raw_ptr_)
-%sl_0 = getelementptr [1 x i8], [1 x i8]* @sl.str1, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
-store %struct.string* %0, %struct.string** %s10_
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-store %struct.string* %1, %struct.string** %s20_
-%2 = load %struct.string*, %struct.string** %s10_
-%3 = load %struct.string*, %struct.string** %s20_
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
+%sroot1_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot1_, align 8
+%sroot1_raw_ptr_ = bitcast %struct.string** %sroot1_ to i8**
+call void @gc_add_root(i8** %sroot1_raw_ptr_)
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
+%sl_init1 = getelementptr [1 x i8], [1 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj1 to i8**))
+%sl_init2 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj2 to i8**))
+%0 = load %struct.string*, %struct.string** @sl.obj1
+store %struct.string* %0, %struct.string** %sroot0_
+%1 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %1, %struct.string** %sroot1_
+%2 = load %struct.string*, %struct.string** %sroot0_
+%3 = load %struct.string*, %struct.string** %sroot1_
 %4 = call i1 (%struct.string*,%struct.string*) @String_gt(%struct.string* %2,%struct.string* %3)
 br i1 %4, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
 br label %if.block_exit_0
 if.block_false_0:
-%sl_5 = getelementptr [6 x i8], [6 x i8]* @sl.str3, i32 0, i32 0
-%5 = call %struct.string* (i8*) @String_new(i8* %sl_5)
+%5 = load %struct.string*, %struct.string** @sl.obj2
 call void (%struct.string*) @print_string(%struct.string* %5)
 
 br label %if.block_exit_0
 if.block_exit_0:
-%6 = load %struct.string*, %struct.string** %s20_
+%6 = load %struct.string*, %struct.string** %sroot1_
 %7 = call i1 (%struct.string*) @f(%struct.string* %6)
 %pb_1 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i1 %7)
 br label %ret__
@@ -291,6 +298,8 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [1 x i8] c"\00", align 1
-@sl.str2 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
-@sl.str3 = private unnamed_addr constant [6 x i8] c"miaow\00", align 1
\ No newline at end of file
+@sl.obj1 = internal global %struct.string* null, align 8
+@sl.str2 = private unnamed_addr constant [6 x i8] c"miaow\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,35 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @print_part_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i32 %x)
+ret void
+}
+
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_concat_si(%struct.string* %p0, i32 %p1) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_i(i32 %p1)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
 
 define i32 @main(i32 %argc, i8** %argv) {
 entry:
@@ -195,21 +228,22 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%sroot0_ = alloca %struct.string*
+store %struct.string* null, %struct.string** %sroot0_, align 8
+%sroot0_raw_ptr_ = bitcast %struct.string** %sroot0_ to i8**
+call void @gc_add_root(i8** %sroot0_raw_ptr_)
 %argc0_ = alloca i32
-%argv0_ = alloca %struct.string*
-store %struct.string* null, %struct.string** %argv0_, align 8
-%argv0_raw_ptr_ = bitcast %struct.string** %argv0_ to i8**
-call void @gc_add_root(i8** %argv0_raw_ptr_)
+%sl_init0 = getelementptr [12 x i8], [12 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+call void @gc_add_root(i8** bitcast (%struct.string** @sl.obj0 to i8**))
 %0 = add i32 1, 0
 store i32 %0, i32* %argc0_
-%sl_1 = getelementptr [12 x i8], [12 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-store %struct.string* %1, %struct.string** %argv0_
-%2 = load %struct.string*, %struct.string** %argv0_
+%1 = load %struct.string*, %struct.string** @sl.obj0
+store %struct.string* %1, %struct.string** %sroot0_
+%2 = load %struct.string*, %struct.string** %sroot0_
 %3 = load i32, i32* %argc0_
-%promo0 = call %struct.string* (i32) @String_from_int(i32 %3)
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %promo0)
-call void (%struct.string*) @print_string(%struct.string* %4)
+call void (%struct.string*,i32) @print_concat_si(%struct.string* %2,i32 %3)
 br label %ret__
 ret__:
 br label %ret_
@@ -236,4 +270,5 @@ ret i32 %retval
 }
 
 
-@sl.str0 = private unnamed_addr constant [12 x i8] c"hello world\00", align 1
\ No newline at end of file
+@sl.str0 = private unnamed_addr constant [12 x i8] c"hello world\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
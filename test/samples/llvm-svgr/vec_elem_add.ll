@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -195,60 +199,44 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%sv_0 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%sv_1 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
 %u0_ = alloca %struct.PVector_ptr
-%u0_mcp_target_ = bitcast %struct.PVector_ptr* %u0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %u0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%u0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %u0_, i32 0, i32 1
-%u0_raw_ptr_ = bitcast %struct.PVector** %u0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %u0_raw_ptr_)
 %v0_ = alloca %struct.PVector_ptr
-%v0_mcp_target_ = bitcast %struct.PVector_ptr* %v0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %v0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%v0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %v0_, i32 0, i32 1
-%v0_raw_ptr_ = bitcast %struct.PVector** %v0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %v0_raw_ptr_)
-%0 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_4 = getelementptr [3 x double], [3 x double]* %0, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 3)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %u0_
-%5 = alloca [3 x double]
-%vpromo3_ = getelementptr [3 x double], [3 x double]* %5, i64 0, i64 0
-%6 = add i32 2, 0
-%promo3 = sitofp i32 %6 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [3 x double], [3 x double]* %5, i64 0, i64 1
-%7 = add i32 3, 0
-%promo4 = sitofp i32 %7 to double
-store double %promo4, double* %vpromo4_
-%vpromo5_ = getelementptr [3 x double], [3 x double]* %5, i64 0, i64 2
-%8 = add i32 4, 0
-%promo5 = sitofp i32 %8 to double
-store double %promo5, double* %vpromo5_
-%vec_ptr_9 = getelementptr [3 x double], [3 x double]* %5, i64 0, i64 0
-%9 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_9, i64 3)
-store %struct.PVector_ptr %9, %struct.PVector_ptr* %v0_
-%vec_11 = load %struct.PVector_ptr, %struct.PVector_ptr* %u0_
-%10 = add i32 1, 0
-%index_10 = sub i32 %10, 1
-%11 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_11, i32 %index_10)
-%vec_13 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
-%12 = add i32 3, 0
-%index_12 = sub i32 %12, 1
-%13 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_13, i32 %index_12)
-%14 = fadd double %11, %13
-%pf_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([7 x i8], [7 x i8]* @pf.str, i64 0, i64 0), double %14)
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0
+%sv_len_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 2
+store i64 3, i64* %sv_len_0
+%sv_0_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_0_0
+%sv_0_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_0_1
+%sv_0_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_0_2
+%sv_vec_0 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_0 to %struct.PVector*
+%0 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_0, 1
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %u0_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1
+%sv_len_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 2
+store i64 3, i64* %sv_len_1
+%sv_1_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 0, i32 0
+store double 0x4000000000000000, double* %sv_1_0
+%sv_1_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 1, i32 0
+store double 0x4008000000000000, double* %sv_1_1
+%sv_1_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1, i32 0, i32 3, i64 2, i32 0
+store double 0x4010000000000000, double* %sv_1_2
+%sv_vec_1 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_1 to %struct.PVector*
+%1 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_1, 1
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %v0_
+%vec_3 = load %struct.PVector_ptr, %struct.PVector_ptr* %u0_
+%2 = add i32 1, 0
+%index_2 = sub i32 %2, 1
+%3 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_3, i32 %index_2)
+%vec_5 = load %struct.PVector_ptr, %struct.PVector_ptr* %v0_
+%4 = add i32 3, 0
+%index_4 = sub i32 %4, 1
+%5 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_5, i32 %index_4)
+%6 = fadd double %3, %5
+%pf_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([7 x i8], [7 x i8]* @pf.str, i64 0, i64 0), double %6)
 br label %ret__
 ret__:
 br label %ret_
@@ -275,3 +263,5 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
+@vl.vec1 = private unnamed_addr constant [3 x double] [double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000], align 8
\ No newline at end of file
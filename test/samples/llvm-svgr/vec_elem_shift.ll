@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -195,39 +199,30 @@ call void () @setup_error_handlers()
 %_funcsp = alloca i32, align 4
 %____num_roots = call i32 (...) @gc_num_roots()
 store i32 %____num_roots, i32* %_funcsp, align 4
+%vroot0_ = alloca %struct.PVector_ptr
+%vroot0_mcp_target_ = bitcast %struct.PVector_ptr* %vroot0_ to i8*
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %vroot0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
+%vroot0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_, i32 0, i32 1
+%vroot0_raw_ptr_ = bitcast %struct.PVector** %vroot0_inner_ptr_ to i8**
+call void @gc_add_root(i8** %vroot0_raw_ptr_)
 %j0_ = alloca i32
-%x0_ = alloca %struct.PVector_ptr
-%x0_mcp_target_ = bitcast %struct.PVector_ptr* %x0_ to i8*
-call void @llvm.memcpy.p0i8.p0i8.i64(i8* %x0_mcp_target_, i8* bitcast (%struct.PVector_ptr* @NIL_VECTOR to i8*), i64 16, i32 8, i1 false)
-%x0_inner_ptr_ = getelementptr inbounds %struct.PVector_ptr, %struct.PVector_ptr* %x0_, i32 0, i32 1
-%x0_raw_ptr_ = bitcast %struct.PVector** %x0_inner_ptr_ to i8**
-call void @gc_add_root(i8** %x0_raw_ptr_)
 %0 = add i32 1, 0
 store i32 %0, i32* %j0_
-%1 = alloca [2 x double]
-%vpromo0_ = getelementptr [2 x double], [2 x double]* %1, i64 0, i64 0
-%2 = add i32 1, 0
-%promo0 = sitofp i32 %2 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [2 x double], [2 x double]* %1, i64 0, i64 1
-%3 = add i32 2, 0
-%promo1 = sitofp i32 %3 to double
-store double %promo1, double* %vpromo1_
-%vec_ptr_4 = getelementptr [2 x double], [2 x double]* %1, i64 0, i64 0
-%4 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_4, i64 2)
-store %struct.PVector_ptr %4, %struct.PVector_ptr* %x0_
-%5 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%6 = load i32, i32* %j0_
+%vec_ptr_1 = getelementptr [2 x double], [2 x double]* @vl.vec0, i64 0, i64 0
+%1 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_1, i64 2)
+store %struct.PVector_ptr %1, %struct.PVector_ptr* %vroot0_
+%2 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%3 = load i32, i32* %j0_
+%index_3 = sub i32 %3, 1
+%vec_7 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+%4 = load i32, i32* %j0_
+%5 = add i32 1, 0
+%6 = add i32 %4, %5
 %index_6 = sub i32 %6, 1
-%vec_10 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%7 = load i32, i32* %j0_
-%8 = add i32 1, 0
-%9 = add i32 %7, %8
-%index_9 = sub i32 %9, 1
-%10 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_10, i32 %index_9)
-call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %5, i32 %index_6, double %10)
-%11 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %11)
+%7 = call double (%struct.PVector_ptr, i32) @ith(%struct.PVector_ptr %vec_7, i32 %index_6)
+call void (%struct.PVector_ptr,i32,double) @set_ith(%struct.PVector_ptr %2, i32 %index_3, double %7)
+%8 = load %struct.PVector_ptr, %struct.PVector_ptr* %vroot0_
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %8)
 br label %ret__
 ret__:
 br label %ret_
@@ -254,3 +249,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [2 x double] [double 0x3FF0000000000000, double 0x4000000000000000], align 8
\ No newline at end of file
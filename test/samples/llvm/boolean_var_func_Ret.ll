@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -214,6 +218,12 @@ store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
 %x1_ = alloca i32
 %y0_ = alloca i1
+%sl_init0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
 %0 = add i32 5, 0
 store i32 %0, i32* %x1_
 %1 = load i32, i32* %x1_
@@ -222,14 +232,12 @@ store i1 %2, i1* %y0_
 %3 = load i1, i1* %y0_
 br i1 %3, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
-%sl_4 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
-%4 = call %struct.string* (i8*) @String_new(i8* %sl_4)
+%4 = load %struct.string*, %struct.string** @sl.obj0
 call void (%struct.string*) @print_string(%struct.string* %4)
 
 br label %if.block_exit_0
 if.block_false_0:
-%sl_5 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%5 = call %struct.string* (i8*) @String_new(i8* %sl_5)
+%5 = load %struct.string*, %struct.string** @sl.obj1
 call void (%struct.string*) @print_string(%struct.string* %5)
 
 br label %if.block_exit_0
@@ -245,4 +253,6 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [6 x i8] c"happy\00", align 1
-@sl.str1 = private unnamed_addr constant [4 x i8] c"sad\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [4 x i8] c"sad\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
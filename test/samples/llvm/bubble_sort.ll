@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -294,41 +298,13 @@ store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
 %x0_ = alloca %struct.PVector_ptr
-%0 = alloca [7 x double]
-%vpromo0_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 0
-%1 = add i32 100, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 1
-%2 = add i32 99, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 2
-%3 = add i32 4, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%v4_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 3
-%4 = fadd double 2.15, 0.00
-store double %4, double* %v4_
-%vpromo3_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 4
-%5 = add i32 2, 0
-%promo3 = sitofp i32 %5 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 5
-%6 = add i32 23, 0
-%promo4 = sitofp i32 %6 to double
-store double %promo4, double* %vpromo4_
-%vpromo5_ = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 6
-%7 = add i32 3, 0
-%promo5 = sitofp i32 %7 to double
-store double %promo5, double* %vpromo5_
-%vec_ptr_8 = getelementptr [7 x double], [7 x double]* %0, i64 0, i64 0
-%8 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_8, i64 7)
-store %struct.PVector_ptr %8, %struct.PVector_ptr* %x0_
-%9 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
-%10 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %9)
-%11 = call %struct.PVector_ptr (%struct.PVector_ptr) @bubbleSort(%struct.PVector_ptr %10)
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %11)
+%vec_ptr_0 = getelementptr [7 x double], [7 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 7)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
+%1 = load %struct.PVector_ptr, %struct.PVector_ptr* %x0_
+%2 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %1)
+%3 = call %struct.PVector_ptr (%struct.PVector_ptr) @bubbleSort(%struct.PVector_ptr %2)
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %3)
 br label %ret__
 ret__:
 br label %ret_
@@ -339,3 +315,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [7 x double] [double 0x4059000000000000, double 0x4058C00000000000, double 0x4010000000000000, double 0x4001333333333333, double 0x4000000000000000, double 0x4037000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
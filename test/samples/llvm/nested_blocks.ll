@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -186,38 +190,34 @@ define void @f(%struct.PVector_ptr %a0) {
 entry:
 %a0_ = alloca %struct.PVector_ptr
 store %struct.PVector_ptr %a0, %struct.PVector_ptr* %a0_
+%sv_5 = alloca { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, align 8
 %b0_ = alloca %struct.string*
 %e0_ = alloca %struct.PVector_ptr
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%0 = load %struct.string*, %struct.string** @sl.obj0
 store %struct.string* %0, %struct.string** %b0_
 %c0_ = alloca %struct.string*
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj1
 store %struct.string* %1, %struct.string** %c0_
 %d0_ = alloca %struct.string*
-%sl_2 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
+%2 = load %struct.string*, %struct.string** @sl.obj2
 store %struct.string* %2, %struct.string** %d0_
 
 
 %b1_ = alloca %struct.string*
 %c1_ = alloca %struct.string*
-%sl_3 = getelementptr [4 x i8], [4 x i8]* @sl.str3, i32 0, i32 0
-%3 = call %struct.string* (i8*) @String_new(i8* %sl_3)
+%3 = load %struct.string*, %struct.string** @sl.obj3
 store %struct.string* %3, %struct.string** %b1_
-%sl_4 = getelementptr [4 x i8], [4 x i8]* @sl.str4, i32 0, i32 0
-%4 = call %struct.string* (i8*) @String_new(i8* %sl_4)
+%4 = load %struct.string*, %struct.string** @sl.obj4
 store %struct.string* %4, %struct.string** %c1_
 
-%5 = alloca [1 x double]
-%vpromo0_ = getelementptr [1 x double], [1 x double]* %5, i64 0, i64 0
-%6 = add i32 7, 0
-%promo0 = sitofp i32 %6 to double
-store double %promo0, double* %vpromo0_
-%vec_ptr_7 = getelementptr [1 x double], [1 x double]* %5, i64 0, i64 0
-%7 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_7, i64 1)
-store %struct.PVector_ptr %7, %struct.PVector_ptr* %e0_
+store { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_5
+%sv_len_5 = getelementptr { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_5, i32 0, i32 2
+store i64 1, i64* %sv_len_5
+%sv_5_0 = getelementptr { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_5, i32 0, i32 3, i64 0, i32 0
+store double 0x401C000000000000, double* %sv_5_0
+%sv_vec_5 = bitcast { %struct.heap_object, i32, i64, [1 x %struct._PVectorFatNode] }* %sv_5 to %struct.PVector*
+%5 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_5, 1
+store %struct.PVector_ptr %5, %struct.PVector_ptr* %e0_
 br label %ret__
 ret__:
 br label %ret_
@@ -236,6 +236,21 @@ store i32 0, i32* %retval_
 store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%sl_init2 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+%sl_init3 = getelementptr [4 x i8], [4 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+%sl_init4 = getelementptr [4 x i8], [4 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
 br label %ret__
 ret__:
 br label %ret_
@@ -247,7 +262,13 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
 @sl.str2 = private unnamed_addr constant [4 x i8] c"moo\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
 @sl.str3 = private unnamed_addr constant [4 x i8] c"boo\00", align 1
-@sl.str4 = private unnamed_addr constant [4 x i8] c"hoo\00", align 1
\ No newline at end of file
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [4 x i8] c"hoo\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [1 x double] [double 0x401C000000000000], align 8
\ No newline at end of file
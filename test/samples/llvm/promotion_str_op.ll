@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,182 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal i64 @concat_len_f(double %x) {
+entry:
+%fmt = getelementptr [6 x i8], [6 x i8]* @concat.f, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, double %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_f(i8* %b, double %x) {
+entry:
+%fmt = getelementptr [6 x i8], [6 x i8]* @concat.f, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, double %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_i(i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %x)
+%len = sext i32 %n to i64
+ret i64 %len
+}
+
+define internal i8* @concat_put_i(i8* %b, i32 %x) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%n = call i32 (i8*, i8*, ...) @sprintf(i8* %b, i8* %fmt, i32 %x)
+%end = getelementptr i8, i8* %b, i32 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_s(%struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+ret i64 %n
+}
+
+define internal i8* @concat_put_s(i8* %b, %struct.string* %s) {
+entry:
+%n_ = getelementptr %struct.string, %struct.string* %s, i32 0, i32 1
+%n = load i64, i64* %n_
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+call void @llvm.memcpy.p0i8.p0i8.i64(i8* %b, i8* %str, i64 %n, i32 1, i1 false)
+%end = getelementptr i8, i8* %b, i64 %n
+ret i8* %end
+}
+
+define internal i64 @concat_len_v(%struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%n = phi i64 [ 0, %entry ], [ %n1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i64, i8*, ...) @snprintf(i8* null, i64 0, i8* %fmt, i32 %d)
+%k_ = sext i32 %k to i64
+%n1 = add i64 %n, %k_
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i64 %n
+}
+
+define internal i8* @concat_put_v(i8* %b, %struct.PVector_ptr %v) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @concat.d, i64 0, i64 0
+%vec = extractvalue %struct.PVector_ptr %v, 1
+%len_ = getelementptr %struct.PVector, %struct.PVector* %vec, i32 0, i32 2
+%len = load i64, i64* %len_
+br label %loop
+loop:
+%i = phi i64 [ 0, %entry ], [ %next, %body ]
+%p = phi i8* [ %b, %entry ], [ %p1, %body ]
+%more = icmp ult i64 %i, %len
+br i1 %more, label %body, label %done
+body:
+%j = trunc i64 %i to i32
+%x = call double @ith(%struct.PVector_ptr %v, i32 %j)
+%d = fptosi double %x to i32
+%k = call i32 (i8*, i8*, ...) @sprintf(i8* %p, i8* %fmt, i32 %d)
+%p1 = getelementptr i8, i8* %p, i32 %k
+%next = add i64 %i, 1
+br label %loop
+done:
+ret i8* %p
+}
+
+define internal %struct.string* @String_concat_sf_stack(i8* %slot, %struct.string* %p0, double %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_f(i8* %b1, double %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+define internal %struct.string* @String_concat_si_stack(i8* %slot, %struct.string* %p0, i32 %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_i(i8* %b1, i32 %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+define internal %struct.string* @String_concat_ss_stack(i8* %slot, %struct.string* %p0, %struct.string* %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_s(i8* %b1, %struct.string* %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+define internal %struct.string* @String_concat_sv_stack(i8* %slot, %struct.string* %p0, %struct.PVector_ptr %p1) {
+entry:
+%r = bitcast i8* %slot to %struct.string*
+%head_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 0
+store %struct.heap_object zeroinitializer, %struct.heap_object* %head_
+%b0 = getelementptr %struct.string, %struct.string* %r, i32 0, i32 2, i64 0
+%b1 = call i8* @concat_put_s(i8* %b0, %struct.string* %p0)
+%b2 = call i8* @concat_put_v(i8* %b1, %struct.PVector_ptr %p1)
+store i8 0, i8* %b2
+%start = ptrtoint i8* %b0 to i64
+%end = ptrtoint i8* %b2 to i64
+%n = sub i64 %end, %start
+%n_ = getelementptr %struct.string, %struct.string* %r, i32 0, i32 1
+store i64 %n, i64* %n_
+ret %struct.string* %r
+}
+
+declare i32 @snprintf(i8*, i64, i8*, ...)
+
+declare i32 @sprintf(i8*, i8*, ...)
+
+declare i8* @malloc(i64)
+
+declare void @free(i8*)
+
+@concat.d = private unnamed_addr constant [3 x i8] c"%d\00", align 1
+@concat.f = private unnamed_addr constant [6 x i8] c"%1.2f\00", align 1
 
 define i32 @main(i32 %argc, i8** %argv) {
 entry:
@@ -191,58 +371,64 @@ store i32 0, i32* %retval_
 store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
+%ss_3 = alloca { %struct.heap_object, i64, [7 x i8] }, align 8
+%ss_6 = alloca { %struct.heap_object, i64, [15 x i8] }, align 8
+%ss_9 = alloca { %struct.heap_object, i64, [317 x i8] }, align 8
+%sv_11 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
+%ss_12 = alloca { %struct.heap_object, i64, [37 x i8] }, align 8
 %s10_ = alloca %struct.string*
 %s20_ = alloca %struct.string*
 %s30_ = alloca %struct.string*
 %s40_ = alloca %struct.string*
 %s50_ = alloca %struct.string*
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [4 x i8], [4 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%0 = load %struct.string*, %struct.string** @sl.obj0
 store %struct.string* %0, %struct.string** %s10_
 %1 = load %struct.string*, %struct.string** %s10_
-%sl_2 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
-%3 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %1,%struct.string* %2)
+%2 = load %struct.string*, %struct.string** @sl.obj1
+%ss_slot_3 = bitcast { %struct.heap_object, i64, [7 x i8] }* %ss_3 to i8*
+%3 = call %struct.string* (i8*,%struct.string*,%struct.string*) @String_concat_ss_stack(i8* %ss_slot_3, %struct.string* %1,%struct.string* %2)
 store %struct.string* %3, %struct.string** %s20_
 %4 = load %struct.string*, %struct.string** %s10_
 %5 = add i32 100, 0
-%promo0 = call %struct.string* (i32) @String_from_int(i32 %5)
-%6 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %4,%struct.string* %promo0)
+%ss_slot_6 = bitcast { %struct.heap_object, i64, [15 x i8] }* %ss_6 to i8*
+%6 = call %struct.string* (i8*,%struct.string*,i32) @String_concat_si_stack(i8* %ss_slot_6, %struct.string* %4,i32 %5)
 store %struct.string* %6, %struct.string** %s30_
 %7 = load %struct.string*, %struct.string** %s10_
 %8 = fadd double 3.14, 0.00
-%promo1 = call %struct.string* (double) @String_from_float(double %8)
-%9 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %7,%struct.string* %promo1)
+%ss_slot_9 = bitcast { %struct.heap_object, i64, [317 x i8] }* %ss_9 to i8*
+%9 = call %struct.string* (i8*,%struct.string*,double) @String_concat_sf_stack(i8* %ss_slot_9, %struct.string* %7,double %8)
 store %struct.string* %9, %struct.string** %s40_
 %10 = load %struct.string*, %struct.string** %s10_
-%11 = alloca [3 x double]
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %11, i64 0, i64 0
-%12 = add i32 1, 0
-%promo2 = sitofp i32 %12 to double
-store double %promo2, double* %vpromo2_
-%vpromo3_ = getelementptr [3 x double], [3 x double]* %11, i64 0, i64 1
-%13 = add i32 2, 0
-%promo3 = sitofp i32 %13 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [3 x double], [3 x double]* %11, i64 0, i64 2
-%14 = add i32 3, 0
-%promo4 = sitofp i32 %14 to double
-store double %promo4, double* %vpromo4_
-%vec_ptr_15 = getelementptr [3 x double], [3 x double]* %11, i64 0, i64 0
-%15 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_15, i64 3)
-%promo5 = call %struct.string* (%struct.PVector_ptr) @String_from_vector(%struct.PVector_ptr %15)
-%16 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %10,%struct.string* %promo5)
-store %struct.string* %16, %struct.string** %s50_
-%17 = load %struct.string*, %struct.string** %s10_
+store { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11
+%sv_len_11 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11, i32 0, i32 2
+store i64 3, i64* %sv_len_11
+%sv_11_0 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_11_0
+%sv_11_1 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_11_1
+%sv_11_2 = getelementptr { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_11_2
+%sv_vec_11 = bitcast { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }* %sv_11 to %struct.PVector*
+%11 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_11, 1
+%ss_slot_12 = bitcast { %struct.heap_object, i64, [37 x i8] }* %ss_12 to i8*
+%12 = call %struct.string* (i8*,%struct.string*,%struct.PVector_ptr) @String_concat_sv_stack(i8* %ss_slot_12, %struct.string* %10,%struct.PVector_ptr %11)
+store %struct.string* %12, %struct.string** %s50_
+%13 = load %struct.string*, %struct.string** %s10_
+call void (%struct.string*) @print_string(%struct.string* %13)
+%14 = load %struct.string*, %struct.string** %s20_
+call void (%struct.string*) @print_string(%struct.string* %14)
+%15 = load %struct.string*, %struct.string** %s30_
+call void (%struct.string*) @print_string(%struct.string* %15)
+%16 = load %struct.string*, %struct.string** %s40_
+call void (%struct.string*) @print_string(%struct.string* %16)
+%17 = load %struct.string*, %struct.string** %s50_
 call void (%struct.string*) @print_string(%struct.string* %17)
-%18 = load %struct.string*, %struct.string** %s20_
-call void (%struct.string*) @print_string(%struct.string* %18)
-%19 = load %struct.string*, %struct.string** %s30_
-call void (%struct.string*) @print_string(%struct.string* %19)
-%20 = load %struct.string*, %struct.string** %s40_
-call void (%struct.string*) @print_string(%struct.string* %20)
-%21 = load %struct.string*, %struct.string** %s50_
-call void (%struct.string*) @print_string(%struct.string* %21)
 br label %ret__
 ret__:
 br label %ret_
@@ -254,4 +440,7 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [4 x i8] c"abc\00", align 1
-@sl.str1 = private unnamed_addr constant [4 x i8] c"xyz\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [4 x i8] c"xyz\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
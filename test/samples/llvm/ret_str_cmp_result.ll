@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -181,6 +185,26 @@ ret void
 @.str.5 = private unnamed_addr constant [34 x i8] c"Wich is confused; signal %s (%d)\0A\00", align 1
 @.str.6 = private unnamed_addr constant [36 x i8] c"%d objects remain after collection\0A\00", align 1
 ; ///////// ///////// G E N E R A T E D  C O D E ///////// /////////
+define internal void @print_part_s(%struct.string* %s) {
+entry:
+%fmt = getelementptr [3 x i8], [3 x i8]* @print.s, i64 0, i64 0
+%str = getelementptr %struct.string, %struct.string* %s, i32 0, i32 2, i64 0
+%n = call i32 (i8*, ...) @printf(i8* %fmt, i8* %str)
+ret void
+}
+
+define internal void @print_concat_sss(%struct.string* %p0, %struct.string* %p1, %struct.string* %p2) {
+entry:
+call void @print_part_s(%struct.string* %p0)
+call void @print_part_s(%struct.string* %p1)
+call void @print_part_s(%struct.string* %p2)
+%nl = call i32 @putchar(i32 10)
+ret void
+}
+
+declare i32 @putchar(i32)
+
+@print.s = private unnamed_addr constant [3 x i8] c"%s\00", align 1
 
 define i1 @str_gt(%struct.string* %s10, %struct.string* %t0) {
 entry:
@@ -211,12 +235,9 @@ store %struct.string* %s0, %struct.string** %s0_
 %t1_ = alloca %struct.string*
 store %struct.string* %t1, %struct.string** %t1_
 %0 = load %struct.string*, %struct.string** %s0_
-%sl_1 = getelementptr [18 x i8], [18 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-%2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
-%3 = load %struct.string*, %struct.string** %t1_
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %3)
-call void (%struct.string*) @print_string(%struct.string* %4)
+%1 = load %struct.string*, %struct.string** @sl.obj0
+%2 = load %struct.string*, %struct.string** %t1_
+call void (%struct.string*,%struct.string*,%struct.string*) @print_concat_sss(%struct.string* %0,%struct.string* %1,%struct.string* %2)
 br label %ret__
 ret__:
 br label %ret_
@@ -232,12 +253,9 @@ store %struct.string* %s1, %struct.string** %s1_
 %t2_ = alloca %struct.string*
 store %struct.string* %t2, %struct.string** %t2_
 %0 = load %struct.string*, %struct.string** %s1_
-%sl_1 = getelementptr [27 x i8], [27 x i8]* @sl.str1, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
-%2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
-%3 = load %struct.string*, %struct.string** %t2_
-%4 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %2,%struct.string* %3)
-call void (%struct.string*) @print_string(%struct.string* %4)
+%1 = load %struct.string*, %struct.string** @sl.obj1
+%2 = load %struct.string*, %struct.string** %t2_
+call void (%struct.string*,%struct.string*,%struct.string*) @print_concat_sss(%struct.string* %0,%struct.string* %1,%struct.string* %2)
 br label %ret__
 ret__:
 br label %ret_
@@ -261,14 +279,26 @@ call void () @setup_error_handlers()
 %t3_ = alloca %struct.string*
 %s1t0_ = alloca i1
 %s2t0_ = alloca i1
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [18 x i8], [18 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [27 x i8], [27 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%sl_init2 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+%sl_init3 = getelementptr [6 x i8], [6 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+%sl_init4 = getelementptr [6 x i8], [6 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+%0 = load %struct.string*, %struct.string** @sl.obj2
 store %struct.string* %0, %struct.string** %s11_
-%sl_1 = getelementptr [6 x i8], [6 x i8]* @sl.str3, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj3
 store %struct.string* %1, %struct.string** %s20_
-%sl_2 = getelementptr [6 x i8], [6 x i8]* @sl.str4, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
+%2 = load %struct.string*, %struct.string** @sl.obj4
 store %struct.string* %2, %struct.string** %t3_
 %3 = load %struct.string*, %struct.string** %s11_
 %4 = load %struct.string*, %struct.string** %t3_
@@ -319,7 +349,12 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [18 x i8] c" is greater than \00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [27 x i8] c" is less than or equal to \00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
 @sl.str2 = private unnamed_addr constant [6 x i8] c"hellp\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
 @sl.str3 = private unnamed_addr constant [6 x i8] c"aello\00", align 1
-@sl.str4 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
\ No newline at end of file
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
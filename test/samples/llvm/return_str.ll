@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -187,8 +191,7 @@ entry:
 %name0_ = alloca %struct.string*
 store %struct.string* %name0, %struct.string** %name0_
 %retval_ = alloca %struct.string*
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%0 = load %struct.string*, %struct.string** @sl.obj0
 %1 = load %struct.string*, %struct.string** %name0_
 %2 = call %struct.string* (%struct.string*,%struct.string*) @String_add(%struct.string* %0,%struct.string* %1)
 store %struct.string* %2, %struct.string** %retval_
@@ -213,12 +216,19 @@ store i32 0, i32* %retval_
 store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%sl_init2 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+%0 = load %struct.string*, %struct.string** @sl.obj1
 %1 = call %struct.string* (%struct.string*) @becomeSuper(%struct.string* %0)
 call void (%struct.string*) @print_string(%struct.string* %1)
-%sl_2 = getelementptr [6 x i8], [6 x i8]* @sl.str2, i32 0, i32 0
-%2 = call %struct.string* (i8*) @String_new(i8* %sl_2)
+%2 = load %struct.string*, %struct.string** @sl.obj2
 %3 = call %struct.string* (%struct.string*) @becomeSuper(%struct.string* %2)
 call void (%struct.string*) @print_string(%struct.string* %3)
 br label %ret__
@@ -232,5 +242,8 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [6 x i8] c"super\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [4 x i8] c"man\00", align 1
-@sl.str2 = private unnamed_addr constant [6 x i8] c"duper\00", align 1
\ No newline at end of file
+@sl.obj1 = internal global %struct.string* null, align 8
+@sl.str2 = private unnamed_addr constant [6 x i8] c"duper\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
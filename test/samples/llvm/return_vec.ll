@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -185,30 +189,9 @@ ret void
 define %struct.PVector_ptr @foo() {
 entry:
 %retval_ = alloca %struct.PVector_ptr
-%0 = alloca [5 x double]
-%vpromo0_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vpromo3_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 3
-%4 = add i32 4, 0
-%promo3 = sitofp i32 %4 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 4
-%5 = add i32 5, 0
-%promo4 = sitofp i32 %5 to double
-store double %promo4, double* %vpromo4_
-%vec_ptr_6 = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%6 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_6, i64 5)
-store %struct.PVector_ptr %6, %struct.PVector_ptr* %retval_
+%vec_ptr_0 = getelementptr [5 x double], [5 x double]* @vl.vec0, i64 0, i64 0
+%0 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_0, i64 5)
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %retval_
 br label %ret_
 return.exit_0:
 br label %ret__
@@ -232,11 +215,10 @@ store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
 %x0_ = alloca %struct.PVector_ptr
 %0 = call %struct.PVector_ptr () @foo()
-%1 = call %struct.PVector_ptr @Vector_copy(%struct.PVector_ptr %0)
-store %struct.PVector_ptr %1, %struct.PVector_ptr* %x0_
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
 
-%2 = call %struct.PVector_ptr () @foo()
-call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %2)
+%1 = call %struct.PVector_ptr () @foo()
+call void (%struct.PVector_ptr) @print_vector(%struct.PVector_ptr %1)
 br label %ret__
 ret__:
 br label %ret_
@@ -247,3 +229,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [5 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000, double 0x4014000000000000], align 8
\ No newline at end of file
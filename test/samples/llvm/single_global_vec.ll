@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -191,31 +195,24 @@ store i32 0, i32* %retval_
 store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
+%sv_0 = alloca { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, align 8
 %x0_ = alloca %struct.PVector_ptr
-%0 = alloca [5 x double]
-%vpromo0_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%1 = add i32 1, 0
-%promo0 = sitofp i32 %1 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 1
-%2 = add i32 2, 0
-%promo1 = sitofp i32 %2 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 2
-%3 = add i32 3, 0
-%promo2 = sitofp i32 %3 to double
-store double %promo2, double* %vpromo2_
-%vpromo3_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 3
-%4 = add i32 4, 0
-%promo3 = sitofp i32 %4 to double
-store double %promo3, double* %vpromo3_
-%vpromo4_ = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 4
-%5 = add i32 5, 0
-%promo4 = sitofp i32 %5 to double
-store double %promo4, double* %vpromo4_
-%vec_ptr_6 = getelementptr [5 x double], [5 x double]* %0, i64 0, i64 0
-%6 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_6, i64 5)
-store %struct.PVector_ptr %6, %struct.PVector_ptr* %x0_
+store { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] } zeroinitializer, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0
+%sv_len_0 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 2
+store i64 5, i64* %sv_len_0
+%sv_0_0 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 0, i32 0
+store double 0x3FF0000000000000, double* %sv_0_0
+%sv_0_1 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 1, i32 0
+store double 0x4000000000000000, double* %sv_0_1
+%sv_0_2 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 2, i32 0
+store double 0x4008000000000000, double* %sv_0_2
+%sv_0_3 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 3, i32 0
+store double 0x4010000000000000, double* %sv_0_3
+%sv_0_4 = getelementptr { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }, { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0, i32 0, i32 3, i64 4, i32 0
+store double 0x4014000000000000, double* %sv_0_4
+%sv_vec_0 = bitcast { %struct.heap_object, i32, i64, [5 x %struct._PVectorFatNode] }* %sv_0 to %struct.PVector*
+%0 = insertvalue %struct.PVector_ptr { i32 0, %struct.PVector* undef }, %struct.PVector* %sv_vec_0, 1
+store %struct.PVector_ptr %0, %struct.PVector_ptr* %x0_
 br label %ret__
 ret__:
 br label %ret_
@@ -226,3 +223,4 @@ ret i32 %retval
 }
 
 
+@vl.vec0 = private unnamed_addr constant [5 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000, double 0x4010000000000000, double 0x4014000000000000], align 8
\ No newline at end of file
@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -188,8 +192,7 @@ entry:
 store %struct.string* %x0, %struct.string** %x0_
 %retval_ = alloca i1
 %0 = load %struct.string*, %struct.string** %x0_
-%sl_1 = getelementptr [3 x i8], [3 x i8]* @sl.str0, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj0
 %2 = call i1 (%struct.string*,%struct.string*) @String_eq(%struct.string* %0,%struct.string* %1)
 store i1 %2, i1* %retval_
 br label %ret_
@@ -215,19 +218,31 @@ store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
 %x1_ = alloca %struct.string*
 %y0_ = alloca %struct.string*
-%sl_0 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [3 x i8], [3 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [4 x i8], [4 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%sl_init2 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
+%sl_obj2 = call %struct.string* (i8*) @String_new(i8* %sl_init2)
+store %struct.string* %sl_obj2, %struct.string** @sl.obj2
+%sl_init3 = getelementptr [5 x i8], [5 x i8]* @sl.str3, i32 0, i32 0
+%sl_obj3 = call %struct.string* (i8*) @String_new(i8* %sl_init3)
+store %struct.string* %sl_obj3, %struct.string** @sl.obj3
+%sl_init4 = getelementptr [5 x i8], [5 x i8]* @sl.str4, i32 0, i32 0
+%sl_obj4 = call %struct.string* (i8*) @String_new(i8* %sl_init4)
+store %struct.string* %sl_obj4, %struct.string** @sl.obj4
+%0 = load %struct.string*, %struct.string** @sl.obj1
 store %struct.string* %0, %struct.string** %x1_
-%sl_1 = getelementptr [4 x i8], [4 x i8]* @sl.str2, i32 0, i32 0
-%1 = call %struct.string* (i8*) @String_new(i8* %sl_1)
+%1 = load %struct.string*, %struct.string** @sl.obj2
 store %struct.string* %1, %struct.string** %y0_
 %2 = load %struct.string*, %struct.string** %x1_
 %3 = load %struct.string*, %struct.string** %y0_
 %4 = call i1 (%struct.string*,%struct.string*) @String_eq(%struct.string* %2,%struct.string* %3)
 br i1 %4, label %if.block_true_0, label %if.block_false_0
 if.block_true_0:
-%sl_5 = getelementptr [5 x i8], [5 x i8]* @sl.str3, i32 0, i32 0
-%5 = call %struct.string* (i8*) @String_new(i8* %sl_5)
+%5 = load %struct.string*, %struct.string** @sl.obj3
 call void (%struct.string*) @print_string(%struct.string* %5)
 
 br label %if.block_exit_0
@@ -239,8 +254,7 @@ if.block_exit_0:
 %8 = call i1 (%struct.string*,%struct.string*) @String_neq(%struct.string* %6,%struct.string* %7)
 br i1 %8, label %if.block_true_1, label %if.block_false_1
 if.block_true_1:
-%sl_9 = getelementptr [5 x i8], [5 x i8]* @sl.str4, i32 0, i32 0
-%9 = call %struct.string* (i8*) @String_new(i8* %sl_9)
+%9 = load %struct.string*, %struct.string** @sl.obj4
 call void (%struct.string*) @print_string(%struct.string* %9)
 
 br label %if.block_exit_1
@@ -261,7 +275,12 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [3 x i8] c"ca\00", align 1
+@sl.obj0 = internal global %struct.string* null, align 8
 @sl.str1 = private unnamed_addr constant [4 x i8] c"cat\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
 @sl.str2 = private unnamed_addr constant [4 x i8] c"dog\00", align 1
+@sl.obj2 = internal global %struct.string* null, align 8
 @sl.str3 = private unnamed_addr constant [5 x i8] c"x==y\00", align 1
-@sl.str4 = private unnamed_addr constant [5 x i8] c"x!=y\00", align 1
\ No newline at end of file
+@sl.obj3 = internal global %struct.string* null, align 8
+@sl.str4 = private unnamed_addr constant [5 x i8] c"x!=y\00", align 1
+@sl.obj4 = internal global %struct.string* null, align 8
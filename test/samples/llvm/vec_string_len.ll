@@ -44,6 +44,10 @@ declare %struct.PVector_ptr @Vector_mul(%struct.PVector_ptr, %struct.PVector_ptr
 
 declare %struct.PVector_ptr @Vector_div(%struct.PVector_ptr, %struct.PVector_ptr)
 
+declare zeroext i1 @Vector_eq(%struct.PVector_ptr, %struct.PVector_ptr)
+
+declare zeroext i1 @Vector_neq(%struct.PVector_ptr, %struct.PVector_ptr)
+
 declare i32 @Vector_len(%struct.PVector_ptr)
 
 declare void @print_vector(%struct.PVector_ptr)
@@ -191,37 +195,27 @@ store i32 0, i32* %retval_
 store i32 %argc, i32* %argc_
 store i8** %argv, i8*** %argv_
 call void () @setup_error_handlers()
+%sv_1 = alloca { %struct.heap_object, i32, i64, [3 x %struct._PVectorFatNode] }, align 8
 %a0_ = alloca %struct.string*
 %b0_ = alloca i32
-%sl_0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
-%0 = call %struct.string* (i8*) @String_new(i8* %sl_0)
+%sl_init0 = getelementptr [6 x i8], [6 x i8]* @sl.str0, i32 0, i32 0
+%sl_obj0 = call %struct.string* (i8*) @String_new(i8* %sl_init0)
+store %struct.string* %sl_obj0, %struct.string** @sl.obj0
+%sl_init1 = getelementptr [6 x i8], [6 x i8]* @sl.str1, i32 0, i32 0
+%sl_obj1 = call %struct.string* (i8*) @String_new(i8* %sl_init1)
+store %struct.string* %sl_obj1, %struct.string** @sl.obj1
+%0 = load %struct.string*, %struct.string** @sl.obj0
 store %struct.string* %0, %struct.string** %a0_
-%1 = alloca [3 x double]
-%vpromo0_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 0
-%2 = add i32 1, 0
-%promo0 = sitofp i32 %2 to double
-store double %promo0, double* %vpromo0_
-%vpromo1_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 1
-%3 = add i32 2, 0
-%promo1 = sitofp i32 %3 to double
-store double %promo1, double* %vpromo1_
-%vpromo2_ = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 2
-%4 = add i32 3, 0
-%promo2 = sitofp i32 %4 to double
-store double %promo2, double* %vpromo2_
-%vec_ptr_5 = getelementptr [3 x double], [3 x double]* %1, i64 0, i64 0
-%5 = call %struct.PVector_ptr @PVector_new(double* %vec_ptr_5, i64 3)
-%6 = call i32 @Vector_len(%struct.PVector_ptr %5)
-store i32 %6, i32* %b0_
-%7 = load %struct.string*, %struct.string** %a0_
-%8 = call i32 @String_len(%struct.string* %7)
-%sl_9 = getelementptr [6 x i8], [6 x i8]* @sl.str1, i32 0, i32 0
-%9 = call %struct.string* (i8*) @String_new(i8* %sl_9)
-%10 = call i32 @String_len(%struct.string* %9)
-%11 = add i32 %8, %10
-%12 = load i32, i32* %b0_
-%13 = add i32 %11, %12
-%pi_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %13)
+%2 = add i32 3, 0
+store i32 %2, i32* %b0_
+%3 = load %struct.string*, %struct.string** %a0_
+%4 = call i32 @String_len(%struct.string* %3)
+%5 = load %struct.string*, %struct.string** @sl.obj1
+%6 = call i32 @String_len(%struct.string* %5)
+%7 = add i32 %4, %6
+%8 = load i32, i32* %b0_
+%9 = add i32 %7, %8
+%pi_0 = call i32 (i8*, ...) @printf(i8* getelementptr ([4 x i8], [4 x i8]* @pi.str, i64 0, i64 0), i32 %9)
 br label %ret__
 ret__:
 br label %ret_
@@ -233,4 +227,7 @@ ret i32 %retval
 
 
 @sl.str0 = private unnamed_addr constant [6 x i8] c"hello\00", align 1
-@sl.str1 = private unnamed_addr constant [6 x i8] c"world\00", align 1
\ No newline at end of file
+@sl.obj0 = internal global %struct.string* null, align 8
+@sl.str1 = private unnamed_addr constant [6 x i8] c"world\00", align 1
+@sl.obj1 = internal global %struct.string* null, align 8
+@vl.vec0 = private unnamed_addr constant [3 x double] [double 0x3FF0000000000000, double 0x4000000000000000, double 0x4008000000000000], align 8
\ No newline at end of file
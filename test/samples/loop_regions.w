@@ -0,0 +1,40 @@
+func pad(s:string, n:int) : string {
+	var i = 0
+	while ( i < n ) {
+		s = s + "."
+		if ( i == 3 ) {
+			return s + "!"
+		}
+		i = i + 1
+	}
+	return s
+}
+
+func grow(n:int) : [] {
+	var v = [0, 0]
+	var i = 0
+	while ( i < n ) {
+		var j = 0
+		while ( j < n ) {
+			v = v + [1, 1]
+			j = j + 1
+		}
+		i = i + 1
+	}
+	return v
+}
+
+var v = [1, 2, 3]
+var s = "a"
+var i = 0
+while ( i < 20000 ) {
+	var t = [i, i, i] * 2
+	v = v + t - t + [1, 1, 1]
+	s = "n" + i
+	i = i + 1
+}
+print(v)
+print(s)
+print(pad("ab", 2))
+print(pad("ab", 10))
+print(grow(3))
@@ -1,5 +1,7 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 void bar(PVector_ptr x);
 
@@ -15,7 +17,7 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	PVector_ptr x;
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	bar(PVector_copy(x));
 	set_ith(x, 2-1, 99);
 	print_vector(x);
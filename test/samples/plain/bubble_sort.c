@@ -1,5 +1,7 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {100.0,99.0,4.0,2.15,2.0,23.0,3.0};
+
 PVector_ptr bubbleSort(PVector_ptr v);
 
 PVector_ptr
@@ -37,8 +39,7 @@ main(int ____c, char *____v[])
     setup_error_handlers();
     PVector_ptr x;
 
-    x = Vector_new((double[]) {
-                   100, 99, 4, 2.15, 2, 23, 3}, 7);
+    x = Vector_new((double *)vl_vec0, 7);
     print_vector(bubbleSort(PVector_copy(x)));
     return 0;
 }
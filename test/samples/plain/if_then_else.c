@@ -1,18 +1,34 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	int x;
 	int y;
+	union { String string; char bytes[sizeof(String) + sizeof("TRUE")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "TRUE", sizeof("TRUE") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("FALSE")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "FALSE", sizeof("FALSE") - 1);
 	x = 2;
 	y = 1;
 	if ((x > y)) {
-	    print_string(String_new("TRUE"));
+	    print_string(sl_str0);
 	}
 	else {
-	    print_string(String_new("FALSE"));
+	    print_string(sl_str1);
 	}
 	return 0;
 }
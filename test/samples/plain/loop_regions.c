@@ -0,0 +1,130 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static const double vl_vec0[] = {0.0,0.0};
+static const double vl_vec1[] = {1.0,1.0};
+static const double vl_vec2[] = {1.0,2.0,3.0};
+static const double vl_vec3[] = {1.0,1.0,1.0};
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_si(String *p0, int p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+String * pad(String * s,int n);
+PVector_ptr grow(int n);
+
+String * pad(String * s,int n)
+{
+    int i;
+    i = 0;
+    while ((i < n)) {
+        s = String_add(s,sl_str0);
+        if ((i == 3)) {
+            return String_add(s,sl_str1);
+        }
+        i = (i + 1);
+    }
+    return s;
+
+}
+
+PVector_ptr grow(int n)
+{
+    union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_9;
+    PVector_ptr v;
+    int i;
+    v = Vector_new((double *)vl_vec0, 2);
+    i = 0;
+    while ((i < n)) {
+        int j;
+        j = 0;
+        while ((j < n)) {
+            Vector_add_inplace(&v, stack_vector(&sv_9, vl_vec1, 2));
+            j = (j + 1);
+        }
+        i = (i + 1);
+    }
+    return v;
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_18;
+	PVector_ptr v;
+	String * s;
+	int i;
+	union { String string; char bytes[sizeof(String) + sizeof(".")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, ".", sizeof(".") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("!")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "!", sizeof("!") - 1);
+	sl_str2 = String_new("a");
+	union { String string; char bytes[sizeof(String) + sizeof("n")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "n", sizeof("n") - 1);
+	sl_str4 = String_new("ab");
+	v = Vector_new((double *)vl_vec2, 3);
+	s = sl_str2;
+	i = 0;
+	while ((i < 20000)) {
+	    PVector_ptr t;
+	    t = Vector_mul_scalar(Vector_new((double []){i,i,i}, 3),2);
+	    v = Vector_add(Vector_sub(Vector_add(v,t),t),stack_vector(&sv_18, vl_vec3, 3));
+	    s = String_concat_si(sl_str3,i);
+	    i = (i + 1);
+	}
+	print_vector(v);
+	print_string(s);
+	print_string(pad(sl_str4,2));
+	print_string(pad(sl_str4,10));
+	print_vector(grow(3));
+	return 0;
+}
+
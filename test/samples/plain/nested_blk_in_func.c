@@ -1,16 +1,28 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 void f();
 
 void f()
 {
     String * x;
-    x = String_new("cat");
+    x = sl_str0;
     {
         String * y;
         String * z;
-        y = String_new("dog");
+        y = sl_str1;
         z = x;
     }
 
@@ -20,6 +32,9 @@ void f()
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	sl_str0 = String_new("cat");
+	union { String string; char bytes[sizeof(String) + sizeof("dog")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "dog", sizeof("dog") - 1);
 	f();
 	return 0;
 }
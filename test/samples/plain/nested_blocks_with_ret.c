@@ -1,29 +1,55 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static const double vl_vec0[] = {7.0};
+static const double vl_vec1[] = {1.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+PVector *v = slot;
+memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+v->length = n;
+for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
+
 
 int f(PVector_ptr a);
 
 int f(PVector_ptr a)
 {
+union { PVector vector; char bytes[sizeof(PVector) + 1*sizeof(PVectorFatNode)]; } sv_6;
     int x;
     String * b;
     PVector_ptr e;
     x = 32;
-    b = String_new("cat");
+    b = sl_str0;
     {
         String * c;
-        c = String_new("dog");
+        c = sl_str1;
         {
             String * d;
-            d = String_new("moo");
+            d = sl_str2;
             return x;
         }
     }
     {
         String * b;
-        b = String_new("boo");
+        b = sl_str3;
     }
-    e = Vector_new((double []){7}, 1);
+    e = stack_vector(&sv_6, vl_vec0, 1);
 
 }
 
@@ -31,7 +57,15 @@ int f(PVector_ptr a)
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
-	printf("%d\n", f(Vector_new((double []){1}, 1)));
+	union { String string; char bytes[sizeof(String) + sizeof("cat")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "cat", sizeof("cat") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("dog")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "dog", sizeof("dog") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("moo")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "moo", sizeof("moo") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("boo")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "boo", sizeof("boo") - 1);
+	printf("%d\n", f(Vector_new((double *)vl_vec1, 1)));
 	return 0;
 }
 
@@ -1,5 +1,17 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 double f(int x);
 
@@ -16,12 +28,16 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	double z;
+	union { String string; char bytes[sizeof(String) + sizeof("z==0")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "z==0", sizeof("z==0") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("z!=0")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "z!=0", sizeof("z!=0") - 1);
 	z = f(2);
 	if ((z == 0)) {
-	    print_string(String_new("z==0"));
+	    print_string(sl_str0);
 	}
 	else {
-	    print_string(String_new("z!=0"));
+	    print_string(sl_str1);
 	}
 	return 0;
 }
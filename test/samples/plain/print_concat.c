@@ -0,0 +1,154 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static String *sl_str5;
+static String *sl_str6;
+static String *sl_str7;
+static String *sl_str8;
+static String *sl_str9;
+static String *sl_str10;
+static const double vl_vec0[] = {4.0,5.0};
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_sis(String *p0, int p1, String *p2)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1) + concat_len_s(p2);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	b = concat_put_s(b, p2);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static void print_concat_si(String *p0, int p1)
+{
+	fputs(p0->str, stdout);
+	printf("%d", p1);
+	putchar('\n');
+}
+static void print_concat_sifs(String *p0, int p1, double p2, String *p3)
+{
+	fputs(p0->str, stdout);
+	printf("%d", p1);
+	printf("%1.2f", p2);
+	fputs(p3->str, stdout);
+	putchar('\n');
+}
+static void print_concat_sisfi(String *p0, int p1, String *p2, double p3, int p4)
+{
+	fputs(p0->str, stdout);
+	printf("%d", p1);
+	fputs(p2->str, stdout);
+	printf("%1.2f", p3);
+	printf("%d", p4);
+	putchar('\n');
+}
+static void print_concat_ss(String *p0, String *p1)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	putchar('\n');
+}
+static void print_concat_ssfsv(String *p0, String *p1, double p2, String *p3, PVector_ptr p4)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	printf("%1.2f", p2);
+	fputs(p3->str, stdout);
+	for (size_t i = 0; i < p4.vector->length; i++) printf("%d", (int)ith(p4, i));
+	putchar('\n');
+}
+static void print_concat_sss(String *p0, String *p1, String *p2)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	fputs(p2->str, stdout);
+	putchar('\n');
+}
+static void print_concat_vs(PVector_ptr p0, String *p1)
+{
+	for (size_t i = 0; i < p0.vector->length; i++) printf("%d", (int)ith(p0, i));
+	fputs(p1->str, stdout);
+	putchar('\n');
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+String * tag(int n);
+void show(String * name,double x,PVector_ptr v);
+
+String * tag(int n)
+{
+    print_concat_si(sl_str0,n);
+    return String_concat_sis(sl_str1,n,sl_str2);
+
+}
+
+void show(String * name,double x,PVector_ptr v)
+{
+    print_concat_ssfsv(name,sl_str3,x,sl_str4,v);
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	String * s;
+	PVector_ptr v;
+	int i;
+	union { String string; char bytes[sizeof(String) + sizeof("tag ")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "tag ", sizeof("tag ") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("<")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "<", sizeof("<") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(">")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, ">", sizeof(">") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("=")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "=", sizeof("=") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(" ")]; } ss_str4;
+	sl_str4 = stack_string(&ss_str4, " ", sizeof(" ") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("s")]; } ss_str5;
+	sl_str5 = stack_string(&ss_str5, "s", sizeof("s") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("first ")]; } ss_str6;
+	sl_str6 = stack_string(&ss_str6, "first ", sizeof("first ") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(" then")]; } ss_str7;
+	sl_str7 = stack_string(&ss_str7, " then", sizeof(" then") - 1);
+	sl_str8 = String_new("x");
+	union { String string; char bytes[sizeof(String) + sizeof("i=")]; } ss_str9;
+	sl_str9 = stack_string(&ss_str9, "i=", sizeof("i=") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof(";")]; } ss_str10;
+	sl_str10 = stack_string(&ss_str10, ";", sizeof(";") - 1);
+	s = sl_str5;
+	v = Vector_new((double *)vl_vec0, 2);
+	print_concat_sss(sl_str6,tag(1),sl_str7);
+	print_concat_si(tag(2),2);
+	show(sl_str8,1.5,v);
+	print_concat_sifs(s,3,0.25,s);
+	print_concat_ss(s,s);
+	i = 0;
+	while ((i < 3)) {
+	    print_concat_sisfi(sl_str9,i,sl_str10,ith(v, (1)-1),i);
+	    i = (i + 1);
+	}
+	print_concat_vs(v,s);
+	return 0;
+}
+
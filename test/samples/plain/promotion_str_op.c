@@ -1,19 +1,111 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	return b;
+}
+static String *String_concat_sf_stack(void *slot, String *p0, double p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_f(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static String *String_concat_si_stack(void *slot, String *p0, int p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static String *String_concat_ss_stack(void *slot, String *p0, String *p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_s(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static String *String_concat_sv_stack(void *slot, String *p0, PVector_ptr p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_v(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { String string; char bytes[sizeof(String) + 7]; } ss_3;
+	union { String string; char bytes[sizeof(String) + 15]; } ss_6;
+	union { String string; char bytes[sizeof(String) + 317]; } ss_9;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_11;
+	union { String string; char bytes[sizeof(String) + 37]; } ss_12;
 	String * s1;
 	String * s2;
 	String * s3;
 	String * s4;
 	String * s5;
-	s1 = String_new("abc");
-	s2 = String_add(s1,String_new("xyz"));
-	s3 = String_add(s1,String_from_int(100));
-	s4 = String_add(s1,String_from_float(3.14));
-	s5 = String_add(s1,String_from_vector(Vector_new((double []){1,2,3}, 3)));
+	union { String string; char bytes[sizeof(String) + sizeof("abc")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "abc", sizeof("abc") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("xyz")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "xyz", sizeof("xyz") - 1);
+	s1 = sl_str0;
+	s2 = String_concat_ss_stack(&ss_3, s1,sl_str1);
+	s3 = String_concat_si_stack(&ss_6, s1,100);
+	s4 = String_concat_sf_stack(&ss_9, s1,3.14);
+	s5 = String_concat_sv_stack(&ss_12, s1,stack_vector(&sv_11, vl_vec0, 3));
 	print_string(s1);
 	print_string(s2);
 	print_string(s3);
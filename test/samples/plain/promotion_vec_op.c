@@ -1,5 +1,13 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static PVector_ptr Vector_add_scalar(PVector_ptr a, double s)
+{
+PVector_ptr r = Vector_empty(a.vector->length);
+for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + s;
+return r;
+}
+
 int
 main(int ____c, char *____v[])
 {
@@ -8,10 +16,9 @@ main(int ____c, char *____v[])
 
     PVector_ptr w;
 
-    v = Vector_new((double[]) {
-                   1.0, 2.0, 3.0}, 3);
-    v = Vector_add(v, Vector_from_int(4, (v).vector->length));
-    w = Vector_add(Vector_from_int(100, (v).vector->length), v);
+    v = Vector_new((double *)vl_vec0, 3);
+    v = Vector_add_scalar(v,4);
+    w = Vector_add_scalar(v,100);
     print_vector(v);
     print_vector(w);
     return 0;
@@ -1,12 +1,14 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 PVector_ptr f();
 
 PVector_ptr f()
 {
     PVector_ptr x;
-    x = Vector_new((double []){1,2,3}, 3);
+    x = Vector_new((double *)vl_vec0, 3);
     return x;
 
 }
@@ -0,0 +1,69 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+
+static String *sl_str0;
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_si(String *p0, int p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+PVector_ptr mkv(int n);
+String * mks(int n);
+
+PVector_ptr mkv(int n)
+{
+    PVector_ptr v;
+    v = Vector_new((double []){n,n,n}, 3);
+    set_ith(v, 2-1, 7);
+    return v;
+
+}
+
+String * mks(int n)
+{
+    String * s;
+    s = String_concat_si(sl_str0,n);
+    return s;
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	PVector_ptr x;
+	String * y;
+	PVector_ptr z;
+	union { String string; char bytes[sizeof(String) + sizeof("s")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "s", sizeof("s") - 1);
+	x = mkv(2);
+	y = mks(3);
+	z = mkv(5);
+	print_vector(x);
+	print_string(y);
+	print_vector(Vector_add(x,z));
+	return 0;
+}
+
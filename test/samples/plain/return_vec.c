@@ -1,11 +1,13 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0,5.0};
+
 
 PVector_ptr foo();
 
 PVector_ptr foo()
 {
-    return Vector_new((double []){1,2,3,4,5}, 5);
+    return Vector_new((double *)vl_vec0, 5);
 
 }
 
@@ -14,7 +16,7 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	PVector_ptr x;
-	x = PVector_copy(foo());
+	x = foo();
 	print_vector(foo());
 	return 0;
 }
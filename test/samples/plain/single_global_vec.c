@@ -1,11 +1,24 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0,5.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+PVector *v = slot;
+memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+v->length = n;
+for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+return (PVector_ptr){0, v};
+}
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { PVector vector; char bytes[sizeof(PVector) + 5*sizeof(PVectorFatNode)]; } sv_0;
 	PVector_ptr x;
-	x = Vector_new((double []){1,2,3,4,5}, 5);
+	x = stack_vector(&sv_0, vl_vec0, 5);
 	return 0;
 }
 
@@ -1,18 +1,57 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 
+static String *sl_str0;
+static String *sl_str1;
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static void print_concat_si(String *p0, int p1)
+{
+	fputs(p0->str, stdout);
+	printf("%d", p1);
+	putchar('\n');
+}
+static String *String_concat_sf_stack(void *slot, String *p0, double p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_f(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { String string; char bytes[sizeof(String) + 319]; } ss_5;
 	String * s;
 	int i;
 	double f;
 	String * r;
-	s = String_new("hello");
+	union { String string; char bytes[sizeof(String) + sizeof("hello")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "hello", sizeof("hello") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("world")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "world", sizeof("world") - 1);
+	s = sl_str0;
 	i = 1;
 	f = 1.00;
-	r = String_add(String_new("world"),String_from_float(f));
-	print_string(String_add(s,String_from_int(i)));
+	r = String_concat_sf_stack(&ss_5, sl_str1,f);
+	print_concat_si(s,i);
 	print_string(r);
 	return 0;
 }
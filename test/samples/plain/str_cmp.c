@@ -1,11 +1,24 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 bool f(String * s);
 
 bool f(String * s)
 {
-    if (String_le(s,String_new("cat"))) {
+    if (String_le(s,sl_str0)) {
         return true;
     }
     return false;
@@ -18,12 +31,17 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
 	String * s1;
 	String * s2;
-	s1 = String_new("");
-	s2 = String_new("cat");
+	sl_str0 = String_new("cat");
+	union { String string; char bytes[sizeof(String) + sizeof("")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "", sizeof("") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("miaow")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "miaow", sizeof("miaow") - 1);
+	s1 = sl_str1;
+	s2 = sl_str0;
 	if (String_gt(s1,s2)) {
 	}
 	else {
-	    print_string(String_new("miaow"));
+	    print_string(sl_str2);
 	}
 	printf("%d\n", f(s2));
 	return 0;
@@ -1,11 +1,26 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 bool cmp(String * x);
 
 bool cmp(String * x)
 {
-    return String_eq(x,String_new("ca"));
+    return String_eq(x,sl_str0);
 
 }
 
@@ -15,13 +30,22 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
 	String * x;
 	String * y;
-	x = String_new("cat");
-	y = String_new("dog");
+	union { String string; char bytes[sizeof(String) + sizeof("ca")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "ca", sizeof("ca") - 1);
+	sl_str1 = String_new("cat");
+	union { String string; char bytes[sizeof(String) + sizeof("dog")]; } ss_str2;
+	sl_str2 = stack_string(&ss_str2, "dog", sizeof("dog") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("x==y")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "x==y", sizeof("x==y") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("x!=y")]; } ss_str4;
+	sl_str4 = stack_string(&ss_str4, "x!=y", sizeof("x!=y") - 1);
+	x = sl_str1;
+	y = sl_str2;
 	if (String_eq(x,y)) {
-	    print_string(String_new("x==y"));
+	    print_string(sl_str3);
 	}
 	if (String_neq(x,y)) {
-	    print_string(String_new("x!=y"));
+	    print_string(sl_str4);
 	}
 	printf("%d\n", cmp(x));
 	return 0;
@@ -1,14 +1,47 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 
+static String *sl_str0;
+static String *sl_str1;
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static void print_concat_ss(String *p0, String *p1)
+{
+	fputs(p0->str, stdout);
+	fputs(p1->str, stdout);
+	putchar('\n');
+}
+static String *String_concat_ss_stack(void *slot, String *p0, String *p1)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	char *b = r->str;
+	b = concat_put_s(b, p0);
+	b = concat_put_s(b, p1);
+	*b = '\0';
+	r->length = b - r->str;
+	return r;
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
 void f();
 
 void f()
 {
+    union { String string; char bytes[sizeof(String) + 7]; } ss_2;
     String * x;
-    x = String_add(String_new("cat"),String_new("dog"));
+    x = String_concat_ss_stack(&ss_2, sl_str0,sl_str1);
     print_string(x);
-    print_string(String_add(String_from_char(x->str[(1)-1]),String_from_char(x->str[(3)-1])));
+    print_concat_ss(String_from_char(x->str[(1)-1]),String_from_char(x->str[(3)-1]));
 
 }
 
@@ -16,6 +49,10 @@ void f()
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { String string; char bytes[sizeof(String) + sizeof("cat")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "cat", sizeof("cat") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("dog")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "dog", sizeof("dog") - 1);
 	f();
 	return 0;
 }
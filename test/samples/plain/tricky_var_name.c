@@ -1,14 +1,33 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static String *sl_str0;
+static void print_concat_si(String *p0, int p1)
+{
+fputs(p0->str, stdout);
+printf("%d", p1);
+putchar('\n');
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+String *r = slot;
+memset(r, 0, sizeof(String));
+r->length = n;
+memcpy(r->str, s, n + 1);
+return r;
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	int argc;
 	String * argv;
+	union { String string; char bytes[sizeof(String) + sizeof("hello world")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, "hello world", sizeof("hello world") - 1);
 	argc = 1;
-	argv = String_new("hello world");
-	print_string(String_add(argv,String_from_int(argc)));
+	argv = sl_str0;
+	print_concat_si(argv,argc);
 	return 0;
 }
 
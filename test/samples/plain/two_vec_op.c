@@ -1,17 +1,50 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 
+static const double vl_vec0[] = {4.0,6.0,8.0};
+static const double vl_vec1[] = {2.0,3.0,4.0};
+static PVector_ptr Vector_mul_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) * ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static PVector_ptr Vector_div_stack(void *slot, PVector_ptr a, PVector_ptr b, size_t n)
+{
+	PVector *r = slot;
+	memset(r, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	r->length = n;
+	for (size_t i = 0; i < n; i++) r->nodes[i].data = ith(a, i) / ith(b, i);
+	return (PVector_ptr){0, r};
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_4;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_7;
 	PVector_ptr x;
 	PVector_ptr y;
 	PVector_ptr z;
 	PVector_ptr q;
-	x = Vector_new((double []){4,6,8}, 3);
-	y = Vector_new((double []){2,3,4}, 3);
-	z = Vector_mul(x,y);
-	q = Vector_div(z,y);
+	x = stack_vector(&sv_0, vl_vec0, 3);
+	y = stack_vector(&sv_1, vl_vec1, 3);
+	z = Vector_mul_stack(&sv_4, x, y, 3);
+	q = Vector_div_stack(&sv_7, z, y, 3);
 	print_vector(q);
 	return 0;
 }
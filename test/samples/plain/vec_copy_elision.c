@@ -0,0 +1,76 @@
+#include <stdio.h>
+#include "wich.h"
+
+static const double vl_vec0[] = {7.0,8.0,9.0};
+static const double vl_vec1[] = {1.0,2.0,3.0};
+double sum(PVector_ptr v);
+PVector_ptr zero(PVector_ptr v);
+PVector_ptr same(PVector_ptr v);
+PVector_ptr fresh();
+
+double sum(PVector_ptr v)
+{
+    double s;
+    int i;
+    s = 0.0;
+    i = 1;
+    while ((i <= Vector_len(v))) {
+        s = (s + ith(v, (i)-1));
+        i = (i + 1);
+    }
+    return s;
+
+}
+
+PVector_ptr zero(PVector_ptr v)
+{
+    set_ith(v, 1-1, 0);
+    return v;
+
+}
+
+PVector_ptr same(PVector_ptr v)
+{
+    PVector_ptr w;
+    w = v;
+    return w;
+
+}
+
+PVector_ptr fresh()
+{
+    PVector_ptr v;
+    v = Vector_new((double *)vl_vec0, 3);
+    return v;
+
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	PVector_ptr a;
+	PVector_ptr b;
+	PVector_ptr c;
+	PVector_ptr d;
+	PVector_ptr e;
+	PVector_ptr f;
+	a = Vector_new((double *)vl_vec1, 3);
+	printf("%1.2f\n", sum(a));
+	b = zero(PVector_copy(a));
+	print_vector(a);
+	print_vector(b);
+	c = PVector_copy(same(a));
+	d = PVector_copy(same(a));
+	set_ith(d, 2-1, 5);
+	print_vector(a);
+	print_vector(d);
+	e = fresh();
+	set_ith(e, 1-1, 1);
+	print_vector(e);
+	print_vector(fresh());
+	f = a;
+	print_vector(f);
+	return 0;
+}
+
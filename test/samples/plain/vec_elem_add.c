@@ -1,13 +1,28 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {2.0,3.0,4.0};
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+PVector *v = slot;
+memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+v->length = n;
+for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+return (PVector_ptr){0, v};
+}
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_1;
 	PVector_ptr u;
 	PVector_ptr v;
-	u = Vector_new((double []){1,2,3}, 3);
-	v = Vector_new((double []){2,3,4}, 3);
+	u = stack_vector(&sv_0, vl_vec0, 3);
+	v = stack_vector(&sv_1, vl_vec1, 3);
 	printf("%1.2f\n", (ith(u, (1)-1) + ith(v, (3)-1)));
 	return 0;
 }
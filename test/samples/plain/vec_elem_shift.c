@@ -1,5 +1,7 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -7,7 +9,7 @@ int main(int ____c, char *____v[])
 	int j;
 	PVector_ptr x;
 	j = 1;
-	x = Vector_new((double []){1,2}, 2);
+	x = Vector_new((double *)vl_vec0, 2);
 	set_ith(x, j-1, ith(x, ((j + 1))-1));
 	print_vector(x);
 	return 0;
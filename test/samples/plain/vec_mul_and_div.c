@@ -1,14 +1,39 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
+static const double vl_vec0[] = {2.0,4.0,6.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_div_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) / s;
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+PVector *v = slot;
+memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+v->length = n;
+for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+return (PVector_ptr){0, v};
+}
+
 
 PVector_ptr foo(int x);
 
 PVector_ptr foo(int x)
 {
+union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_0;
     PVector_ptr y;
     PVector_ptr z;
-    y = Vector_new((double []){2,4,6}, 3);
-    z = Vector_div(y,Vector_from_int(x,(y).vector->length));
+    y = stack_vector(&sv_0, vl_vec0, 3);
+    z = Vector_div_scalar(y,x);
     return z;
 
 }
@@ -20,7 +45,7 @@ int main(int ____c, char *____v[])
 	double f;
 	PVector_ptr v;
 	f = 5.00;
-	v = Vector_mul(foo(2),Vector_from_float(f,(foo(2)).vector->length));
+	v = Vector_mul_scalar(foo(2),f);
 	print_vector(v);
 	return 0;
 }
@@ -1,12 +1,14 @@
 #include <stdio.h>
 #include "wich.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
 	PVector_ptr x;
 	PVector_ptr y;
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	y = PVector_copy(x);
 	set_ith(y, 1-1, 4);
 	print_vector(x);
@@ -0,0 +1,22 @@
+func tag(n:int) : string {
+	print("tag " + n)
+	return "<" + n + ">"
+}
+
+func show(name:string, x:float, v:[]) {
+	print(name + "=" + x + " " + v)
+}
+
+var s = "s"
+var v = [4, 5]
+print("first " + tag(1) + " then")
+print(tag(2) + 2)
+show("x", 1.5, v)
+print((s + 3) + (0.25 + s))
+print(s + s)
+var i = 0
+while ( i < 3 ) {
+	print("i=" + i + ";" + v[1] + i)
+	i = i + 1
+}
+print(v + s)
@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 void bar(PVector_ptr x);
 
@@ -20,7 +22,7 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
     ENTER();
 	VECTOR(x);
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	REF((void *)x.vector);
 	bar(PVector_copy(x));
 	set_ith(x, 2-1, 99);
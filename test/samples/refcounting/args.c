@@ -7,8 +7,6 @@ void f(int x,PVector_ptr v);
 void f(int x,PVector_ptr v)
 {
     ENTER();
-    REF((void *)v.vector);
-
     EXIT();
 }
 
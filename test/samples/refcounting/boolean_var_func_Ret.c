@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
 
 bool foo(int x);
 
@@ -19,16 +21,18 @@ int main(int ____c, char *____v[])
     ENTER();
 	int x;
 	bool y;
+	sl_str0 = String_new("happy"); REF((void *)sl_str0);
+	sl_str1 = String_new("sad"); REF((void *)sl_str1);
 	x = 5;
 	y = foo(x);
 	if (y) {
 		MARK();
-	    print_string(String_new("happy"));
+	    print_string(sl_str0);
 	    RELEASE();
 	}
 	else {
 		MARK();
-	    print_string(String_new("sad"));
+	    print_string(sl_str1);
 	    RELEASE();
 	}
     EXIT();
@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {100.0,99.0,4.0,2.15,2.0,23.0,3.0};
+
 PVector_ptr bubbleSort(PVector_ptr v);
 
 PVector_ptr
@@ -52,8 +54,7 @@ main(int ____c, char *____v[])
     setup_error_handlers();
     ENTER();
     VECTOR(x);
-    x = Vector_new((double[]) {
-                   100, 99, 4, 2.15, 2, 23, 3}, 7);
+    x = Vector_new((double *)vl_vec0, 7);
     REF((void *)x.vector);
     print_vector(bubbleSort(PVector_copy(x)));
     EXIT();
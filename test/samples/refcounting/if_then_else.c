@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
 
 int main(int ____c, char *____v[])
 {
@@ -8,16 +10,18 @@ int main(int ____c, char *____v[])
     ENTER();
 	int x;
 	int y;
+	sl_str0 = String_new("TRUE"); REF((void *)sl_str0);
+	sl_str1 = String_new("FALSE"); REF((void *)sl_str1);
 	x = 2;
 	y = 1;
 	if ((x > y)) {
 		MARK();
-	    print_string(String_new("TRUE"));
+	    print_string(sl_str0);
 	    RELEASE();
 	}
 	else {
 		MARK();
-	    print_string(String_new("FALSE"));
+	    print_string(sl_str1);
 	    RELEASE();
 	}
     EXIT();
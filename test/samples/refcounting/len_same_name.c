@@ -0,0 +1,39 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {1.0,2.0,3.0,4.0,5.0};
+int f();
+int g(PVector_ptr v);
+
+int f()
+{
+    ENTER();
+    VECTOR(v);
+    v = Vector_new((double *)vl_vec0, 3);
+    REF((void *)v.vector);
+    {EXIT(); return 3;}
+
+    EXIT();
+}
+
+int g(PVector_ptr v)
+{
+    ENTER();
+    {EXIT(); return Vector_len(v);}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	printf("%d\n", f());
+	printf("%d\n", g(Vector_new((double *)vl_vec1, 5)));
+    EXIT();
+	return 0;
+}
+
@@ -0,0 +1,133 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static const double vl_vec0[] = {0.0,0.0};
+static const double vl_vec1[] = {1.0,1.0};
+static const double vl_vec2[] = {1.0,2.0,3.0};
+static const double vl_vec3[] = {1.0,1.0,1.0};
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_si(String *p0, int p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+String * pad(String * s,int n);
+PVector_ptr grow(int n);
+
+String * pad(String * s,int n)
+{
+    ENTER();
+    int i;
+    REF((void *)s);
+    i = 0;
+    while ((i < n)) {
+    	MARK();
+        s = String_add(s,sl_str0);
+        REF((void *)s);
+        if ((i == 3)) {
+        	MARK();
+            {EXIT(); return String_add(s,sl_str1);}
+            RELEASE();
+        }
+        i = (i + 1);
+        RELEASE();
+    }
+    {REF((void *)s); EXIT(); DEC((void *)s); return s;}
+
+    EXIT();
+}
+
+PVector_ptr grow(int n)
+{
+    ENTER();
+    VECTOR(v);
+    int i;
+    v = Vector_new((double *)vl_vec0, 2);
+    REF((void *)v.vector);
+    i = 0;
+    while ((i < n)) {
+    	MARK();
+        int j;
+        j = 0;
+        while ((j < n)) {
+        	MARK();
+            Vector_add_inplace(&v, Vector_new((double *)vl_vec1, 2));
+            j = (j + 1);
+            RELEASE();
+        }
+        i = (i + 1);
+        RELEASE();
+    }
+    {REF((void *)v.vector); EXIT(); DEC((void *)v.vector); return v;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(v);
+	STRING(s);
+	int i;
+	sl_str0 = String_new("."); REF((void *)sl_str0);
+	sl_str1 = String_new("!"); REF((void *)sl_str1);
+	sl_str2 = String_new("a"); REF((void *)sl_str2);
+	sl_str3 = String_new("n"); REF((void *)sl_str3);
+	sl_str4 = String_new("ab"); REF((void *)sl_str4);
+	v = Vector_new((double *)vl_vec2, 3);
+	REF((void *)v.vector);
+	s = sl_str2;
+	REF((void *)s);
+	i = 0;
+	while ((i < 20000)) {
+		MARK();
+	    VECTOR(t);
+	    t = Vector_mul_scalar(Vector_new((double []){i,i,i}, 3),2);
+	    REF((void *)t.vector);
+	    v = Vector_add(Vector_sub(Vector_add(v,t),t),Vector_new((double *)vl_vec3, 3));
+	    REF((void *)v.vector);
+	    s = String_concat_si(sl_str3,i);
+	    REF((void *)s);
+	    i = (i + 1);
+	    RELEASE();
+	}
+	print_vector(v);
+	print_string(s);
+	print_string(pad(sl_str4,2));
+	print_string(pad(sl_str4,10));
+	print_vector(grow(3));
+    EXIT();
+	return 0;
+}
+
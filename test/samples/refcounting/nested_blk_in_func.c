@@ -1,23 +1,22 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
 
 void f();
 
 void f()
 {
     ENTER();
-    STRING(x);
-    x = String_new("cat");
-    REF((void *)x);
+    String * x;
+    x = sl_str0;
     {
     	MARK();
-        STRING(y);
-        STRING(z);
-        y = String_new("dog");
-        REF((void *)y);
+        String * y;
+        String * z;
+        y = sl_str1;
         z = x;
-        REF((void *)z);
         RELEASE();
     }
 
@@ -29,6 +28,8 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
+	sl_str0 = String_new("cat"); REF((void *)sl_str0);
+	sl_str1 = String_new("dog"); REF((void *)sl_str1);
 	f();
     EXIT();
 	return 0;
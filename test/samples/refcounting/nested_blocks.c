@@ -1,42 +1,43 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static const double vl_vec0[] = {7.0};
+
 
 void f(PVector_ptr a);
 
 void f(PVector_ptr a)
 {
     ENTER();
-    STRING(b);
+    String * b;
     VECTOR(e);
-    REF((void *)a.vector);
-    b = String_new("cat");
-    REF((void *)b);
+    b = sl_str0;
     {
     	MARK();
-        STRING(c);
-        c = String_new("dog");
-        REF((void *)c);
+        String * c;
+        c = sl_str1;
         {
         	MARK();
-            STRING(d);
-            d = String_new("moo");
-            REF((void *)d);
+            String * d;
+            d = sl_str2;
             RELEASE();
         }
         RELEASE();
     }
     {
     	MARK();
-        STRING(b);
-        STRING(c);
-        b = String_new("boo");
-        REF((void *)b);
-        c = String_new("hoo");
-        REF((void *)c);
+        String * b;
+        String * c;
+        b = sl_str3;
+        c = sl_str4;
         RELEASE();
     }
-    e = Vector_new((double []){7}, 1);
+    e = Vector_new((double *)vl_vec0, 1);
     REF((void *)e.vector);
 
     EXIT();
@@ -47,6 +48,11 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
+    sl_str0 = String_new("cat"); REF((void *)sl_str0);
+    sl_str1 = String_new("dog"); REF((void *)sl_str1);
+    sl_str2 = String_new("moo"); REF((void *)sl_str2);
+    sl_str3 = String_new("boo"); REF((void *)sl_str3);
+    sl_str4 = String_new("hoo"); REF((void *)sl_str4);
     EXIT();
 	return 0;
 }
@@ -1,6 +1,13 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static const double vl_vec0[] = {7.0};
+static const double vl_vec1[] = {1.0};
+
 
 int f(PVector_ptr a);
 
@@ -8,22 +15,18 @@ int f(PVector_ptr a)
 {
     ENTER();
     int x;
-    STRING(b);
+    String * b;
     VECTOR(e);
-    REF((void *)a.vector);
     x = 32;
-    b = String_new("cat");
-    REF((void *)b);
+    b = sl_str0;
     {
     	MARK();
-        STRING(c);
-        c = String_new("dog");
-        REF((void *)c);
+        String * c;
+        c = sl_str1;
         {
         	MARK();
-            STRING(d);
-            d = String_new("moo");
-            REF((void *)d);
+            String * d;
+            d = sl_str2;
             {EXIT(); return x;}
             RELEASE();
         }
@@ -31,12 +34,11 @@ int f(PVector_ptr a)
     }
     {
     	MARK();
-        STRING(b);
-        b = String_new("boo");
-        REF((void *)b);
+        String * b;
+        b = sl_str3;
         RELEASE();
     }
-    e = Vector_new((double []){7}, 1);
+    e = Vector_new((double *)vl_vec0, 1);
     REF((void *)e.vector);
 
     EXIT();
@@ -47,7 +49,11 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	printf("%d\n", f(Vector_new((double []){1}, 1)));
+	sl_str0 = String_new("cat"); REF((void *)sl_str0);
+	sl_str1 = String_new("dog"); REF((void *)sl_str1);
+	sl_str2 = String_new("moo"); REF((void *)sl_str2);
+	sl_str3 = String_new("boo"); REF((void *)sl_str3);
+	printf("%d\n", f(Vector_new((double *)vl_vec1, 1)));
     EXIT();
 	return 0;
 }
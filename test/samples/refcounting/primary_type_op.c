@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
 
 double f(int x);
 
@@ -20,15 +22,17 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
     ENTER();
 	double z;
+	sl_str0 = String_new("z==0"); REF((void *)sl_str0);
+	sl_str1 = String_new("z!=0"); REF((void *)sl_str1);
 	z = f(2);
 	if ((z == 0)) {
 		MARK();
-	    print_string(String_new("z==0"));
+	    print_string(sl_str0);
 	    RELEASE();
 	}
 	else {
 		MARK();
-	    print_string(String_new("z!=0"));
+	    print_string(sl_str1);
 	    RELEASE();
 	}
     EXIT();
@@ -1,26 +1,85 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+size_t n = 0;
+for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+return b;
+}
+static String *String_concat_sf(String *p0, double p1)
+{
+char small[256];
+size_t n = concat_len_s(p0) + concat_len_f(p1);
+char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+b = concat_put_s(b, p0);
+b = concat_put_f(b, p1);
+*b = '\0';
+String *r = String_new(buf);
+if ( buf!=small ) free(buf);
+return r;
+}
+static String *String_concat_si(String *p0, int p1)
+{
+char small[256];
+size_t n = concat_len_s(p0) + concat_len_i(p1);
+char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+b = concat_put_s(b, p0);
+b = concat_put_i(b, p1);
+*b = '\0';
+String *r = String_new(buf);
+if ( buf!=small ) free(buf);
+return r;
+}
+static String *String_concat_sv(String *p0, PVector_ptr p1)
+{
+char small[256];
+size_t n = concat_len_s(p0) + concat_len_v(p1);
+char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+b = concat_put_s(b, p0);
+b = concat_put_v(b, p1);
+*b = '\0';
+String *r = String_new(buf);
+if ( buf!=small ) free(buf);
+return r;
+}
+
 int
 main(int ____c, char *____v[])
 {
     setup_error_handlers();
     ENTER();
-    STRING(s1);
+    String * s1;
     STRING(s2);
     STRING(s3);
     STRING(s4);
     STRING(s5);
-    s1 = String_new("abc");
-    REF((void *)s1);
-    s2 = String_add(s1, String_new("xyz"));
+    sl_str0 = String_new("abc"); REF((void *)sl_str0);
+    sl_str1 = String_new("xyz"); REF((void *)sl_str1);
+    s1 = sl_str0;
+    s2 = String_add(s1, sl_str1);
     REF((void *)s2);
-    s3 = String_add(s1, String_from_int(100));
+    s3 = String_concat_si(s1,100);
     REF((void *)s3);
-    s4 = String_add(s1, String_from_float(3.14));
+    s4 = String_concat_sf(s1,3.14);
     REF((void *)s4);
-    s5 = String_add(s1, String_from_vector(Vector_new((double[]) {
-                                                      1, 2, 3}, 3)));
+    s5 = String_concat_sv(s1,Vector_new((double *)vl_vec0, 3));
     REF((void *)s5);
     print_string(s1);
     print_string(s2);
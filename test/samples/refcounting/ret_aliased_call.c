@@ -0,0 +1,71 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0};
+String * id(String * s);
+PVector_ptr same(PVector_ptr v);
+String * g();
+PVector_ptr h();
+
+String * id(String * s)
+{
+    ENTER();
+    REF((void *)s);
+    {REF((void *)s); EXIT(); DEC((void *)s); return s;}
+
+    EXIT();
+}
+
+PVector_ptr same(PVector_ptr v)
+{
+    ENTER();
+    REF((void *)v.vector);
+    {REF((void *)v.vector); EXIT(); DEC((void *)v.vector); return v;}
+
+    EXIT();
+}
+
+String * g()
+{
+    ENTER();
+    STRING(x);
+    STRING(t);
+    x = String_add(sl_str0,sl_str1);
+    REF((void *)x);
+    t = id(x);
+    REF((void *)t);
+    {REF((void *)t); EXIT(); DEC((void *)t); return t;}
+
+    EXIT();
+}
+
+PVector_ptr h()
+{
+    ENTER();
+    VECTOR(w);
+    VECTOR(u);
+    w = Vector_add(Vector_new((double *)vl_vec0, 2),Vector_new((double *)vl_vec0, 2));
+    REF((void *)w.vector);
+    u = PVector_copy(same(w));
+    REF((void *)u.vector);
+    {REF((void *)u.vector); EXIT(); DEC((void *)u.vector); return u;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	sl_str0 = String_new("a"); REF((void *)sl_str0);
+	sl_str1 = String_new("b"); REF((void *)sl_str1);
+	print_string(g());
+	print_vector(h());
+    EXIT();
+	return 0;
+}
+
@@ -1,16 +1,17 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 PVector_ptr f();
 
 PVector_ptr f()
 {
     ENTER();
-    VECTOR(x);
-    x = Vector_new((double []){1,2,3}, 3);
-    REF((void *)x.vector);
-    {REF((void *)x.vector); EXIT(); DEC((void *)x.vector); return x;}
+    PVector_ptr x;
+    x = Vector_new((double *)vl_vec0, 3);
+    {EXIT(); return x;}
 
     EXIT();
 }
@@ -0,0 +1,70 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static String *sl_str0;
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_si(String *p0, int p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+PVector_ptr mkv(int n);
+String * mks(int n);
+
+PVector_ptr mkv(int n)
+{
+    ENTER();
+    VECTOR(v);
+    v = Vector_new((double []){n,n,n}, 3);
+    REF((void *)v.vector);
+    set_ith(v, 2-1, 7);
+    {REF((void *)v.vector); EXIT(); DEC((void *)v.vector); return v;}
+
+    EXIT();
+}
+
+String * mks(int n)
+{
+    ENTER();
+    String * s;
+    s = String_concat_si(sl_str0,n);
+    {EXIT(); return s;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(x);
+	STRING(y);
+	VECTOR(z);
+	sl_str0 = String_new("s"); REF((void *)sl_str0);
+	x = mkv(2);
+	REF((void *)x.vector);
+	y = mks(3);
+	REF((void *)y);
+	z = mkv(5);
+	REF((void *)z.vector);
+	print_vector(x);
+	print_string(y);
+	print_vector(Vector_add(x,z));
+    EXIT();
+	return 0;
+}
+
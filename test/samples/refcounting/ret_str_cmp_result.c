@@ -1,6 +1,18 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static void print_concat_sss(String *p0, String *p1, String *p2)
+{
+fputs(p0->str, stdout);
+fputs(p1->str, stdout);
+fputs(p2->str, stdout);
+putchar('\n');
+}
 
 bool str_gt(String * s1,String * t);
 void gt_msg(String * s,String * t);
@@ -9,8 +21,6 @@ void le_msg(String * s,String * t);
 bool str_gt(String * s1,String * t)
 {
     ENTER();
-    REF((void *)t);
-    REF((void *)s1);
     {EXIT(); return String_gt(s1,t);}
 
     EXIT();
@@ -19,9 +29,7 @@ bool str_gt(String * s1,String * t)
 void gt_msg(String * s,String * t)
 {
     ENTER();
-    REF((void *)t);
-    REF((void *)s);
-    print_string(String_add(String_add(s,String_new(" is greater than ")),t));
+    print_concat_sss(s,sl_str0,t);
 
     EXIT();
 }
@@ -29,9 +37,7 @@ void gt_msg(String * s,String * t)
 void le_msg(String * s,String * t)
 {
     ENTER();
-    REF((void *)t);
-    REF((void *)s);
-    print_string(String_add(String_add(s,String_new(" is less than or equal to ")),t));
+    print_concat_sss(s,sl_str1,t);
 
     EXIT();
 }
@@ -41,17 +47,19 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(s1);
-	STRING(s2);
-	STRING(t);
+	String * s1;
+	String * s2;
+	String * t;
 	bool s1t;
 	bool s2t;
-	s1 = String_new("hellp");
-	REF((void *)s1);
-	s2 = String_new("aello");
-	REF((void *)s2);
-	t = String_new("hello");
-	REF((void *)t);
+	sl_str0 = String_new(" is greater than "); REF((void *)sl_str0);
+	sl_str1 = String_new(" is less than or equal to "); REF((void *)sl_str1);
+	sl_str2 = String_new("hellp"); REF((void *)sl_str2);
+	sl_str3 = String_new("aello"); REF((void *)sl_str3);
+	sl_str4 = String_new("hello"); REF((void *)sl_str4);
+	s1 = sl_str2;
+	s2 = sl_str3;
+	t = sl_str4;
 	s1t = str_gt(s1,t);
 	if (s1t) {
 		MARK();
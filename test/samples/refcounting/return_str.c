@@ -1,14 +1,16 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
 
 String * becomeSuper(String * name);
 
 String * becomeSuper(String * name)
 {
     ENTER();
-    REF((void *)name);
-    {EXIT(); return String_add(String_new("super"),name);}
+    {EXIT(); return String_add(sl_str0,name);}
 
     EXIT();
 }
@@ -18,8 +20,11 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	print_string(becomeSuper(String_new("man")));
-	print_string(becomeSuper(String_new("duper")));
+	sl_str0 = String_new("super"); REF((void *)sl_str0);
+	sl_str1 = String_new("man"); REF((void *)sl_str1);
+	sl_str2 = String_new("duper"); REF((void *)sl_str2);
+	print_string(becomeSuper(sl_str1));
+	print_string(becomeSuper(sl_str2));
     EXIT();
 	return 0;
 }
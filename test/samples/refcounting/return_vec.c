@@ -1,13 +1,15 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0,5.0};
+
 
 PVector_ptr foo();
 
 PVector_ptr foo()
 {
     ENTER();
-    {EXIT(); return Vector_new((double []){1,2,3,4,5}, 5);}
+    {EXIT(); return Vector_new((double *)vl_vec0, 5);}
 
     EXIT();
 }
@@ -18,7 +20,7 @@ int main(int ____c, char *____v[])
 	setup_error_handlers();
     ENTER();
 	VECTOR(x);
-	x = PVector_copy(foo());
+	x = foo();
 	REF((void *)x.vector);
 	print_vector(foo());
     EXIT();
@@ -0,0 +1,53 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static const double vl_vec0[] = {2.0,4.0,8.0};
+static const double vl_vec1[] = {4.0,8.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_sub_scalar_first(double s, PVector_ptr a)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = s - ith(a, i);
+	return r;
+}
+static PVector_ptr Vector_div_scalar_first(double s, PVector_ptr a)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = s / ith(a, i);
+	return r;
+}
+PVector_ptr twice(PVector_ptr v);
+
+PVector_ptr twice(PVector_ptr v)
+{
+    ENTER();
+    {EXIT(); return Vector_mul_scalar(v,2);}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(v);
+	double k;
+	v = Vector_new((double *)vl_vec0, 3);
+	REF((void *)v.vector);
+	k = 1.5;
+	print_vector(Vector_sub_scalar_first(1,v));
+	print_vector(Vector_div_scalar_first(16,v));
+	print_vector(Vector_sub_scalar_first(k,v));
+	print_vector(Vector_div_scalar_first(2.0,Vector_new((double *)vl_vec1, 2)));
+	print_vector(Vector_sub_scalar_first(10,twice(v)));
+    EXIT();
+	return 0;
+}
+
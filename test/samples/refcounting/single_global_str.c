@@ -1,14 +1,15 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(x);
-	x = String_new("Hello World!");
-	REF((void *)x);
+	String * x;
+	sl_str0 = String_new("Hello World!"); REF((void *)sl_str0);
+	x = sl_str0;
     EXIT();
 	return 0;
 }
@@ -1,13 +1,15 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0,4.0,5.0};
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
 	VECTOR(x);
-	x = Vector_new((double []){1,2,3,4,5}, 5);
+	x = Vector_new((double *)vl_vec0, 5);
 	REF((void *)x.vector);
     EXIT();
 	return 0;
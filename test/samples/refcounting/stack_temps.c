@@ -0,0 +1,167 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static String *sl_str5;
+static String *sl_str6;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {4.0,5.0,6.0};
+static const double vl_vec2[] = {0.0,0.0,0.0};
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_sub_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) - s;
+	return r;
+}
+static PVector_ptr Vector_sub_scalar_first(double s, PVector_ptr a)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = s - ith(a, i);
+	return r;
+}
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	return b;
+}
+static String *String_concat_sisf(String *p0, int p1, String *p2, double p3)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1) + concat_len_s(p2) + concat_len_f(p3);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	b = concat_put_s(b, p2);
+	b = concat_put_f(b, p3);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static String *String_concat_sv(String *p0, PVector_ptr p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_v(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_v(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+double norm(PVector_ptr v);
+
+double norm(PVector_ptr v)
+{
+    ENTER();
+    VECTOR(d);
+    double s;
+    int i;
+    d = Vector_mul(v,v);
+    REF((void *)d.vector);
+    s = 0.0;
+    i = 1;
+    while ((i <= Vector_len(d))) {
+    	MARK();
+        s = (s + ith(d, (i)-1));
+        i = (i + 1);
+        RELEASE();
+    }
+    {EXIT(); return s;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(x);
+	VECTOR(y);
+	VECTOR(z);
+	int i;
+	VECTOR(total);
+	String * name;
+	STRING(greeting);
+	STRING(tag);
+	STRING(label);
+	sl_str0 = String_new("wich"); REF((void *)sl_str0);
+	sl_str1 = String_new("hello "); REF((void *)sl_str1);
+	sl_str2 = String_new("!"); REF((void *)sl_str2);
+	sl_str3 = String_new("n"); REF((void *)sl_str3);
+	sl_str4 = String_new("/"); REF((void *)sl_str4);
+	sl_str5 = String_new("hello wich"); REF((void *)sl_str5);
+	sl_str6 = String_new("v"); REF((void *)sl_str6);
+	x = Vector_new((double *)vl_vec0, 3);
+	REF((void *)x.vector);
+	y = Vector_new((double *)vl_vec1, 3);
+	REF((void *)y.vector);
+	z = Vector_add(x,y);
+	REF((void *)z.vector);
+	print_vector(Vector_mul_scalar(z,2));
+	print_vector(Vector_sub_scalar_first(2,z));
+	print_vector(Vector_mul_scalar(z,-1.0));
+	printf("%1.2f\n", ith(z, (2)-1));
+	printf("%d\n", Vector_len(Vector_div(z,y)));
+	printf("%1.2f\n", norm(x));
+	i = 0;
+	total = Vector_new((double *)vl_vec2, 3);
+	REF((void *)total.vector);
+	while ((i < 3)) {
+		MARK();
+	    VECTOR(t);
+	    t = Vector_sub_scalar(Vector_mul(x,y),i);
+	    REF((void *)t.vector);
+	    Vector_add_inplace(&total, t);
+	    i = (i + 1);
+	    RELEASE();
+	}
+	print_vector(total);
+	name = sl_str0;
+	greeting = String_add(sl_str1,name);
+	REF((void *)greeting);
+	print_string(greeting);
+	printf("%d\n", String_len(String_add(greeting,sl_str2)));
+	tag = String_concat_sisf(sl_str3,i,sl_str4,2.5);
+	REF((void *)tag);
+	print_string(tag);
+	printf("%d\n", String_eq(greeting,sl_str5));
+	label = String_concat_sv(sl_str6,x);
+	REF((void *)label);
+	print_string(label);
+    EXIT();
+	return 0;
+}
+
@@ -1,18 +1,26 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static void print_concat_ss(String *p0, String *p1)
+{
+fputs(p0->str, stdout);
+fputs(p1->str, stdout);
+putchar('\n');
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(hello);
-	STRING(world);
-	hello = String_new("hello");
-	REF((void *)hello);
-	world = String_new("world");
-	REF((void *)world);
-	print_string(String_add(hello,world));
+	String * hello;
+	String * world;
+	sl_str0 = String_new("hello"); REF((void *)sl_str0);
+	sl_str1 = String_new("world"); REF((void *)sl_str1);
+	hello = sl_str0;
+	world = sl_str1;
+	print_concat_ss(hello,world);
     EXIT();
 	return 0;
 }
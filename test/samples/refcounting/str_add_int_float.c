@@ -1,22 +1,49 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static inline size_t concat_len_f(double x) { return snprintf(NULL, 0, "%1.2f", x); }
+static inline char *concat_put_f(char *b, double x) { return b + sprintf(b, "%1.2f", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_sf(String *p0, double p1)
+{
+char small[256];
+size_t n = concat_len_s(p0) + concat_len_f(p1);
+char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+b = concat_put_s(b, p0);
+b = concat_put_f(b, p1);
+*b = '\0';
+String *r = String_new(buf);
+if ( buf!=small ) free(buf);
+return r;
+}
+static void print_concat_si(String *p0, int p1)
+{
+fputs(p0->str, stdout);
+printf("%d", p1);
+putchar('\n');
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(s);
+	String * s;
 	int i;
 	double f;
 	STRING(r);
-	s = String_new("hello");
-	REF((void *)s);
+	sl_str0 = String_new("hello"); REF((void *)sl_str0);
+	sl_str1 = String_new("world"); REF((void *)sl_str1);
+	s = sl_str0;
 	i = 1;
 	f = 1.00;
-	r = String_add(String_new("world"),String_from_float(f));
+	r = String_concat_sf(sl_str1,f);
 	REF((void *)r);
-	print_string(String_add(s,String_from_int(i)));
+	print_concat_si(s,i);
 	print_string(r);
     EXIT();
 	return 0;
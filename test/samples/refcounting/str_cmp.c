@@ -1,14 +1,16 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
 
 bool f(String * s);
 
 bool f(String * s)
 {
     ENTER();
-    REF((void *)s);
-    if (String_le(s,String_new("cat"))) {
+    if (String_le(s,sl_str0)) {
     	MARK();
         {EXIT(); return true;}
         RELEASE();
@@ -23,19 +25,20 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(s1);
-	STRING(s2);
-	s1 = String_new("");
-	REF((void *)s1);
-	s2 = String_new("cat");
-	REF((void *)s2);
+	String * s1;
+	String * s2;
+	sl_str0 = String_new("cat"); REF((void *)sl_str0);
+	sl_str1 = String_new(""); REF((void *)sl_str1);
+	sl_str2 = String_new("miaow"); REF((void *)sl_str2);
+	s1 = sl_str1;
+	s2 = sl_str0;
 	if (String_gt(s1,s2)) {
 		MARK();
 	    RELEASE();
 	}
 	else {
 		MARK();
-	    print_string(String_new("miaow"));
+	    print_string(sl_str2);
 	    RELEASE();
 	}
 	printf("%d\n", f(s2));
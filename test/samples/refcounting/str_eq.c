@@ -1,14 +1,18 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
 
 bool cmp(String * x);
 
 bool cmp(String * x)
 {
     ENTER();
-    REF((void *)x);
-    {EXIT(); return String_eq(x,String_new("ca"));}
+    {EXIT(); return String_eq(x,sl_str0);}
 
     EXIT();
 }
@@ -18,20 +22,23 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(x);
-	STRING(y);
-	x = String_new("cat");
-	REF((void *)x);
-	y = String_new("dog");
-	REF((void *)y);
+	String * x;
+	String * y;
+	sl_str0 = String_new("ca"); REF((void *)sl_str0);
+	sl_str1 = String_new("cat"); REF((void *)sl_str1);
+	sl_str2 = String_new("dog"); REF((void *)sl_str2);
+	sl_str3 = String_new("x==y"); REF((void *)sl_str3);
+	sl_str4 = String_new("x!=y"); REF((void *)sl_str4);
+	x = sl_str1;
+	y = sl_str2;
 	if (String_eq(x,y)) {
 		MARK();
-	    print_string(String_new("x==y"));
+	    print_string(sl_str3);
 	    RELEASE();
 	}
 	if (String_neq(x,y)) {
 		MARK();
-	    print_string(String_new("x!=y"));
+	    print_string(sl_str4);
 	    RELEASE();
 	}
 	printf("%d\n", cmp(x));
@@ -1,6 +1,14 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static void print_concat_ss(String *p0, String *p1)
+{
+fputs(p0->str, stdout);
+fputs(p1->str, stdout);
+putchar('\n');
+}
 
 void f();
 
@@ -8,10 +16,10 @@ void f()
 {
     ENTER();
     STRING(x);
-    x = String_add(String_new("cat"),String_new("dog"));
+    x = String_add(sl_str0,sl_str1);
     REF((void *)x);
     print_string(x);
-    print_string(String_add(String_from_char(x->str[(1)-1]),String_from_char(x->str[(3)-1])));
+    print_concat_ss(String_from_char(x->str[(1)-1]),String_from_char(x->str[(3)-1]));
 
     EXIT();
 }
@@ -21,6 +29,8 @@ int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
+	sl_str0 = String_new("cat"); REF((void *)sl_str0);
+	sl_str1 = String_new("dog"); REF((void *)sl_str1);
 	f();
     EXIT();
 	return 0;
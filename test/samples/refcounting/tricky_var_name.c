@@ -1,17 +1,24 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static void print_concat_si(String *p0, int p1)
+{
+fputs(p0->str, stdout);
+printf("%d", p1);
+putchar('\n');
+}
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
 	int argc;
-	STRING(argv);
+	String * argv;
+	sl_str0 = String_new("hello world"); REF((void *)sl_str0);
 	argc = 1;
-	argv = String_new("hello world");
-	REF((void *)argv);
-	print_string(String_add(argv,String_from_int(argc)));
+	argv = sl_str0;
+	print_concat_si(argv,argc);
     EXIT();
 	return 0;
 }
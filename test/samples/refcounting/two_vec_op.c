@@ -1,6 +1,9 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {4.0,6.0,8.0};
+static const double vl_vec1[] = {2.0,3.0,4.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -10,9 +13,9 @@ int main(int ____c, char *____v[])
 	VECTOR(y);
 	VECTOR(z);
 	VECTOR(q);
-	x = Vector_new((double []){4,6,8}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	REF((void *)x.vector);
-	y = Vector_new((double []){2,3,4}, 3);
+	y = Vector_new((double *)vl_vec1, 3);
 	REF((void *)y.vector);
 	z = Vector_mul(x,y);
 	REF((void *)z.vector);
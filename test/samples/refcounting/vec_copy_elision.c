@@ -0,0 +1,98 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static const double vl_vec0[] = {7.0,8.0,9.0};
+static const double vl_vec1[] = {1.0,2.0,3.0};
+double sum(PVector_ptr v);
+PVector_ptr zero(PVector_ptr v);
+PVector_ptr same(PVector_ptr v);
+PVector_ptr fresh();
+
+double sum(PVector_ptr v)
+{
+    ENTER();
+    double s;
+    int i;
+    s = 0.0;
+    i = 1;
+    while ((i <= Vector_len(v))) {
+    	MARK();
+        s = (s + ith(v, (i)-1));
+        i = (i + 1);
+        RELEASE();
+    }
+    {EXIT(); return s;}
+
+    EXIT();
+}
+
+PVector_ptr zero(PVector_ptr v)
+{
+    ENTER();
+    REF((void *)v.vector);
+    set_ith(v, 1-1, 0);
+    {REF((void *)v.vector); EXIT(); DEC((void *)v.vector); return v;}
+
+    EXIT();
+}
+
+PVector_ptr same(PVector_ptr v)
+{
+    ENTER();
+    VECTOR(w);
+    REF((void *)v.vector);
+    w = v;
+    REF((void *)w.vector);
+    {REF((void *)w.vector); EXIT(); DEC((void *)w.vector); return w;}
+
+    EXIT();
+}
+
+PVector_ptr fresh()
+{
+    ENTER();
+    PVector_ptr v;
+    v = Vector_new((double *)vl_vec0, 3);
+    {EXIT(); return v;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(a);
+	VECTOR(b);
+	VECTOR(c);
+	VECTOR(d);
+	VECTOR(e);
+	VECTOR(f);
+	a = Vector_new((double *)vl_vec1, 3);
+	REF((void *)a.vector);
+	printf("%1.2f\n", sum(a));
+	b = zero(PVector_copy(a));
+	REF((void *)b.vector);
+	print_vector(a);
+	print_vector(b);
+	c = PVector_copy(same(a));
+	REF((void *)c.vector);
+	d = PVector_copy(same(a));
+	REF((void *)d.vector);
+	set_ith(d, 2-1, 5);
+	print_vector(a);
+	print_vector(d);
+	e = fresh();
+	REF((void *)e.vector);
+	set_ith(e, 1-1, 1);
+	print_vector(e);
+	print_vector(fresh());
+	f = a;
+	REF((void *)f.vector);
+	print_vector(f);
+    EXIT();
+	return 0;
+}
+
@@ -1,6 +1,9 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {2.0,3.0,4.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -8,9 +11,9 @@ int main(int ____c, char *____v[])
     ENTER();
 	VECTOR(u);
 	VECTOR(v);
-	u = Vector_new((double []){1,2,3}, 3);
+	u = Vector_new((double *)vl_vec0, 3);
 	REF((void *)u.vector);
-	v = Vector_new((double []){2,3,4}, 3);
+	v = Vector_new((double *)vl_vec1, 3);
 	REF((void *)v.vector);
 	printf("%1.2f\n", (ith(u, (1)-1) + ith(v, (3)-1)));
     EXIT();
@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -9,7 +11,7 @@ int main(int ____c, char *____v[])
 	int j;
 	VECTOR(x);
 	j = 1;
-	x = Vector_new((double []){1,2}, 2);
+	x = Vector_new((double *)vl_vec0, 2);
 	REF((void *)x.vector);
 	set_ith(x, j-1, ith(x, ((j + 1))-1));
 	print_vector(x);
@@ -0,0 +1,59 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {3.0,2.0,1.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+PVector_ptr neg(PVector_ptr v);
+
+PVector_ptr neg(PVector_ptr v)
+{
+    ENTER();
+    {EXIT(); return Vector_mul_scalar(v,-1.0);}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(v);
+	VECTOR(w);
+	VECTOR(u);
+	sl_str0 = String_new("same"); REF((void *)sl_str0);
+	sl_str1 = String_new("differ"); REF((void *)sl_str1);
+	v = Vector_new((double *)vl_vec0, 3);
+	REF((void *)v.vector);
+	w = Vector_new((double *)vl_vec0, 3);
+	REF((void *)w.vector);
+	u = Vector_new((double *)vl_vec1, 3);
+	REF((void *)u.vector);
+	printf("%d\n", Vector_eq(v,w));
+	printf("%d\n", Vector_neq(v,u));
+	if (Vector_eq(v,u)) {
+		MARK();
+	    print_string(sl_str0);
+	    RELEASE();
+	}
+	else {
+		MARK();
+	    print_string(sl_str1);
+	    RELEASE();
+	}
+	print_vector(Vector_mul_scalar(v,-1.0));
+	print_vector(Vector_mul_scalar(Vector_add(v,u),-1.0));
+	printf("%d\n", Vector_eq(neg(u),Vector_mul_scalar(u,-1.0)));
+    EXIT();
+	return 0;
+}
+
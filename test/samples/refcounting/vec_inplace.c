@@ -0,0 +1,82 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static const double vl_vec1[] = {2.0,2.0,2.0};
+static const double vl_vec2[] = {1.0,1.0,1.0};
+static const double vl_vec3[] = {1.5,2.5,3.5};
+static void Vector_mul_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_mul(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data *= ith(b, i);
+}
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static void Vector_sub_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_sub(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data -= ith(b, i);
+}
+static void Vector_div_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_div(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data /= ith(b, i);
+}
+PVector_ptr scale(int n);
+
+PVector_ptr scale(int n)
+{
+    ENTER();
+    VECTOR(v);
+    VECTOR(w);
+    int i;
+    v = Vector_new((double *)vl_vec0, 3);
+    REF((void *)v.vector);
+    w = Vector_new((double *)vl_vec1, 3);
+    REF((void *)w.vector);
+    i = 0;
+    while ((i < n)) {
+    	MARK();
+        Vector_mul_inplace(&v, w);
+        i = (i + 1);
+        RELEASE();
+    }
+    {REF((void *)v.vector); EXIT(); DEC((void *)v.vector); return v;}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(x);
+	VECTOR(y);
+	VECTOR(a);
+	VECTOR(b);
+	x = Vector_new((double *)vl_vec2, 3);
+	REF((void *)x.vector);
+	y = Vector_new((double *)vl_vec3, 3);
+	REF((void *)y.vector);
+	Vector_add_inplace(&x, y);
+	Vector_sub_inplace(&x, Vector_new((double *)vl_vec2, 3));
+	Vector_div_inplace(&x, Vector_new((double *)vl_vec1, 3));
+	print_vector(x);
+	a = Vector_new((double *)vl_vec0, 3);
+	REF((void *)a.vector);
+	b = a;
+	REF((void *)b.vector);
+	a = Vector_add(a,y);
+	REF((void *)a.vector);
+	print_vector(a);
+	print_vector(b);
+	print_vector(scale(3));
+    EXIT();
+	return 0;
+}
+
@@ -1,6 +1,20 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {2.0,4.0,6.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_div_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) / s;
+	return r;
+}
+
 
 PVector_ptr foo(int x);
 
@@ -8,12 +22,11 @@ PVector_ptr foo(int x)
 {
     ENTER();
     VECTOR(y);
-    VECTOR(z);
-    y = Vector_new((double []){2,4,6}, 3);
+    PVector_ptr z;
+    y = Vector_new((double *)vl_vec0, 3);
     REF((void *)y.vector);
-    z = Vector_div(y,Vector_from_int(x,(y).vector->length));
-    REF((void *)z.vector);
-    {REF((void *)z.vector); EXIT(); DEC((void *)z.vector); return z;}
+    z = Vector_div_scalar(y,x);
+    {EXIT(); return z;}
 
     EXIT();
 }
@@ -26,7 +39,7 @@ int main(int ____c, char *____v[])
 	double f;
 	VECTOR(v);
 	f = 5.00;
-	v = Vector_mul(foo(2),Vector_from_float(f,(foo(2)).vector->length));
+	v = Vector_mul_scalar(foo(2),f);
 	REF((void *)v.vector);
 	print_vector(v);
     EXIT();
@@ -0,0 +1,57 @@
+#include <stdio.h>
+#include "wich.h"
+#include "refcounting.h"
+
+static const double vl_vec0[] = {2.0,4.0,8.0};
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static PVector_ptr Vector_add_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + s;
+	return r;
+}
+static PVector_ptr Vector_sub_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) - s;
+	return r;
+}
+static PVector_ptr Vector_div_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) / s;
+	return r;
+}
+PVector_ptr scale(PVector_ptr v,double k);
+
+PVector_ptr scale(PVector_ptr v,double k)
+{
+    ENTER();
+    {EXIT(); return Vector_mul_scalar(v,k);}
+
+    EXIT();
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+    ENTER();
+	VECTOR(v);
+	int i;
+	v = Vector_new((double *)vl_vec0, 3);
+	REF((void *)v.vector);
+	i = 2;
+	print_vector(Vector_sub_scalar(v,1));
+	print_vector(Vector_div_scalar(v,i));
+	print_vector(Vector_mul_scalar(v,i));
+	print_vector(Vector_add_scalar(scale(v,0.5),0.25));
+    EXIT();
+	return 0;
+}
+
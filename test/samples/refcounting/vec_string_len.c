@@ -1,17 +1,22 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static String *sl_str1;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(a);
+	String * a;
 	int b;
-	a = String_new("hello");
-	REF((void *)a);
-	b = Vector_len(Vector_new((double []){1,2,3}, 3));
-	printf("%d\n", ((String_len(a) + String_len(String_new("world"))) + b));
+	sl_str0 = String_new("hello"); REF((void *)sl_str0);
+	sl_str1 = String_new("world"); REF((void *)sl_str1);
+	a = sl_str0;
+	b = 3;
+	printf("%d\n", ((String_len(a) + String_len(sl_str1)) + b));
     EXIT();
 	return 0;
 }
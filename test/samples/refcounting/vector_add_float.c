@@ -1,6 +1,14 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static PVector_ptr Vector_add_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + s;
+	return r;
+}
+
 
 PVector_ptr f(double x);
 
@@ -8,12 +16,11 @@ PVector_ptr f(double x)
 {
     ENTER();
     VECTOR(y);
-    VECTOR(z);
-    y = Vector_new((double []){1,2,3}, 3);
+    PVector_ptr z;
+    y = Vector_new((double *)vl_vec0, 3);
     REF((void *)y.vector);
-    z = Vector_add(y,Vector_from_float(x,(y).vector->length));
-    REF((void *)z.vector);
-    {REF((void *)z.vector); EXIT(); DEC((void *)z.vector); return z;}
+    z = Vector_add_scalar(y,x);
+    {EXIT(); return z;}
 
     EXIT();
 }
@@ -1,19 +1,49 @@
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "wich.h"
 #include "refcounting.h"
+static String *sl_str0;
+static const double vl_vec0[] = {1.0,2.0,3.0};
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static size_t concat_len_v(PVector_ptr v)
+{
+size_t n = 0;
+for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+return n;
+}
+static char *concat_put_v(char *b, PVector_ptr v)
+{
+for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+return b;
+}
+static String *String_concat_sv(String *p0, PVector_ptr p1)
+{
+char small[256];
+size_t n = concat_len_s(p0) + concat_len_v(p1);
+char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+b = concat_put_s(b, p0);
+b = concat_put_v(b, p1);
+*b = '\0';
+String *r = String_new(buf);
+if ( buf!=small ) free(buf);
+return r;
+}
+
 
 int main(int ____c, char *____v[])
 {
 	setup_error_handlers();
     ENTER();
-	STRING(s);
+	String * s;
 	VECTOR(v);
 	STRING(z);
-	s = String_new("hello");
-	REF((void *)s);
-	v = Vector_new((double []){1,2,3}, 3);
+	sl_str0 = String_new("hello"); REF((void *)sl_str0);
+	s = sl_str0;
+	v = Vector_new((double *)vl_vec0, 3);
 	REF((void *)v.vector);
-	z = String_add(s,String_from_vector(v));
+	z = String_concat_sv(s,v);
 	REF((void *)z);
 	print_string(z);
     EXIT();
@@ -1,6 +1,8 @@
 #include <stdio.h>
 #include "wich.h"
 #include "refcounting.h"
+static const double vl_vec0[] = {1.0,2.0,3.0};
+
 
 int main(int ____c, char *____v[])
 {
@@ -8,7 +10,7 @@ int main(int ____c, char *____v[])
     ENTER();
 	VECTOR(x);
 	VECTOR(y);
-	x = Vector_new((double []){1,2,3}, 3);
+	x = Vector_new((double *)vl_vec0, 3);
 	REF((void *)x.vector);
 	y = PVector_copy(x);
 	REF((void *)y.vector);
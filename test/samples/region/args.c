@@ -0,0 +1,273 @@
+#define _DEFAULT_SOURCE
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/mman.h>
+#include "wich.h"
+
+#define REGION_CHUNK (64*1024)
+#define REGION_ALIGN(n) (((n)+15) & ~(size_t)15)
+
+typedef struct region_chunk {
+	struct region_chunk *next;
+	size_t size;
+	char *top;
+} region_chunk;
+
+typedef struct Region {
+	struct Region *parent;
+	region_chunk *chunks;
+} Region;
+
+static Region region_global;
+static Region *region_current = &region_global;
+static region_chunk *region_free_chunks;
+
+static region_chunk *region_new_chunk(size_t n)
+{
+	region_chunk *c;
+	n += REGION_ALIGN(sizeof(region_chunk));
+	if ( n <= REGION_CHUNK && region_free_chunks!=NULL ) {
+		c = region_free_chunks;
+		region_free_chunks = c->next;
+	}
+	else {
+		size_t size = n > REGION_CHUNK ? n : REGION_CHUNK;
+		c = mmap(NULL, size, PROT_READ|PROT_WRITE, MAP_PRIVATE|MAP_ANON, -1, 0);
+		if ( c==MAP_FAILED ) abort();
+		c->size = size;
+	}
+	c->top = (char *)c + REGION_ALIGN(sizeof(region_chunk));
+	return c;
+}
+
+static void *region_alloc(size_t n)
+{
+	size_t need = REGION_ALIGN(n);
+	region_chunk *c = region_current->chunks;
+	if ( c==NULL || c->top + need > (char *)c + c->size ) {
+		c = region_new_chunk(need);
+		c->next = region_current->chunks;
+		region_current->chunks = c;
+	}
+	char *p = c->top;
+	c->top += need;
+	return p;
+}
+
+static String *region_string(const char *s, size_t n)
+{
+	String *r = region_alloc(sizeof(String) + n + 1);
+	r->length = n;
+	memcpy(r->str, s, n);
+	r->str[n] = '\0';
+	return r;
+}
+
+static String *region_String_new(char *s) { return region_string(s, strlen(s)); }
+
+static String *region_String_add(String *a, String *b)
+{
+	String *r = region_alloc(sizeof(String) + a->length + b->length + 1);
+	r->length = a->length + b->length;
+	memcpy(r->str, a->str, a->length);
+	memcpy(r->str + a->length, b->str, b->length + 1);
+	return r;
+}
+
+static String *region_String_from_char(char c) { return region_string(&c, 1); }
+
+static String *region_String_from_int(int x)
+{
+	char buf[32];
+	return region_string(buf, snprintf(buf, sizeof buf, "%d", x));
+}
+
+static String *region_String_from_float(double x)
+{
+	char buf[512];
+	return region_string(buf, snprintf(buf, sizeof buf, "%1.2f", x));
+}
+
+// elements as ints, run together
+static String *region_String_from_vector(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	String *r = region_alloc(sizeof(String) + n + 1);
+	char *b = r->str;
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	r->length = n;
+	return r;
+}
+
+static PVector_ptr region_Vector_empty(size_t n)
+{
+	PVector *v = region_alloc(sizeof(PVector) + n * sizeof(PVectorFatNode));
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	return (PVector_ptr){0, v};
+}
+
+static PVector_ptr region_Vector_new(double *data, size_t n)
+{
+	PVector_ptr r = region_Vector_empty(n);
+	for (size_t i = 0; i < n; i++) r.vector->nodes[i].data = data[i];
+	return r;
+}
+
+// a new vector over v's current values, sharing nothing with it
+static PVector_ptr region_PVector_copy(PVector_ptr v)
+{
+	PVector_ptr r = region_Vector_empty(v.vector->length);
+	for (size_t i = 0; i < v.vector->length; i++) r.vector->nodes[i].data = ith(v, i);
+	return r;
+}
+
+static inline void region_set_ith(PVector_ptr v, int i, double x)
+{
+	if ( i < 0 || i >= (int)v.vector->length ) {
+		fprintf(stderr, "VectorIndexOutOfRange: %d out of index : 1 to %d\n", i+1, (int)v.vector->length);
+		exit(1);
+	}
+	v.vector->nodes[i].data = x;
+}
+
+static PVector_ptr region_Vector_add(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_sub(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) - ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_mul(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_div(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) / ith(b, i);
+	return r;
+}
+
+
+static inline void region_enter(Region *r)
+{
+	r->parent = region_current;
+	r->chunks = NULL;
+	region_current = r;
+}
+
+static void region_free(Region *r)
+{
+	region_chunk *c = r->chunks;
+	while ( c!=NULL ) {
+		region_chunk *next = c->next;
+		if ( c->size==REGION_CHUNK ) {
+			c->next = region_free_chunks;
+			region_free_chunks = c;
+		}
+		else munmap(c, c->size);
+		c = next;
+	}
+}
+
+static inline void region_exit(Region *r)
+{
+	region_current = r->parent;
+	region_free(r);
+}
+
+// frees r and each region it nests in, up to and including last
+static void region_unwind(Region *r, Region *last)
+{
+	for (;;) {
+		Region *parent = r->parent;
+		region_free(r);
+		if ( r==last ) return;
+		r = parent;
+	}
+}
+
+// the end of an iteration: next, a sibling of the loop's carry region,
+// gets the values the loop carries, then replaces the carry region
+static inline void region_next(Region *loop, Region *next)
+{
+	region_current = loop->parent;
+	region_enter(next);
+}
+
+static inline void region_rotate(Region *loop, Region *iter, Region *next)
+{
+	region_free(iter);
+	region_free(loop);
+	loop->chunks = next->chunks;
+	region_current = loop;
+}
+
+static int region_owns(Region *r, void *p)
+{
+	for (region_chunk *c = r->chunks; c!=NULL; c = c->next) {
+		if ( (char *)p >= (char *)c && (char *)p < c->top ) return 1;
+	}
+	return 0;
+}
+
+static inline int region_owned(Region *iter, Region *loop, void *p)
+{
+	return (iter!=NULL && region_owns(iter, p)) || region_owns(loop, p);
+}
+
+// the generated code's calls that allocate go to the region versions
+#define String_new region_String_new
+#define String_add region_String_add
+#define String_from_char region_String_from_char
+#define String_from_int region_String_from_int
+#define String_from_float region_String_from_float
+#define String_from_vector region_String_from_vector
+#define Vector_new region_Vector_new
+#define Vector_empty region_Vector_empty
+#define PVector_copy region_PVector_copy
+#define Vector_add region_Vector_add
+#define Vector_sub region_Vector_sub
+#define Vector_mul region_Vector_mul
+#define Vector_div region_Vector_div
+#define set_ith region_set_ith
+
+void f(int x,PVector_ptr v);
+
+void f(int x,PVector_ptr v)
+{
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	return 0;
+}
+
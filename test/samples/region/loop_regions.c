@@ -0,0 +1,445 @@
+#define _DEFAULT_SOURCE
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/mman.h>
+#include "wich.h"
+
+#define REGION_CHUNK (64*1024)
+#define REGION_ALIGN(n) (((n)+15) & ~(size_t)15)
+
+typedef struct region_chunk {
+	struct region_chunk *next;
+	size_t size;
+	char *top;
+} region_chunk;
+
+typedef struct Region {
+	struct Region *parent;
+	region_chunk *chunks;
+} Region;
+
+static Region region_global;
+static Region *region_current = &region_global;
+static region_chunk *region_free_chunks;
+
+static region_chunk *region_new_chunk(size_t n)
+{
+	region_chunk *c;
+	n += REGION_ALIGN(sizeof(region_chunk));
+	if ( n <= REGION_CHUNK && region_free_chunks!=NULL ) {
+		c = region_free_chunks;
+		region_free_chunks = c->next;
+	}
+	else {
+		size_t size = n > REGION_CHUNK ? n : REGION_CHUNK;
+		c = mmap(NULL, size, PROT_READ|PROT_WRITE, MAP_PRIVATE|MAP_ANON, -1, 0);
+		if ( c==MAP_FAILED ) abort();
+		c->size = size;
+	}
+	c->top = (char *)c + REGION_ALIGN(sizeof(region_chunk));
+	return c;
+}
+
+static void *region_alloc(size_t n)
+{
+	size_t need = REGION_ALIGN(n);
+	region_chunk *c = region_current->chunks;
+	if ( c==NULL || c->top + need > (char *)c + c->size ) {
+		c = region_new_chunk(need);
+		c->next = region_current->chunks;
+		region_current->chunks = c;
+	}
+	char *p = c->top;
+	c->top += need;
+	return p;
+}
+
+static String *region_string(const char *s, size_t n)
+{
+	String *r = region_alloc(sizeof(String) + n + 1);
+	r->length = n;
+	memcpy(r->str, s, n);
+	r->str[n] = '\0';
+	return r;
+}
+
+static String *region_String_new(char *s) { return region_string(s, strlen(s)); }
+
+static String *region_String_add(String *a, String *b)
+{
+	String *r = region_alloc(sizeof(String) + a->length + b->length + 1);
+	r->length = a->length + b->length;
+	memcpy(r->str, a->str, a->length);
+	memcpy(r->str + a->length, b->str, b->length + 1);
+	return r;
+}
+
+static String *region_String_from_char(char c) { return region_string(&c, 1); }
+
+static String *region_String_from_int(int x)
+{
+	char buf[32];
+	return region_string(buf, snprintf(buf, sizeof buf, "%d", x));
+}
+
+static String *region_String_from_float(double x)
+{
+	char buf[512];
+	return region_string(buf, snprintf(buf, sizeof buf, "%1.2f", x));
+}
+
+// elements as ints, run together
+static String *region_String_from_vector(PVector_ptr v)
+{
+	size_t n = 0;
+	for (size_t i = 0; i < v.vector->length; i++) n += snprintf(NULL, 0, "%d", (int)ith(v, i));
+	String *r = region_alloc(sizeof(String) + n + 1);
+	char *b = r->str;
+	for (size_t i = 0; i < v.vector->length; i++) b += sprintf(b, "%d", (int)ith(v, i));
+	r->length = n;
+	return r;
+}
+
+static PVector_ptr region_Vector_empty(size_t n)
+{
+	PVector *v = region_alloc(sizeof(PVector) + n * sizeof(PVectorFatNode));
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	return (PVector_ptr){0, v};
+}
+
+static PVector_ptr region_Vector_new(double *data, size_t n)
+{
+	PVector_ptr r = region_Vector_empty(n);
+	for (size_t i = 0; i < n; i++) r.vector->nodes[i].data = data[i];
+	return r;
+}
+
+// a new vector over v's current values, sharing nothing with it
+static PVector_ptr region_PVector_copy(PVector_ptr v)
+{
+	PVector_ptr r = region_Vector_empty(v.vector->length);
+	for (size_t i = 0; i < v.vector->length; i++) r.vector->nodes[i].data = ith(v, i);
+	return r;
+}
+
+static inline void region_set_ith(PVector_ptr v, int i, double x)
+{
+	if ( i < 0 || i >= (int)v.vector->length ) {
+		fprintf(stderr, "VectorIndexOutOfRange: %d out of index : 1 to %d\n", i+1, (int)v.vector->length);
+		exit(1);
+	}
+	v.vector->nodes[i].data = x;
+}
+
+static PVector_ptr region_Vector_add(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) + ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_sub(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) - ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_mul(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * ith(b, i);
+	return r;
+}
+static PVector_ptr region_Vector_div(PVector_ptr a, PVector_ptr b)
+{
+	if ( a.vector->length!=b.vector->length ) {
+		fprintf(stderr, "VectorsOperationError: two vectors have different length\n");
+		exit(1);
+	}
+	PVector_ptr r = region_Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) / ith(b, i);
+	return r;
+}
+
+
+static inline void region_enter(Region *r)
+{
+	r->parent = region_current;
+	r->chunks = NULL;
+	region_current = r;
+}
+
+static void region_free(Region *r)
+{
+	region_chunk *c = r->chunks;
+	while ( c!=NULL ) {
+		region_chunk *next = c->next;
+		if ( c->size==REGION_CHUNK ) {
+			c->next = region_free_chunks;
+			region_free_chunks = c;
+		}
+		else munmap(c, c->size);
+		c = next;
+	}
+}
+
+static inline void region_exit(Region *r)
+{
+	region_current = r->parent;
+	region_free(r);
+}
+
+// frees r and each region it nests in, up to and including last
+static void region_unwind(Region *r, Region *last)
+{
+	for (;;) {
+		Region *parent = r->parent;
+		region_free(r);
+		if ( r==last ) return;
+		r = parent;
+	}
+}
+
+// the end of an iteration: next, a sibling of the loop's carry region,
+// gets the values the loop carries, then replaces the carry region
+static inline void region_next(Region *loop, Region *next)
+{
+	region_current = loop->parent;
+	region_enter(next);
+}
+
+static inline void region_rotate(Region *loop, Region *iter, Region *next)
+{
+	region_free(iter);
+	region_free(loop);
+	loop->chunks = next->chunks;
+	region_current = loop;
+}
+
+static int region_owns(Region *r, void *p)
+{
+	for (region_chunk *c = r->chunks; c!=NULL; c = c->next) {
+		if ( (char *)p >= (char *)c && (char *)p < c->top ) return 1;
+	}
+	return 0;
+}
+
+static inline int region_owned(Region *iter, Region *loop, void *p)
+{
+	return (iter!=NULL && region_owns(iter, p)) || region_owns(loop, p);
+}
+
+// the generated code's calls that allocate go to the region versions
+#define String_new region_String_new
+#define String_add region_String_add
+#define String_from_char region_String_from_char
+#define String_from_int region_String_from_int
+#define String_from_float region_String_from_float
+#define String_from_vector region_String_from_vector
+#define Vector_new region_Vector_new
+#define Vector_empty region_Vector_empty
+#define PVector_copy region_PVector_copy
+#define Vector_add region_Vector_add
+#define Vector_sub region_Vector_sub
+#define Vector_mul region_Vector_mul
+#define Vector_div region_Vector_div
+#define set_ith region_set_ith
+
+static String *sl_str0;
+static String *sl_str1;
+static String *sl_str2;
+static String *sl_str3;
+static String *sl_str4;
+static const double vl_vec0[] = {0.0,0.0};
+static const double vl_vec1[] = {1.0,1.0};
+static const double vl_vec2[] = {1.0,2.0,3.0};
+static const double vl_vec3[] = {1.0,1.0,1.0};
+static void Vector_add_inplace(PVector_ptr *a, PVector_ptr b)
+{
+	if ( a->vector->length!=b.vector->length ) { *a = Vector_add(*a, b); return; }
+	for (size_t i = 0; i < a->vector->length; i++) a->vector->nodes[i].data += ith(b, i);
+}
+static PVector_ptr Vector_mul_scalar(PVector_ptr a, double s)
+{
+	PVector_ptr r = Vector_empty(a.vector->length);
+	for (size_t i = 0; i < a.vector->length; i++) r.vector->nodes[i].data = ith(a, i) * s;
+	return r;
+}
+static inline size_t concat_len_i(int x) { return snprintf(NULL, 0, "%d", x); }
+static inline char *concat_put_i(char *b, int x) { return b + sprintf(b, "%d", x); }
+static inline size_t concat_len_s(String *s) { return s->length; }
+static inline char *concat_put_s(char *b, String *s) { memcpy(b, s->str, s->length); return b + s->length; }
+static String *String_concat_si(String *p0, int p1)
+{
+	char small[256];
+	size_t n = concat_len_s(p0) + concat_len_i(p1);
+	char *buf = n < sizeof small ? small : malloc(n+1), *b = buf;
+	b = concat_put_s(b, p0);
+	b = concat_put_i(b, p1);
+	*b = '\0';
+	String *r = String_new(buf);
+	if ( buf!=small ) free(buf);
+	return r;
+}
+static inline PVector_ptr stack_vector(void *slot, const double *data, size_t n)
+{
+	PVector *v = slot;
+	memset(v, 0, sizeof(PVector) + n * sizeof(PVectorFatNode));
+	v->length = n;
+	for (size_t i = 0; i < n; i++) v->nodes[i].data = data[i];
+	return (PVector_ptr){0, v};
+}
+static inline String *stack_string(void *slot, const char *s, size_t n)
+{
+	String *r = slot;
+	memset(r, 0, sizeof(String));
+	r->length = n;
+	memcpy(r->str, s, n + 1);
+	return r;
+}
+
+String * pad(String * s,int n);
+PVector_ptr grow(int n);
+
+String * pad(String * s,int n)
+{
+	Region ____region;
+	region_enter(&____region);
+	int i;
+	i = 0;
+	{
+		Region ____loop1, ____iter1, ____next1;
+		region_enter(&____loop1);
+		while ((i < n)) {
+			region_enter(&____iter1);
+			{
+			    s = String_add(s,sl_str0);
+			    if ((i == 3)) {
+			        {String * ____ret = String_add(s,sl_str1); Region *____top = region_current; region_current = ____region.parent; ____ret = region_string(____ret->str, ____ret->length); region_unwind(____top, &____region); return ____ret;}
+			    }
+			    i = (i + 1);
+			}
+			region_next(&____loop1, &____next1);
+			if ( region_owned(&____iter1, &____loop1, s) ) s = region_string(s->str, s->length);
+			region_rotate(&____loop1, &____iter1, &____next1);
+		}
+		region_current = ____loop1.parent;
+		if ( region_owned(NULL, &____loop1, s) ) s = region_string(s->str, s->length);
+		region_free(&____loop1);
+	}
+	{String * ____ret = s; region_current = ____region.parent; ____ret = region_string(____ret->str, ____ret->length); region_free(&____region); return ____ret;}
+
+	region_exit(&____region);
+}
+
+PVector_ptr grow(int n)
+{
+	Region ____region;
+	region_enter(&____region);
+	union { PVector vector; char bytes[sizeof(PVector) + 2*sizeof(PVectorFatNode)]; } sv_9;
+	PVector_ptr v;
+	int i;
+	v = Vector_new((double *)vl_vec0, 2);
+	i = 0;
+	{
+		Region ____loop1, ____iter1, ____next1;
+		region_enter(&____loop1);
+		while ((i < n)) {
+			region_enter(&____iter1);
+			{
+			    int j;
+			    j = 0;
+			    {
+			    	Region ____loop2, ____iter2, ____next2;
+			    	region_enter(&____loop2);
+			    	while ((j < n)) {
+			    		region_enter(&____iter2);
+			    		{
+			    		    Vector_add_inplace(&v, stack_vector(&sv_9, vl_vec1, 2));
+			    		    j = (j + 1);
+			    		}
+			    		region_next(&____loop2, &____next2);
+			    		if ( region_owned(&____iter2, &____loop2, v.vector) ) v = region_PVector_copy(v);
+			    		region_rotate(&____loop2, &____iter2, &____next2);
+			    	}
+			    	region_current = ____loop2.parent;
+			    	if ( region_owned(NULL, &____loop2, v.vector) ) v = region_PVector_copy(v);
+			    	region_free(&____loop2);
+			    }
+			    i = (i + 1);
+			}
+			region_next(&____loop1, &____next1);
+			if ( region_owned(&____iter1, &____loop1, v.vector) ) v = region_PVector_copy(v);
+			region_rotate(&____loop1, &____iter1, &____next1);
+		}
+		region_current = ____loop1.parent;
+		if ( region_owned(NULL, &____loop1, v.vector) ) v = region_PVector_copy(v);
+		region_free(&____loop1);
+	}
+	{PVector_ptr ____ret = v; region_current = ____region.parent; ____ret = region_PVector_copy(____ret); region_free(&____region); return ____ret;}
+
+	region_exit(&____region);
+}
+
+
+int main(int ____c, char *____v[])
+{
+	setup_error_handlers();
+	union { PVector vector; char bytes[sizeof(PVector) + 3*sizeof(PVectorFatNode)]; } sv_18;
+	PVector_ptr v;
+	String * s;
+	int i;
+	union { String string; char bytes[sizeof(String) + sizeof(".")]; } ss_str0;
+	sl_str0 = stack_string(&ss_str0, ".", sizeof(".") - 1);
+	union { String string; char bytes[sizeof(String) + sizeof("!")]; } ss_str1;
+	sl_str1 = stack_string(&ss_str1, "!", sizeof("!") - 1);
+	sl_str2 = String_new("a");
+	union { String string; char bytes[sizeof(String) + sizeof("n")]; } ss_str3;
+	sl_str3 = stack_string(&ss_str3, "n", sizeof("n") - 1);
+	sl_str4 = String_new("ab");
+	v = Vector_new((double *)vl_vec2, 3);
+	s = sl_str2;
+	i = 0;
+	{
+		Region ____loop1, ____iter1, ____next1;
+		region_enter(&____loop1);
+		while ((i < 20000)) {
+			region_enter(&____iter1);
+			{
+			    PVector_ptr t;
+			    t = Vector_mul_scalar(Vector_new((double []){i,i,i}, 3),2);
+			    v = Vector_add(Vector_sub(Vector_add(v,t),t),stack_vector(&sv_18, vl_vec3, 3));
+			    s = String_concat_si(sl_str3,i);
+			    i = (i + 1);
+			}
+			region_next(&____loop1, &____next1);
+			if ( region_owned(&____iter1, &____loop1, v.vector) ) v = region_PVector_copy(v);
+			if ( region_owned(&____iter1, &____loop1, s) ) s = region_string(s->str, s->length);
+			region_rotate(&____loop1, &____iter1, &____next1);
+		}
+		region_current = ____loop1.parent;
+		if ( region_owned(NULL, &____loop1, v.vector) ) v = region_PVector_copy(v);
+		if ( region_owned(NULL, &____loop1, s) ) s = region_string(s->str, s->length);
+		region_free(&____loop1);
+	}
+	print_vector(v);
+	print_string(s);
+	print_string(pad(sl_str4,2));
+	print_string(pad(sl_str4,10));
+	print_vector(grow(3));
+	return 0;
+}
+
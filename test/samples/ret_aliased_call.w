@@ -0,0 +1,22 @@
+func id(s:string) : string {
+	return s
+}
+
+func same(v:[]) : [] {
+	return v
+}
+
+func g() : string {
+	var x = "a" + "b"
+	var t = id(x)
+	return t
+}
+
+func h() : [] {
+	var w = [1, 2] + [1, 2]
+	var u = same(w)
+	return u
+}
+
+print(g())
+print(h())
@@ -0,0 +1,17 @@
+func mkv(n : int) : [] {
+	var v = [n, n, n]
+	v[2] = 7
+	return v
+}
+
+func mks(n : int) : string {
+	var s = "s" + n
+	return s
+}
+
+var x = mkv(2)
+var y = mks(3)
+var z = mkv(5)
+print(x)
+print(y)
+print(x + z)
@@ -0,0 +1,11 @@
+func twice(v:[]) : [] {
+	return v * 2
+}
+
+var v = [2, 4, 8]
+var k = 1.5
+print(1 - v)
+print(16 / v)
+print(k - v)
+print(2.0 / [4, 8])
+print(10 - twice(v))
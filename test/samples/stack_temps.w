@@ -0,0 +1,37 @@
+func norm(v:[]) : float {
+	var d = v * v
+	var s = 0.0
+	var i = 1
+	while ( i <= len(d) ) {
+		s = s + d[i]
+		i = i + 1
+	}
+	return s
+}
+
+var x = [1, 2, 3]
+var y = [4, 5, 6]
+var z = x + y
+print(z * 2)
+print(2 - z)
+print(-z)
+print(z[2])
+print(len(z / y))
+print(norm(x))
+var i = 0
+var total = [0, 0, 0]
+while ( i < 3 ) {
+	var t = (x * y) - i
+	total = total + t
+	i = i + 1
+}
+print(total)
+var name = "wich"
+var greeting = "hello " + name
+print(greeting)
+print(len(greeting + "!"))
+var tag = "n" + i + "/" + 2.5
+print(tag)
+print(greeting == "hello wich")
+var label = "v" + x
+print(label)
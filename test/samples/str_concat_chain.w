@@ -0,0 +1,19 @@
+func label(name:string, n:int) : string {
+	return name + "#" + n + ":"
+}
+
+var s = "x"
+var i = 7
+var f = 2.5
+var v = [1, 2, 3]
+print(s + i + f + v)
+print(label("a", 1) + (s + "y") + ("z" + i))
+var t = ""
+var k = 0
+while ( k < 60 ) {
+	t = t + k + "," + s + "|"
+	k = k + 1
+}
+print(t)
+print(i + s)
+print(s + "!")
@@ -0,0 +1,41 @@
+func sum(v:[]) : float {
+	var s = 0.0
+	var i = 1
+	while ( i <= len(v) ) {
+		s = s + v[i]
+		i = i + 1
+	}
+	return s
+}
+
+func zero(v:[]) : [] {
+	v[1] = 0
+	return v
+}
+
+func same(v:[]) : [] {
+	var w = v
+	return w
+}
+
+func fresh() : [] {
+	var v = [7, 8, 9]
+	return v
+}
+
+var a = [1, 2, 3]
+print(sum(a))      // a isn't copied: sum doesn't write it
+var b = zero(a)    // a is copied: zero writes it, so the result is fresh
+print(a)
+print(b)
+var c = same(a)    // a isn't copied, but same(a) is: it is a
+var d = same(a)
+d[2] = 5
+print(a)
+print(d)
+var e = fresh()    // not copied
+e[1] = 1
+print(e)
+print(fresh())
+var f = a          // f and a share a vector: neither is written
+print(f)
@@ -0,0 +1,18 @@
+func neg(v:[]) : [] {
+	return -v
+}
+
+var v = [1, 2, 3]
+var w = [1, 2, 3]
+var u = [3, 2, 1]
+print(v == w)
+print(v != u)
+if (v == u) {
+	print("same")
+}
+else {
+	print("differ")
+}
+print(-v)
+print(-(v + u))
+print(neg(u) == -u)
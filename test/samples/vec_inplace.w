@@ -0,0 +1,23 @@
+func scale(n:int) : [] {
+	var v = [1, 2, 3]
+	var w = [2, 2, 2]
+	var i = 0
+	while ( i < n ) {
+		v = v * w          // v owns its vector: updated in place
+		i = i + 1
+	}
+	return v
+}
+
+var x = [1, 1, 1]
+var y = [1.5, 2.5, 3.5]
+x = x + y              // in place
+x = (x - [1, 1, 1])    // in place
+x = x / [2, 2, 2]      // in place
+print(x)
+var a = [1, 2, 3]
+var b = a              // a and b share a vector
+a = a + y              // so a gets a fresh one
+print(a)
+print(b)
+print(scale(3))
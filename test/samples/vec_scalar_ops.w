@@ -0,0 +1,10 @@
+func scale(v:[], k:float) : [] {
+	return v * k
+}
+
+var v = [2, 4, 8]
+var i = 2
+print(v - 1)
+print(v / i)
+print(i * v)
+print(scale(v, 0.5) + 0.25)